@@ -1,5 +1,7 @@
 package kr.co.kiyu.designpatterns;
 
+import java.util.Optional;
+
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
@@ -7,6 +9,8 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.snapshot.OrderSnapshotService;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,27 +24,34 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class DesignPatternsApplicationLifeCycle implements ApplicationRunner {
 
+    // 주문 스냅샷 (subway.order.snapshot.enabled=true 일 때만 존재)
+    private final Optional<OrderSnapshotService> orderSnapshotService;
+
     /**
 	 * Spring Bean이 생성된 후 실행
+	 * 주문 스냅샷 복원을 시작한다 (나머지 초기화와 겹쳐 진행)
 	 */
     @PostConstruct
     public void onInit() {
-
+        orderSnapshotService.ifPresent(OrderSnapshotService::startRestore);
     }
 
     /**
 	 * 애플리케이션이 완전히 시작된 후 실행
+	 * 주문 스냅샷 복원이 끝날 때까지 기다린 뒤 준비 완료로 넘어간다
 	 */
     @Override
 	public void run(ApplicationArguments args) throws Exception {
+		orderSnapshotService.ifPresent(OrderSnapshotService::awaitRestore);
 		log.info("디자인패턴의 세계로!!!");
 	}
 
     /**
 	 * Spring 애플리케이션이 종료되기 전에 호출
+	 * 진행 중인 주문을 스냅샷으로 내보낸다
 	 */
     @PreDestroy
     public void onDestroy() {
-
+        orderSnapshotService.ifPresent(OrderSnapshotService::exportOnShutdown);
     }
 }
@@ -1,8 +1,11 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
 
+import java.util.Collections;
+import java.util.List;
+
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.BreadType;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -12,6 +15,8 @@ import org.springframework.stereotype.Component;
  *
  * 샌드위치 주문 과정에서 빵 타입의 명령을 처리하는 책임을 가진 핸들러
  * 빵 타입 명령이 들어오면 해당 빵를 샌드위치에 추가하고, 이후 체인의 다음 핸들러로 책임을 전달
+ * (준비: 빵 선택과 굽기 / 조립: 샌드위치의 빵으로 지정)
+ * 같은 빵은 여러 주문 것을 한 판에 함께 굽는다 (묶음 키: 빵 이름)
  *
  * @author KIYU-IT
  * @date 2025. 4. 17.
@@ -20,29 +25,44 @@ import org.springframework.stereotype.Component;
 @Component
 public class BreadHandler extends SandwichHandler {
 
+    public BreadHandler() {
+        super(SandwichCommand.Type.BREAD);
+    }
+
+    @Override
+    public KitchenStationType getStation() {
+        return KitchenStationType.OVEN;
+    }
+
     @Override
-    protected boolean canHandle(SandwichCommand command) {
-        return command.getType() == SandwichCommand.Type.BREAD;
+    public Object getBatchKey(SandwichCommand command) {
+        return command.getValue().toUpperCase();
     }
 
     @Override
-    protected void apply(SandwichCommand command, SandwichDTO sandwich) {
+    protected SandwichAssembly prepare(SandwichCommand command) {
+        return prepareBatch(Collections.singletonList(command)).get(0);
+    }
+
+    @Override
+    protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
     	try {
-            String breadName = command.getValue().toUpperCase();
+            String breadName = commands.get(0).getValue().toUpperCase();
             BreadType bread = BreadType.valueOf(breadName);
 
-            log.info("🥖 [{}] 빵 선택 중...", bread.getBread());
-            Thread.sleep(800);
+            log.info("🥖 [{}] 빵 선택 중... ({}개)", bread.getBread(), commands.size());
+            pause(800);
 
-            log.info("🔥 [{}] 빵 굽는 중...", bread.getBread());
-            Thread.sleep(1200);
-
-            sandwich.setBread(bread);
+            log.info("🔥 [{}] 빵 굽는 중... ({}개)", bread.getBread(), commands.size());
+            pause(1200);
 
             log.info("✅ [{}] 빵 선택 및 조리 완료!", bread.getBread());
+
+            return Collections.nCopies(commands.size(), sandwich -> sandwich.setBread(bread));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.warn("⚠️ 빵 처리 중 인터럽트 발생");
+            return Collections.nCopies(commands.size(), SandwichAssembly.NONE);
         }
     }
 
@@ -1,10 +1,14 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.CheeseType;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
  *
  * 샌드위치 주문 과정에서 치즈 타입의 명령을 처리하는 책임을 가진 핸들러
  * 치즈 타입 명령이 들어오면 해당 치즈를 샌드위치에 추가하고, 이후 체인의 다음 핸들러로 책임을 전달
+ * (준비: 치즈 선택과 슬라이스 / 조립: 수량만큼 올림)
+ * 같은 치즈는 여러 주문 것을 한 번에 슬라이스하고 주문마다 수량대로 나눈다 (묶음 키: 치즈 이름)
  *
  * @author KIYU-IT
  * @date 2025. 4. 17.
@@ -21,29 +27,49 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class CheeseHandler extends SandwichHandler {
 
+    public CheeseHandler() {
+        super(SandwichCommand.Type.CHEESE);
+    }
+
+    @Override
+    public KitchenStationType getStation() {
+        return KitchenStationType.SLICER;
+    }
+
+    @Override
+    public Object getBatchKey(SandwichCommand command) {
+        return command.getValue().toUpperCase();
+    }
+
     @Override
-    protected boolean canHandle(SandwichCommand command) {
-        return command.getType() == SandwichCommand.Type.CHEESE;
+    protected SandwichAssembly prepare(SandwichCommand command) {
+        return prepareBatch(Collections.singletonList(command)).get(0);
     }
 
     @Override
-    protected void apply(SandwichCommand command, SandwichDTO sandwich) {
+    protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
     	try {
-            CheeseType cheese = CheeseType.valueOf(command.getValue().toUpperCase());
-            int quantity = command.getQuantity();
+            CheeseType cheese = CheeseType.valueOf(commands.get(0).getValue().toUpperCase());
+            int slices = commands.stream().mapToInt(SandwichCommand::getQuantity).sum();
 
             log.info("🧀 [{}] 치즈 선택 중...", cheese.getCheese());
-            Thread.sleep(600);
+            pause(600);
 
-            log.info("🔪 [{}] 치즈 슬라이스 중... ({}장)", cheese.getCheese(), quantity);
-            Thread.sleep(800);
+            log.info("🔪 [{}] 치즈 슬라이스 중... ({}장)", cheese.getCheese(), slices);
+            pause(800);
 
-            sandwich.getCheeses().put(cheese, sandwich.getCheeses().getOrDefault(cheese, 0) + quantity);
+            log.info("✅ [{}] 치즈 준비 완료!", cheese.getCheese());
 
-            log.info("✅ [{}] 치즈 추가 완료!", cheese.getCheese());
+            List<SandwichAssembly> assemblies = new ArrayList<>(commands.size());
+            for (SandwichCommand command : commands) {
+                int quantity = command.getQuantity();
+                assemblies.add(sandwich -> sandwich.getCheeses().put(cheese, sandwich.getCheeses().getOrDefault(cheese, 0) + quantity));
+            }
+            return assemblies;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.warn("⚠️ 치즈 처리 중 인터럽트 발생");
+            return Collections.nCopies(commands.size(), SandwichAssembly.NONE);
         }
     }
 
@@ -0,0 +1,22 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+
+/**
+ * 준비가 끝난 재료를 샌드위치에 올리는 조립 단계
+ *
+ * 핸들러의 prepare()가 시간이 걸리는 재료 준비(굽기, 세척, 슬라이스 등)를 마치고 돌려준다
+ * 조립은 샌드위치를 바꾸는 짧은 작업이며, 파이프라인이 레시피 순서대로 한 스레드에서 실행한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@FunctionalInterface
+public interface SandwichAssembly {
+
+    /** 올릴 것이 없음 (준비가 중단된 경우 등) */
+    SandwichAssembly NONE = sandwich -> { };
+
+    void assembleOnto(SandwichDTO sandwich);
+
+}
@@ -0,0 +1,140 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샌드위치 핸들러 디스패치 계획
+ *
+ * setNext()로 연결된 핸들러 체인을 한 번 훑어, 명령 유형별로 실행할 핸들러 배열을 미리 만들어 둔다
+ * 명령 하나를 처리할 때 체인의 모든 핸들러에 canHandle()을 묻는 대신,
+ * EnumMap에서 유형의 핸들러 배열을 꺼내 그 핸들러들만 실행한다
+ *
+ * 유형별 실행 순서 : PRE (getOrder 순) → MAIN (체인 연결 순) → POST (getOrder 순)
+ * - 같은 유형을 여러 핸들러가 처리하면 모두 실행되므로, 체인을 끝까지 따라가던 handle()과 결과가 같다
+ * - 실행 직전에 canHandle()을 한 번 더 확인하므로, 유형 외의 조건을 둔 핸들러도 그대로 동작한다
+ *
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드가 함께 써도 된다 (체인을 다시 연결하면 다시 컴파일해야 한다)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public final class SandwichDispatchPlan {
+
+    private static final SandwichHandler[] NO_HANDLERS = new SandwichHandler[0];
+
+    private static final Comparator<SandwichHandler> BY_ORDER = Comparator.comparingInt(SandwichHandler::getOrder);
+
+    /** 명령 유형 → 실행할 핸들러 (단계 순서대로) */
+    private final EnumMap<SandwichCommand.Type, SandwichHandler[]> routes;
+
+    private SandwichDispatchPlan(EnumMap<SandwichCommand.Type, SandwichHandler[]> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 체인의 첫 핸들러부터 next를 따라가며 디스패치 계획을 만든다.
+     *
+     * @param head 체인의 첫 핸들러
+     * @return 디스패치 계획
+     * @throws IllegalStateException 체인이 순환하는 경우
+     */
+    public static SandwichDispatchPlan compile(SandwichHandler head) {
+        List<SandwichHandler> chain = new ArrayList<>();
+        Set<SandwichHandler> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SandwichHandler handler = head; handler != null; handler = handler.getNext()) {
+            if (!visited.add(handler)) {
+                throw new IllegalStateException("샌드위치 핸들러 체인이 순환합니다: " + handler.getClass().getSimpleName());
+            }
+            chain.add(handler);
+        }
+        return compile(chain);
+    }
+
+    /**
+     * 체인 순서대로 나열한 핸들러로 디스패치 계획을 만든다.
+     *
+     * @param chain 체인 순서의 핸들러 목록
+     * @return 디스패치 계획
+     */
+    public static SandwichDispatchPlan compile(List<SandwichHandler> chain) {
+        EnumMap<SandwichCommand.Type, SandwichHandler[]> routes = new EnumMap<>(SandwichCommand.Type.class);
+        for (SandwichCommand.Type type : SandwichCommand.Type.values()) {
+            List<SandwichHandler> route = new ArrayList<>();
+            for (SandwichHandler.Stage stage : SandwichHandler.Stage.values()) {
+                List<SandwichHandler> staged = new ArrayList<>();
+                for (SandwichHandler handler : chain) {
+                    if (handler.getStage() == stage && handler.getHandledTypes().contains(type)) {
+                        staged.add(handler);
+                    }
+                }
+                if (stage != SandwichHandler.Stage.MAIN) {
+                    staged.sort(BY_ORDER); // 안정 정렬이므로 같은 순서면 체인 연결 순
+                }
+                route.addAll(staged);
+            }
+            routes.put(type, route.isEmpty() ? NO_HANDLERS : route.toArray(NO_HANDLERS));
+        }
+        return new SandwichDispatchPlan(routes);
+    }
+
+    /**
+     * 명령 유형의 핸들러들만 실행한다.
+     *
+     * @param command 조립 명령
+     * @param sandwich 조립 중인 샌드위치
+     */
+    public void dispatch(SandwichCommand command, SandwichDTO sandwich) {
+        SandwichHandler[] route = routes.get(command.getType());
+        if (route.length == 0) {
+            log.warn("⚠️ 처리할 핸들러가 없는 명령 - [{}] {}", command.getType(), command.getValue());
+            return;
+        }
+        for (SandwichHandler handler : route) {
+            if (handler.canHandle(command)) {
+                handler.apply(command, sandwich);
+            }
+        }
+    }
+
+    /**
+     * 명령 유형의 핸들러를 실행 순서대로 반환한다. (배열을 바꾸지 않는다)
+     *
+     * @param type 명령 유형
+     * @return 핸들러 배열
+     */
+    SandwichHandler[] getRoute(SandwichCommand.Type type) {
+        return routes.get(type);
+    }
+
+    /**
+     * 유형별 핸들러 구성을 로그용 문자열로 반환한다.
+     *
+     * @return 예: BREAD → BreadHandler, CHEESE → CheeseHandler
+     */
+    public String describe() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Map.Entry<SandwichCommand.Type, SandwichHandler[]> entry : routes.entrySet()) {
+            StringJoiner handlers = new StringJoiner(" → ");
+            for (SandwichHandler handler : entry.getValue()) {
+                handlers.add(handler.getClass().getSimpleName());
+            }
+            joiner.add(entry.getKey() + " → " + (entry.getValue().length == 0 ? "(없음)" : handlers.toString()));
+        }
+        return joiner.toString();
+    }
+
+}
@@ -1,7 +1,16 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
 
 /**
  * 샌드위치 조립 책임 연쇄 추상 핸들러
@@ -11,20 +20,77 @@ import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto
  * - `handle()` 메서드를 통해 현재 핸들러가 명령을 처리 가능한지 판단하여 실행하며,
  *   이후 다음 핸들러에게 책임을 위임
  *
- * 각 하위 핸들러 클래스는 `canHandle()`과 `apply()`를 구현하여 자신이 처리할 명령을 정의
+ * 각 하위 핸들러 클래스는 생성자로 처리할 명령 유형을 선언하고 `prepare()`를 구현한다
+ * - 유형은 여러 개를 선언할 수 있으며, 유형 외의 조건이 필요하면 `canHandle()`을 재정의
+ * - 본 처리(MAIN) 앞뒤에 끼우는 핸들러는 `getStage()`를 PRE/POST로, 같은 단계 안 순서는 `getOrder()`로 정한다
+ *
+ * 처리는 준비와 조립 두 단계로 나눈다
+ * - 준비(prepare) : 시간이 걸리는 재료 준비. 샌드위치를 건드리지 않으므로 다른 재료 준비와 동시에 실행될 수 있다
+ * - 조립(SandwichAssembly) : 준비가 끝난 재료를 샌드위치에 올리는 짧은 작업. 레시피 순서대로 실행된다
+ * - 다른 유형의 준비가 끝나야 시작할 수 있으면 `getPrepDependencies()`로 선언한다
+ * - 준비를 맡길 주방 스테이션(오븐, 슬라이서 등)은 `getStation()`으로 선언한다
+ * - 여러 주문의 같은 준비(같은 빵 굽기 등)를 한 번에 할 수 있으면 `getBatchKey()`와 `prepareBatch()`를 구현한다
+ * - 준비에 걸리는 시간은 `pause()`로 흉내 내며, subway.sandwich.prep.time-scale 배율로 늘리거나 줄인다 (0이면 기다리지 않음)
  *
+ * 빌더는 명령마다 체인 전체를 따라가지 않도록, 연결된 체인을 SandwichDispatchPlan으로 한 번 컴파일해 유형별로 바로 찾아간다
+ *
+ * @see SandwichDispatchPlan
+ * @see SandwichPipeline
  * @author KIYU-IT
  * @date 2025. 4. 17.
  */
 public abstract class SandwichHandler {
 
+    /**
+     * 핸들러 처리 단계
+     *
+     * 한 명령에 대해 PRE → MAIN → POST 순으로 실행된다
+     * MAIN은 체인에 연결된 순서, PRE/POST는 getOrder() 순서를 따른다
+     */
+    public enum Stage { PRE, MAIN, POST }
+
     protected SandwichHandler next;
 
+    private final Set<SandwichCommand.Type> handledTypes;
+
+    /** 준비 시간 배율 (1이면 선언한 시간 그대로, 0이면 기다리지 않음) */
+    private double prepTimeScale = 1.0;
+
+    protected SandwichHandler(SandwichCommand.Type... handledTypes) {
+        EnumSet<SandwichCommand.Type> types = EnumSet.noneOf(SandwichCommand.Type.class);
+        Collections.addAll(types, handledTypes);
+        this.handledTypes = Collections.unmodifiableSet(types);
+    }
+
     public SandwichHandler setNext(SandwichHandler next) {
         this.next = next;
         return next;
     }
 
+    public SandwichHandler getNext() {
+        return next;
+    }
+
+    /**
+     * 준비 시간 배율을 지정한다. 체인을 쓰기 전에 한 번만 호출한다.
+     *
+     * @param prepTimeScale 배율 (0 이상)
+     */
+    @Value("${subway.sandwich.prep.time-scale:1.0}")
+    public void setPrepTimeScale(double prepTimeScale) {
+        if (prepTimeScale < 0) {
+            throw new IllegalArgumentException("subway.sandwich.prep.time-scale은 0 이상이어야 합니다.");
+        }
+        this.prepTimeScale = prepTimeScale;
+    }
+
+    /**
+     * 명령을 체인을 따라 전달하며 처리한다.
+     * 모든 핸들러에 canHandle()을 묻는 기본 책임 연쇄 방식이며, 빌더는 SandwichDispatchPlan을 사용한다.
+     *
+     * @param command 조립 명령
+     * @param sandwich 조립 중인 샌드위치
+     */
     public void handle(SandwichCommand command, SandwichDTO sandwich) {
         if (canHandle(command)) {
             apply(command, sandwich);
@@ -34,8 +100,111 @@ public abstract class SandwichHandler {
         }
     }
 
-    protected abstract boolean canHandle(SandwichCommand command);
-    
-    protected abstract void apply(SandwichCommand command, SandwichDTO sandwich);
+    /**
+     * 이 핸들러가 처리하는 명령 유형을 반환한다.
+     *
+     * @return 명령 유형 (변경 불가)
+     */
+    public Set<SandwichCommand.Type> getHandledTypes() {
+        return handledTypes;
+    }
+
+    /**
+     * 처리 단계를 반환한다. 기본은 본 처리(MAIN)
+     *
+     * @return 처리 단계
+     */
+    public Stage getStage() {
+        return Stage.MAIN;
+    }
+
+    /**
+     * 같은 단계 안에서의 순서를 반환한다. (작을수록 먼저, PRE/POST 단계에서만 사용)
+     *
+     * @return 순서
+     */
+    public int getOrder() {
+        return 0;
+    }
+
+    /**
+     * 준비 작업을 맡길 주방 스테이션을 반환한다. 기본은 없음 (공용 준비 스레드에서 실행)
+     *
+     * @return 스테이션, 없으면 null
+     */
+    public KitchenStationType getStation() {
+        return null;
+    }
+
+    /**
+     * 준비를 시작하기 전에 끝나 있어야 하는 명령 유형을 반환한다. 기본은 없음
+     * 레시피에서 이 명령보다 앞에 있는 해당 유형 명령의 준비만 기다리므로 순환하지 않는다.
+     *
+     * @return 명령 유형
+     */
+    public Set<SandwichCommand.Type> getPrepDependencies() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * 여러 주문의 준비를 한 번에 묶을 수 있는 명령이면 묶음 키를 반환한다. 기본은 null (묶지 않음)
+     * 키가 같은 명령은 prepareBatch()로 한 번에 준비할 수 있어야 한다.
+     *
+     * @param command 조립 명령
+     * @return 묶음 키, 묶지 않으면 null
+     */
+    public Object getBatchKey(SandwichCommand command) {
+        return null;
+    }
+
+    protected boolean canHandle(SandwichCommand command) {
+        return handledTypes.contains(command.getType());
+    }
+
+    /**
+     * 명령을 바로 처리한다. (준비 후 곧바로 조립)
+     *
+     * @param command 조립 명령
+     * @param sandwich 조립 중인 샌드위치
+     */
+    protected void apply(SandwichCommand command, SandwichDTO sandwich) {
+        prepare(command).assembleOnto(sandwich);
+    }
+
+    /**
+     * 재료를 준비하고, 샌드위치에 올리는 조립 단계를 반환한다.
+     * 여러 스레드에서 동시에 호출될 수 있으므로 핸들러 필드에 상태를 두지 않는다.
+     *
+     * @param command 조립 명령
+     * @return 조립 단계
+     */
+    protected abstract SandwichAssembly prepare(SandwichCommand command);
+
+    /**
+     * 준비 작업 시간만큼 기다린다. 준비 시간 배율을 곱하며, 0이 되면 바로 돌아온다.
+     *
+     * @param millis 선언한 준비 시간(ms)
+     * @throws InterruptedException 기다리는 중 인터럽트된 경우
+     */
+    protected void pause(long millis) throws InterruptedException {
+        long scaled = Math.round(millis * prepTimeScale);
+        if (scaled > 0) {
+            Thread.sleep(scaled);
+        }
+    }
+
+    /**
+     * 묶음 키가 같은 명령들의 재료를 한 번에 준비한다. 기본은 명령마다 prepare()를 차례로 호출
+     *
+     * @param commands 묶음 키가 같은 조립 명령 (여러 주문의 것일 수 있다)
+     * @return 명령 순서대로의 조립 단계
+     */
+    protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
+        List<SandwichAssembly> assemblies = new ArrayList<>(commands.size());
+        for (SandwichCommand command : commands) {
+            assemblies.add(prepare(command));
+        }
+        return assemblies;
+    }
 
 }
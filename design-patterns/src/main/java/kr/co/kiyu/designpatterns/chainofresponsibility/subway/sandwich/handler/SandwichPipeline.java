@@ -0,0 +1,274 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SubwaySandwichBuilderByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen.SandwichKitchen;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샌드위치 조립 파이프라인
+ *
+ * 빵 → 치즈 → 야채 → 소스 핸들러 체인을 애플리케이션 시작 시 한 번 연결하고 디스패치 계획으로 컴파일해 둔다
+ * 이후에는 체인과 계획을 읽기만 하므로, 여러 요청 스레드가 잠금 없이 함께 쓴다
+ *
+ * 요청마다 newBuilder()로 자기만의 빌더 세션(명령 목록)을 만들어 명령을 모은 뒤 assemble()로 조립한다
+ * - 파이프라인 : 싱글톤, 불변 (핸들러 체인, 디스패치 계획, 주방)
+ * - 빌더 세션  : 요청마다 새로 만듦 (명령 목록만 가짐)
+ *
+ * 조립은 명령마다 준비 → 조립 두 단계로 이루어진 작업 그래프(DAG)로 실행한다 (subway.sandwich.prep.parallel)
+ * - 준비 : 서로 의존하지 않는 준비(빵 굽기, 야채 세척, 치즈 슬라이스, 소스 덜기)는 동시에 실행
+ *          핸들러가 선언한 주방 스테이션(SandwichKitchen)에 제출하며, 스테이션이 없는 핸들러는 공용 준비 스레드에서 실행
+ *          getPrepDependencies()를 선언한 핸들러는 레시피에서 앞선 해당 유형 명령의 준비가 끝난 뒤 시작
+ *          묶음 키가 있는 준비는 다른 주문의 같은 준비와 묶어 한 번에 실행 (subway.sandwich.batch, SandwichPrepBatcher)
+ * - 조립 : 요청 스레드가 레시피 순서대로 각 명령의 준비를 기다려 샌드위치에 올린다
+ * 따라서 조립 시간은 준비 시간의 합이 아니라 가장 긴 준비 경로(임계 경로)에 가까워진다
+ *
+ * 핸들러의 prepare()는 여러 스레드에서 동시에 호출되므로 핸들러 필드에 상태를 두지 않아야 한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class SandwichPipeline {
+
+    private final SandwichDispatchPlan dispatchPlan;
+
+    private final boolean parallel;
+
+    private final SandwichKitchen kitchen;
+
+    /** 스테이션을 선언하지 않은 핸들러의 준비 스레드 */
+    private final ExecutorService prepExecutor;
+
+    /** 주문 간 같은 준비 묶음 처리기, 묶지 않으면 null */
+    private final SandwichPrepBatcher batcher;
+
+    // Spring의 의존성 주입(DI)은 타입 기반 + 이름 기반으로 작동하므로 파라미터 이름과 같은 이름의 핸들러 Bean이 주입된다
+    public SandwichPipeline(SandwichHandler breadHandler,
+                            SandwichHandler cheeseHandler,
+                            SandwichHandler vegetableHandler,
+                            SandwichHandler sauceHandler,
+                            SandwichKitchen kitchen,
+                            @Value("${subway.sandwich.prep.parallel:true}") boolean parallel,
+                            @Value("${subway.sandwich.prep.threads:4}") int prepThreads,
+                            @Value("${subway.sandwich.batch.enabled:true}") boolean batchEnabled,
+                            @Value("${subway.sandwich.batch.window-ms:50}") long batchWindowMs,
+                            @Value("${subway.sandwich.batch.max-size:8}") int batchMaxSize) {
+        log.info("🔗 핸들러 체인 구성: Bread → Cheese → Vegetable → Sauce");
+
+        breadHandler.setNext(cheeseHandler)
+                    .setNext(vegetableHandler)
+                    .setNext(sauceHandler);
+
+        this.dispatchPlan = SandwichDispatchPlan.compile(breadHandler);
+        this.kitchen = kitchen;
+        this.parallel = parallel;
+
+        if (parallel) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.prepExecutor = Executors.newFixedThreadPool(Math.max(1, prepThreads), runnable -> {
+                Thread thread = new Thread(runnable, "sandwich-prep-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.prepExecutor = null;
+        }
+
+        if (parallel && batchEnabled && batchWindowMs > 0 && batchMaxSize > 1) {
+            this.batcher = new SandwichPrepBatcher(batchWindowMs, batchMaxSize);
+        } else {
+            this.batcher = null;
+        }
+
+        log.info("🗺️ 핸들러 디스패치 계획: {} (재료 준비: {})", dispatchPlan.describe(),
+                !parallel ? "순차"
+                        : batcher != null ? "주방 스테이션, 주문 간 묶음 " + batchWindowMs + "ms/최대 " + batchMaxSize + "건"
+                        : "주방 스테이션");
+    }
+
+    @PreDestroy
+    public void close() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        if (prepExecutor != null) {
+            prepExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 요청 하나를 위한 빌더 세션을 만든다.
+     *
+     * @return 새 빌더 (다른 스레드와 공유하지 않는다)
+     */
+    public SubwaySandwichBuilderByChainOfResponsibility newBuilder() {
+        return new SubwaySandwichBuilderByChainOfResponsibility(this);
+    }
+
+    /**
+     * 명령을 실행해 샌드위치를 조립한다. 샌드위치에는 레시피 순서대로 올린다.
+     *
+     * @param commands 조립 명령 (레시피 순서)
+     * @return 조립된 샌드위치
+     */
+    public SandwichDTO assemble(List<SandwichCommand> commands) {
+        log.info("🛠️ 샌드위치 조립 시작 - 총 {}개의 명령 처리 예정", commands.size());
+        long start = System.currentTimeMillis();
+
+        SandwichDTO sandwich = SandwichDTO.builder()
+            .cheeses(new HashMap<>())
+            .vegetables(new ArrayList<>())
+            .sauces(new HashSet<>())
+            .build();
+
+        if (parallel) {
+            assembleWithParallelPrep(commands, sandwich, start);
+        } else {
+            int step = 1;
+
+            for (SandwichCommand command : commands) {
+                log.info("➡️ Step {}: 명령 실행 - [{}] {} x{}", step++, command.getType(), command.getValue(), command.getQuantity());
+                dispatchPlan.dispatch(command, sandwich);
+            }
+
+            log.info("⏱️ [순차] 샌드위치 조립 소요 시간: {}ms", System.currentTimeMillis() - start);
+        }
+
+        log.info("✅ 샌드위치 조립 완료: {}", sandwich.toTextSummary());
+
+        return sandwich;
+    }
+
+    /**
+     * 준비 작업을 모두 먼저 시작해 두고, 레시피 순서대로 준비가 끝나는 대로 조립한다.
+     */
+    private void assembleWithParallelPrep(List<SandwichCommand> commands, SandwichDTO sandwich, long start) {
+        List<PrepNode> nodes = new ArrayList<>();
+        AtomicLong prepMillis = new AtomicLong();
+
+        try {
+            for (SandwichCommand command : commands) {
+                SandwichHandler[] route = dispatchPlan.getRoute(command.getType());
+                if (route.length == 0) {
+                    log.warn("⚠️ 처리할 핸들러가 없는 명령 - [{}] {}", command.getType(), command.getValue());
+                    continue;
+                }
+                for (SandwichHandler handler : route) {
+                    if (handler.canHandle(command)) {
+                        CompletableFuture<?>[] dependencies = findDependencies(nodes, handler.getPrepDependencies());
+                        nodes.add(new PrepNode(command, startPrep(handler, command, dependencies, prepMillis)));
+                    }
+                }
+            }
+
+            log.info("🕸️ 재료 준비 {}개 시작 - 조립은 레시피 순서대로 진행", nodes.size());
+
+            int step = 1;
+            for (PrepNode node : nodes) {
+                SandwichCommand command = node.command;
+                SandwichAssembly assembly = await(node.prepared);
+                log.info("➡️ Step {}: 조립 - [{}] {} x{}", step++, command.getType(), command.getValue(), command.getQuantity());
+                assembly.assembleOnto(sandwich);
+            }
+        } catch (RuntimeException e) {
+            // 실패한 주문의 남은 준비는 취소해 스테이션 대기열에서 다른 주문의 자리를 차지하지 않게 한다
+            nodes.forEach(node -> node.prepared.cancel(false));
+            throw e;
+        }
+
+        log.info("⏱️ [주방 스테이션] 샌드위치 조립 소요 시간: {}ms (준비 시간 합계 {}ms)",
+                System.currentTimeMillis() - start, prepMillis.get());
+    }
+
+    private CompletableFuture<SandwichAssembly> startPrep(SandwichHandler handler, SandwichCommand command,
+                                                          CompletableFuture<?>[] dependencies, AtomicLong prepMillis) {
+        Executor executor = handler.getStation() != null ? kitchen.getStation(handler.getStation()) : prepExecutor;
+        if (dependencies.length == 0) {
+            Object batchKey = batcher != null ? handler.getBatchKey(command) : null;
+            if (batchKey != null) {
+                return batcher.submit(handler, batchKey, command, executor, prepMillis);
+            }
+            return CompletableFuture.supplyAsync(() -> prepare(handler, command, prepMillis), executor);
+        }
+        return CompletableFuture.allOf(dependencies)
+                .thenApplyAsync(ignored -> prepare(handler, command, prepMillis), executor);
+    }
+
+    private static SandwichAssembly prepare(SandwichHandler handler, SandwichCommand command, AtomicLong prepMillis) {
+        long start = System.currentTimeMillis();
+        try {
+            return handler.prepare(command);
+        } finally {
+            prepMillis.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 앞서 시작한 준비 중 의존하는 유형의 것을 찾는다. (레시피 앞쪽만 보므로 순환하지 않는다)
+     */
+    private static CompletableFuture<?>[] findDependencies(List<PrepNode> nodes, Set<SandwichCommand.Type> types) {
+        if (types.isEmpty()) {
+            return new CompletableFuture<?>[0];
+        }
+        List<CompletableFuture<?>> dependencies = new ArrayList<>();
+        for (PrepNode node : nodes) {
+            if (types.contains(node.command.getType())) {
+                dependencies.add(node.prepared);
+            }
+        }
+        return dependencies.toArray(new CompletableFuture<?>[0]);
+    }
+
+    /**
+     * 준비 결과를 기다린다. 준비 중 발생한 예외는 순차 처리 때와 같은 예외로 다시 던진다.
+     */
+    private static SandwichAssembly await(CompletableFuture<SandwichAssembly> prepared) {
+        try {
+            return prepared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 명령 하나를 핸들러 하나가 준비하는 작업
+     */
+    private static final class PrepNode {
+
+        private final SandwichCommand command;
+
+        private final CompletableFuture<SandwichAssembly> prepared;
+
+        private PrepNode(SandwichCommand command, CompletableFuture<SandwichAssembly> prepared) {
+            this.command = command;
+            this.prepared = prepared;
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 간 준비 묶음 처리기
+ *
+ * 여러 주문에서 짧은 시간(window-ms) 안에 들어온 같은 준비(핸들러와 묶음 키가 같은 명령)를 모아
+ * 핸들러의 prepareBatch()로 한 번에 준비하고, 결과를 기다리던 주문마다 나누어 돌려준다
+ * - 묶음은 첫 명령이 들어올 때 열리고, max-size가 차거나 window-ms가 지나면 닫혀 스테이션에 제출된다
+ * - 따라서 늘어나는 지연은 최대 window-ms이며, 묶음이 차면 기다리지 않고 바로 제출한다
+ *
+ * 스테이션 대기열이 가득 차 제출하지 못하면 묶음에 든 모든 주문의 준비가 같은 예외로 실패한다
+ * - 가득 찬 묶음은 마지막 명령을 넣은 요청 스레드가 제출한다 (묶지 않는 준비처럼 빈자리를 기다린다)
+ * - 시간이 지난 묶음은 타이머 스레드가 아니라 제출 스레드에 넘긴다
+ *   타이머는 하나뿐이므로, 한 스테이션의 빈자리를 기다리는 동안 다른 묶음이 제때 닫히지 못하기 때문이다
+ *
+ * @see SandwichHandler#getBatchKey(SandwichCommand)
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+final class SandwichPrepBatcher {
+
+    private final long windowMs;
+
+    private final int maxSize;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    /** 시간이 지난 묶음을 스테이션에 제출하는 스레드 (빈자리를 기다리는 동안 막혀도 된다) */
+    private final ExecutorService dispatcher;
+
+    /** 핸들러별, 묶음 키별로 아직 제출하지 않은 묶음 */
+    private final Map<SandwichHandler, Map<Object, Batch>> openBatches = new IdentityHashMap<>();
+
+    SandwichPrepBatcher(long windowMs, int maxSize) {
+        this.windowMs = windowMs;
+        this.maxSize = maxSize;
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sandwich-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sandwich-batch-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 준비를 묶음에 넣는다.
+     *
+     * @param handler 준비할 핸들러
+     * @param key 묶음 키 (null 아님)
+     * @param command 조립 명령
+     * @param executor 묶음을 실행할 스테이션
+     * @param prepMillis 묶음 준비 시간을 더할 주문의 준비 시간 합계
+     * @return 이 명령의 조립 단계
+     */
+    CompletableFuture<SandwichAssembly> submit(SandwichHandler handler, Object key, SandwichCommand command,
+                                               Executor executor, AtomicLong prepMillis) {
+        Entry entry = new Entry(command, prepMillis);
+        Batch full = null;
+
+        synchronized (this) {
+            Map<Object, Batch> byKey = openBatches.computeIfAbsent(handler, h -> new HashMap<>());
+            Batch batch = byKey.get(key);
+            if (batch == null) {
+                Batch opened = new Batch(handler, key, executor);
+                opened.timeout = timer.schedule(() -> closeOnTimeout(opened), windowMs, TimeUnit.MILLISECONDS);
+                byKey.put(key, opened);
+                batch = opened;
+            }
+            batch.entries.add(entry);
+            if (batch.entries.size() >= maxSize) {
+                byKey.remove(key);
+                batch.timeout.cancel(false);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return entry.prepared;
+    }
+
+    private void closeOnTimeout(Batch batch) {
+        synchronized (this) {
+            Map<Object, Batch> byKey = openBatches.get(batch.handler);
+            if (byKey == null || byKey.get(batch.key) != batch) {
+                return; // 이미 가득 차서 제출됨
+            }
+            byKey.remove(batch.key);
+        }
+        try {
+            dispatcher.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.entries.forEach(entry -> entry.prepared.completeExceptionally(e));
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            batch.executor.execute(() -> prepare(batch));
+        } catch (RejectedExecutionException e) {
+            batch.entries.forEach(entry -> entry.prepared.completeExceptionally(e));
+        }
+    }
+
+    private static void prepare(Batch batch) {
+        // 주문이 실패해 취소된 명령은 빼고 준비한다
+        List<Entry> entries = new ArrayList<>(batch.entries.size());
+        List<SandwichCommand> commands = new ArrayList<>(batch.entries.size());
+        for (Entry entry : batch.entries) {
+            if (!entry.prepared.isDone()) {
+                entries.add(entry);
+                commands.add(entry.command);
+            }
+        }
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        if (commands.size() > 1) {
+            log.info("📦 [{}] 주문 {}건의 준비를 한 번에 처리", batch.key, commands.size());
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            List<SandwichAssembly> assemblies = batch.handler.prepareBatch(commands);
+            long elapsed = System.currentTimeMillis() - start;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                entry.prepMillis.addAndGet(elapsed);
+                entry.prepared.complete(assemblies.get(i));
+            }
+        } catch (RuntimeException e) {
+            entries.forEach(entry -> entry.prepared.completeExceptionally(e));
+        }
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * 같은 준비를 기다리는 명령 묶음
+     */
+    private static final class Batch {
+
+        private final SandwichHandler handler;
+
+        private final Object key;
+
+        private final Executor executor;
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        private ScheduledFuture<?> timeout;
+
+        private Batch(SandwichHandler handler, Object key, Executor executor) {
+            this.handler = handler;
+            this.key = key;
+            this.executor = executor;
+        }
+
+    }
+
+    /**
+     * 묶음에 든 주문 하나의 명령
+     */
+    private static final class Entry {
+
+        private final SandwichCommand command;
+
+        private final AtomicLong prepMillis;
+
+        private final CompletableFuture<SandwichAssembly> prepared = new CompletableFuture<>();
+
+        private Entry(SandwichCommand command, AtomicLong prepMillis) {
+            this.command = command;
+            this.prepMillis = prepMillis;
+        }
+
+    }
+
+}
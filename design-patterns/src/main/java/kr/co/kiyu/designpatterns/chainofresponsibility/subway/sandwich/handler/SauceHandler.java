@@ -1,9 +1,12 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.SauceType;
 
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
  *
  * 샌드위치 주문 과정에서 소스 타입의 명령을 처리하는 책임을 가진 핸들러
  * 소스 타입 명령이 들어오면 해당 소스를 샌드위치에 추가하고, 이후 체인의 다음 핸들러로 책임을 전달
+ * (준비: 소스 선택과 덜기 / 조립: 뿌리기)
+ * 같은 소스는 여러 주문 것을 한 번에 덜어 둔다 (묶음 키: 소스 이름)
  *
  * @author KIYU-IT
  * @date 2025. 4. 17.
@@ -21,28 +26,43 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class SauceHandler extends SandwichHandler {
 
+    public SauceHandler() {
+        super(SandwichCommand.Type.SAUCE);
+    }
+
+    @Override
+    public KitchenStationType getStation() {
+        return KitchenStationType.SAUCE;
+    }
+
+    @Override
+    public Object getBatchKey(SandwichCommand command) {
+        return command.getValue().toUpperCase();
+    }
+
     @Override
-    protected boolean canHandle(SandwichCommand command) {
-        return command.getType() == SandwichCommand.Type.SAUCE;
+    protected SandwichAssembly prepare(SandwichCommand command) {
+        return prepareBatch(Collections.singletonList(command)).get(0);
     }
 
     @Override
-    protected void apply(SandwichCommand command, SandwichDTO sandwich) {
+    protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
     	try {
-            SauceType sauce = SauceType.valueOf(command.getValue().toUpperCase());
+            SauceType sauce = SauceType.valueOf(commands.get(0).getValue().toUpperCase());
 
-            log.info("🧂 [{}] 소스 선택 중...", sauce.getSauce());
-            Thread.sleep(300);
+            log.info("🧂 [{}] 소스 선택 중... ({}인분)", sauce.getSauce(), commands.size());
+            pause(300);
 
-            log.info("🥄 [{}] 소스 뿌리는 중...", sauce.getSauce());
-            Thread.sleep(300);
+            log.info("🥄 [{}] 소스 덜어 두는 중...", sauce.getSauce());
+            pause(300);
 
-            sandwich.getSauces().add(sauce);
+            log.info("✅ [{}] 소스 준비 완료!", sauce.getSauce());
 
-            log.info("✅ [{}] 소스 추가 완료!", sauce.getSauce());
+            return Collections.nCopies(commands.size(), sandwich -> sandwich.getSauces().add(sauce));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.warn("⚠️ 소스 처리 중 인터럽트 발생");
+            return Collections.nCopies(commands.size(), SandwichAssembly.NONE);
         }
 
     }
@@ -1,10 +1,13 @@
 
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.VegetableType;
 
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
  *
  * 샌드위치 주문 과정에서 야채 타입의 명령을 처리하는 책임을 가진 핸들러
  * 야채 타입 명령이 들어오면 해당 야채를 샌드위치에 추가하고, 이후 체인의 다음 핸들러로 책임을 전달
+ * (준비: 손질, 세척, 썰기 / 조립: 토핑)
+ * 같은 야채는 여러 주문 것을 한 번에 손질한다 (묶음 키: 야채 이름)
  *
  * @author KIYU-IT
  * @date 2025. 4. 17.
@@ -22,31 +27,46 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class VegetableHandler extends SandwichHandler {
 
+    public VegetableHandler() {
+        super(SandwichCommand.Type.VEGETABLE);
+    }
+
+    @Override
+    public KitchenStationType getStation() {
+        return KitchenStationType.VEG_PREP;
+    }
+
+    @Override
+    public Object getBatchKey(SandwichCommand command) {
+        return command.getValue().toUpperCase();
+    }
+
     @Override
-    protected boolean canHandle(SandwichCommand command) {
-        return command.getType() == SandwichCommand.Type.VEGETABLE;
+    protected SandwichAssembly prepare(SandwichCommand command) {
+        return prepareBatch(Collections.singletonList(command)).get(0);
     }
 
     @Override
-    protected void apply(SandwichCommand command, SandwichDTO sandwich) {
+    protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
     	try {
-            VegetableType vegetable = VegetableType.valueOf(command.getValue().toUpperCase());
+            VegetableType vegetable = VegetableType.valueOf(commands.get(0).getValue().toUpperCase());
 
-            log.info("🥬 [{}] 야채 준비 중...", vegetable.getVegetable());
-            Thread.sleep(400);
+            log.info("🥬 [{}] 야채 준비 중... ({}인분)", vegetable.getVegetable(), commands.size());
+            pause(400);
 
             log.info("💦 [{}] 야채 세척 중...", vegetable.getVegetable());
-            Thread.sleep(500);
+            pause(500);
 
-            log.info("🌿 [{}] 샌드위치에 토핑 중...", vegetable.getVegetable());
-            Thread.sleep(500);
+            log.info("🌿 [{}] 토핑용으로 써는 중...", vegetable.getVegetable());
+            pause(500);
 
-            sandwich.getVegetables().add(vegetable);
+            log.info("✅ [{}] 야채 준비 완료!", vegetable.getVegetable());
 
-            log.info("✅ [{}] 야채 추가 완료!", vegetable.getVegetable());
+            return Collections.nCopies(commands.size(), sandwich -> sandwich.getVegetables().add(vegetable));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.warn("⚠️ 야채 처리 중 인터럽트 발생");
+            return Collections.nCopies(commands.size(), SandwichAssembly.NONE);
         }
 
     }
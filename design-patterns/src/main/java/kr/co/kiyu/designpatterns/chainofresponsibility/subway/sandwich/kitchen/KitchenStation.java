@@ -0,0 +1,146 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.KitchenStationStatsDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
+
+/**
+ * 주방 스테이션
+ *
+ * 작업자 수(capacity)만큼의 스레드와 크기가 정해진 대기열을 가진 실행기
+ * 모든 주문의 같은 종류 준비 작업(굽기, 슬라이스 등)이 이 스테이션 하나를 함께 쓴다
+ *
+ * 대기열이 가득 차면 제출한 스레드가 submit-timeout-ms까지 빈자리를 기다리고,
+ * 그래도 자리가 없으면 RejectedExecutionException으로 작업을 받지 않는다 (무한히 쌓이지 않음)
+ *
+ * 작업마다 대기 시간(제출 → 시작)과 처리 시간을 재어 대기열 길이, 가동률, 대기 시간 분위수를 제공한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public class KitchenStation implements Executor {
+
+    private final KitchenStationType type;
+
+    private final int capacity;
+
+    private final int queueCapacity;
+
+    private final long submitTimeoutMs;
+
+    private final ThreadPoolExecutor executor;
+
+    private final KitchenWaitHistogram waitHistogram = new KitchenWaitHistogram();
+
+    private final AtomicInteger busy = new AtomicInteger();
+
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final long startedAtNanos = System.nanoTime();
+
+    public KitchenStation(KitchenStationType type, int capacity, int queueCapacity, long submitTimeoutMs) {
+        if (capacity < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException(type.getStation() + " 작업자 수와 대기열 크기는 1 이상이어야 합니다: "
+                    + capacity + ", " + queueCapacity);
+        }
+        this.type = type;
+        this.capacity = capacity;
+        this.queueCapacity = queueCapacity;
+        this.submitTimeoutMs = submitTimeoutMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(capacity, capacity, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kitchen-" + type.getKey() + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                this::waitForRoom);
+    }
+
+    /**
+     * 작업을 스테이션 대기열에 넣는다.
+     *
+     * @param task 준비 작업
+     * @throws RejectedExecutionException submit-timeout-ms 동안 대기열에 자리가 나지 않은 경우
+     */
+    @Override
+    public void execute(Runnable task) {
+        long enqueuedAt = System.nanoTime();
+        executor.execute(() -> run(task, enqueuedAt));
+    }
+
+    private void run(Runnable task, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        waitHistogram.record(startedAt - enqueuedAt);
+        busy.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            busy.decrementAndGet();
+            busyNanos.add(System.nanoTime() - startedAt);
+            completed.increment();
+        }
+    }
+
+    /**
+     * 대기열이 가득 찼을 때 빈자리를 기다린다. (back-pressure)
+     */
+    private void waitForRoom(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException(type.getStation() + " 스테이션이 종료되었습니다");
+        }
+        try {
+            if (pool.getQueue().offer(task, submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new RejectedExecutionException(type.getStation() + " 대기열이 가득 찼습니다 (" + queueCapacity + "건)");
+    }
+
+    public KitchenStationType getType() {
+        return type;
+    }
+
+    /**
+     * 스테이션 지표를 반환한다.
+     *
+     * @return 스테이션 지표
+     */
+    public KitchenStationStatsDTO getStats() {
+        long elapsedNanos = Math.max(1L, System.nanoTime() - startedAtNanos);
+        return KitchenStationStatsDTO.builder()
+                .station(type)
+                .capacity(capacity)
+                .queueCapacity(queueCapacity)
+                .queued(executor.getQueue().size())
+                .busy(busy.get())
+                .completed(completed.sum())
+                .rejected(rejected.sum())
+                .utilization(Math.min(1.0, busyNanos.sum() / ((double) capacity * elapsedNanos)))
+                .waitP50Ms(waitHistogram.quantileMillis(0.50))
+                .waitP90Ms(waitHistogram.quantileMillis(0.90))
+                .waitP99Ms(waitHistogram.quantileMillis(0.99))
+                .build();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
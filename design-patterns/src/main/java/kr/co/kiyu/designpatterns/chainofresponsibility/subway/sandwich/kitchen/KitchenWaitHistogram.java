@@ -0,0 +1,65 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 스테이션 대기 시간 히스토그램
+ *
+ * 대기 시간(µs)을 10%씩 커지는 로그 간격 칸에 센다. 칸 수가 고정이라 작업이 늘어도 메모리가 그대로이고,
+ * 칸마다 원자적으로 더하므로 여러 작업자가 잠금 없이 기록한다
+ * 분위수는 칸의 가운데 값으로 돌려주므로 상대 오차는 약 ±5%이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class KitchenWaitHistogram {
+
+    private static final double GROWTH = 1.1;
+
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    /** 1µs 미만 칸 + 1.1^254 µs(약 3.5일)까지 */
+    private static final int BUCKETS = 256;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * 대기 시간을 기록한다.
+     *
+     * @param nanos 대기 시간 (ns)
+     */
+    void record(long nanos) {
+        long micros = nanos / 1000;
+        int index = micros < 1 ? 0 : Math.min(BUCKETS - 1, 1 + (int) (Math.log(micros) / LOG_GROWTH));
+        counts.incrementAndGet(index);
+    }
+
+    /**
+     * 분위수를 반환한다.
+     *
+     * @param q 분위 (0 ~ 1)
+     * @return 대기 시간 (ms), 기록이 없으면 0
+     */
+    double quantileMillis(double q) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                double micros = i == 0 ? 0 : Math.pow(GROWTH, i - 1) * (1 + GROWTH) / 2;
+                return micros / 1000.0;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,86 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.KitchenStationStatsDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샌드위치 주방
+ *
+ * 오븐, 슬라이서, 야채 준비대, 소스대 스테이션을 두고 모든 주문이 함께 쓴다
+ * 핸들러는 getStation()으로 자기 준비 작업을 맡길 스테이션을 선언하며,
+ * 파이프라인이 준비 작업을 그 스테이션에 제출한다
+ *
+ * 요청 스레드가 자기 주문의 준비를 모두 하지 않으므로, 주문 N이 소스대에 있는 동안 주문 N+1의 빵이 오븐에서 구워진다
+ * 주방 처리량은 요청 스레드 수가 아니라 스테이션별 작업자 수로 정해진다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class SandwichKitchen {
+
+    private final EnumMap<KitchenStationType, KitchenStation> stations = new EnumMap<>(KitchenStationType.class);
+
+    public SandwichKitchen(@Value("${subway.sandwich.kitchen.oven.capacity:4}") int ovenCapacity,
+                           @Value("${subway.sandwich.kitchen.oven.queue-size:64}") int ovenQueueSize,
+                           @Value("${subway.sandwich.kitchen.slicer.capacity:2}") int slicerCapacity,
+                           @Value("${subway.sandwich.kitchen.slicer.queue-size:64}") int slicerQueueSize,
+                           @Value("${subway.sandwich.kitchen.veg-prep.capacity:10}") int vegPrepCapacity,
+                           @Value("${subway.sandwich.kitchen.veg-prep.queue-size:128}") int vegPrepQueueSize,
+                           @Value("${subway.sandwich.kitchen.sauce.capacity:2}") int sauceCapacity,
+                           @Value("${subway.sandwich.kitchen.sauce.queue-size:64}") int sauceQueueSize,
+                           @Value("${subway.sandwich.kitchen.submit-timeout-ms:5000}") long submitTimeoutMs) {
+        stations.put(KitchenStationType.OVEN,
+                new KitchenStation(KitchenStationType.OVEN, ovenCapacity, ovenQueueSize, submitTimeoutMs));
+        stations.put(KitchenStationType.SLICER,
+                new KitchenStation(KitchenStationType.SLICER, slicerCapacity, slicerQueueSize, submitTimeoutMs));
+        stations.put(KitchenStationType.VEG_PREP,
+                new KitchenStation(KitchenStationType.VEG_PREP, vegPrepCapacity, vegPrepQueueSize, submitTimeoutMs));
+        stations.put(KitchenStationType.SAUCE,
+                new KitchenStation(KitchenStationType.SAUCE, sauceCapacity, sauceQueueSize, submitTimeoutMs));
+
+        log.info("👩‍🍳 주방 스테이션 구성 - 오븐 {}, 슬라이서 {}, 야채 준비대 {}, 소스대 {} (작업자 수)",
+                ovenCapacity, slicerCapacity, vegPrepCapacity, sauceCapacity);
+    }
+
+    /**
+     * 스테이션을 반환한다.
+     *
+     * @param type 스테이션 종류
+     * @return 스테이션
+     */
+    public KitchenStation getStation(KitchenStationType type) {
+        return stations.get(type);
+    }
+
+    /**
+     * 모든 스테이션의 지표를 반환한다.
+     *
+     * @return 스테이션 순서대로의 지표
+     */
+    public List<KitchenStationStatsDTO> getStats() {
+        List<KitchenStationStatsDTO> stats = new ArrayList<>(stations.size());
+        for (KitchenStation station : stations.values()) {
+            stats.add(station.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        stations.values().forEach(KitchenStation::shutdown);
+    }
+
+}
@@ -0,0 +1,61 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주방 스테이션 지표 DTO
+ *
+ * 가동률과 대기 시간 분위수는 스테이션을 만든 뒤 누적한 값이다
+ * 대기열이 길고 가동률이 1에 가까운 스테이션이 병목이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주방 스테이션 지표 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class KitchenStationStatsDTO {
+
+    @Schema(description = "스테이션", example = "OVEN")
+    private KitchenStationType station;
+
+    @Schema(description = "동시에 처리할 수 있는 작업 수 (작업자 수)")
+    private int capacity;
+
+    @Schema(description = "대기열 크기")
+    private int queueCapacity;
+
+    @Schema(description = "대기열에서 기다리는 작업 수")
+    private int queued;
+
+    @Schema(description = "처리 중인 작업 수")
+    private int busy;
+
+    @Schema(description = "처리를 마친 작업 수")
+    private long completed;
+
+    @Schema(description = "대기열이 가득 차 받지 못한 작업 수")
+    private long rejected;
+
+    @Schema(description = "가동률 (처리 시간 합 / (작업자 수 x 경과 시간), 0 ~ 1)")
+    private double utilization;
+
+    @Schema(description = "대기 시간 중앙값 (ms)")
+    private double waitP50Ms;
+
+    @Schema(description = "대기 시간 90% 분위 (ms)")
+    private double waitP90Ms;
+
+    @Schema(description = "대기 시간 99% 분위 (ms)")
+    private double waitP99Ms;
+
+}
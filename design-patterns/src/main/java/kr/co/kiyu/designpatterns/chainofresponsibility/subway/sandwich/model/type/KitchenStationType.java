@@ -0,0 +1,31 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 주방 스테이션 종류
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주방 스테이션 종류")
+public enum KitchenStationType {
+
+    OVEN("오븐", "oven"),
+    SLICER("슬라이서", "slicer"),
+    VEG_PREP("야채 준비대", "veg-prep"),
+    SAUCE("소스대", "sauce");
+
+    @Getter
+    private final String station;
+
+    /** 설정 키와 스레드 이름에 쓰는 이름 */
+    @Getter
+    private final String key;
+
+    KitchenStationType(String station, String key) {
+        this.station = station;
+        this.key = key;
+    }
+
+}
@@ -0,0 +1,34 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.order;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 책임 연쇄 패턴 - 서브웨이 주방 과부하 응답
+ *
+ * 주방 스테이션 대기열이 가득 차 주문을 받을 수 없으면 503 + Retry-After로 응답한다
+ * 샌드위치 주문뿐 아니라 같은 파이프라인으로 샌드위치를 만드는 세트 주문에도 적용한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@RestControllerAdvice(basePackages = "kr.co.kiyu.designpatterns.chainofresponsibility.subway")
+public class SubwayKitchenExceptionHandler {
+
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<String> kitchenFull(RejectedExecutionException e) {
+	    log.warn("🚫 주방이 가득 차 주문을 받지 못했습니다: {}", e.getMessage());
+	    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+	            .header(HttpHeaders.RETRY_AFTER, "1")
+	            .body("주방이 붐벼 주문을 받을 수 없습니다. 잠시 후 다시 시도해 주세요. (" + e.getMessage() + ")");
+	}
+
+}
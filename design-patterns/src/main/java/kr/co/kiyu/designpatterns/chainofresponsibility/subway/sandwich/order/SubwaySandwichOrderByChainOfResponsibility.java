@@ -1,11 +1,14 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.order;
 
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.KitchenStationStatsDTO;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.service.SubwaySandwichServiceByChainOfResponsibility;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +20,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 책임 연쇄 패턴 - 서브웨이 샌드위치 주문 API
  *
+ * 주방 스테이션 대기열이 가득 차 주문을 받을 수 없을 때의 응답은 SubwayKitchenExceptionHandler가 만든다
+ *
  * @author KIYU-IT
  * @date 2025. 4. 17.
  */
@@ -65,4 +70,10 @@ public class SubwaySandwichOrderByChainOfResponsibility {
 	    return this.subwaySandwichService.buildShrimp();
 	}
 
+	@Operation(summary = "서브웨이 샌드위치 - 주방 스테이션 현황", description = "스테이션별 대기열 길이, 가동률, 대기 시간 분위수 (병목 스테이션 확인용)")
+	@GetMapping("/kitchen")
+	public List<KitchenStationStatsDTO> kitchen() {
+	    return this.subwaySandwichService.getKitchenStats();
+	}
+
 }
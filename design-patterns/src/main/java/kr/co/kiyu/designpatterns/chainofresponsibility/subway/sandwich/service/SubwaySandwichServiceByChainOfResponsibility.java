@@ -1,9 +1,13 @@
 package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.service;
 
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SandwichDirectorByChainOfResponsibility;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SubwaySandwichBuilderByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler.SandwichPipeline;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen.SandwichKitchen;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.KitchenStationStatsDTO;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
 
 import lombok.RequiredArgsConstructor;
@@ -12,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 책임 연쇄 패턴 - 서브웨이 샌드위치 서비스
  *
+ * 요청마다 파이프라인에서 새 빌더 세션을 받아 조립하므로, 동시에 들어온 주문의 명령이 섞이지 않는다
+ *
  * @author KIYU-IT
  * @date 2025. 2. 21.
  */
@@ -21,36 +27,41 @@ import lombok.extern.slf4j.Slf4j;
 public class SubwaySandwichServiceByChainOfResponsibility {
 
 	private final SandwichDirectorByChainOfResponsibility sandwichDirector;
-	private final SubwaySandwichBuilderByChainOfResponsibility subwaySandwichBuilder;
+	private final SandwichPipeline sandwichPipeline;
+	private final SandwichKitchen sandwichKitchen;
 
 	public String buildChickenTeriyaki() {
-        SandwichDTO sandwich = sandwichDirector.buildChickenTeriyaki(subwaySandwichBuilder);
+        SandwichDTO sandwich = sandwichDirector.buildChickenTeriyaki(sandwichPipeline.newBuilder());
         return sandwich.toHtmlContent();
     }
 
 	public String buildVeggieDelight() {
-        SandwichDTO sandwich = sandwichDirector.buildVeggieDelight(subwaySandwichBuilder);
+        SandwichDTO sandwich = sandwichDirector.buildVeggieDelight(sandwichPipeline.newBuilder());
         return sandwich.toHtmlContent();
     }
 
 	public String buildSpicyItalian() {
-	    SandwichDTO sandwich = sandwichDirector.buildSpicyItalian(subwaySandwichBuilder);
+	    SandwichDTO sandwich = sandwichDirector.buildSpicyItalian(sandwichPipeline.newBuilder());
 	    return sandwich.toHtmlContent();
 	}
 
 	public String buildChickenBaconAvocado() {
-	    SandwichDTO sandwich = sandwichDirector.buildChickenBaconAvocado(subwaySandwichBuilder);
+	    SandwichDTO sandwich = sandwichDirector.buildChickenBaconAvocado(sandwichPipeline.newBuilder());
 	    return sandwich.toHtmlContent();
 	}
 
 	public String buildPulledPorkBBQ() {
-	    SandwichDTO sandwich = sandwichDirector.buildPulledPorkBBQ(subwaySandwichBuilder);
+	    SandwichDTO sandwich = sandwichDirector.buildPulledPorkBBQ(sandwichPipeline.newBuilder());
 	    return sandwich.toHtmlContent();
 	}
 
 	public String buildShrimp() {
-	    SandwichDTO sandwich = sandwichDirector.buildShrimp(subwaySandwichBuilder);
+	    SandwichDTO sandwich = sandwichDirector.buildShrimp(sandwichPipeline.newBuilder());
 	    return sandwich.toHtmlContent();
 	}
 
+	public List<KitchenStationStatsDTO> getKitchenStats() {
+	    return sandwichKitchen.getStats();
+	}
+
 }
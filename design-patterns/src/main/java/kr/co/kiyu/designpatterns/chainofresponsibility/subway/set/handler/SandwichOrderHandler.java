@@ -3,7 +3,8 @@ package kr.co.kiyu.designpatterns.chainofresponsibility.subway.set.handler;
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SandwichDirectorByChainOfResponsibility;
-import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SubwaySandwichBuilderByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SandwichBuilderByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler.SandwichPipeline;
 import kr.co.kiyu.designpatterns.chainofresponsibility.subway.set.model.context.OrderContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +13,7 @@ import lombok.extern.slf4j.Slf4j;
  * 샌드위치 주문 핸들러
  *
  * 세트 주문에서 샌드위치 구성 명령을 처리하며,
- * 내부적으로 기존 빌더 체인을 호출
+ * 내부적으로 기존 빌더 체인을 호출 (주문마다 파이프라인에서 새 빌더 세션을 받음)
  *
  * [ex] CHICKEN_TERIYAKI_SET, SPICY_ITALIAN_SET 등
  *
@@ -25,19 +26,13 @@ import lombok.extern.slf4j.Slf4j;
 public class SandwichOrderHandler extends OrderHandler {
 
     private final SandwichDirectorByChainOfResponsibility director;
-    private final SubwaySandwichBuilderByChainOfResponsibility builder;
+    private final SandwichPipeline sandwichPipeline;
 
     @Override
     protected void process(OrderContext context) {
         log.info("🥪 샌드위치 준비 시작 - 메뉴명: {}", context.getMenuName());
 
-        SubwaySandwichBuilderByChainOfResponsibility newBuilder =
-            new SubwaySandwichBuilderByChainOfResponsibility(
-                builder.getBreadHandler(),
-                builder.getCheeseHandler(),
-                builder.getVegetableHandler(),
-                builder.getSauceHandler()
-            );
+        SandwichBuilderByChainOfResponsibility newBuilder = sandwichPipeline.newBuilder();
 
         context.setSandwich(
             switch (context.getMenuName()) {
@@ -0,0 +1,248 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.cluster;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 클러스터 노드 간 HTTP 클라이언트
+ *
+ * 노드 확인(ping), 다른 노드가 맡은 주문 요청 전달(forward), 재분배 주문 넘기기(handoff)를 하나의 HttpClient로 처리한다
+ * - HttpClient는 노드마다 HTTP/1.1 keep-alive 연결을 풀에 두고 재사용하므로 전달마다 TCP 연결을 새로 맺지 않는다
+ *   (유휴 연결 유지 시간은 jdk.httpclient.keepalive.timeout 시스템 속성, 기본 1200초)
+ * - 전달은 비동기(sendAsync)로 보내고, 응답 본문은 받는 대로 원래 요청의 응답에 흘려 쓰므로 SSE/long-poll도 그대로 전달된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.cluster.enabled", havingValue = "true")
+public class OrderClusterClient {
+
+    /** 전달한 노드 주소를 담는 헤더 (받은 노드는 다시 전달하지 않고 직접 처리한다) */
+    public static final String FORWARDED_BY_HEADER = "X-Order-Forwarded-By";
+
+    /** 주문 요청을 처리한 노드 주소를 담는 응답 헤더 */
+    public static final String SERVED_BY_HEADER = "X-Order-Served-By";
+
+    /** 클러스터 API 경로 */
+    public static final String CLUSTER_PATH = "/api/state/order/cluster";
+
+    /** 전달하지 않는 요청 헤더 (HttpClient가 직접 정하거나 연결 단위로만 의미가 있는 헤더) */
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of(
+            "host", "connection", "content-length", "expect", "upgrade", "keep-alive", "transfer-encoding",
+            "te", "trailer", "date", "via", "warning", "from", "http2-settings");
+
+    /** 되돌려 쓰지 않는 응답 헤더 (서블릿 컨테이너가 다시 정한다) */
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of(
+            "connection", "content-length", "keep-alive", "transfer-encoding", "date", "trailer", "upgrade");
+
+    private final ExecutorService executor;
+
+    private final HttpClient httpClient;
+
+    private final Duration probeTimeout;
+
+    private final Duration forwardTimeout;
+
+    private final Duration handoffTimeout;
+
+    private final LongAdder forwardedCount = new LongAdder();
+
+    private final LongAdder forwardFailedCount = new LongAdder();
+
+    public OrderClusterClient(@Value("${subway.order.cluster.connect-timeout-ms:1000}") long connectTimeoutMs,
+                              @Value("${subway.order.cluster.probe-timeout-ms:500}") long probeTimeoutMs,
+                              @Value("${subway.order.cluster.forward-timeout-ms:65000}") long forwardTimeoutMs,
+                              @Value("${subway.order.cluster.handoff-timeout-ms:30000}") long handoffTimeoutMs) {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "order-cluster-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+        this.probeTimeout = Duration.ofMillis(probeTimeoutMs);
+        this.forwardTimeout = Duration.ofMillis(forwardTimeoutMs);
+        this.handoffTimeout = Duration.ofMillis(handoffTimeoutMs);
+    }
+
+    /**
+     * 노드가 응답하는지 확인한다.
+     *
+     * @param member 노드 주소
+     * @return 2xx로 응답하면 true
+     */
+    public boolean ping(String member) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(member + CLUSTER_PATH + "/ping"))
+                .timeout(probeTimeout)
+                .GET()
+                .build();
+        try {
+            return isSuccess(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 재분배할 주문 레코드를 노드에 넘긴다.
+     *
+     * @param member 받을 노드 주소
+     * @param body 주문 레코드 묶음
+     * @return 받은 노드가 2xx로 응답하면 true
+     */
+    public boolean handoff(String member, byte[] body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(member + CLUSTER_PATH + "/handoff"))
+                .timeout(handoffTimeout)
+                .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (!isSuccess(response.statusCode())) {
+                log.warn("⚠️ 주문 넘기기 거절 - 노드: {}, 응답: {} {}", member, response.statusCode(), response.body());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("⚠️ 주문 넘기기 실패 - 노드: {}, 원인: {}", member, e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 요청을 주문을 맡은 노드로 전달하고, 응답 상태/헤더/본문을 받는 대로 원래 응답에 옮겨 쓴다.
+     * 반환된 future는 응답 본문을 모두 옮겨 쓴 뒤 완료되며, 응답 헤더를 받기 전 실패하면 예외로 완료된다.
+     *
+     * @param owner 주문을 맡은 노드 주소
+     * @param self 이 노드 주소 (전달 헤더에 담는다)
+     * @param request 원래 요청
+     * @param body 원래 요청 본문
+     * @param response 원래 응답 (비동기 모드)
+     * @return 전달 완료 future
+     */
+    public CompletableFuture<HttpResponse<Void>> forward(String owner, String self, HttpServletRequest request,
+                                                         byte[] body, HttpServletResponse response) {
+        String query = request.getQueryString();
+        URI uri = URI.create(owner + request.getRequestURI() + (query != null ? "?" + query : ""));
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(forwardTimeout)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (SKIPPED_REQUEST_HEADERS.contains(name.toLowerCase())) {
+                continue;
+            }
+            for (String value : Collections.list(request.getHeaders(name))) {
+                builder.header(name, value);
+            }
+        }
+        builder.header(FORWARDED_BY_HEADER, self);
+
+        forwardedCount.increment();
+        return httpClient.sendAsync(builder.build(), responseInfo -> {
+            response.setStatus(responseInfo.statusCode());
+            responseInfo.headers().map().forEach((name, values) -> {
+                if (!SKIPPED_RESPONSE_HEADERS.contains(name.toLowerCase())) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            return BodySubscribers.ofByteArrayConsumer(new ResponseBodyWriter(response));
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                forwardFailedCount.increment();
+            }
+        });
+    }
+
+    /**
+     * 전달한 요청 수를 반환한다.
+     *
+     * @return 전달 수
+     */
+    public long getForwardedCount() {
+        return forwardedCount.sum();
+    }
+
+    /**
+     * 실패하거나 도중에 끊긴 전달 수를 반환한다.
+     *
+     * @return 전달 실패 수
+     */
+    public long getForwardFailedCount() {
+        return forwardFailedCount.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static boolean isSuccess(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * 전달받은 응답 본문 조각을 원래 응답에 바로 쓰고 내보낸다. (SSE 이벤트가 모였다 가지 않도록)
+     */
+    private static final class ResponseBodyWriter implements Consumer<Optional<byte[]>> {
+
+        private final HttpServletResponse response;
+
+        private ResponseBodyWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void accept(Optional<byte[]> chunk) {
+            try {
+                if (chunk.isPresent()) {
+                    response.getOutputStream().write(chunk.get());
+                }
+                response.flushBuffer();
+            } catch (IOException e) {
+                // 원래 요청의 클라이언트가 끊겼다: 예외를 던져 전달 중인 연결도 닫는다
+                throw new IllegalStateException("전달 응답 쓰기 실패 - 클라이언트 연결 종료", e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,339 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.cluster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderClusterStatusDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 클러스터 조정자
+ *
+ * 고정 노드 목록을 주기적으로 확인하여 링을 갱신하고, 링이 바뀌면 더 이상 이 노드가 맡지 않는 주문을 새 주인에게 넘긴다 (재분배)
+ *
+ * [확인]
+ * probe-interval-ms 마다 모든 노드에 ping을 보내 응답한 노드로 링을 만든다
+ * 요청 전달이 연결 실패하면(reportUnreachable) 다음 확인을 기다리지 않고 그 노드를 바로 뺀다
+ *
+ * [재분배]
+ * 저장소의 주문(findAll) 중 새 링에서 다른 노드가 맡는 주문을 노드별로 handoff-batch 건씩 묶어 보낸다
+ * - 레코드 형식은 저널 스냅샷 항목(OrderJournalCodec.encodeSnapshotEntry)과 같으며, 상태 이력과 버전이 그대로 옮겨진다
+ * - 받은 노드가 저장한 뒤에야 이 노드의 저장소에서 지우므로, 넘기는 중에도 주문은 둘 중 한 곳에는 있다
+ * - 보낸 뒤 지우기 전에 상태가 바뀐 주문은 다시 보내며, 받는 쪽은 버전이 더 높은 레코드만 받아들인다
+ * - 보내지 못한 묶음은 이 노드에 그대로 두고 다음 확인 때 다시 재분배한다
+ *
+ * [종료]
+ * 종료 시 이 노드를 뺀 링으로 모든 주문을 남은 노드에 넘긴다. 다른 노드는 다음 확인에서 이 노드를 링에서 뺀다
+ *
+ * 확인과 재분배는 한 스레드(order-cluster)에서만 실행된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.cluster.enabled", havingValue = "true")
+public class OrderClusterCoordinator {
+
+    private final OrderClusterMembership membership;
+
+    private final OrderClusterClient clusterClient;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderStateMachine stateMachine;
+
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    private final long probeIntervalMs;
+
+    private final int handoffBatch;
+
+    private final AtomicLong handedOutCount = new AtomicLong();
+
+    private final AtomicLong handedInCount = new AtomicLong();
+
+    private final AtomicLong rebalanceCount = new AtomicLong();
+
+    /** 이전 재분배에서 넘기지 못한 주문이 남아 있음 (coordinator 스레드에서만 접근) */
+    private boolean rebalancePending;
+
+    private ScheduledExecutorService executor;
+
+    public OrderClusterCoordinator(OrderClusterMembership membership,
+                                   OrderClusterClient clusterClient,
+                                   OrderRepository orderRepository,
+                                   OrderStateMachine stateMachine,
+                                   OrderStateChangePublisher stateChangePublisher,
+                                   @Value("${subway.order.repository.type:memory}") String repositoryType,
+                                   @Value("${subway.order.cluster.probe-interval-ms:1000}") long probeIntervalMs,
+                                   @Value("${subway.order.cluster.handoff-batch:1000}") int handoffBatch) {
+        if ("offheap".equals(repositoryType)) {
+            // 오프힙 저장소는 주문을 지울 수 없어 넘긴 주문이 두 노드에 남는다
+            throw new IllegalStateException("offheap 저장소는 클러스터 재분배를 지원하지 않습니다 (memory, journal, tiered 중 선택)");
+        }
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.orderRepository = orderRepository;
+        this.stateMachine = stateMachine;
+        this.stateChangePublisher = stateChangePublisher;
+        this.probeIntervalMs = probeIntervalMs;
+        this.handoffBatch = handoffBatch;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-cluster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::probe, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 모든 주문을 남은 노드에 넘기고 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (membership.leave()) {
+            int remaining = rebalance();
+            log.info("🌐 클러스터 탈퇴 - 넘긴 주문 누적 {}건, 넘기지 못한 주문 {}건", handedOutCount.get(), remaining);
+        } else {
+            log.info("🌐 클러스터 탈퇴 - 남은 노드가 없어 주문을 넘기지 않음 ({}건)", orderRepository.count());
+        }
+    }
+
+    /**
+     * 요청 전달이 연결에 실패한 노드를 링에서 뺀다. (요청 스레드에서 호출, 재분배는 coordinator 스레드에서)
+     *
+     * @param member 노드 주소
+     */
+    public void reportUnreachable(String member) {
+        try {
+            executor.execute(() -> {
+                if (membership.markDown(member)) {
+                    rebalance();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("🌐 종료 중이라 노드 제외를 건너뜀 - 노드: {}", member);
+        }
+    }
+
+    /**
+     * 다른 노드가 넘긴 주문 레코드 묶음을 저장한다.
+     * 이미 같은 버전 이상으로 가진 주문은 건너뛴다.
+     *
+     * @param body 주문 레코드 묶음 (int 길이 + 스냅샷 항목 반복)
+     * @return 저장한 주문 수
+     */
+    public int receive(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        int accepted = 0;
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+
+            OrderDTO order = OrderJournalCodec.decodeOrder(record);
+            OrderStateHistory history = OrderJournalCodec.decodeStateHistory(record);
+            OrderContext incoming = OrderContext.restore(
+                    order, stateMachine.getState(order.getCurrentState()), history, stateChangePublisher);
+
+            OrderContext existing = orderRepository.findById(incoming.getOrderKey());
+            if (existing != null) {
+                if (existing.getVersion() >= incoming.getVersion()) {
+                    continue;
+                }
+                stateChangePublisher.onOrderTransferredOut(existing.getOrderKey(), existing.getCurrentStateType());
+            }
+            stateChangePublisher.onOrderTransferredIn(orderRepository.save(incoming));
+            accepted++;
+        }
+        handedInCount.addAndGet(accepted);
+        log.debug("🌐 주문 넘겨받음 - {}건", accepted);
+        return accepted;
+    }
+
+    /**
+     * 클러스터 상태와 전달/재분배 지표를 반환한다.
+     *
+     * @return 클러스터 상태
+     */
+    public OrderClusterStatusDTO getStatus() {
+        return OrderClusterStatusDTO.builder()
+                .self(membership.getSelf())
+                .members(membership.getMembers())
+                .liveMembers(List.copyOf(membership.getLiveMembers()))
+                .localOrders(orderRepository.count())
+                .forwarded(clusterClient.getForwardedCount())
+                .forwardFailed(clusterClient.getForwardFailedCount())
+                .handedOut(handedOutCount.get())
+                .handedIn(handedInCount.get())
+                .rebalances(rebalanceCount.get())
+                .build();
+    }
+
+    /**
+     * 노드들을 확인하여 링을 갱신하고, 바뀌었거나 이전에 넘기지 못한 주문이 있으면 재분배한다. (coordinator 스레드)
+     */
+    private void probe() {
+        try {
+            Set<String> live = new TreeSet<>();
+            for (String member : membership.getMembers()) {
+                if (member.equals(membership.getSelf()) || clusterClient.ping(member)) {
+                    live.add(member);
+                }
+            }
+            if (membership.updateLiveMembers(live) || rebalancePending) {
+                rebalance();
+            }
+        } catch (RuntimeException e) {
+            log.error("⚠️ 주문 클러스터 확인 실패", e);
+        }
+    }
+
+    /**
+     * 현재 링에서 다른 노드가 맡는 주문을 넘긴다. (coordinator 스레드 또는 종료 시)
+     *
+     * @return 넘기지 못한 주문 수
+     */
+    private int rebalance() {
+        long start = System.currentTimeMillis();
+        OrderHashRing ring = membership.getRing();
+        String self = membership.getSelf();
+
+        Map<String, List<OrderContext>> byOwner = new HashMap<>();
+        for (OrderContext context : orderRepository.findAll()) {
+            String owner = ring.ownerOf(context.getOrderKey());
+            if (!owner.equals(self)) {
+                byOwner.computeIfAbsent(owner, key -> new ArrayList<>()).add(context);
+            }
+        }
+
+        int handedOut = 0;
+        int remaining = 0;
+        for (Map.Entry<String, List<OrderContext>> entry : byOwner.entrySet()) {
+            List<OrderContext> contexts = entry.getValue();
+            for (int from = 0; from < contexts.size(); from += handoffBatch) {
+                List<OrderContext> batch = contexts.subList(from, Math.min(from + handoffBatch, contexts.size()));
+                int sent = handoff(entry.getKey(), batch);
+                handedOut += sent;
+                remaining += batch.size() - sent;
+            }
+        }
+
+        rebalancePending = remaining > 0;
+        rebalanceCount.incrementAndGet();
+        handedOutCount.addAndGet(handedOut);
+        log.info("🌐 주문 재분배 완료 - 링: {}, 넘긴 주문 {}건, 넘기지 못한 주문 {}건, 남은 주문 {}건, {}ms",
+                ring.getMembers(), handedOut, remaining, orderRepository.count(), System.currentTimeMillis() - start);
+        return remaining;
+    }
+
+    /**
+     * 주문 묶음을 노드에 넘기고, 받은 것이 확인되면 이 노드에서 지운다.
+     *
+     * @param owner 새 주인 노드 주소
+     * @param contexts 넘길 주문
+     * @return 넘긴 주문 수 (실패하면 0)
+     */
+    private int handoff(String owner, List<OrderContext> contexts) {
+        List<OrderContext> pending = contexts;
+        int handedOut = 0;
+        while (!pending.isEmpty()) {
+            long[] sentVersions = new long[pending.size()];
+            if (!clusterClient.handoff(owner, encode(pending, sentVersions))) {
+                if (pending != contexts) {
+                    // 다시 보내려고 이미 지운 주문은 이 노드에 되돌려 두고 다음 재분배를 기다린다
+                    pending.forEach(context ->
+                            stateChangePublisher.onOrderTransferredIn(orderRepository.save(context)));
+                }
+                return handedOut;
+            }
+
+            List<OrderContext> changed = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                OrderContext removed = orderRepository.remove(pending.get(i).getOrderKey());
+                if (removed == null) {
+                    continue;
+                }
+                stateChangePublisher.onOrderTransferredOut(removed.getOrderKey(), removed.getCurrentStateType());
+                if (removed.getVersion() != sentVersions[i]) {
+                    // 보낸 뒤 지우기 전에 상태가 바뀌었다: 바뀐 상태로 다시 보낸다
+                    log.debug("🌐 넘기는 중 상태 변경 - 주문ID: {}, 버전 {} → {}",
+                            removed.getOrderId(), sentVersions[i], removed.getVersion());
+                    changed.add(removed);
+                } else {
+                    handedOut++;
+                }
+            }
+            pending = changed;
+        }
+        return handedOut;
+    }
+
+    /**
+     * 주문 묶음을 (int 길이 + 스냅샷 항목) 반복으로 인코딩한다.
+     *
+     * @param contexts 주문 컨텍스트
+     * @param versions 인코딩한 스냅샷의 버전을 담을 배열
+     * @return 인코딩된 바이트 배열
+     */
+    private static byte[] encode(List<OrderContext> contexts, long[] versions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(contexts.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int i = 0; i < contexts.size(); i++) {
+                OrderContext context = contexts.get(i);
+                // 한 스냅샷에서 상태와 이력을 함께 꺼내야 서로 어긋나지 않는다
+                OrderStateSnapshot snapshot = context.getSnapshot();
+                byte[] record = OrderJournalCodec.encodeSnapshotEntry(context.getOrder(snapshot), snapshot.getHistory());
+                out.writeInt(record.length);
+                out.write(record);
+                versions[i] = snapshot.getVersion();
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream은 IOException을 던지지 않는다
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,174 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.cluster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 클러스터 구성원
+ *
+ * 고정 노드 목록(subway.order.cluster.members) 중 살아 있는 노드로 해시 링(OrderHashRing)을 만들고,
+ * 주문 키로 주문을 맡은 노드(주인)를 알려준다
+ *
+ * - 클러스터를 켜지 않으면(enabled=false) 모든 주문이 이 노드의 것이며 링을 만들지 않는다
+ * - 살아 있는 노드 목록은 OrderClusterCoordinator가 확인하여 바꾸며, 목록이 바뀔 때마다 새 링으로 통째로 교체한다
+ * - 이 노드는 종료(leave) 전까지 항상 링에 포함되므로, 새 주문은 언제든 이 노드가 맡는 ID로 만들 수 있다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderClusterMembership {
+
+    @Getter
+    private final boolean enabled;
+
+    /** 이 노드의 주소 */
+    @Getter
+    private final String self;
+
+    /** 전체 노드 주소 (설정 순서) */
+    @Getter
+    private final List<String> members;
+
+    private final int virtualNodes;
+
+    /** 살아 있는 노드 주소 (정렬) */
+    private volatile Set<String> liveMembers;
+
+    private volatile OrderHashRing ring;
+
+    public OrderClusterMembership(@Value("${subway.order.cluster.enabled:false}") boolean enabled,
+                                  @Value("${subway.order.cluster.self:http://localhost:8078}") String self,
+                                  @Value("${subway.order.cluster.members:}") String members,
+                                  @Value("${subway.order.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.enabled = enabled;
+        this.self = normalize(self);
+        this.virtualNodes = virtualNodes;
+
+        Set<String> memberSet = Arrays.stream(members.split(","))
+                .map(String::trim)
+                .filter(member -> !member.isEmpty())
+                .map(OrderClusterMembership::normalize)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        memberSet.add(this.self);
+        this.members = List.copyOf(memberSet);
+
+        if (enabled) {
+            if (virtualNodes <= 0) {
+                throw new IllegalArgumentException("가상 노드 수는 1 이상이어야 합니다: " + virtualNodes);
+            }
+            // 다른 노드는 확인되기 전까지 링에 올리지 않는다
+            this.liveMembers = Set.of(this.self);
+            this.ring = OrderHashRing.of(liveMembers, virtualNodes);
+            log.info("🌐 주문 클러스터 구성 - 이 노드: {}, 전체 노드: {}, 가상 노드: {}", this.self, this.members, virtualNodes);
+        } else {
+            this.liveMembers = Set.of(this.self);
+        }
+    }
+
+    /**
+     * 주문을 이 노드가 맡는지 확인한다.
+     *
+     * @param orderKey long 주문 ID
+     * @return 이 노드가 주인이면 true (클러스터를 켜지 않았으면 항상 true)
+     */
+    public boolean isLocal(long orderKey) {
+        return !enabled || self.equals(ring.ownerOf(orderKey));
+    }
+
+    /**
+     * 주문을 맡은 노드를 반환한다.
+     *
+     * @param orderKey long 주문 ID
+     * @return 노드 주소
+     */
+    public String ownerOf(long orderKey) {
+        return enabled ? ring.ownerOf(orderKey) : self;
+    }
+
+    /**
+     * 현재 해시 링을 반환한다. 재분배는 한 링을 기준으로 주문의 주인을 정해야 하므로 링을 꺼내 쓴다.
+     *
+     * @return 해시 링 (클러스터를 켜지 않았으면 null)
+     */
+    public OrderHashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * 살아 있는 노드 목록을 반환한다.
+     *
+     * @return 노드 주소 (정렬)
+     */
+    public Set<String> getLiveMembers() {
+        return liveMembers;
+    }
+
+    /**
+     * 살아 있는 노드 목록을 바꾼다. 목록이 달라졌을 때만 링을 새로 만든다.
+     *
+     * @param live 응답한 노드 주소 (이 노드는 자동으로 포함)
+     * @return 링이 바뀌었으면 true
+     */
+    synchronized boolean updateLiveMembers(Set<String> live) {
+        Set<String> next = new TreeSet<>(live);
+        if (liveMembers.contains(self)) {
+            next.add(self);
+        }
+        return replace(next);
+    }
+
+    /**
+     * 노드 하나를 링에서 뺀다. (요청 전달 실패 시 다음 확인을 기다리지 않고 바로 뺀다)
+     *
+     * @param member 노드 주소
+     * @return 링이 바뀌었으면 true
+     */
+    synchronized boolean markDown(String member) {
+        if (member.equals(self) || !liveMembers.contains(member)) {
+            return false;
+        }
+        Set<String> next = new TreeSet<>(liveMembers);
+        next.remove(member);
+        return replace(next);
+    }
+
+    /**
+     * 종료를 위해 이 노드를 링에서 뺀다. 남은 노드가 없으면 링을 그대로 둔다.
+     *
+     * @return 이 노드가 빠진 링으로 바뀌었으면 true
+     */
+    synchronized boolean leave() {
+        Set<String> next = new TreeSet<>(liveMembers);
+        next.remove(self);
+        return !next.isEmpty() && replace(next);
+    }
+
+    private boolean replace(Set<String> next) {
+        if (next.equals(liveMembers)) {
+            return false;
+        }
+        log.info("🌐 주문 클러스터 노드 변경 - {} → {}", liveMembers, next);
+        liveMembers = Collections.unmodifiableSortedSet(new TreeSet<>(next));
+        ring = OrderHashRing.of(next, virtualNodes);
+        return true;
+    }
+
+    private static String normalize(String member) {
+        String trimmed = member.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+}
@@ -0,0 +1,124 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 주문 일관 해시 링 (불변)
+ *
+ * 노드마다 virtual-nodes 개의 점을 64비트 링에 올리고, 주문 키의 해시 위치에서 시계 방향으로 처음 만나는 점의 노드가 주문을 맡는다
+ * 노드가 하나 빠지거나 늘어도 그 노드의 점 주변 구간만 주인이 바뀌므로, 재분배되는 주문은 약 1/노드 수에 그친다
+ *
+ * - 주문 키는 생성 시각이 앞자리에 있으므로 그대로 쓰지 않고 비트를 섞은(mix64) 값을 위치로 쓴다
+ * - 같은 노드 목록이면 어느 노드에서 만들어도 같은 링이 되도록 노드 주소만으로 점을 정한다
+ * - 점 위치는 정렬된 long 배열에 두고 이진 탐색으로 찾는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public final class OrderHashRing {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** 노드 주소 (정렬) */
+    private final List<String> members;
+
+    /** 점 위치 (오름차순) */
+    private final long[] points;
+
+    /** 점 → 노드 번호 */
+    private final int[] owners;
+
+    private OrderHashRing(List<String> members, long[] points, int[] owners) {
+        this.members = members;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    /**
+     * 노드 목록으로 링을 만든다.
+     *
+     * @param members 노드 주소 목록 (1개 이상)
+     * @param virtualNodes 노드 1개가 링에 올리는 점 수
+     * @return 해시 링
+     */
+    public static OrderHashRing of(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("해시 링에는 노드가 1개 이상 있어야 합니다");
+        }
+        List<String> sorted = List.copyOf(new TreeSet<>(members));
+        int size = sorted.size() * virtualNodes;
+
+        // (위치, 노드 번호)를 함께 정렬하기 위해 인덱스를 위치 순으로 정렬한다
+        long[] unsortedPoints = new long[size];
+        Integer[] order = new Integer[size];
+        for (int member = 0; member < sorted.size(); member++) {
+            long seed = hash(sorted.get(member));
+            for (int i = 0; i < virtualNodes; i++) {
+                int index = member * virtualNodes + i;
+                unsortedPoints[index] = mix64(seed + (i + 1) * GOLDEN_GAMMA);
+                order[index] = index;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedPoints[a], unsortedPoints[b]));
+
+        long[] points = new long[size];
+        int[] owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = unsortedPoints[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+        return new OrderHashRing(sorted, points, owners);
+    }
+
+    /**
+     * 주문을 맡는 노드를 반환한다.
+     *
+     * @param orderKey long 주문 ID
+     * @return 노드 주소
+     */
+    public String ownerOf(long orderKey) {
+        int index = Arrays.binarySearch(points, mix64(orderKey));
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return members.get(owners[index]);
+    }
+
+    /**
+     * 링에 올라간 노드 목록을 반환한다.
+     *
+     * @return 노드 주소 목록 (정렬)
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * 노드 주소를 64비트로 해시한다. (FNV-1a 후 mix64)
+     */
+    private static long hash(String member) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : member.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * 64비트 값의 비트를 고르게 섞는다. (SplitMix64 finalizer)
+     */
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+}
@@ -0,0 +1,148 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.cluster;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 요청 라우팅 필터
+ *
+ * /api/state/order/{orderId}/... 요청의 주문을 다른 노드가 맡고 있으면 컨트롤러까지 가지 않고 그 노드로 전달한다
+ * - 전달은 비동기 서블릿으로 처리하므로 주인 노드의 응답(long-poll, SSE 포함)을 기다리는 동안 요청 스레드를 잡지 않는다
+ * - 전달받은 요청(X-Order-Forwarded-By)은 노드마다 링이 잠시 다를 수 있어도 다시 전달하지 않고 직접 처리한다 (전달은 최대 1번)
+ * - 주인 노드에 연결할 수 없으면 그 노드를 바로 링에서 빼고 503 + Retry-After로 응답한다 (재시도하면 새 주인으로 간다)
+ *
+ * 주문 ID가 경로에 없는 요청(생성, 일괄 처리, 상태별 목록 등)은 그대로 이 노드에서 처리한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.cluster.enabled", havingValue = "true")
+public class OrderRoutingFilter extends OncePerRequestFilter {
+
+    private static final String ORDER_PATH_PREFIX = "/api/state/order/";
+
+    private final OrderClusterMembership membership;
+
+    private final OrderClusterClient clusterClient;
+
+    private final OrderClusterCoordinator coordinator;
+
+    public OrderRoutingFilter(OrderClusterMembership membership, OrderClusterClient clusterClient,
+                              OrderClusterCoordinator coordinator) {
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + ORDER_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long orderKey = extractOrderKey(request);
+        if (orderKey < 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String owner = membership.ownerOf(orderKey);
+        if (owner.equals(membership.getSelf()) || request.getHeader(OrderClusterClient.FORWARDED_BY_HEADER) != null) {
+            response.setHeader(OrderClusterClient.SERVED_BY_HEADER, membership.getSelf());
+            chain.doFilter(request, response);
+            return;
+        }
+
+        forward(owner, request, response);
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        // 주인 노드의 SSE/long-poll이 끝날 때까지 기다리므로 컨테이너 timeout은 두지 않는다 (주인 노드의 timeout을 따른다)
+        asyncContext.setTimeout(0);
+
+        clusterClient.forward(owner, membership.getSelf(), request, body, response)
+                .whenComplete((result, error) -> {
+                    try {
+                        if (error != null) {
+                            handleForwardFailure(owner, request, response, unwrap(error));
+                        }
+                    } finally {
+                        asyncContext.complete();
+                    }
+                });
+    }
+
+    private void handleForwardFailure(String owner, HttpServletRequest request, HttpServletResponse response,
+                                      Throwable error) {
+        if (response.isCommitted()) {
+            // 응답을 옮겨 쓰던 중 끊겼다 (클라이언트 종료 또는 주인 노드 종료)
+            log.debug("🌐 주문 요청 전달 중단 - 노드: {}, 경로: {}, 원인: {}", owner, request.getRequestURI(), error.toString());
+            return;
+        }
+        log.warn("⚠️ 주문 요청 전달 실패 - 노드: {}, 경로: {}, 원인: {}", owner, request.getRequestURI(), error.toString());
+
+        HttpStatus status = HttpStatus.BAD_GATEWAY;
+        if (error instanceof ConnectException) {
+            coordinator.reportUnreachable(owner);
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        } else if (error instanceof HttpTimeoutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+        }
+        try {
+            response.setStatus(status.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("주문을 맡은 노드에 요청을 전달하지 못했습니다: " + owner);
+        } catch (IOException e) {
+            log.debug("🌐 전달 실패 응답 쓰기 실패 - {}", e.toString());
+        }
+    }
+
+    /**
+     * 경로의 주문 ID를 long으로 꺼낸다.
+     *
+     * @return 주문 ID, 주문 ID 경로가 아니면 -1
+     */
+    private static long extractOrderKey(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + ORDER_PATH_PREFIX.length();
+        int end = uri.indexOf('/', start);
+        return OrderIdGenerator.parse(end < 0 ? uri.substring(start) : uri.substring(start, end));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+}
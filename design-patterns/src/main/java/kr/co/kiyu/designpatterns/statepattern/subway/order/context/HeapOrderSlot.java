@@ -0,0 +1,61 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+
+/**
+ * 힙 주문 보관 칸
+ *
+ * 주문 정보를 OrderDTO 그대로, 현재 상태를 불변 스냅샷의 AtomicReference로 보관한다
+ * 스냅샷은 참조 비교로 CAS 하므로, 조회하는 쪽은 락 없이 항상 서로 어긋나지 않는 상태/시간/이력을 읽는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class HeapOrderSlot implements OrderSlot {
+
+    private final long orderKey;
+
+    private final OrderDTO order;
+
+    private final AtomicReference<OrderStateSnapshot> snapshot;
+
+    HeapOrderSlot(OrderDTO order, OrderStateSnapshot snapshot) {
+        this.orderKey = OrderIdGenerator.parse(order.getOrderId());
+        this.order = order;
+        this.snapshot = new AtomicReference<>(snapshot);
+    }
+
+    @Override
+    public long getOrderKey() {
+        return orderKey;
+    }
+
+    @Override
+    public String getOrderId() {
+        return order.getOrderId();
+    }
+
+    @Override
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    @Override
+    public OrderStateSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public boolean compareAndSetSnapshot(OrderStateSnapshot expected, OrderStateSnapshot next) {
+        return snapshot.compareAndSet(expected, next);
+    }
+
+    @Override
+    public void setSnapshot(OrderStateSnapshot next) {
+        snapshot.set(next);
+    }
+
+}
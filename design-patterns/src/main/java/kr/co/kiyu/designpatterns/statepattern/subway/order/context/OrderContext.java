@@ -1,177 +1,344 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderState;
 
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 주문 컨텍스트
- * 
+ *
  * State 패턴의 Context 역할을 담당
  * 현재 주문 상태를 관리하고, 상태 전환을 위한 메서드들을 제공
  * 클라이언트는 이 컨텍스트를 통해 주문 상태를 변경하고 조회할 수 있다
- * 
+ *
+ * 현재 상태는 불변 OrderStateSnapshot으로 주문 보관 칸(OrderSlot)에 공개된다
+ * - 조회 : 스냅샷 하나만 읽으므로 락 없이 상태/시간/이력이 항상 일치한다
+ * - 전환 : 새 스냅샷으로 CAS 하며, 동시에 들어온 전환 중 하나만 성공한다
+ *
+ * 기본은 힙 보관 칸이며, 오프힙 저장소처럼 저장소가 보관 칸을 직접 관리하면
+ * 같은 주문에 대해 조회마다 다른 OrderContext 인스턴스가 만들어질 수 있다 (동일성 대신 getOrderKey로 비교)
+ *
  * @author KIYU-IT
  * @date 2025. 6. 20.
  */
 @Slf4j
-@Getter
 public class OrderContext {
 
     /**
-     * 주문 정보
+     * 버전 조건 없이 전환할 때 사용하는 값
      */
-    private OrderDTO order;
+    public static final long ANY_VERSION = -1L;
 
     /**
-     * 현재 상태 객체
+     * 주문 보관 칸 (주문 기본 정보 + 현재 상태 스냅샷)
      */
-    private OrderState currentState;
+    private final OrderSlot slot;
 
     /**
-     * 상태 변경 이력
+     * 상태 변경 리스너 (영속화, 알림 등)
      */
-    private List<String> stateHistory;
+    private final OrderStateChangeListener stateChangeListener;
 
     /**
      * 생성자
-     * 
+     *
      * @param order 주문 정보
      * @param initialState 초기 상태
+     * @param stateChangeListener 상태 변경 리스너
      */
-    public OrderContext(OrderDTO order, OrderState initialState) {
-        this.order = order;
-        this.currentState = initialState;
-        this.stateHistory = new ArrayList<>();
-        
+    public OrderContext(OrderDTO order, OrderState initialState, OrderStateChangeListener stateChangeListener) {
+        LocalDateTime now = LocalDateTime.now();
+
         // 초기 상태 설정
-        this.order.setCurrentState(initialState.getStateType());
-        this.order.setStateChangedAt(LocalDateTime.now());
-        
-        // 상태 변경 이력 추가
-        addStateHistory("주문 생성", initialState.getStateType());
-        
-        log.info("🛒 주문 컨텍스트 생성 - 주문ID: {}, 초기상태: {}", 
+        order.setCurrentState(initialState.getStateType());
+        order.setStateChangedAt(now);
+
+        this.slot = new HeapOrderSlot(order, OrderStateSnapshot.initial(initialState, now, "주문 생성"));
+        this.stateChangeListener = stateChangeListener;
+
+        log.debug("🛒 주문 컨텍스트 생성 - 주문ID: {}, 초기상태: {}",
                 order.getOrderId(), initialState.getStateType().getStateName());
     }
 
+    /**
+     * 저장소용 생성자
+     * 저장소가 관리하는 보관 칸을 그대로 감싸며, 로그와 리스너 호출은 하지 않는다.
+     *
+     * @param slot 주문 보관 칸
+     * @param stateChangeListener 상태 변경 리스너
+     */
+    public OrderContext(OrderSlot slot, OrderStateChangeListener stateChangeListener) {
+        this.slot = slot;
+        this.stateChangeListener = stateChangeListener;
+    }
+
+    /**
+     * 저장소에 기록된 주문을 컨텍스트로 복구한다.
+     *
+     * @param order 주문 정보
+     * @param currentState 복구할 현재 상태
+     * @param stateHistory 복구할 상태 변경 이력
+     * @param stateChangeListener 상태 변경 리스너
+     * @return 복구된 주문 컨텍스트
+     */
+    public static OrderContext restore(OrderDTO order, OrderState currentState, OrderStateHistory stateHistory,
+                                       OrderStateChangeListener stateChangeListener) {
+        return new OrderContext(new HeapOrderSlot(order, OrderStateSnapshot.restore(currentState, stateHistory)),
+                stateChangeListener);
+    }
+
+    /**
+     * 다음 단계로 진행한다.
+     *
+     * @return 전환 결과
+     */
+    public OrderTransitionResult nextStep() {
+        return nextStep(ANY_VERSION);
+    }
+
     /**
      * 다음 단계로 진행한다.
      * 현재 상태의 nextStep 메서드를 호출하여 상태 전환을 시도한다.
-     * 
-     * @return 진행 성공 여부
-     */
-    public boolean nextStep() {
-        log.info("➡️ 다음 단계 진행 시도 - 현재 상태: {}", currentState.getStateType().getStateName());
-        
-        boolean success = currentState.nextStep(this);
-        
-        if (success) {
-            log.info("✅ 단계 진행 성공 - 변경된 상태: {}", currentState.getStateType().getStateName());
+     *
+     * @param expectedVersion 클라이언트가 알고 있는 버전 (ANY_VERSION이면 검사하지 않음)
+     * @return 전환 결과
+     */
+    public OrderTransitionResult nextStep(long expectedVersion) {
+        OrderStateSnapshot current = slot.getSnapshot();
+        if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+            log.warn("❌ 단계 진행 거부 - 버전 불일치 (요청: {}, 현재: {})", expectedVersion, current.getVersion());
+            return OrderTransitionResult.VERSION_MISMATCH;
+        }
+
+        log.debug("➡️ 다음 단계 진행 시도 - 현재 상태: {}", current.getStateType().getStateName());
+
+        boolean success = current.getState().nextStep(this);
+        OrderTransitionResult result = toTransitionResult(success, current);
+
+        if (result == OrderTransitionResult.SUCCESS) {
+            log.debug("✅ 단계 진행 성공 - 변경된 상태: {}", getCurrentStateType().getStateName());
         } else {
-            log.warn("❌ 단계 진행 실패 - 현재 상태: {}", currentState.getStateType().getStateName());
+            log.warn("❌ 단계 진행 실패 - 현재 상태: {}, 결과: {}", getCurrentStateType().getStateName(), result);
         }
-        
-        return success;
+
+        return result;
+    }
+
+    /**
+     * 주문을 취소한다.
+     *
+     * @return 전환 결과
+     */
+    public OrderTransitionResult cancel() {
+        return cancel(ANY_VERSION);
     }
 
     /**
      * 주문을 취소한다.
      * 현재 상태의 cancel 메서드를 호출하여 취소를 시도한다.
-     * 
-     * @return 취소 성공 여부
-     */
-    public boolean cancel() {
-        log.info("🚫 주문 취소 시도 - 현재 상태: {}", currentState.getStateType().getStateName());
-        
-        boolean success = currentState.cancel(this);
-        
-        if (success) {
-            log.info("✅ 주문 취소 성공");
+     *
+     * @param expectedVersion 클라이언트가 알고 있는 버전 (ANY_VERSION이면 검사하지 않음)
+     * @return 전환 결과
+     */
+    public OrderTransitionResult cancel(long expectedVersion) {
+        OrderStateSnapshot current = slot.getSnapshot();
+        if (expectedVersion != ANY_VERSION && current.getVersion() != expectedVersion) {
+            log.warn("❌ 주문 취소 거부 - 버전 불일치 (요청: {}, 현재: {})", expectedVersion, current.getVersion());
+            return OrderTransitionResult.VERSION_MISMATCH;
+        }
+
+        log.debug("🚫 주문 취소 시도 - 현재 상태: {}", current.getStateType().getStateName());
+
+        boolean success = current.getState().cancel(this);
+        OrderTransitionResult result = toTransitionResult(success, current);
+
+        if (result == OrderTransitionResult.SUCCESS) {
+            log.debug("✅ 주문 취소 성공");
         } else {
-            log.warn("❌ 주문 취소 실패 - 현재 상태에서 취소할 수 없습니다");
+            log.warn("❌ 주문 취소 실패 - 결과: {}", result);
         }
-        
-        return success;
+
+        return result;
     }
 
     /**
      * 상태를 변경한다.
-     * 새로운 상태로 컨텍스트를 업데이트하고 주문 정보도 함께 변경한다.
-     * 
+     * 현재 상태가 expectedState일 때만 새 스냅샷으로 CAS 하며, 주문 정보도 함께 변경한다.
+     *
+     * @param expectedState 전환을 요청한 상태 객체 (보통 호출한 State 자신)
+     * @param newState 새로운 상태 객체
+     * @param reason 상태 변경 사유
+     * @return 전환 성공 여부 (다른 요청이 먼저 상태를 바꿨다면 false)
+     */
+    public boolean changeState(OrderState expectedState, OrderState newState, String reason) {
+        OrderStateSnapshot previous = slot.getSnapshot();
+        if (previous.getState() != expectedState) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderStateSnapshot next = previous.next(newState, now, reason);
+        if (!slot.compareAndSetSnapshot(previous, next)) {
+            return false;
+        }
+
+        log.debug("🔄 상태 변경 완료 - {} → {} (사유: {}, 버전: {})",
+                previous.getStateType().getStateName(),
+                newState.getStateType().getStateName(),
+                reason,
+                next.getVersion());
+
+        if (stateChangeListener != null) {
+            stateChangeListener.onStateChanged(this, previous, next, reason);
+        }
+        return true;
+    }
+
+    /**
+     * 저장소에 기록된 상태 변경을 다시 적용한다.
+     * 복구 과정에서만 사용하며, 로그와 리스너 호출 없이 상태와 이력만 갱신한다.
+     *
      * @param newState 새로운 상태 객체
      * @param reason 상태 변경 사유
+     * @param changedAt 기록된 상태 변경 시간
+     */
+    public void replayStateChange(OrderState newState, String reason, LocalDateTime changedAt) {
+        OrderStateSnapshot previous = slot.getSnapshot();
+        slot.setSnapshot(previous.next(newState, changedAt, reason));
+    }
+
+    /**
+     * 현재 상태 스냅샷을 반환한다.
+     *
+     * @return 현재 상태 스냅샷
      */
-    public void changeState(OrderState newState, String reason) {
-        OrderStateType previousState = currentState.getStateType();
-        
-        this.currentState = newState;
-        this.order.setCurrentState(newState.getStateType());
-        this.order.setStateChangedAt(LocalDateTime.now());
-        
-        // 상태 변경 이력 추가
-        addStateHistory(reason, newState.getStateType());
-        
-        log.info("🔄 상태 변경 완료 - {} → {} (사유: {})", 
-                previousState.getStateName(), 
-                newState.getStateType().getStateName(), 
-                reason);
+    public OrderStateSnapshot getSnapshot() {
+        return slot.getSnapshot();
+    }
+
+    /**
+     * long 주문 ID를 반환한다.
+     *
+     * @return long 주문 ID (저장소 키)
+     */
+    public long getOrderKey() {
+        return slot.getOrderKey();
+    }
+
+    /**
+     * 주문 ID를 반환한다.
+     *
+     * @return 주문 ID
+     */
+    public String getOrderId() {
+        return slot.getOrderId();
+    }
+
+    /**
+     * 현재 스냅샷 기준의 주문 정보를 반환한다.
+     *
+     * @return 현재 상태가 반영된 주문 정보 (복사본)
+     */
+    public OrderDTO getOrder() {
+        return getOrder(slot.getSnapshot());
+    }
+
+    /**
+     * 지정한 스냅샷 기준의 주문 정보를 반환한다.
+     *
+     * @param stateSnapshot 기준 스냅샷
+     * @return 스냅샷의 상태가 반영된 주문 정보 (복사본)
+     */
+    public OrderDTO getOrder(OrderStateSnapshot stateSnapshot) {
+        return slot.getOrder().toBuilder()
+                .currentState(stateSnapshot.getStateType())
+                .stateChangedAt(stateSnapshot.getChangedAt())
+                .build();
+    }
+
+    /**
+     * 현재 상태 객체를 반환한다.
+     *
+     * @return 현재 상태 객체
+     */
+    public OrderState getCurrentState() {
+        return slot.getSnapshot().getState();
+    }
+
+    /**
+     * 상태 변경 이력을 반환한다.
+     *
+     * @return 상태 변경 이력 (불변, 압축 저장)
+     */
+    public OrderStateHistory getStateHistory() {
+        return slot.getSnapshot().getHistory();
+    }
+
+    /**
+     * 현재 버전을 반환한다.
+     *
+     * @return 현재 버전
+     */
+    public long getVersion() {
+        return slot.getSnapshot().getVersion();
     }
 
     /**
      * 현재 상태에서 가능한 액션 목록을 반환한다.
-     * 
+     *
      * @return 가능한 액션들의 목록
      */
     public List<String> getAvailableActions() {
-        return currentState.getAvailableActions();
+        return getCurrentState().getAvailableActions();
     }
 
     /**
      * 현재 상태 메시지를 반환한다.
-     * 
+     *
      * @return 현재 상태의 설명 메시지
      */
     public String getStatusMessage() {
-        return currentState.getStatusMessage();
+        return getCurrentState().getStatusMessage();
     }
 
     /**
      * 예상 완료 시간을 반환한다.
-     * 
+     *
      * @return 예상 완료 시간(분)
      */
     public int getEstimatedMinutes() {
-        return currentState.getEstimatedMinutes();
+        return getCurrentState().getEstimatedMinutes();
     }
 
     /**
      * 현재 상태 타입을 반환한다.
-     * 
+     *
      * @return 현재 주문 상태 타입
      */
     public OrderStateType getCurrentStateType() {
-        return currentState.getStateType();
+        return getCurrentState().getStateType();
     }
 
     /**
-     * 상태 변경 이력을 추가한다.
-     * 
-     * @param reason 변경 사유
-     * @param newState 새로운 상태
+     * 전환 시도 결과를 판정한다.
+     * 실패했더라도 그 사이 버전이 올랐다면 다른 요청과 충돌한 것이다.
+     * 보관 칸에 따라 스냅샷을 읽을 때마다 새로 만들 수 있으므로 참조 대신 버전으로 비교한다.
+     *
+     * @param success State의 전환 성공 여부
+     * @param before 전환 시도 전 스냅샷
+     * @return 전환 결과
      */
-    private void addStateHistory(String reason, OrderStateType newState) {
-        String historyEntry = String.format("[%s] %s → %s", 
-                LocalDateTime.now().toString(), 
-                reason, 
-                newState.getStateName());
-        stateHistory.add(historyEntry);
+    private OrderTransitionResult toTransitionResult(boolean success, OrderStateSnapshot before) {
+        if (success) {
+            return OrderTransitionResult.SUCCESS;
+        }
+        return slot.getSnapshot().getVersion() != before.getVersion() ? OrderTransitionResult.CONFLICT : OrderTransitionResult.REJECTED;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+
+/**
+ * 주문 보관 칸
+ *
+ * OrderContext가 주문 정보와 현재 상태 스냅샷을 읽고 바꾸는 저장 위치
+ * - 힙 (HeapOrderSlot)            : OrderDTO와 AtomicReference 스냅샷을 그대로 보관 (기본)
+ * - 오프힙 (OffHeapOrderSlot 등)  : 저장소가 직접 관리하는 메모리에 보관하고, 읽을 때마다 디코딩
+ *
+ * 같은 주문을 가리키는 OrderContext가 여러 개여도 전환은 칸 하나의 compareAndSetSnapshot으로 직렬화된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public interface OrderSlot {
+
+    /**
+     * long 주문 ID를 반환한다.
+     *
+     * @return long 주문 ID (OrderIdGenerator.parse 결과)
+     */
+    long getOrderKey();
+
+    /**
+     * 주문 ID를 반환한다.
+     *
+     * @return 주문 ID
+     */
+    String getOrderId();
+
+    /**
+     * 주문 기본 정보를 반환한다. 상태 관련 필드는 스냅샷이 원본이므로 믿지 않는다.
+     *
+     * @return 주문 정보 (호출한 쪽이 변경하면 안 된다)
+     */
+    OrderDTO getOrder();
+
+    /**
+     * 현재 상태 스냅샷을 반환한다.
+     *
+     * @return 현재 상태 스냅샷
+     */
+    OrderStateSnapshot getSnapshot();
+
+    /**
+     * 현재 스냅샷이 expected일 때만 next로 바꾼다.
+     * next는 expected에 이력 1건을 덧붙인 스냅샷이어야 한다.
+     *
+     * @param expected 전환 전 스냅샷
+     * @param next 전환 후 스냅샷
+     * @return 성공 여부 (그 사이 다른 전환이 먼저 일어났다면 false)
+     */
+    boolean compareAndSetSnapshot(OrderStateSnapshot expected, OrderStateSnapshot next);
+
+    /**
+     * 스냅샷을 조건 없이 바꾼다. 저장소 복구(재생) 중에만 사용한다.
+     *
+     * @param snapshot 새 스냅샷
+     */
+    void setSnapshot(OrderStateSnapshot snapshot);
+
+}
@@ -0,0 +1,191 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 주문 상태 변경 이력 (불변, 압축 저장)
+ *
+ * 전환 1건을 long 하나에 담아 배열로 보관한다
+ * 사람이 읽는 문자열은 이력 조회 API(GET /{orderId}/history)에서 필요할 때만 만든다
+ *
+ * [long 1건의 비트 구성]
+ * 8비트 상태 ordinal | 16비트 사유 ID (OrderStateReasons) | 40비트 기준 시각 대비 경과 ms
+ *
+ * - 기준 시각 : 첫 이력의 epoch millis (40비트 = 약 34년)
+ * - 시간 정밀도 : ms
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public final class OrderStateHistory {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final OrderStateType[] STATE_TYPES = OrderStateType.values();
+
+    private static final int DELTA_BITS = 40;
+
+    private static final int REASON_BITS = 16;
+
+    private static final long DELTA_MASK = (1L << DELTA_BITS) - 1;
+
+    private static final long REASON_MASK = (1L << REASON_BITS) - 1;
+
+    private static final long[] NO_RECORDS = new long[0];
+
+    private static final OrderStateHistory EMPTY = new OrderStateHistory(0L, NO_RECORDS);
+
+    /**
+     * 기준 시각 (epoch millis)
+     */
+    private final long baseEpochMillis;
+
+    /**
+     * 압축된 이력 레코드
+     */
+    private final long[] records;
+
+    private OrderStateHistory(long baseEpochMillis, long[] records) {
+        this.baseEpochMillis = baseEpochMillis;
+        this.records = records;
+    }
+
+    /**
+     * 빈 이력을 반환한다.
+     *
+     * @return 빈 이력
+     */
+    public static OrderStateHistory empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 압축된 레코드로 이력을 만든다. 저장소가 getPackedRecord()로 꺼내 둔 값을 되살릴 때 사용한다.
+     *
+     * @param baseEpochMillis 기준 시각 (getBaseEpochMillis)
+     * @param packedRecords 압축된 레코드 (배열을 그대로 사용하므로 이후 변경하면 안 된다)
+     * @return 이력
+     */
+    public static OrderStateHistory fromPacked(long baseEpochMillis, long[] packedRecords) {
+        return packedRecords.length == 0 ? EMPTY : new OrderStateHistory(baseEpochMillis, packedRecords);
+    }
+
+    /**
+     * 이력 1건을 덧붙인 새 이력을 만든다. (현재 이력은 변경하지 않는다)
+     *
+     * @param state 새로운 상태
+     * @param changedAt 상태 변경 시간
+     * @param reason 상태 변경 사유
+     * @return 1건이 추가된 이력
+     */
+    public OrderStateHistory append(OrderStateType state, LocalDateTime changedAt, String reason) {
+        return append(state, toEpochMillis(changedAt), reason);
+    }
+
+    /**
+     * 이력 1건을 덧붙인 새 이력을 만든다. (현재 이력은 변경하지 않는다)
+     *
+     * @param state 새로운 상태
+     * @param changedAtEpochMillis 상태 변경 시간 (epoch millis)
+     * @param reason 상태 변경 사유
+     * @return 1건이 추가된 이력
+     */
+    public OrderStateHistory append(OrderStateType state, long changedAtEpochMillis, String reason) {
+        long base = records.length == 0 ? changedAtEpochMillis : baseEpochMillis;
+        // 시계가 뒤로 간 경우에도 이력 순서가 뒤집히지 않도록 기준 시각보다 앞설 수 없게 한다
+        long delta = Math.min(Math.max(0L, changedAtEpochMillis - base), DELTA_MASK);
+
+        long[] next = new long[records.length + 1];
+        System.arraycopy(records, 0, next, 0, records.length);
+        next[records.length] = ((long) state.ordinal() << (DELTA_BITS + REASON_BITS))
+                | ((long) OrderStateReasons.intern(reason) << DELTA_BITS)
+                | delta;
+        return new OrderStateHistory(base, next);
+    }
+
+    /**
+     * 이력 건수를 반환한다.
+     *
+     * @return 이력 건수
+     */
+    public int size() {
+        return records.length;
+    }
+
+    /**
+     * 기준 시각을 반환한다.
+     *
+     * @return 첫 이력의 epoch millis
+     */
+    public long getBaseEpochMillis() {
+        return baseEpochMillis;
+    }
+
+    /**
+     * index번째 이력의 압축된 레코드를 반환한다. (fromPacked로 되살릴 수 있다)
+     *
+     * @param index 이력 순번 (0부터)
+     * @return 압축된 레코드
+     */
+    public long getPackedRecord(int index) {
+        return records[index];
+    }
+
+    /**
+     * index번째 이력의 상태를 반환한다.
+     *
+     * @param index 이력 순번 (0부터)
+     * @return 상태 타입
+     */
+    public OrderStateType getState(int index) {
+        return STATE_TYPES[(int) (records[index] >>> (DELTA_BITS + REASON_BITS))];
+    }
+
+    /**
+     * index번째 이력의 사유를 반환한다.
+     *
+     * @param index 이력 순번 (0부터)
+     * @return 상태 변경 사유
+     */
+    public String getReason(int index) {
+        return OrderStateReasons.get((int) ((records[index] >>> DELTA_BITS) & REASON_MASK));
+    }
+
+    /**
+     * index번째 이력의 변경 시간을 반환한다.
+     *
+     * @param index 이력 순번 (0부터)
+     * @return 상태 변경 시간 (epoch millis)
+     */
+    public long getChangedAtEpochMillis(int index) {
+        return baseEpochMillis + (records[index] & DELTA_MASK);
+    }
+
+    /**
+     * index번째 이력의 변경 시간을 반환한다.
+     *
+     * @param index 이력 순번 (0부터)
+     * @return 상태 변경 시간
+     */
+    public LocalDateTime getChangedAt(int index) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(getChangedAtEpochMillis(index)), ZONE);
+    }
+
+    /**
+     * 마지막 이력의 변경 시간을 반환한다.
+     *
+     * @return 마지막 상태 변경 시간, 이력이 없으면 null
+     */
+    public LocalDateTime getLastChangedAt() {
+        return records.length == 0 ? null : getChangedAt(records.length - 1);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+}
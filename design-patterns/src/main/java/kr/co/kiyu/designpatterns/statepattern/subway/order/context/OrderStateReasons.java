@@ -0,0 +1,79 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상태 변경 사유 문자열 저장소
+ *
+ * 상태 변경 사유는 "조리 시작", "배달 완료"처럼 종류가 몇 개 안 되는 문자열이므로
+ * 주문마다 들고 있지 않고 여기에 한 번만 등록한 뒤 16비트 ID로 참조한다
+ *
+ * - 등록 : 처음 보는 사유만 synchronized로 등록하고, 이미 있는 사유는 ConcurrentHashMap 조회로 끝난다
+ * - 조회 : volatile 배열 하나를 읽으므로 락이 없다
+ *
+ * ID는 프로세스 안에서만 유효하므로, 저널 등 외부에 기록할 때는 반드시 문자열로 풀어서 쓴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public final class OrderStateReasons {
+
+    /**
+     * 등록 가능한 최대 사유 개수 (OrderStateHistory의 16비트 필드)
+     */
+    public static final int MAX_REASONS = 1 << 16;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static volatile String[] reasons = new String[64];
+
+    private static int size;
+
+    private OrderStateReasons() {
+    }
+
+    /**
+     * 사유를 등록하고 ID를 반환한다.
+     *
+     * @param reason 상태 변경 사유 (null은 빈 문자열로 취급)
+     * @return 사유 ID
+     */
+    public static int intern(String reason) {
+        String key = reason == null ? "" : reason;
+        Integer id = IDS.get(key);
+        return id != null ? id : register(key);
+    }
+
+    /**
+     * ID에 해당하는 사유를 반환한다.
+     *
+     * @param id 사유 ID
+     * @return 상태 변경 사유
+     */
+    public static String get(int id) {
+        return reasons[id];
+    }
+
+    private static synchronized int register(String reason) {
+        Integer id = IDS.get(reason);
+        if (id != null) {
+            return id;
+        }
+        if (size == MAX_REASONS) {
+            throw new IllegalStateException("상태 변경 사유는 최대 " + MAX_REASONS + "개까지 등록할 수 있습니다.");
+        }
+        String[] current = reasons;
+        if (size == current.length) {
+            String[] grown = new String[Math.min(current.length * 2, MAX_REASONS)];
+            System.arraycopy(current, 0, grown, 0, size);
+            current = grown;
+        }
+        current[size] = reason;
+        // 배열을 먼저 채운 뒤 volatile로 공개하고, 그 다음에 ID를 맵에 노출한다
+        reasons = current;
+        IDS.put(reason, size);
+        return size++;
+    }
+
+}
@@ -0,0 +1,105 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.context;
+
+import java.time.LocalDateTime;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderState;
+
+import lombok.Getter;
+
+/**
+ * 주문 상태 스냅샷 (불변)
+ *
+ * 한 시점의 주문 상태와 상태 변경 이력을 한 묶음으로 담는다
+ * OrderContext는 이 스냅샷을 주문 보관 칸(OrderSlot)으로 공개하고, 상태 전환은 새 스냅샷으로의 CAS로 처리한다
+ * 따라서 조회하는 쪽은 락 없이 항상 서로 어긋나지 않는 상태/시간/이력을 읽는다
+ *
+ * 버전과 상태 변경 시간은 따로 저장하지 않고 이력에서 꺼낸다
+ * - 버전 : 이력 건수 (1부터 시작하여 상태 전환마다 1씩 증가)
+ * - 상태 변경 시간 : 마지막 이력의 시간
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Getter
+public final class OrderStateSnapshot {
+
+    /**
+     * 현재 상태 객체
+     */
+    private final OrderState state;
+
+    /**
+     * 상태 변경 이력 (압축 저장)
+     */
+    private final OrderStateHistory history;
+
+    private OrderStateSnapshot(OrderState state, OrderStateHistory history) {
+        this.state = state;
+        this.history = history;
+    }
+
+    /**
+     * 최초 스냅샷을 만든다.
+     *
+     * @param state 초기 상태
+     * @param changedAt 생성 시간
+     * @param reason 최초 이력 사유
+     * @return 버전 1 스냅샷
+     */
+    public static OrderStateSnapshot initial(OrderState state, LocalDateTime changedAt, String reason) {
+        return new OrderStateSnapshot(state,
+                OrderStateHistory.empty().append(state.getStateType(), changedAt, reason));
+    }
+
+    /**
+     * 저장소에 기록된 상태로 스냅샷을 되살린다.
+     *
+     * @param state 현재 상태
+     * @param history 상태 변경 이력
+     * @return 이력 건수를 버전으로 하는 스냅샷
+     */
+    public static OrderStateSnapshot restore(OrderState state, OrderStateHistory history) {
+        return new OrderStateSnapshot(state, history);
+    }
+
+    /**
+     * 다음 스냅샷을 만든다. (현재 스냅샷은 변경하지 않는다)
+     *
+     * @param newState 새로운 상태
+     * @param changedAt 상태 변경 시간
+     * @param reason 상태 변경 사유
+     * @return 버전이 1 증가한 스냅샷
+     */
+    public OrderStateSnapshot next(OrderState newState, LocalDateTime changedAt, String reason) {
+        return new OrderStateSnapshot(newState, history.append(newState.getStateType(), changedAt, reason));
+    }
+
+    /**
+     * 버전을 반환한다. (ETag로 노출)
+     *
+     * @return 버전
+     */
+    public long getVersion() {
+        return history.size();
+    }
+
+    /**
+     * 상태 변경 시간을 반환한다.
+     *
+     * @return 마지막 상태 변경 시간
+     */
+    public LocalDateTime getChangedAt() {
+        return history.getLastChangedAt();
+    }
+
+    /**
+     * 현재 상태 타입을 반환한다.
+     *
+     * @return 현재 주문 상태 타입
+     */
+    public OrderStateType getStateType() {
+        return state.getStateType();
+    }
+
+}
@@ -0,0 +1,111 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.eta;
+
+/**
+ * 상태 체류 시간 분위수 스케치
+ *
+ * 체류 시간(ms)을 로그 간격 칸에 세기만 하므로 표본 수와 관계없이 메모리가 칸 수로 고정된다
+ * - 칸 i 는 (γ^(i-1), γ^i] ms 구간이며, γ = (1 + α) / (1 - α) 이므로 분위수의 상대 오차가 α 이내다
+ * - 상한(maxMillis)을 넘는 값은 마지막 칸에 센다
+ * - 표본 수가 window에 이르면 모든 칸을 절반으로 줄여 최근 주문의 비중을 높인다 (주방이 느려지거나 빨라지면 따라간다)
+ *
+ * 이벤트 버스 핸들러 스레드 하나만 쓰고 읽는다 (조회 스레드에는 OrderEtaEstimator가 계산해 둔 값만 공개된다)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class OrderDurationSketch {
+
+    private final double logGamma;
+
+    private final double gamma;
+
+    private final int[] counts;
+
+    private final long window;
+
+    private long total;
+
+    /**
+     * @param relativeAccuracy 분위수 상대 오차 α (0 < α < 1)
+     * @param maxMillis 따로 세는 최대 체류 시간
+     * @param window 절반으로 줄이는 표본 수
+     */
+    OrderDurationSketch(double relativeAccuracy, long maxMillis, long window) {
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.counts = new int[bucketCount(relativeAccuracy, maxMillis)];
+        this.window = window;
+    }
+
+    /**
+     * 칸 수를 반환한다. (스케치 하나의 메모리 = 칸 수 x 4 bytes)
+     *
+     * @param relativeAccuracy 분위수 상대 오차
+     * @param maxMillis 따로 세는 최대 체류 시간
+     * @return 칸 수
+     */
+    static int bucketCount(double relativeAccuracy, long maxMillis) {
+        double logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        return (int) Math.ceil(Math.log(Math.max(2L, maxMillis)) / logGamma) + 1;
+    }
+
+    /**
+     * 체류 시간 하나를 센다.
+     *
+     * @param millis 체류 시간 (ms)
+     */
+    void add(long millis) {
+        int index = millis <= 1 ? 0 : (int) Math.ceil(Math.log(millis) / logGamma);
+        counts[Math.min(index, counts.length - 1)]++;
+        if (++total >= window) {
+            halve();
+        }
+    }
+
+    /**
+     * 분위수를 반환한다.
+     *
+     * @param quantile 분위 (0 ~ 1)
+     * @return 체류 시간 (ms), 표본이 없으면 -1
+     */
+    long quantile(double quantile) {
+        if (total == 0) {
+            return -1L;
+        }
+        long rank = (long) (quantile * (total - 1));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(counts.length - 1);
+    }
+
+    /**
+     * 현재 표본 수를 반환한다. (절반으로 줄인 뒤의 값)
+     *
+     * @return 표본 수
+     */
+    long getCount() {
+        return total;
+    }
+
+    /**
+     * 칸 i 를 대표하는 값 (구간 양 끝과의 상대 오차가 같은 점)
+     */
+    private long valueOf(int index) {
+        return index == 0 ? 1L : Math.round(2 * Math.pow(gamma, index) / (gamma + 1));
+    }
+
+    private void halve() {
+        long remaining = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] >>>= 1;
+            remaining += counts[i];
+        }
+        total = remaining;
+    }
+
+}
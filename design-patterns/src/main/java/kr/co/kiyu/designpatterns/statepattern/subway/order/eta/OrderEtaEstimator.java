@@ -0,0 +1,422 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.eta;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus.OrderLifecycleEvent;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus.OrderLifecycleEventHandler;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEtaDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEtaDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderEtaBasis;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderLifecycleEventType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 예상 시간 추정기
+ *
+ * 상태별 고정 예상 시간(getEstimatedMinutes) 대신, 실제로 기록된 상태 전환에서 체류 시간 분포를 배워 p50/p90을 추정한다
+ *
+ * - 수집 : 이벤트 버스 핸들러이므로 상태 전환(요청 스레드)은 링 버퍼에 한 칸 쓰는 것 외에 아무것도 기다리지 않는다
+ *         다음 단계로 정상 진행한 전환만 세며, 취소로 끝난 체류 시간은 세지 않는다
+ * - 칸 : 상태 x 메뉴 x 시간대(그 상태가 된 시각의 시) 마다 OrderDurationSketch 하나를 두고,
+ *        메뉴/시간대를 합친 칸(상태 전체, 상태 x 메뉴, 상태 x 시간대)도 함께 센다
+ *        메뉴는 max-menus개까지만 따로 세므로 칸 수(= 메모리)는 설정으로 고정된다
+ * - 공개 : 묶음의 마지막 이벤트(endOfBatch)에서 바뀐 칸의 p50/p90만 다시 계산해 두고,
+ *         조회 시 refresh-ms가 지났으면 전체 칸을 불변 보기(revision)로 묶어 바꾼다
+ *         같은 보기 안에서는 같은 주문의 예상 시간이 늘 같으므로, 응답 ETag에 revision을 넣어 조건부 조회(304)를 할 수 있다
+ * - 추정 : 메뉴·시간대 → 메뉴 → 시간대 → 상태 전체 순으로 min-samples 이상 모인 칸을 쓰고, 없으면 상태의 기본 예상 시간을 쓴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderEtaEstimator implements OrderLifecycleEventHandler {
+
+    private static final OrderStateType[] TYPES = OrderStateType.values();
+
+    /** 따로 세는 최대 체류 시간 (넘는 값은 마지막 칸) */
+    private static final long MAX_DURATION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /** 메뉴/시간대를 합친 칸 번호 */
+    private static final int ANY = 0;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderStateMachine stateMachine;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final double relativeAccuracy;
+
+    private final long window;
+
+    private final long minSamples;
+
+    private final int maxMenus;
+
+    private final int bucketHours;
+
+    private final int menuSlots;
+
+    private final int timeSlots;
+
+    private final long refreshMs;
+
+    /** 칸 번호 → 스케치 (핸들러 스레드 전용, 처음 셀 때 만든다) */
+    private final OrderDurationSketch[] sketches;
+
+    /** 이번 묶음에서 바뀐 칸 (핸들러 스레드 전용) */
+    private final boolean[] dirty;
+
+    private final int[] dirtyCells;
+
+    private int dirtyCount;
+
+    /** 메뉴명 → 메뉴 칸 번호 (1부터, 핸들러 스레드만 추가) */
+    private final Map<String, Integer> menuSlotByName = new ConcurrentHashMap<>();
+
+    /** 칸 번호 → 핸들러가 마지막으로 계산한 추정 */
+    private final AtomicReferenceArray<Estimate> estimates;
+
+    /** estimates를 바꿀 때마다 올리는 번호 (핸들러만 쓴다) */
+    private volatile long estimatesGeneration;
+
+    /** 조회가 읽는 불변 보기 */
+    private final AtomicReference<View> view;
+
+    public OrderEtaEstimator(OrderRepository orderRepository, OrderStateMachine stateMachine,
+                             @Value("${subway.order.eta.relative-accuracy:0.02}") double relativeAccuracy,
+                             @Value("${subway.order.eta.window:10000}") long window,
+                             @Value("${subway.order.eta.min-samples:30}") long minSamples,
+                             @Value("${subway.order.eta.max-menus:32}") int maxMenus,
+                             @Value("${subway.order.eta.bucket-hours:1}") int bucketHours,
+                             @Value("${subway.order.eta.refresh-ms:5000}") long refreshMs) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("subway.order.eta.relative-accuracy는 0과 1 사이여야 합니다: " + relativeAccuracy);
+        }
+        if (bucketHours < 1 || bucketHours > 24) {
+            throw new IllegalArgumentException("subway.order.eta.bucket-hours는 1 ~ 24여야 합니다: " + bucketHours);
+        }
+        this.orderRepository = orderRepository;
+        this.stateMachine = stateMachine;
+        this.relativeAccuracy = relativeAccuracy;
+        this.window = Math.max(2L, window);
+        this.minSamples = Math.max(1L, minSamples);
+        this.maxMenus = Math.max(0, maxMenus);
+        this.bucketHours = bucketHours;
+        this.menuSlots = this.maxMenus + 1;
+        this.timeSlots = (24 + bucketHours - 1) / bucketHours + 1;
+        this.refreshMs = Math.max(0L, refreshMs);
+
+        int cells = TYPES.length * menuSlots * timeSlots;
+        this.sketches = new OrderDurationSketch[cells];
+        this.dirty = new boolean[cells];
+        this.dirtyCells = new int[cells];
+        this.estimates = new AtomicReferenceArray<>(cells);
+        this.view = new AtomicReference<>(new View(0L, 0L, 0L, new Estimate[cells]));
+
+        // 체류 시간이 생기는 칸은 진행 중 상태의 칸뿐이다
+        long usableCells = Arrays.stream(TYPES).filter(type -> !type.isTerminal()).count() * menuSlots * timeSlots;
+        int buckets = OrderDurationSketch.bucketCount(relativeAccuracy, MAX_DURATION_MILLIS);
+        log.info("⏳ 주문 예상 시간 추정 - 상대 오차 {}%, 칸 최대 {}개 x {}bytes (최대 {}KB), 메뉴 {}개, 시간대 {}시간",
+                relativeAccuracy * 100, usableCells, buckets * 4, usableCells * buckets * 4 / 1024, this.maxMenus, bucketHours);
+    }
+
+    @Override
+    public void onEvent(OrderLifecycleEvent event, long sequence, boolean endOfBatch) {
+        try {
+            if (event.getType() == OrderLifecycleEventType.STATE_CHANGED && isProgress(event)) {
+                record(event);
+            }
+        } finally {
+            if (endOfBatch) {
+                publishDirty();
+            }
+        }
+    }
+
+    /**
+     * 주문의 예상 시간을 추정한다.
+     * 조회 시각과 관계없이 주문 스냅샷과 현재 보기(revision)만으로 정해진다.
+     *
+     * @param snapshot 주문 상태 스냅샷
+     * @param menuName 메뉴명
+     * @return 예상 시간, 완료/취소된 주문이면 null
+     */
+    public OrderEtaDTO estimate(OrderStateSnapshot snapshot, String menuName) {
+        OrderStateType state = snapshot.getStateType();
+        if (state.isTerminal()) {
+            return null;
+        }
+        Estimate[] cells = currentView().cells;
+        OrderStateHistory history = snapshot.getHistory();
+        long enteredAt = history.getChangedAtEpochMillis(history.size() - 1);
+        Integer menuSlot = menuSlotOf(menuName);
+        int timeSlot = timeSlotOf(enteredAt);
+
+        // 현재 상태가 된 시각부터 이후 진행 중 상태들의 체류 시간을 더한다 (이후 상태도 같은 시간대로 추정)
+        OrderStateEtaDTO current = estimateState(cells, state, menuSlot, timeSlot);
+        long completionP50 = enteredAt + current.getP50Millis();
+        long completionP90 = enteredAt + current.getP90Millis();
+        for (OrderState next = stateMachine.getNextState(state);
+             next != null && !next.getStateType().isTerminal();
+             next = stateMachine.getNextState(next.getStateType())) {
+            OrderStateEtaDTO following = estimateState(cells, next.getStateType(), menuSlot, timeSlot);
+            completionP50 += following.getP50Millis();
+            completionP90 += following.getP90Millis();
+        }
+
+        return OrderEtaDTO.builder()
+                .current(current)
+                .expectedCompletionP50(LocalDateTime.ofInstant(Instant.ofEpochMilli(completionP50), zone))
+                .expectedCompletionP90(LocalDateTime.ofInstant(Instant.ofEpochMilli(completionP90), zone))
+                .build();
+    }
+
+    /**
+     * 현재 보기의 번호를 반환한다. 번호가 같으면 같은 주문 스냅샷의 예상 시간도 같다.
+     *
+     * @return 보기 번호
+     */
+    public long getRevision() {
+        return currentView().revision;
+    }
+
+    /**
+     * 진행 중 상태들의 체류 시간 추정을 반환한다.
+     *
+     * @param menuName 메뉴명 (null이면 전체 메뉴)
+     * @param hourOfDay 시 (0 ~ 23, 음수이면 전체 시간대)
+     * @return 상태 → 체류 시간 추정 (상태 순서)
+     */
+    public Map<OrderStateType, OrderStateEtaDTO> getStateEstimates(String menuName, int hourOfDay) {
+        Estimate[] cells = currentView().cells;
+        Integer menuSlot = menuSlotOf(menuName);
+        int timeSlot = hourOfDay < 0 ? ANY : (hourOfDay % 24) / bucketHours + 1;
+        Map<OrderStateType, OrderStateEtaDTO> result = new EnumMap<>(OrderStateType.class);
+        for (OrderStateType type : TYPES) {
+            if (!type.isTerminal()) {
+                result.put(type, estimateState(cells, type, menuSlot, timeSlot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 이전 상태의 다음 단계로 정상 진행한 전환인지 확인한다. (취소로 끝난 체류 시간은 다음 단계까지의 시간이 아니다)
+     */
+    private boolean isProgress(OrderLifecycleEvent event) {
+        OrderState next = stateMachine.getNextState(event.getPreviousStateType());
+        return next != null && next.getStateType() == event.getStateType();
+    }
+
+    private void record(OrderLifecycleEvent event) {
+        int state = event.getPreviousStateType().ordinal();
+        long duration = event.getPreviousStateDurationMillis();
+        int timeSlot = timeSlotOf(event.getPreviousChangedAtEpochMillis());
+        int menuSlot = menuSlotForRecording(event.getOrderKey());
+
+        add(cellOf(state, ANY, ANY), duration);
+        add(cellOf(state, ANY, timeSlot), duration);
+        if (menuSlot != ANY) {
+            add(cellOf(state, menuSlot, ANY), duration);
+            add(cellOf(state, menuSlot, timeSlot), duration);
+        }
+    }
+
+    private void add(int cell, long duration) {
+        OrderDurationSketch sketch = sketches[cell];
+        if (sketch == null) {
+            sketch = new OrderDurationSketch(relativeAccuracy, MAX_DURATION_MILLIS, window);
+            sketches[cell] = sketch;
+        }
+        sketch.add(duration);
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+
+    private void publishDirty() {
+        if (dirtyCount == 0) {
+            return;
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirtyCells[i];
+            OrderDurationSketch sketch = sketches[cell];
+            estimates.lazySet(cell, new Estimate(sketch.quantile(0.5), sketch.quantile(0.9), sketch.getCount()));
+            dirty[cell] = false;
+        }
+        dirtyCount = 0;
+        estimatesGeneration = estimatesGeneration + 1;
+    }
+
+    /**
+     * 현재 보기를 반환한다. 핸들러가 추정을 바꿨고 refresh-ms가 지났으면 새 보기로 바꾼다.
+     * 보기를 만들기 전에 읽은 번호를 담으므로, 만드는 동안 바뀐 추정은 다음 보기에 들어간다.
+     */
+    private View currentView() {
+        View current = view.get();
+        long generation = estimatesGeneration;
+        if (generation == current.generation) {
+            return current;
+        }
+        long now = System.currentTimeMillis();
+        if (now - current.createdAtMillis < refreshMs) {
+            return current;
+        }
+        Estimate[] cells = new Estimate[estimates.length()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = estimates.get(i);
+        }
+        View next = new View(current.revision + 1, generation, now, cells);
+        return view.compareAndSet(current, next) ? next : view.get();
+    }
+
+    /**
+     * 주문의 메뉴 칸 번호를 찾는다. 처음 보는 메뉴는 칸이 남아 있으면 새로 배정한다. (핸들러 스레드)
+     * 이벤트에는 메뉴가 없으므로 저장소에서 주문을 읽는다 (보관/인계된 주문은 메뉴 없이 센다)
+     */
+    private int menuSlotForRecording(long orderKey) {
+        OrderContext context = orderRepository.findById(orderKey);
+        if (context == null) {
+            return ANY;
+        }
+        String menuName = context.getOrder().getMenuName();
+        if (menuName == null || menuName.isBlank()) {
+            return ANY;
+        }
+        String key = menuName.trim();
+        Integer slot = menuSlotByName.get(key);
+        if (slot == null) {
+            if (menuSlotByName.size() >= maxMenus) {
+                return ANY;
+            }
+            slot = menuSlotByName.size() + 1;
+            menuSlotByName.put(key, slot);
+        }
+        return slot;
+    }
+
+    private Integer menuSlotOf(String menuName) {
+        return menuName == null || menuName.isBlank() ? null : menuSlotByName.get(menuName.trim());
+    }
+
+    private OrderStateEtaDTO estimateState(Estimate[] cells, OrderStateType state, Integer menuSlot, int timeSlot) {
+        int ordinal = state.ordinal();
+        if (menuSlot != null) {
+            if (timeSlot != ANY && isReliable(cells[cellOf(ordinal, menuSlot, timeSlot)])) {
+                return toDto(state, cells[cellOf(ordinal, menuSlot, timeSlot)], OrderEtaBasis.MENU_AND_TIME);
+            }
+            if (isReliable(cells[cellOf(ordinal, menuSlot, ANY)])) {
+                return toDto(state, cells[cellOf(ordinal, menuSlot, ANY)], OrderEtaBasis.MENU);
+            }
+        }
+        if (timeSlot != ANY && isReliable(cells[cellOf(ordinal, ANY, timeSlot)])) {
+            return toDto(state, cells[cellOf(ordinal, ANY, timeSlot)], OrderEtaBasis.TIME);
+        }
+        if (isReliable(cells[cellOf(ordinal, ANY, ANY)])) {
+            return toDto(state, cells[cellOf(ordinal, ANY, ANY)], OrderEtaBasis.STATE);
+        }
+
+        long defaultMillis = TimeUnit.MINUTES.toMillis(stateMachine.getState(state).getEstimatedMinutes());
+        return OrderStateEtaDTO.builder()
+                .state(state)
+                .p50Millis(defaultMillis)
+                .p90Millis(defaultMillis)
+                .samples(0L)
+                .basis(OrderEtaBasis.DEFAULT)
+                .build();
+    }
+
+    private boolean isReliable(Estimate estimate) {
+        return estimate != null && estimate.samples >= minSamples;
+    }
+
+    private OrderStateEtaDTO toDto(OrderStateType state, Estimate estimate, OrderEtaBasis basis) {
+        return OrderStateEtaDTO.builder()
+                .state(state)
+                .p50Millis(estimate.p50Millis)
+                .p90Millis(estimate.p90Millis)
+                .samples(estimate.samples)
+                .basis(basis)
+                .build();
+    }
+
+    private int cellOf(int state, int menuSlot, int timeSlot) {
+        return (state * menuSlots + menuSlot) * timeSlots + timeSlot;
+    }
+
+    /**
+     * 시각이 속한 시간대 칸 번호 (1부터, 이 서버의 시간대 기준)
+     */
+    private int timeSlotOf(long epochMillis) {
+        long localSeconds = Math.floorDiv(epochMillis, 1000L)
+                + zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds();
+        int hour = (int) Math.floorMod(Math.floorDiv(localSeconds, 3600L), 24L);
+        return hour / bucketHours + 1;
+    }
+
+    /**
+     * 칸 하나의 공개된 추정 (불변)
+     */
+    private static final class Estimate {
+
+        private final long p50Millis;
+
+        private final long p90Millis;
+
+        private final long samples;
+
+        private Estimate(long p50Millis, long p90Millis, long samples) {
+            this.p50Millis = p50Millis;
+            this.p90Millis = p90Millis;
+            this.samples = samples;
+        }
+
+    }
+
+    /**
+     * 조회가 읽는 불변 보기 (모든 칸의 추정 묶음)
+     */
+    private static final class View {
+
+        private final long revision;
+
+        /** 만들 때 읽은 estimatesGeneration */
+        private final long generation;
+
+        private final long createdAtMillis;
+
+        private final Estimate[] cells;
+
+        private View(long revision, long generation, long createdAtMillis, Estimate[] cells) {
+            this.revision = revision;
+            this.generation = generation;
+            this.createdAtMillis = createdAtMillis;
+            this.cells = cells;
+        }
+
+    }
+
+}
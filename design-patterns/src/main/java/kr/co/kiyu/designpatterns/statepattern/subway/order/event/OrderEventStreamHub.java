@@ -0,0 +1,238 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEventDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 상태 변경 SSE 허브
+ *
+ * 상태 조회 API를 반복 호출(polling)하는 대신, 상태가 바뀔 때만 작은 이벤트를 밀어준다
+ * - 주문 구독 : GET /api/state/order/{orderId}/events (연결 즉시 현재 상태 1건, 완료/취소되면 연결 종료)
+ * - 전체 구독 : GET /api/state/order/events (주방 키오스크 등)
+ *
+ * - 상태 전환 스레드는 구독자 버퍼에 넣기만 하며, 느린 구독자가 전환을 막지 않는다 (OrderEventSubscriber 참고)
+ * - 유휴 연결은 스레드를 점유하지 않으며(서블릿 비동기), heartbeat-ms 마다 주석 한 줄로 끊긴 연결을 정리한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderEventStreamHub implements OrderStateChangeListener {
+
+    /** 주문 키 → 해당 주문 구독자들 */
+    private final Map<Long, Set<OrderEventSubscriber>> orderSubscribers = new ConcurrentHashMap<>();
+
+    /** 전체 주문 구독자들 */
+    private final Set<OrderEventSubscriber> allOrderSubscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final long timeoutMs;
+
+    private final int bufferSize;
+
+    private final ExecutorService sender;
+
+    private final ScheduledExecutorService heartbeatScheduler;
+
+    public OrderEventStreamHub(@Value("${subway.order.events.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${subway.order.events.buffer-size:32}") int bufferSize,
+                               @Value("${subway.order.events.sender-threads:4}") int senderThreads,
+                               @Value("${subway.order.events.heartbeat-ms:30000}") long heartbeatMs) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-sse-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeatScheduler.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 특정 주문을 구독한다. 연결 즉시 현재 상태를 1건 보낸다.
+     *
+     * @param context 주문 컨텍스트
+     * @return SSE 연결
+     */
+    public SseEmitter subscribe(OrderContext context) {
+        long orderKey = context.getOrderKey();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        OrderEventSubscriber subscriber = new OrderEventSubscriber(emitter, orderKey, 1, sender);
+
+        // 추가를 compute 안에서 해야, 빈 집합을 지우는 removeOrderSubscriber()와 엇갈려 지워진 집합에 들어가지 않는다
+        orderSubscribers.compute(orderKey, (key, subscribers) -> {
+            Set<OrderEventSubscriber> registered = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            registered.add(subscriber);
+            return registered;
+        });
+        register(subscriber);
+
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        subscriber.offer(orderKey, toEvent(context, snapshot));
+        completeIfTerminal(subscriber, snapshot);
+        return emitter;
+    }
+
+    /**
+     * 전체 주문을 구독한다.
+     *
+     * @return SSE 연결
+     */
+    public SseEmitter subscribeAll() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        OrderEventSubscriber subscriber = OrderEventSubscriber.forAllOrders(emitter, bufferSize, sender);
+        allOrderSubscribers.add(subscriber);
+        register(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        if (allOrderSubscribers.isEmpty()) {
+            return;
+        }
+        long orderKey = context.getOrderKey();
+        OrderStateEventDTO event = toEvent(context, context.getSnapshot());
+        for (OrderEventSubscriber subscriber : allOrderSubscribers) {
+            subscriber.offer(orderKey, event);
+        }
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        long orderKey = context.getOrderKey();
+        Set<OrderEventSubscriber> subscribers = orderSubscribers.get(orderKey);
+        if (subscribers == null && allOrderSubscribers.isEmpty()) {
+            return;
+        }
+
+        OrderStateEventDTO event = toEvent(context, current);
+        if (subscribers != null) {
+            for (OrderEventSubscriber subscriber : subscribers) {
+                subscriber.offer(orderKey, event);
+                completeIfTerminal(subscriber, current);
+            }
+        }
+        for (OrderEventSubscriber subscriber : allOrderSubscribers) {
+            subscriber.offer(orderKey, event);
+        }
+    }
+
+    /**
+     * 현재 구독자 수를 반환한다.
+     *
+     * @return 구독자 수
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeatScheduler.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private void register(OrderEventSubscriber subscriber) {
+        subscriberCount.incrementAndGet();
+        SseEmitter emitter = subscriber.getEmitter();
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> {
+            unregister(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> unregister(subscriber));
+    }
+
+    private void unregister(OrderEventSubscriber subscriber) {
+        if (subscriber.isClosed() && !isRegistered(subscriber)) {
+            return;
+        }
+        subscriber.close();
+        boolean removed;
+        if (subscriber.getOrderKey() < 0) {
+            removed = allOrderSubscribers.remove(subscriber);
+        } else {
+            removed = removeOrderSubscriber(subscriber);
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private boolean isRegistered(OrderEventSubscriber subscriber) {
+        if (subscriber.getOrderKey() < 0) {
+            return allOrderSubscribers.contains(subscriber);
+        }
+        Set<OrderEventSubscriber> subscribers = orderSubscribers.get(subscriber.getOrderKey());
+        return subscribers != null && subscribers.contains(subscriber);
+    }
+
+    private boolean removeOrderSubscriber(OrderEventSubscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        orderSubscribers.computeIfPresent(subscriber.getOrderKey(), (key, subscribers) -> {
+            removed[0] = subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return removed[0];
+    }
+
+    /**
+     * 완료/취소된 주문의 구독은 마지막 이벤트를 보낸 뒤 종료한다.
+     */
+    private void completeIfTerminal(OrderEventSubscriber subscriber, OrderStateSnapshot snapshot) {
+        if (snapshot.getStateType().isTerminal()) {
+            // 구독자의 전송 작업이 버퍼를 모두 보낸 뒤 해제하고 닫는다
+            subscriber.completeWhenDrained(() -> unregister(subscriber));
+        }
+    }
+
+    private void sendHeartbeats() {
+        allOrderSubscribers.forEach(OrderEventSubscriber::heartbeat);
+        orderSubscribers.values().forEach(subscribers -> subscribers.forEach(OrderEventSubscriber::heartbeat));
+    }
+
+    private static OrderStateEventDTO toEvent(OrderContext context, OrderStateSnapshot snapshot) {
+        OrderStateHistory history = snapshot.getHistory();
+        int last = history.size() - 1;
+        return OrderStateEventDTO.builder()
+                .orderId(context.getOrderId())
+                .state(snapshot.getStateType())
+                .stateName(snapshot.getStateType().getStateName())
+                .version(snapshot.getVersion())
+                .reason(history.getReason(last))
+                .changedAt(history.getChangedAt(last))
+                .build();
+    }
+
+}
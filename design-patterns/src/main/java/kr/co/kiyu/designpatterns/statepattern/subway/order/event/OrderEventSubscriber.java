@@ -0,0 +1,277 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEventDTO;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SSE 구독자
+ *
+ * SseEmitter 하나와 구독자별 전송 대기 버퍼를 묶는다
+ * 상태 전환 스레드는 버퍼에 넣기만 하고, 실제 전송은 전송 스레드 풀에서 구독자별로 한 번에 하나씩 처리한다
+ *
+ * [버퍼 정책]
+ * - 병합(coalesce) : 같은 주문의 이벤트가 아직 전송 전이면 버전이 더 높은 이벤트만 남긴다 (구독자는 최신 상태만 알면 된다)
+ * - 순서(version)  : 같은 주문의 리스너 호출은 순서가 뒤바뀌어 들어올 수 있으므로,
+ *                    주문별로 마지막에 보낸 버전을 기억해 두고 그보다 오래된 이벤트는 버린다
+ * - 버림(drop)     : 서로 다른 주문이 bufferSize를 넘게 쌓이면 가장 오래된 것부터 버리고,
+ *                    다음 전송 때 "dropped" 이벤트로 버린 건수를 알려 구독자가 다시 조회하도록 한다
+ *
+ * 대기 중인 이벤트가 없을 때는 버퍼를 만들지 않으므로, 유휴 연결은 SseEmitter와 이 객체만 차지한다
+ *
+ * 완료/취소된 주문의 구독은 completeWhenDrained()로 닫는다. 전송 스레드가 버퍼를 모두 보낸 뒤에 닫으므로
+ * 마지막 이벤트(COMPLETED/CANCELLED)가 닫힘보다 먼저 나간다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public class OrderEventSubscriber {
+
+    private static final long NO_ORDER_KEY = -1L;
+
+    /** 마지막 전송 버전을 기억하는 주문 수 (늦게 도착하는 이벤트는 최근 주문의 것이므로 오래된 주문부터 잊는다) */
+    private static final int SENT_VERSION_LIMIT = 1024;
+
+    @Getter
+    private final SseEmitter emitter;
+
+    /** 특정 주문 구독이면 주문 키, 전체 구독이면 -1 */
+    @Getter
+    private final long orderKey;
+
+    private final int bufferSize;
+
+    private final Executor sender;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** 전송 대기 이벤트 (주문 키 → 최신 이벤트), this로 동기화 */
+    private LinkedHashMap<Long, OrderStateEventDTO> pending;
+
+    /** 주문 키 → 마지막으로 전송한 버전, this로 동기화 */
+    private LinkedHashMap<Long, Long> sentVersions;
+
+    /** 마지막 전송 이후 버린 이벤트 수, this로 동기화 */
+    private int dropped;
+
+    /** 하트비트 전송 요청 여부, this로 동기화 */
+    private boolean heartbeat;
+
+    /** 버퍼를 비운 뒤 닫을 때 실행할 작업, 닫기 요청 전이면 null, this로 동기화 */
+    private Runnable completion;
+
+    private volatile boolean closed;
+
+    public OrderEventSubscriber(SseEmitter emitter, long orderKey, int bufferSize, Executor sender) {
+        this.emitter = emitter;
+        this.orderKey = orderKey;
+        this.bufferSize = bufferSize;
+        this.sender = sender;
+    }
+
+    /**
+     * 전체 주문 구독자를 만든다.
+     *
+     * @param emitter SSE 연결
+     * @param bufferSize 버퍼 크기
+     * @param sender 전송 스레드 풀
+     * @return 구독자
+     */
+    public static OrderEventSubscriber forAllOrders(SseEmitter emitter, int bufferSize, Executor sender) {
+        return new OrderEventSubscriber(emitter, NO_ORDER_KEY, bufferSize, sender);
+    }
+
+    /**
+     * 이벤트를 버퍼에 넣는다. 전송을 기다리지 않는다.
+     *
+     * @param eventOrderKey 이벤트 주문 키
+     * @param event 상태 변경 이벤트
+     */
+    public void offer(long eventOrderKey, OrderStateEventDTO event) {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            if (completion != null) {
+                return; // 마지막 이벤트 이후에는 받지 않는다
+            }
+            if (isStale(eventOrderKey, event.getVersion())) {
+                return; // 더 새로운 버전을 이미 보냈거나 보낼 예정
+            }
+            if (pending == null) {
+                pending = new LinkedHashMap<>();
+            }
+            // 같은 주문이면 자리(순서)는 유지한 채 더 높은 버전의 이벤트로 병합
+            if (pending.put(eventOrderKey, event) == null && pending.size() > bufferSize) {
+                Iterator<Long> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped++;
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 이벤트가 이미 보냈거나 대기 중인 같은 주문의 이벤트보다 오래되었는지 확인한다. (this로 동기화된 상태에서 호출)
+     */
+    private boolean isStale(long eventOrderKey, long version) {
+        OrderStateEventDTO queued = pending != null ? pending.get(eventOrderKey) : null;
+        if (queued != null && queued.getVersion() >= version) {
+            return true;
+        }
+        Long sentVersion = sentVersions != null ? sentVersions.get(eventOrderKey) : null;
+        return sentVersion != null && sentVersion >= version;
+    }
+
+    /**
+     * 전송할 이벤트의 버전을 기록한다. (this로 동기화된 상태에서 호출)
+     */
+    private void markSent(Map<Long, OrderStateEventDTO> batch) {
+        if (sentVersions == null) {
+            sentVersions = new LinkedHashMap<>();
+        }
+        for (Map.Entry<Long, OrderStateEventDTO> entry : batch.entrySet()) {
+            sentVersions.remove(entry.getKey());
+            sentVersions.put(entry.getKey(), entry.getValue().getVersion());
+        }
+        Iterator<Long> oldest = sentVersions.keySet().iterator();
+        for (int excess = sentVersions.size() - SENT_VERSION_LIMIT; excess > 0; excess--) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * 연결 확인용 하트비트를 요청한다.
+     */
+    public void heartbeat() {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            heartbeat = true;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 버퍼에 남은 이벤트를 모두 보낸 뒤 연결을 닫도록 요청한다. 이후 들어오는 이벤트는 버린다.
+     * 닫을 때 전송 스레드에서 onCompleted를 실행한 뒤 emitter를 완료한다.
+     *
+     * @param onCompleted 닫기 직전에 실행할 작업 (구독 해제 등)
+     */
+    public void completeWhenDrained(Runnable onCompleted) {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            if (completion != null) {
+                return;
+            }
+            completion = onCompleted;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 구독을 종료한다.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * 버퍼를 비우며 전송한다. (전송 스레드, 구독자별로 한 번에 하나만 실행)
+     */
+    private void drain() {
+        try {
+            while (!closed) {
+                Map<Long, OrderStateEventDTO> batch;
+                int droppedCount;
+                boolean sendHeartbeat;
+                Runnable onCompleted;
+                synchronized (this) {
+                    batch = pending;
+                    droppedCount = dropped;
+                    sendHeartbeat = heartbeat;
+                    onCompleted = completion;
+                    pending = null;
+                    dropped = 0;
+                    heartbeat = false;
+                    if (batch != null) {
+                        markSent(batch);
+                    }
+                }
+                if (batch == null && droppedCount == 0 && !sendHeartbeat) {
+                    if (onCompleted != null) {
+                        // 버퍼를 모두 보냈으므로 닫는다
+                        closed = true;
+                        onCompleted.run();
+                        emitter.complete();
+                    }
+                    break;
+                }
+
+                if (droppedCount > 0) {
+                    emitter.send(SseEmitter.event().name("dropped").data(droppedCount));
+                }
+                if (batch != null) {
+                    for (OrderStateEventDTO event : batch.values()) {
+                        emitter.send(SseEmitter.event()
+                                .id(event.getOrderId() + ":" + event.getVersion())
+                                .name("state")
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+                if (sendHeartbeat && batch == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊겼거나 이미 완료된 emitter
+            log.debug("📡 SSE 전송 실패, 구독 종료 - {}", e.getMessage());
+            closed = true;
+            emitter.completeWithError(e);
+        } finally {
+            draining.set(false);
+        }
+
+        // 전송을 마치는 사이 새로 들어온 이벤트가 있으면 다시 예약한다
+        boolean hasMore;
+        synchronized (this) {
+            hasMore = pending != null || dropped > 0 || heartbeat || completion != null;
+        }
+        if (hasMore && !closed) {
+            scheduleDrain();
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+
+/**
+ * 주문 상태 변경 대기(long-poll) 등록소
+ *
+ * SSE를 쓸 수 없는 클라이언트를 위해, 상태 조회 요청을 주문 버전이 바뀔 때까지 붙잡아 둔다
+ * - GET /api/state/order/{orderId}/status?waitForChangeAfter={version}&timeout=30s
+ * - 대기 중인 요청은 DeferredResult로 넘겨 톰캣 요청 스레드를 점유하지 않는다
+ * - 주문 버전이 waitForChangeAfter를 넘으면 즉시, 그렇지 않으면 timeout 뒤 현재 상태로 응답한다
+ *
+ * 주문별 대기 목록은 응답 완료/타임아웃/오류 시 바로 지우며, 비면 주문 키 자체를 지운다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Component
+public class OrderStatusWaiterRegistry implements OrderStateChangeListener {
+
+    /** 주문 키 → 대기 중인 요청들 */
+    private final Map<Long, Set<Waiter<?>>> waiters = new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    private final long maxTimeoutMs;
+
+    public OrderStatusWaiterRegistry(@Value("${subway.order.long-poll.max-timeout-ms:60000}") long maxTimeoutMs) {
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    /**
+     * 주문 버전이 afterVersion을 넘을 때까지 기다리는 응답을 만든다.
+     *
+     * @param context 주문 컨텍스트
+     * @param afterVersion 클라이언트가 이미 알고 있는 버전
+     * @param timeoutMs 최대 대기 시간(ms), subway.order.long-poll.max-timeout-ms를 넘으면 그 값으로 줄이고 1ms보다 작으면 1ms로 올린다
+     * @param responder 응답 시점의 주문으로 응답 본문을 만드는 함수
+     * @param <T> 응답 타입
+     * @return 대기 응답
+     */
+    public <T> DeferredResult<T> await(OrderContext context, long afterVersion, long timeoutMs,
+                                       Function<OrderContext, T> responder) {
+        // 0은 컨테이너에서 '만료 없음'이 되어 대기가 쌓이므로 최소 1ms로 둔다
+        DeferredResult<T> result = new DeferredResult<>(Math.max(1L, Math.min(timeoutMs, maxTimeoutMs)));
+        if (!shouldWait(context.getSnapshot(), afterVersion)) {
+            result.setResult(responder.apply(context));
+            return result;
+        }
+
+        long orderKey = context.getOrderKey();
+        Waiter<T> waiter = new Waiter<>(orderKey, context, afterVersion, result, responder);
+        // 추가를 compute 안에서 해야, 빈 목록을 지우는 remove()와 엇갈려 지워진 목록에 들어가지 않는다
+        waiters.compute(orderKey, (key, orderWaiters) -> {
+            Set<Waiter<?>> registered = orderWaiters != null ? orderWaiters : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        waiterCount.incrementAndGet();
+
+        // 타임아웃이면 바뀐 것이 없다는 뜻이므로 현재 상태(같은 ETag)로 응답한다
+        result.onTimeout(() -> {
+            if (remove(waiter)) {
+                result.setResult(responder.apply(context));
+            }
+        });
+        result.onCompletion(() -> remove(waiter));
+        result.onError(e -> remove(waiter));
+
+        // 등록하는 사이 상태가 바뀌었다면 이벤트를 놓쳤을 수 있으므로 다시 확인한다
+        if (!shouldWait(context.getSnapshot(), afterVersion)) {
+            complete(waiter);
+        }
+        return result;
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        Set<Waiter<?>> orderWaiters = waiters.get(context.getOrderKey());
+        if (orderWaiters == null) {
+            return;
+        }
+        for (Waiter<?> waiter : orderWaiters) {
+            if (!shouldWait(current, waiter.afterVersion)) {
+                complete(waiter);
+            }
+        }
+    }
+
+    /**
+     * 현재 대기 중인 요청 수를 반환한다.
+     *
+     * @return 대기 중인 요청 수
+     */
+    public int getWaiterCount() {
+        return waiterCount.get();
+    }
+
+    /**
+     * 더 기다릴지 판단한다. 완료/취소된 주문은 더 바뀌지 않으므로 기다리지 않는다.
+     */
+    private static boolean shouldWait(OrderStateSnapshot snapshot, long afterVersion) {
+        return snapshot.getVersion() <= afterVersion && !snapshot.getStateType().isTerminal();
+    }
+
+    private <T> void complete(Waiter<T> waiter) {
+        // 대기 목록에서 먼저 꺼낸 쪽만 응답하여 타임아웃과 상태 변경이 겹쳐도 한 번만 응답한다
+        if (remove(waiter)) {
+            waiter.result.setResult(waiter.responder.apply(waiter.context));
+        }
+    }
+
+    private boolean remove(Waiter<?> waiter) {
+        boolean[] removed = new boolean[1];
+        waiters.computeIfPresent(waiter.orderKey, (key, orderWaiters) -> {
+            removed[0] = orderWaiters.remove(waiter);
+            return orderWaiters.isEmpty() ? null : orderWaiters;
+        });
+        if (removed[0]) {
+            waiterCount.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    /**
+     * 대기 중인 요청
+     *
+     * @param <T> 응답 타입
+     */
+    private static final class Waiter<T> {
+
+        private final long orderKey;
+
+        private final OrderContext context;
+
+        private final long afterVersion;
+
+        private final DeferredResult<T> result;
+
+        private final Function<OrderContext, T> responder;
+
+        private Waiter(long orderKey, OrderContext context, long afterVersion, DeferredResult<T> result,
+                       Function<OrderContext, T> responder) {
+            this.orderKey = orderKey;
+            this.context = context;
+            this.afterVersion = afterVersion;
+            this.result = result;
+            this.responder = responder;
+        }
+
+    }
+
+}
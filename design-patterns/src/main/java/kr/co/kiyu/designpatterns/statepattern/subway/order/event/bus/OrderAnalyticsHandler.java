@@ -0,0 +1,58 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderLifecycleEventType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 주문 통계 핸들러
+ *
+ * 상태 변경 이벤트로 상태별 체류 시간(그 상태가 된 시각 → 다음 상태가 된 시각)을 모은다
+ * 핸들러 스레드 하나만 쓰고 조회 API가 읽으므로 AtomicLongArray에 lazySet으로 기록한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Component
+public class OrderAnalyticsHandler implements OrderLifecycleEventHandler {
+
+    private static final OrderStateType[] TYPES = OrderStateType.values();
+
+    /** 상태 타입 ordinal → 그 상태를 벗어난 주문 수 */
+    private final AtomicLongArray leftCounts = new AtomicLongArray(TYPES.length);
+
+    /** 상태 타입 ordinal → 체류 시간 합계 (ms) */
+    private final AtomicLongArray durationSums = new AtomicLongArray(TYPES.length);
+
+    @Override
+    public void onEvent(OrderLifecycleEvent event, long sequence, boolean endOfBatch) {
+        if (event.getType() != OrderLifecycleEventType.STATE_CHANGED) {
+            return;
+        }
+        int left = event.getPreviousStateType().ordinal();
+        leftCounts.lazySet(left, leftCounts.get(left) + 1);
+        durationSums.lazySet(left, durationSums.get(left) + event.getPreviousStateDurationMillis());
+    }
+
+    /**
+     * 상태별 평균 체류 시간을 반환한다. 아직 벗어난 주문이 없는 상태는 제외한다.
+     *
+     * @return 상태 타입 → 평균 체류 시간 (ms, 상태 타입 순서)
+     */
+    public Map<OrderStateType, Long> getAverageDurationMillis() {
+        Map<OrderStateType, Long> result = new EnumMap<>(OrderStateType.class);
+        for (OrderStateType type : TYPES) {
+            long count = leftCounts.get(type.ordinal());
+            if (count > 0) {
+                result.put(type, durationSums.get(type.ordinal()) / count);
+            }
+        }
+        return result;
+    }
+
+}
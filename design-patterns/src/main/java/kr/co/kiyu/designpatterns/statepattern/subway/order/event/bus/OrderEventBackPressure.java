@@ -0,0 +1,25 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+/**
+ * 링 버퍼가 가득 찼을 때 발행하는 쪽의 처리 방식
+ *
+ * 가장 느린 핸들러가 buffer-size만큼 뒤처지면 링 버퍼가 가득 찬다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public enum OrderEventBackPressure {
+
+    /**
+     * 빈 칸이 날 때까지 요청 스레드가 기다린다 (핸들러가 살아 있는 동안 유실 없음)
+     * 핸들러가 멈추면 요청이 영원히 묶이지 않도록 block-max-wait-ms가 지나거나 버스가 종료되면 버린다
+     */
+    BLOCK,
+
+    /** block-timeout-ms까지 기다리고, 그래도 가득 차 있으면 버린다 (기본값) */
+    TIMEOUT,
+
+    /** 기다리지 않고 바로 버린다 (요청 지연 없음) */
+    DROP
+
+}
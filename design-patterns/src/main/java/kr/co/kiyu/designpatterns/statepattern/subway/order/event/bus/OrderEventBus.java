@@ -0,0 +1,214 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEventBusStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEventConsumerStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderLifecycleEventType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 이벤트 버스
+ *
+ * 주문 생성/상태 변경/보관을 OrderLifecycleEvent로 링 버퍼에 발행하고,
+ * 등록된 OrderLifecycleEventHandler 빈(알림, 통계 등)이 각자의 스레드에서 묶음으로 읽어 간다
+ *
+ * OrderStateChangeListener로 등록되어 있으므로 OrderContext.changeState의 리스너 호출이 곧 발행이다
+ * 발행은 칸 하나를 채우는 것뿐이라 요청 스레드는 핸들러의 처리를 기다리지 않는다
+ * (저장소 영속화, 상태 색인, SSE처럼 응답 전에 끝나야 하는 작업은 지금처럼 리스너로 동기 처리한다)
+ * (DB write-behind 기록은 DB 지연이 링 버퍼를 막지 않도록 OrderWriteBehindWriter가 자기 큐로 따로 처리한다)
+ *
+ * 가장 느린 핸들러가 buffer-size만큼 밀리면 back-pressure 설정에 따라 기다리거나(BLOCK, TIMEOUT) 버린다(DROP)
+ * 어느 방식이든 기다림에는 상한이 있고(TIMEOUT은 block-timeout-ms, BLOCK은 block-max-wait-ms),
+ * 버스가 종료된 뒤에는 기다리지 않고 버리므로 요청 스레드가 링 버퍼 때문에 멈춰 있지 않는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderEventBus implements OrderStateChangeListener {
+
+    /** 링 버퍼가 가득 찼을 때 다시 확인하기 전 잠드는 시간 */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final OrderEventRingBuffer ringBuffer;
+
+    private final List<OrderEventProcessor> processors;
+
+    private final OrderEventBackPressure backPressure;
+
+    private final long blockTimeoutNanos;
+
+    private final long blockMaxWaitNanos;
+
+    /** 핸들러 스레드가 실행 중인지 여부 (종료 후에는 빈 칸을 기다리지 않는다) */
+    private volatile boolean running;
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder blockedCount = new LongAdder();
+
+    private final LongAdder blockedNanos = new LongAdder();
+
+    public OrderEventBus(ObjectProvider<OrderLifecycleEventHandler> handlerProvider,
+                         @Value("${subway.order.event-bus.buffer-size:8192}") int bufferSize,
+                         @Value("${subway.order.event-bus.back-pressure:TIMEOUT}") OrderEventBackPressure backPressure,
+                         @Value("${subway.order.event-bus.block-timeout-ms:100}") long blockTimeoutMs,
+                         @Value("${subway.order.event-bus.block-max-wait-ms:5000}") long blockMaxWaitMs) {
+        this.ringBuffer = new OrderEventRingBuffer(bufferSize);
+        this.backPressure = backPressure;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.blockMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(blockMaxWaitMs);
+        this.processors = handlerProvider.orderedStream()
+                .map(handler -> new OrderEventProcessor(ringBuffer, handler))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * 핸들러 스레드를 시작한다.
+     */
+    @PostConstruct
+    public void start() {
+        processors.forEach(OrderEventProcessor::start);
+        running = true;
+        log.info("🚌 주문 이벤트 버스 시작 - 링 버퍼 {}칸, back-pressure: {}, 핸들러: {}",
+                ringBuffer.getBufferSize(), backPressure,
+                processors.stream().map(OrderEventProcessor::getName).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * 발행된 이벤트를 모두 처리한 뒤 핸들러 스레드를 멈춘다.
+     */
+    @PreDestroy
+    public void stop() {
+        // 먼저 내려 두어야 종료 중 가득 찬 링 버퍼를 기다리던 발행자가 빠져나온다
+        running = false;
+        processors.forEach(processor -> processor.stop(5000));
+        log.info("🚌 주문 이벤트 버스 종료 - 발행 {}건, 버림 {}건", ringBuffer.getCursor() + 1, droppedCount.sum());
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        OrderStateHistory history = snapshot.getHistory();
+        publish(OrderLifecycleEventType.CREATED, context.getOrderKey(), null, snapshot.getStateType(),
+                snapshot.getVersion(), history.getReason(history.size() - 1),
+                history.getChangedAtEpochMillis(history.size() - 1), 0L);
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        OrderStateHistory history = current.getHistory();
+        int last = history.size() - 1;
+        publish(OrderLifecycleEventType.STATE_CHANGED, context.getOrderKey(), previous.getStateType(),
+                current.getStateType(), current.getVersion(), reason,
+                history.getChangedAtEpochMillis(last), history.getChangedAtEpochMillis(last - 1));
+    }
+
+    @Override
+    public void onOrderArchived(long orderKey, OrderStateType stateType) {
+        publish(OrderLifecycleEventType.ARCHIVED, orderKey, null, stateType, 0L, null, 0L, 0L);
+    }
+
+    /**
+     * 버스 지표를 반환한다.
+     *
+     * @return 발행/버림/대기 건수와 핸들러별 lag
+     */
+    public OrderEventBusStatsDTO getStats() {
+        long cursor = ringBuffer.getCursor();
+        List<OrderEventConsumerStatsDTO> consumers = processors.stream()
+                .map(processor -> {
+                    long batches = processor.getBatchCount();
+                    long processed = processor.getProcessedCount();
+                    return OrderEventConsumerStatsDTO.builder()
+                            .name(processor.getName())
+                            .sequence(processor.getSequence())
+                            .lag(Math.max(0L, cursor - processor.getSequence()))
+                            .processed(processed)
+                            .batches(batches)
+                            .averageBatchSize(batches == 0 ? 0.0 : (double) processed / batches)
+                            .maxBatchSize(processor.getMaxBatchSize())
+                            .errors(processor.getErrorCount())
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        return OrderEventBusStatsDTO.builder()
+                .bufferSize(ringBuffer.getBufferSize())
+                .backPressure(backPressure.name())
+                .published(cursor + 1)
+                .dropped(droppedCount.sum())
+                .blocked(blockedCount.sum())
+                .blockedMillis(TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()))
+                .remainingCapacity(ringBuffer.remainingCapacity())
+                .consumers(consumers)
+                .build();
+    }
+
+    private void publish(OrderLifecycleEventType type, long orderKey, OrderStateType previousStateType,
+                         OrderStateType stateType, long version, String reason,
+                         long changedAtEpochMillis, long previousChangedAtEpochMillis) {
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedCount.increment();
+            log.debug("🚌 이벤트 버림 (링 버퍼 가득 참) - {}, 주문ID: {}", type, OrderIdGenerator.format(orderKey));
+            return;
+        }
+        try {
+            ringBuffer.get(sequence).set(type, orderKey, previousStateType, stateType, version, reason,
+                    changedAtEpochMillis, previousChangedAtEpochMillis);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * back-pressure 정책에 따라 칸을 얻는다.
+     *
+     * @return 순번, 버려야 하면 -1
+     */
+    private long claim() {
+        long sequence = ringBuffer.tryNext();
+        if (sequence >= 0 || backPressure == OrderEventBackPressure.DROP || !running) {
+            return sequence;
+        }
+
+        long maxWaitNanos = backPressure == OrderEventBackPressure.TIMEOUT ? blockTimeoutNanos : blockMaxWaitNanos;
+        blockedCount.increment();
+        long start = System.nanoTime();
+        while ((sequence = ringBuffer.tryNext()) < 0) {
+            if (!running || System.nanoTime() - start >= maxWaitNanos) {
+                break;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        blockedNanos.add(System.nanoTime() - start);
+        if (sequence < 0 && backPressure == OrderEventBackPressure.BLOCK && running) {
+            log.warn("🚌 링 버퍼가 {}ms 동안 비지 않아 이벤트를 버립니다 - 핸들러가 멈췄는지 확인하세요",
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        }
+        return sequence;
+    }
+
+}
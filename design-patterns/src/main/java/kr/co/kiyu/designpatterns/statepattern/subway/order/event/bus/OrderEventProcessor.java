@@ -0,0 +1,150 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 이벤트 처리기
+ *
+ * 핸들러 하나를 전용 스레드에서 돌리며 링 버퍼를 자신의 순번부터 읽는다
+ * 읽을 수 있는 이벤트를 한 번에 모두 넘기고(마지막 건 endOfBatch), 처리한 뒤에 순번을 올려 칸을 돌려준다
+ *
+ * 읽을 이벤트가 없으면 잠깐 돌다가(spin) 양보하고(yield), 그래도 없으면 짧게 잠든다
+ * 발행자는 핸들러를 깨우지 않으므로 요청 스레드에는 알림 비용이 없다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+final class OrderEventProcessor implements Runnable {
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 200;
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final OrderEventRingBuffer ringBuffer;
+
+    private final OrderLifecycleEventHandler handler;
+
+    /** 처리한 마지막 순번 (발행자의 gating sequence) */
+    private final AtomicLong sequence = new AtomicLong(-1L);
+
+    private final AtomicLong processedCount = new AtomicLong();
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private volatile long maxBatchSize;
+
+    private volatile boolean running = true;
+
+    private Thread thread;
+
+    OrderEventProcessor(OrderEventRingBuffer ringBuffer, OrderLifecycleEventHandler handler) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        ringBuffer.addGatingSequence(sequence);
+    }
+
+    void start() {
+        thread = new Thread(this, "order-event-" + handler.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 공개된 이벤트를 모두 처리한 뒤 멈춘다.
+     *
+     * @param timeoutMs 기다릴 최대 시간
+     */
+    void stop(long timeoutMs) {
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        int idle = 0;
+        while (true) {
+            long available = ringBuffer.getHighestPublished(next, ringBuffer.getCursor());
+            if (available < next) {
+                if (!running) {
+                    break;
+                }
+                idle = idle(idle);
+                continue;
+            }
+
+            for (long current = next; current <= available; current++) {
+                try {
+                    handler.onEvent(ringBuffer.get(current), current, current == available);
+                } catch (RuntimeException e) {
+                    // 한 건의 실패로 핸들러 스레드가 멈추면 발행자까지 막히므로 기록만 하고 넘어간다
+                    errorCount.incrementAndGet();
+                    log.error("⚠️ 주문 이벤트 처리 실패 - 핸들러: {}, 순번: {}", handler.getName(), current, e);
+                }
+            }
+
+            long batchSize = available - next + 1;
+            processedCount.addAndGet(batchSize);
+            batchCount.incrementAndGet();
+            if (batchSize > maxBatchSize) {
+                maxBatchSize = batchSize;
+            }
+            sequence.lazySet(available);
+            next = available + 1;
+            idle = 0;
+        }
+    }
+
+    String getName() {
+        return handler.getName();
+    }
+
+    long getSequence() {
+        return sequence.get();
+    }
+
+    long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    long getBatchCount() {
+        return batchCount.get();
+    }
+
+    long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    long getErrorCount() {
+        return errorCount.get();
+    }
+
+    private static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+}
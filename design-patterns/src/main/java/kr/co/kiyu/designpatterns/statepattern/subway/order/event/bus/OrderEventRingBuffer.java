@@ -0,0 +1,155 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 이벤트 링 버퍼 (Disruptor 방식)
+ *
+ * 크기가 2의 거듭제곱인 배열에 이벤트 객체를 미리 만들어 두고, 순번(sequence)으로 칸을 돌려 쓴다
+ * - 발행 : cursor를 CAS로 1 올려 칸을 얻고(claim), 이벤트를 채운 뒤 칸의 회차를 release로 기록한다(publish)
+ *          칸 하나는 그 순번을 얻은 스레드만 쓴다. 상태 전환은 여러 요청 스레드에서 일어나므로 claim만 CAS로 나눈다
+ * - 소비 : 핸들러마다 자신이 처리한 순번(gating sequence)을 들고 있으며, 발행자는 가장 느린 핸들러보다
+ *          버퍼 크기 이상 앞서 나가지 않는다 (tryNext가 -1을 반환)
+ * - 공개 : 칸의 회차(순번 / 버퍼 크기)가 기록되어야 읽으므로, 순번을 먼저 얻은 발행자가 늦게 끝나도
+ *          핸들러는 그 칸 앞에서 멈추고 순서를 건너뛰지 않는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class OrderEventRingBuffer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final AtomicLong[] NO_SEQUENCES = new AtomicLong[0];
+
+    private final OrderLifecycleEvent[] entries;
+
+    /** 칸별로 마지막으로 공개된 회차 */
+    private final int[] availableRounds;
+
+    private final int mask;
+
+    private final int shift;
+
+    /** 마지막으로 claim된 순번 */
+    private final AtomicLong cursor = new AtomicLong(-1L);
+
+    private volatile AtomicLong[] gatingSequences = NO_SEQUENCES;
+
+    /** 마지막으로 확인한 가장 느린 핸들러 순번 (매번 모든 핸들러를 읽지 않기 위한 캐시) */
+    private volatile long cachedGatingSequence = -1L;
+
+    /**
+     * @param bufferSize 칸 수 (2의 거듭제곱으로 올림)
+     */
+    OrderEventRingBuffer(int bufferSize) {
+        int size = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        this.entries = new OrderLifecycleEvent[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new OrderLifecycleEvent();
+        }
+        this.availableRounds = new int[size];
+        Arrays.fill(availableRounds, -1);
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * 발행자가 앞지르면 안 되는 핸들러 순번을 등록한다. (핸들러 시작 전에 호출)
+     *
+     * @param sequence 핸들러가 처리한 마지막 순번
+     */
+    synchronized void addGatingSequence(AtomicLong sequence) {
+        AtomicLong[] grown = Arrays.copyOf(gatingSequences, gatingSequences.length + 1);
+        grown[gatingSequences.length] = sequence;
+        gatingSequences = grown;
+    }
+
+    int getBufferSize() {
+        return entries.length;
+    }
+
+    /**
+     * 마지막으로 claim된 순번을 반환한다. (아직 공개되지 않았을 수 있다)
+     *
+     * @return 순번, 발행된 적이 없으면 -1
+     */
+    long getCursor() {
+        return cursor.get();
+    }
+
+    OrderLifecycleEvent get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    /**
+     * 다음 칸을 얻는다.
+     *
+     * @return 순번, 가장 느린 핸들러가 한 바퀴 뒤처져 빈 칸이 없으면 -1
+     */
+    long tryNext() {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            long wrapPoint = next - entries.length;
+            long cachedGating = cachedGatingSequence;
+            if (wrapPoint > cachedGating) {
+                long minimum = getMinimumGatingSequence(current);
+                cachedGatingSequence = minimum;
+                if (wrapPoint > minimum) {
+                    return -1L;
+                }
+            }
+        } while (!cursor.compareAndSet(current, next));
+        return next;
+    }
+
+    /**
+     * 채운 칸을 핸들러에게 공개한다.
+     *
+     * @param sequence tryNext로 얻은 순번
+     */
+    void publish(long sequence) {
+        AVAILABLE.setRelease(availableRounds, (int) sequence & mask, (int) (sequence >>> shift));
+    }
+
+    /**
+     * lowerBound부터 연속으로 공개된 마지막 순번을 찾는다.
+     *
+     * @param lowerBound 확인을 시작할 순번
+     * @param claimed 확인할 마지막 순번 (보통 getCursor)
+     * @return 연속으로 공개된 마지막 순번 (lowerBound가 아직이면 lowerBound - 1)
+     */
+    long getHighestPublished(long lowerBound, long claimed) {
+        for (long sequence = lowerBound; sequence <= claimed; sequence++) {
+            if ((int) AVAILABLE.getAcquire(availableRounds, (int) sequence & mask) != (int) (sequence >>> shift)) {
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * 남은 빈 칸 수를 반환한다.
+     *
+     * @return 빈 칸 수
+     */
+    long remainingCapacity() {
+        long current = cursor.get();
+        return entries.length - (current - getMinimumGatingSequence(current));
+    }
+
+    private long getMinimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (AtomicLong sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+}
@@ -0,0 +1,64 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderLifecycleEventType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.Getter;
+
+/**
+ * 주문 생명주기 이벤트
+ *
+ * 링 버퍼의 칸마다 미리 하나씩 만들어 두고 재사용한다 (발행할 때 객체를 만들지 않는다)
+ * 따라서 핸들러는 onEvent가 끝난 뒤 이벤트 객체를 붙잡아 두면 안 되며, 필요한 값은 복사해야 한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Getter
+public final class OrderLifecycleEvent {
+
+    private OrderLifecycleEventType type;
+
+    /** long 주문 ID (OrderIdGenerator.format으로 문자열 변환) */
+    private long orderKey;
+
+    /** 이전 상태 (STATE_CHANGED만, 그 외 null) */
+    private OrderStateType previousStateType;
+
+    /** 현재 상태 (ARCHIVED는 보관 당시 상태) */
+    private OrderStateType stateType;
+
+    /** 이벤트 이후 버전 (ARCHIVED는 0) */
+    private long version;
+
+    /** 상태 변경 사유 (ARCHIVED는 null) */
+    private String reason;
+
+    /** 현재 상태가 된 시각 (epoch millis, ARCHIVED는 0) */
+    private long changedAtEpochMillis;
+
+    /** 이전 상태가 된 시각 (epoch millis, STATE_CHANGED만) */
+    private long previousChangedAtEpochMillis;
+
+    void set(OrderLifecycleEventType type, long orderKey, OrderStateType previousStateType, OrderStateType stateType,
+             long version, String reason, long changedAtEpochMillis, long previousChangedAtEpochMillis) {
+        this.type = type;
+        this.orderKey = orderKey;
+        this.previousStateType = previousStateType;
+        this.stateType = stateType;
+        this.version = version;
+        this.reason = reason;
+        this.changedAtEpochMillis = changedAtEpochMillis;
+        this.previousChangedAtEpochMillis = previousChangedAtEpochMillis;
+    }
+
+    /**
+     * 이전 상태에 머문 시간을 반환한다.
+     *
+     * @return 이전 상태 체류 시간 (ms, STATE_CHANGED가 아니면 0)
+     */
+    public long getPreviousStateDurationMillis() {
+        return previousStateType == null ? 0L : Math.max(0L, changedAtEpochMillis - previousChangedAtEpochMillis);
+    }
+
+}
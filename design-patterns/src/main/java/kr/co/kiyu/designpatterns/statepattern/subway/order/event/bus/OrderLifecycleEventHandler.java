@@ -0,0 +1,35 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+/**
+ * 주문 생명주기 이벤트 핸들러
+ *
+ * 이 인터페이스를 구현한 빈마다 OrderEventBus가 전용 스레드(order-event-{이름}) 하나를 붙여
+ * 링 버퍼의 이벤트를 발행 순서대로 전달한다. 요청 스레드는 핸들러를 기다리지 않는다
+ *
+ * 핸들러가 밀리면 한 번에 여러 건을 연달아 받으며, 마지막 건은 endOfBatch가 true다
+ * 외부 호출(알림 발송, 저장 등)은 endOfBatch에서 모아서 보내면 된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public interface OrderLifecycleEventHandler {
+
+    /**
+     * 이벤트를 처리한다. (핸들러 전용 스레드)
+     *
+     * @param event 이벤트 (재사용되므로 반환 후 붙잡아 두지 말 것)
+     * @param sequence 링 버퍼 순번
+     * @param endOfBatch 지금 읽을 수 있는 마지막 이벤트인지 여부
+     */
+    void onEvent(OrderLifecycleEvent event, long sequence, boolean endOfBatch);
+
+    /**
+     * 핸들러 이름을 반환한다. (스레드 이름과 지표에 사용)
+     *
+     * @return 핸들러 이름
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,71 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderLifecycleEventType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 고객 알림 핸들러
+ *
+ * 상태가 바뀔 때마다 고객에게 보낼 알림(안티 패턴 예시의 sendNotification)을 모아 두었다가
+ * 묶음의 끝(endOfBatch)이나 MAX_BATCH_SIZE건마다 한 번에 발송한다
+ * 실제 발송 게이트웨이가 없으므로 발송은 로그로 대신한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderNotificationHandler implements OrderLifecycleEventHandler {
+
+    /** 한 번에 발송하는 최대 알림 수 */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final long[] pendingOrderKeys = new long[MAX_BATCH_SIZE];
+
+    private final OrderStateType[] pendingStates = new OrderStateType[MAX_BATCH_SIZE];
+
+    private final AtomicLong sentCount = new AtomicLong();
+
+    private int pending;
+
+    @Override
+    public void onEvent(OrderLifecycleEvent event, long sequence, boolean endOfBatch) {
+        if (event.getType() == OrderLifecycleEventType.STATE_CHANGED) {
+            pendingOrderKeys[pending] = event.getOrderKey();
+            pendingStates[pending] = event.getStateType();
+            pending++;
+        }
+        if (pending > 0 && (endOfBatch || pending == MAX_BATCH_SIZE)) {
+            send();
+        }
+    }
+
+    /**
+     * 발송한 알림 수를 반환한다.
+     *
+     * @return 발송한 알림 수
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    private void send() {
+        if (log.isDebugEnabled()) {
+            for (int i = 0; i < pending; i++) {
+                log.debug("📨 알림 - 주문ID: {}, {} {}", OrderIdGenerator.format(pendingOrderKeys[i]),
+                        pendingStates[i].getEmoji(), pendingStates[i].getDescription());
+            }
+        }
+        log.debug("📨 고객 알림 일괄 발송 - {}건", pending);
+        sentCount.addAndGet(pending);
+        pending = 0;
+    }
+
+}
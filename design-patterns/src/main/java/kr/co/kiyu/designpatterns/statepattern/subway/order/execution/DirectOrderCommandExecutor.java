@@ -0,0 +1,47 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderExecutionStatsDTO;
+
+/**
+ * 공유 맵 방식 주문 명령 실행기
+ *
+ * 명령을 호출한 스레드(요청 스레드 등)에서 바로 실행한다
+ * 같은 주문에 동시에 들어온 명령은 OrderContext의 스냅샷 CAS로 하나씩 반영된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Component
+@ConditionalOnProperty(name = "subway.order.execution.mode", havingValue = "shared", matchIfMissing = true)
+public class DirectOrderCommandExecutor implements OrderCommandExecutor {
+
+    private final LongAdder executedCount = new LongAdder();
+
+    @Override
+    public <T> CompletableFuture<T> submit(long orderKey, Supplier<T> command) {
+        executedCount.increment();
+        try {
+            return CompletableFuture.completedFuture(command.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public OrderExecutionStatsDTO getStats() {
+        long executed = executedCount.sum();
+        return OrderExecutionStatsDTO.builder()
+                .mode("shared")
+                .submitted(executed)
+                .completed(executed)
+                .build();
+    }
+
+}
@@ -0,0 +1,135 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.execution;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 파티션 actor
+ *
+ * 여러 스레드가 메시지를 넣고(MPSC mailbox) 한 번에 한 스레드만 꺼내 실행한다
+ * - 쌓인 메시지 수(pending)가 0 → 1이 되는 순간 넣은 스레드가 actor를 실행기에 한 번만 올린다
+ * - 실행 중인 actor는 throughput개를 처리하면 남은 메시지가 있어도 스레드를 양보하고 실행기 뒤에 다시 선다
+ *   (파티션이 스레드보다 많아도 한 파티션이 스레드를 독차지하지 않는다)
+ *
+ * 같은 actor의 메시지는 넣은 순서대로, 서로 겹치지 않게 실행되므로 메시지 안에서는 잠금 없이 상태를 바꿔도 된다
+ *
+ * 실행기가 actor를 받아주지 않으면(종료 중) 그동안 쌓인 메시지를 모두 꺼내 실행 대신 reject를 호출한다
+ * (남겨 두면 pending이 0으로 돌아오지 않아 이후 메시지도 영영 실행되지 않는다)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+final class OrderActor implements Runnable {
+
+    private final int partition;
+
+    private final Queue<Message> mailbox = new ConcurrentLinkedQueue<>();
+
+    /** mailbox에 넣었지만 아직 실행하지 않은 메시지 수 (넣은 뒤 증가, 실행 뒤 감소) */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Executor dispatcher;
+
+    private final int throughput;
+
+    OrderActor(int partition, Executor dispatcher, int throughput) {
+        this.partition = partition;
+        this.dispatcher = dispatcher;
+        this.throughput = throughput;
+    }
+
+    /**
+     * 메시지를 넣는다. actor가 쉬고 있었으면 실행기에 올린다.
+     *
+     * @param message 메시지
+     */
+    void tell(Message message) {
+        mailbox.offer(message);
+        if (pending.getAndIncrement() == 0) {
+            try {
+                dispatcher.execute(this);
+            } catch (RejectedExecutionException e) {
+                rejectPending(e);
+            }
+        }
+    }
+
+    /**
+     * 대기 중인 메시지 수를 반환한다.
+     *
+     * @return 메시지 수
+     */
+    int getPending() {
+        return pending.get();
+    }
+
+    @Override
+    public void run() {
+        int processed = 0;
+        while (true) {
+            // pending은 넣은 뒤에 늘어나므로 pending > 0 이면 꺼낼 메시지가 반드시 있다
+            Message message = mailbox.poll();
+            try {
+                message.run();
+            } catch (RuntimeException e) {
+                log.error("⚠️ 주문 actor 메시지 처리 실패 - 파티션: {}", partition, e);
+            }
+            if (pending.decrementAndGet() == 0) {
+                // 이후 들어오는 메시지는 0 → 1을 본 스레드가 다시 올린다
+                return;
+            }
+            if (++processed >= throughput && yieldThread()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 실행기에 올리지 못한 actor의 메시지를 모두 실패시킨다.
+     * 0 → 1을 본 스레드만 호출하므로, 그 사이 다른 스레드가 넣은 메시지도 여기서 함께 꺼낸다.
+     */
+    private void rejectPending(RejectedExecutionException e) {
+        do {
+            // pending은 넣은 뒤에 늘어나므로 pending > 0 이면 꺼낼 메시지가 반드시 있다
+            Message message = mailbox.poll();
+            try {
+                message.reject(e);
+            } catch (RuntimeException rejectFailure) {
+                log.error("⚠️ 주문 actor 메시지 거절 처리 실패 - 파티션: {}", partition, rejectFailure);
+            }
+        } while (pending.decrementAndGet() > 0);
+    }
+
+    /**
+     * 실행기 뒤에 다시 선다. 종료 중이라 받아주지 않으면 남은 메시지를 이 스레드에서 마저 처리한다.
+     */
+    private boolean yieldThread() {
+        try {
+            dispatcher.execute(this);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * actor 메시지
+     */
+    interface Message extends Runnable {
+
+        /**
+         * 실행기가 actor를 받아주지 않아 메시지를 실행하지 못했을 때 호출된다.
+         *
+         * @param cause 실행기의 거절
+         */
+        void reject(RejectedExecutionException cause);
+
+    }
+
+}
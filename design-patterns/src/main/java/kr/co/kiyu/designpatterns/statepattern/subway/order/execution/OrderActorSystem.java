@@ -0,0 +1,139 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderExecutionStatsDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * actor 방식 주문 명령 실행기
+ *
+ * 주문 키를 partitions개의 파티션으로 나누고, 파티션마다 actor(OrderActor) 하나가 mailbox의 명령을 순서대로 실행한다
+ * - 한 주문의 명령은 항상 같은 actor에서 하나씩 실행되므로 OrderContext의 스냅샷 CAS가 경합하지 않고,
+ *   같은 주문에 동시에 들어온 요청도 재시도나 409 없이 도착 순서대로 반영된다
+ * - actor는 스레드를 갖지 않는 가벼운 객체이며, workers개의 스레드가 메시지가 있는 actor만 돌아가며 실행한다
+ *   (파티션을 스레드보다 많이 두어 한 파티션에 명령이 몰려도 다른 파티션이 기다리지 않게 한다)
+ * - 호출한 스레드는 mailbox에 넣고 바로 돌아오며, 결과는 future로 받는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.execution.mode", havingValue = "actor")
+public class OrderActorSystem implements OrderCommandExecutor {
+
+    private final OrderActor[] actors;
+
+    private final ExecutorService workers;
+
+    private final int workerCount;
+
+    private final LongAdder submittedCount = new LongAdder();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    public OrderActorSystem(@Value("${subway.order.execution.partitions:64}") int partitions,
+                            @Value("${subway.order.execution.workers:0}") int workers,
+                            @Value("${subway.order.execution.throughput:64}") int throughput) {
+        if (partitions <= 0 || throughput <= 0) {
+            throw new IllegalArgumentException("파티션 수와 throughput은 1 이상이어야 합니다: " + partitions + ", " + throughput);
+        }
+        this.workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "order-actor-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.actors = new OrderActor[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.actors[i] = new OrderActor(i, this.workers, throughput);
+        }
+        log.info("🎭 주문 actor 실행기 시작 - 파티션: {}, 스레드: {}, throughput: {}", partitions, workerCount, throughput);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("⚠️ 주문 actor 실행기 종료 대기 시간 초과 - 남은 명령: {}", getPending());
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(long orderKey, Supplier<T> command) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submittedCount.increment();
+        actors[partitionOf(orderKey)].tell(new OrderActor.Message() {
+            @Override
+            public void run() {
+                try {
+                    future.complete(command.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    completedCount.increment();
+                }
+            }
+
+            @Override
+            public void reject(RejectedExecutionException cause) {
+                // 종료 중이라 실행하지 못한 명령도 응답은 돌려준다
+                future.completeExceptionally(cause);
+                completedCount.increment();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public OrderExecutionStatsDTO getStats() {
+        long maxPending = 0;
+        for (OrderActor actor : actors) {
+            maxPending = Math.max(maxPending, actor.getPending());
+        }
+        return OrderExecutionStatsDTO.builder()
+                .mode("actor")
+                .partitions(actors.length)
+                .workers(workerCount)
+                .submitted(submittedCount.sum())
+                .completed(completedCount.sum())
+                .pending(getPending())
+                .maxPartitionPending(maxPending)
+                .build();
+    }
+
+    private long getPending() {
+        long pending = 0;
+        for (OrderActor actor : actors) {
+            pending += actor.getPending();
+        }
+        return pending;
+    }
+
+    /**
+     * 주문 키의 파티션을 고른다.
+     * Snowflake ID의 하위 비트(순번)가 몰려도 파티션이 고르게 나뉘도록 섞는다.
+     */
+    private int partitionOf(long orderKey) {
+        long mixed = orderKey * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) actors.length);
+    }
+
+}
@@ -0,0 +1,38 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderExecutionStatsDTO;
+
+/**
+ * 주문 명령 실행기
+ *
+ * OrderContext의 상태를 바꾸는 명령(다음 단계, 취소)을 어느 스레드에서 실행할지 추상화한다
+ * 구현체는 subway.order.execution.mode 설정으로 선택한다
+ * - shared : 호출한 스레드에서 바로 실행하고 완료된 future를 반환 (기본값)
+ * - actor  : 주문 키로 나눈 파티션의 mailbox에 넣고, 파티션마다 한 번에 한 스레드만 순서대로 실행
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public interface OrderCommandExecutor {
+
+    /**
+     * 주문 명령을 실행한다. 같은 주문의 명령은 제출한 순서대로 실행된다.
+     *
+     * @param orderKey long 주문 ID (파티션 선택 기준)
+     * @param command 명령
+     * @param <T> 명령 결과 타입
+     * @return 명령 결과 future (명령이 예외를 던지면 그 예외로 완료)
+     */
+    <T> CompletableFuture<T> submit(long orderKey, Supplier<T> command);
+
+    /**
+     * 실행 지표를 반환한다.
+     *
+     * @return 실행 지표
+     */
+    OrderExecutionStatsDTO getStats();
+
+}
@@ -0,0 +1,96 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.http;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+
+/**
+ * 주문 응답 ETag
+ *
+ * 주문 응답 HTML은 주문 스냅샷(버전, 상태)과 예상 시간 보기 번호만으로 정해지므로, 이 값들로 강한 ETag를 만든다
+ * - "버전-상태"          : 예상 시간이 없는 응답 (이력, 완료/취소 주문)
+ * - "버전-상태-보기번호" : 예상 시간이 들어간 진행 중 주문 응답 (상태, 액션, 생성/전환 결과)
+ *
+ * 앞의 버전은 If-Match(조건부 전환)와 waitForChangeAfter(long-poll)에 그대로 쓸 수 있도록 숫자로 둔다
+ * 버전만 담던 이전 형식("3")도 그대로 해석한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public final class OrderEntityTag {
+
+    /** 예상 시간 보기 번호가 없음 */
+    public static final long NO_REVISION = -1L;
+
+    private OrderEntityTag() {
+    }
+
+    /**
+     * 주문 스냅샷의 ETag를 만든다.
+     *
+     * @param snapshot 주문 상태 스냅샷
+     * @param etaRevision 예상 시간 보기 번호 (없으면 NO_REVISION)
+     * @return 따옴표로 감싼 강한 ETag
+     */
+    public static String of(OrderStateSnapshot snapshot, long etaRevision) {
+        StringBuilder tag = new StringBuilder(32)
+                .append('"').append(snapshot.getVersion()).append('-').append(snapshot.getStateType().name());
+        if (etaRevision != NO_REVISION) {
+            tag.append('-').append(etaRevision);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * If-None-Match 헤더가 ETag와 일치하는지 확인한다.
+     * 쉼표로 나열한 여러 태그와 *를 허용하며, If-None-Match 규칙대로 약한 비교(W/ 무시)를 한다.
+     *
+     * @param ifNoneMatch If-None-Match 헤더 값
+     * @param entityTag 현재 ETag (따옴표 포함)
+     * @return 일치하면 true
+     */
+    public static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag 또는 버전 문자열에서 주문 버전을 꺼낸다.
+     * "3-COOKING-7", W/"3-COOKING", "3", 3 형식을 허용한다.
+     *
+     * @param tag ETag 또는 버전
+     * @return 주문 버전, 형식이 잘못되면 -1
+     */
+    public static long parseVersion(String tag) {
+        if (tag == null) {
+            return -1L;
+        }
+        String value = tag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        int end = value.indexOf('-');
+        try {
+            long version = Long.parseLong(end < 0 ? value : value.substring(0, end));
+            return version >= 0 ? version : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+}
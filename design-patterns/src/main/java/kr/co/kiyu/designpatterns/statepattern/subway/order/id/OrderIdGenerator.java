@@ -0,0 +1,180 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.id;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 ID 생성기 (Snowflake 방식)
+ *
+ * 64비트 long 하나에 시간, 노드, 순번을 담아 충돌 없는 주문 ID를 만든다
+ *
+ * [비트 구성]
+ * 0 | 41비트 타임스탬프(EPOCH 기준 ms) | 10비트 노드 ID | 12비트 ms당 순번
+ *
+ * - 락 없이 AtomicLong CAS 루프로 발급한다
+ * - 같은 ms에 4096개를 넘기거나 시계가 뒤로 가면 잠들지 않고 다음 ms를 미리 당겨 쓴다
+ * - 외부 표현은 "ORD-" + Crockford Base32 13자리이며, 저장소는 parse()로 얻은 long을 키로 쓴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderIdGenerator {
+
+    /** 2025-01-01T00:00:00Z */
+    private static final long EPOCH = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+
+    private static final int ENCODED_LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    @Getter
+    private final long nodeId;
+
+    /** 현재 시각(epoch millis) */
+    private final LongSupplier clock;
+
+    /** 마지막으로 발급한 (타임스탬프 << 12 | 순번) */
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    @Autowired
+    public OrderIdGenerator(@Value("${subway.order.id.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * 시계를 지정하는 생성자 (테스트에서 같은 ms 소진, 시계 역행을 재현할 때 사용)
+     *
+     * @param nodeId 노드 ID
+     * @param clock 현재 시각(epoch millis)
+     */
+    OrderIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("노드 ID는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        log.info("🆔 주문 ID 생성기 초기화 - 노드 ID: {}", nodeId);
+    }
+
+    /**
+     * 새 주문 ID를 long으로 발급한다.
+     *
+     * @return 주문 ID
+     */
+    public long nextId() {
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                // 순번 소진 또는 시계 역행: 다음 ms를 당겨 쓴다
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 새 주문 ID를 외부 표현으로 발급한다.
+     *
+     * @return 주문 ID 문자열 (예: ORD-06JXSQVY40400)
+     */
+    public String nextOrderId() {
+        return format(nextId());
+    }
+
+    /**
+     * long 주문 ID를 외부 표현으로 변환한다.
+     *
+     * @param id 주문 ID
+     * @return 주문 ID 문자열
+     */
+    public static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 외부 표현을 long 주문 ID로 변환한다.
+     *
+     * @param orderId 주문 ID 문자열
+     * @return 주문 ID, 형식이 맞지 않으면 -1
+     */
+    public static long parse(String orderId) {
+        if (orderId == null || orderId.length() != PREFIX.length() + ENCODED_LENGTH || !orderId.startsWith(PREFIX)) {
+            return -1L;
+        }
+        // 13자리 * 5비트 = 65비트이므로 첫 자리는 부호 비트를 제외한 3비트(0~7)만 허용한다
+        char first = orderId.charAt(PREFIX.length());
+        if (first >= DECODE.length || DECODE[first] < 0 || DECODE[first] > 7) {
+            return -1L;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < orderId.length(); i++) {
+            char c = orderId.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                return -1L;
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    /**
+     * 주문 ID에 담긴 생성 시각(epoch millis)을 반환한다.
+     *
+     * @param id 주문 ID
+     * @return 생성 시각
+     */
+    public static long extractTimestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+}
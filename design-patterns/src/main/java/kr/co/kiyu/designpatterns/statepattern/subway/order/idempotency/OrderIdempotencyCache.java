@@ -0,0 +1,170 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.idempotency;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 생성 멱등 키 캐시
+ *
+ * 모바일 클라이언트가 timeout 후 같은 Idempotency-Key로 주문 생성을 다시 보내면
+ * 주문을 새로 만들지 않고 처음 만든 응답(상태, 헤더, HTML 본문)을 그대로 돌려준다
+ *
+ * - 처리 중 : 키마다 응답 future 하나를 두고, 처리 중에 들어온 같은 키 요청은 그 future를 기다린다
+ *             (요청 스레드를 잡지 않으며, 주문은 처음 요청 하나만 만든다)
+ * - 완료    : 완료된 응답 객체를 그대로 보관하므로 재전송에는 처음 렌더링한 본문이 한 바이트도 다르지 않게 나간다
+ * - 실패    : 처음 요청이 예외로 끝나면 키를 지우므로 재시도하면 다시 생성한다 (기다리던 요청은 같은 예외를 받는다)
+ * - 제한    : 키는 생성 순서대로 ttl-ms가 지나면 지우고, max-entries를 넘으면 오래된 것부터 지운다
+ *
+ * 같은 키가 다른 주문 내용(고객, 메뉴, 금액 등)으로 다시 오면 응답을 재사용하지 않는다
+ * 키는 노드 단위이며, 클러스터에서는 주문 생성이 전달되지 않으므로 같은 노드로 재시도해야 중복이 걸러진다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderIdempotencyCache {
+
+    /** 재사용한 응답에 붙이는 헤더 */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** 허용하는 키 최대 길이 */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** 생성 순서 (만료 순서와 같다) */
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final LongAdder replayedCount = new LongAdder();
+
+    public OrderIdempotencyCache(@Value("${subway.order.idempotency.max-entries:100000}") int maxEntries,
+                                 @Value("${subway.order.idempotency.ttl-ms:86400000}") long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * 키로 처음 들어온 요청이면 생성 작업을 실행하고, 이미 처리 중이거나 처리된 키면 그 응답을 돌려준다.
+     *
+     * @param key Idempotency-Key 헤더 값
+     * @param fingerprint 요청 내용 (같은 키의 요청이 같은 주문인지 비교)
+     * @param creation 주문 생성 + 응답 렌더링 (처음 요청의 스레드에서 한 번만 실행)
+     * @return 응답 future (재사용한 응답에는 Idempotent-Replayed 헤더가 붙는다), 같은 키가 다른 내용으로 쓰였으면 null
+     */
+    public CompletableFuture<ResponseEntity<String>> execute(String key, String fingerprint,
+                                                             Supplier<ResponseEntity<String>> creation) {
+        long now = System.nanoTime();
+        Entry created = new Entry(key, fingerprint, now);
+        Entry entry = entries.compute(key, (k, existing) ->
+                existing != null && now - existing.createdAtNanos < ttlNanos ? existing : created);
+
+        if (entry != created) {
+            if (!entry.fingerprint.equals(fingerprint)) {
+                log.warn("⚠️ 멱등 키 재사용 거부 - 다른 주문 내용, 키: {}", key);
+                return null;
+            }
+            replayedCount.increment();
+            log.info("🔁 멱등 키 중복 요청 - 처음 응답을 재사용합니다{}, 키: {}",
+                    entry.response.isDone() ? "" : " (처리 중, 완료 대기)", key);
+            return entry.response.thenApply(OrderIdempotencyCache::markReplayed);
+        }
+
+        insertionOrder.add(created);
+        evict(now);
+        try {
+            created.response.complete(creation.get());
+        } catch (RuntimeException e) {
+            entries.remove(key, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+        return created.response;
+    }
+
+    /**
+     * 보관 중인 키 수를 반환한다.
+     *
+     * @return 키 수
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 응답을 재사용한 중복 요청 수를 반환한다.
+     *
+     * @return 중복 요청 수
+     */
+    public long getReplayedCount() {
+        return replayedCount.sum();
+    }
+
+    /**
+     * 만료되었거나 최대 개수를 넘은 키를 오래된 것부터 지운다. 한 번에 한 스레드만 지운다.
+     */
+    private void evict(long now) {
+        if (!evictLock.tryLock()) {
+            return;
+        }
+        try {
+            Entry oldest;
+            while ((oldest = insertionOrder.peek()) != null
+                    && (now - oldest.createdAtNanos >= ttlNanos || entries.size() > maxEntries)) {
+                insertionOrder.poll();
+                // 만료 후 같은 키로 다시 만든 항목은 지우지 않는다
+                entries.remove(oldest.key, oldest);
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+    private static ResponseEntity<String> markReplayed(ResponseEntity<String> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    /**
+     * 키 하나의 응답
+     */
+    private static final class Entry {
+
+        private final String key;
+
+        private final String fingerprint;
+
+        private final long createdAtNanos;
+
+        private final CompletableFuture<ResponseEntity<String>> response = new CompletableFuture<>();
+
+        private Entry(String key, String fingerprint, long createdAtNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.createdAtNanos = createdAtNanos;
+        }
+
+    }
+
+}
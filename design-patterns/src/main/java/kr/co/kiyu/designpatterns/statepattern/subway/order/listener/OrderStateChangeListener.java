@@ -0,0 +1,78 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.listener;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 주문 상태 변경 리스너
+ *
+ * 주문이 생성되거나 OrderContext의 상태가 바뀔 때마다 호출되는 확장 지점
+ * 영속화, 알림 등 상태 전환에 따른 부가 작업을 State 클래스 밖으로 분리한다
+ *
+ * 리스너는 요청 스레드에서 동기적으로 호출되므로 오래 걸리는 작업을 직접 수행해서는 안 된다
+ * 리스너의 실패는 기록만 하고 전환을 막지 않지만, isRequired()가 true인 리스너(영속화 등)의 실패는
+ * 나머지 리스너를 모두 호출한 뒤 전환 요청에 예외로 전달된다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public interface OrderStateChangeListener {
+
+    /**
+     * 주문이 생성되어 저장소에 저장된 후 호출된다.
+     *
+     * @param context 생성된 주문 컨텍스트
+     */
+    default void onOrderCreated(OrderContext context) {
+    }
+
+    /**
+     * 상태 변경 후 호출된다.
+     *
+     * @param context 상태가 변경된 주문 컨텍스트
+     * @param previous 전환 전 스냅샷
+     * @param current 전환 후 스냅샷
+     * @param reason 상태 변경 사유
+     */
+    void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current, String reason);
+
+    /**
+     * 종료된 주문이 메모리 저장소에서 디스크 보관소로 옮겨진 후 호출된다.
+     * 주문은 저장소에서 계속 조회할 수 있지만, 메모리에 주문을 붙잡아 두는 부가 정보는 이때 정리한다.
+     *
+     * @param orderKey long 주문 ID
+     * @param stateType 보관된 주문의 종료 상태
+     */
+    default void onOrderArchived(long orderKey, OrderStateType stateType) {
+    }
+
+    /**
+     * 클러스터 재분배로 다른 노드의 주문을 넘겨받아 저장소에 저장한 후 호출된다.
+     * 새로 생성된 주문이 아니므로 생성 알림 등은 하지 않고, 이 노드에서 주문을 찾는 데 필요한 부가 정보만 채운다.
+     *
+     * @param context 넘겨받은 주문 컨텍스트
+     */
+    default void onOrderTransferredIn(OrderContext context) {
+    }
+
+    /**
+     * 클러스터 재분배로 주문을 다른 노드에 넘기고 저장소에서 지운 후 호출된다.
+     *
+     * @param orderKey long 주문 ID
+     * @param stateType 넘긴 주문의 상태
+     */
+    default void onOrderTransferredOut(long orderKey, OrderStateType stateType) {
+    }
+
+    /**
+     * 상태 변경 처리 실패를 전환 요청에 예외로 알려야 하는 리스너인지 여부.
+     * 실패하면 재시작 후 전환이 사라지는 영속화 리스너는 true를 돌려주어, 요청이 성공으로 응답되지 않게 한다.
+     *
+     * @return 실패를 전환 요청에 전달하면 true
+     */
+    default boolean isRequired() {
+        return false;
+    }
+
+}
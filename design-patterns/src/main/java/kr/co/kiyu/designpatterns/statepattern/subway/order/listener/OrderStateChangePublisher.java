@@ -0,0 +1,120 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.listener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 상태 변경 발행자
+ *
+ * 등록된 모든 OrderStateChangeListener에게 주문 생성과 상태 변경을 전달한다
+ * (보관, 클러스터 재분배로 인한 인수/인계 포함)
+ * 한 리스너가 실패해도 나머지 리스너는 계속 호출하며, 필수 리스너(isRequired)의 상태 변경 실패만 호출자에게 다시 던진다
+ * 리스너 빈이 저장소 등 이 발행자를 다시 참조하는 빈일 수 있으므로
+ * 리스너 목록은 첫 발행 시점에 지연 조회하여 순환 참조를 피한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderStateChangePublisher implements OrderStateChangeListener {
+
+    private final ObjectProvider<OrderStateChangeListener> listenerProvider;
+
+    private volatile List<OrderStateChangeListener> listeners;
+
+    public OrderStateChangePublisher(ObjectProvider<OrderStateChangeListener> listenerProvider) {
+        this.listenerProvider = listenerProvider;
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        for (OrderStateChangeListener listener : getListeners()) {
+            try {
+                listener.onOrderCreated(context);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 주문 생성 리스너 처리 실패 - 리스너: {}, 주문ID: {}",
+                        listener.getClass().getSimpleName(), context.getOrderId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current, String reason) {
+        RuntimeException requiredFailure = null;
+        for (OrderStateChangeListener listener : getListeners()) {
+            try {
+                listener.onStateChanged(context, previous, current, reason);
+            } catch (RuntimeException e) {
+                // 부가 작업의 실패가 상태 전환 자체를 되돌리지는 않는다
+                log.error("⚠️ 상태 변경 리스너 처리 실패 - 리스너: {}, 주문ID: {}",
+                        listener.getClass().getSimpleName(), context.getOrderId(), e);
+                if (listener.isRequired() && requiredFailure == null) {
+                    requiredFailure = e;
+                }
+            }
+        }
+        // 영속화에 실패한 전환은 재시작 후 사라지므로, 다른 리스너까지 알린 뒤 요청에 실패로 돌려준다
+        if (requiredFailure != null) {
+            throw requiredFailure;
+        }
+    }
+
+    @Override
+    public void onOrderArchived(long orderKey, OrderStateType stateType) {
+        for (OrderStateChangeListener listener : getListeners()) {
+            try {
+                listener.onOrderArchived(orderKey, stateType);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 주문 보관 리스너 처리 실패 - 리스너: {}, 주문ID: {}",
+                        listener.getClass().getSimpleName(), OrderIdGenerator.format(orderKey), e);
+            }
+        }
+    }
+
+    @Override
+    public void onOrderTransferredIn(OrderContext context) {
+        for (OrderStateChangeListener listener : getListeners()) {
+            try {
+                listener.onOrderTransferredIn(context);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 주문 인수 리스너 처리 실패 - 리스너: {}, 주문ID: {}",
+                        listener.getClass().getSimpleName(), context.getOrderId(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onOrderTransferredOut(long orderKey, OrderStateType stateType) {
+        for (OrderStateChangeListener listener : getListeners()) {
+            try {
+                listener.onOrderTransferredOut(orderKey, stateType);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 주문 인계 리스너 처리 실패 - 리스너: {}, 주문ID: {}",
+                        listener.getClass().getSimpleName(), OrderIdGenerator.format(orderKey), e);
+            }
+        }
+    }
+
+    private List<OrderStateChangeListener> getListeners() {
+        List<OrderStateChangeListener> current = listeners;
+        if (current == null) {
+            current = listenerProvider.orderedStream()
+                    .filter(listener -> listener != this)
+                    .collect(Collectors.toUnmodifiableList());
+            listeners = current;
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,65 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderBatchCommandType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 주문 명령 DTO
+ *
+ * 대상 주문은 orderId 또는 같은 요청 안의 CREATE 명령에 붙인 ref(orderRef)로 지정한다
+ * - {"type":"CREATE","ref":"a","customerName":"홍길동","menuName":"치킨 데리야끼","totalPrice":8500,...}
+ * - {"type":"NEXT_STEP","orderRef":"a"}
+ * - {"type":"CANCEL","orderId":"ORD-06JXSQVY40400","expectedVersion":1}
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "일괄 주문 명령 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderBatchCommandDTO {
+
+    @Schema(description = "명령 타입", example = "NEXT_STEP")
+    private OrderBatchCommandType type;
+
+    @Schema(description = "대상 주문 ID (CREATE 제외)", example = "ORD-06JXSQVY40400")
+    private String orderId;
+
+    @Schema(description = "대상 주문의 ref (같은 요청에서 CREATE 시 붙인 ref)", example = "a")
+    private String orderRef;
+
+    @Schema(description = "CREATE 명령의 ref (이후 명령에서 orderRef로 참조)", example = "a")
+    private String ref;
+
+    @Schema(description = "기대하는 주문 버전 (If-Match와 동일, 없으면 검사하지 않음)", example = "1")
+    private Long expectedVersion;
+
+    @Schema(description = "고객명 (CREATE)", example = "홍길동")
+    private String customerName;
+
+    @Schema(description = "메뉴명 (CREATE)", example = "치킨 데리야끼")
+    private String menuName;
+
+    @Schema(description = "수량 (CREATE)", example = "1")
+    private Integer quantity;
+
+    @Schema(description = "총 금액 (CREATE)", example = "8500")
+    private Integer totalPrice;
+
+    @Schema(description = "배달 주소 (CREATE)", example = "서울시 강남구 테헤란로 123")
+    private String deliveryAddress;
+
+    @Schema(description = "연락처 (CREATE)", example = "010-1234-5678")
+    private String phoneNumber;
+
+    @Schema(description = "특별 요청사항 (CREATE)", example = "피클 빼주세요")
+    private String specialRequest;
+
+}
@@ -0,0 +1,60 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderBatchCommandType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 주문 명령 결과 DTO
+ *
+ * NDJSON 한 줄로 내보내는 명령별 결과
+ * 결과는 처리가 끝난 순서로 나가므로 index(요청 배열 내 위치)로 명령과 짝을 맞춘다
+ * status는 HTTP 상태 코드 의미를 따른다 (200 성공, 400 형식 오류/허용되지 않는 전환, 404 주문 없음, 409 충돌, 412 버전 불일치)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "일괄 주문 명령 결과 DTO")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderBatchResultDTO {
+
+    @Schema(description = "요청 배열 내 명령 위치 (0부터)")
+    private int index;
+
+    @Schema(description = "명령 타입")
+    private OrderBatchCommandType type;
+
+    @Schema(description = "CREATE 명령의 ref")
+    private String ref;
+
+    @Schema(description = "처리 결과 상태 코드 (200, 400, 404, 409, 412)")
+    private int status;
+
+    @Schema(description = "주문 ID")
+    private String orderId;
+
+    @Schema(description = "처리 후 주문 상태")
+    private OrderStateType state;
+
+    @Schema(description = "처리 후 주문 버전 (ETag와 동일)")
+    private Long version;
+
+    @Schema(description = "상태 전환 결과 (NEXT_STEP, CANCEL)")
+    private OrderTransitionResult transitionResult;
+
+    @Schema(description = "실패 사유")
+    private String message;
+
+}
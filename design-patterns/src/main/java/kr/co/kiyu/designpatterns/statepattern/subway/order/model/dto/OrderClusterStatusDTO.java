@@ -0,0 +1,54 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 클러스터 상태 DTO
+ *
+ * 주문 수와 지표는 응답한 노드 한 곳의 값이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 클러스터 상태 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderClusterStatusDTO {
+
+    @Schema(description = "이 노드 주소", example = "http://localhost:8078")
+    private String self;
+
+    @Schema(description = "설정된 전체 노드 주소")
+    private List<String> members;
+
+    @Schema(description = "해시 링에 올라간(응답한) 노드 주소")
+    private List<String> liveMembers;
+
+    @Schema(description = "이 노드가 보관 중인 주문 수")
+    private int localOrders;
+
+    @Schema(description = "다른 노드로 전달한 요청 수")
+    private long forwarded;
+
+    @Schema(description = "실패하거나 도중에 끊긴 전달 수")
+    private long forwardFailed;
+
+    @Schema(description = "재분배로 다른 노드에 넘긴 주문 수")
+    private long handedOut;
+
+    @Schema(description = "재분배로 다른 노드에서 넘겨받은 주문 수")
+    private long handedIn;
+
+    @Schema(description = "재분배 실행 횟수")
+    private long rebalances;
+
+}
@@ -23,7 +23,7 @@ import lombok.NoArgsConstructor;
 @Schema(description = "서브웨이 주문 정보 DTO")
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 public class OrderDTO {
 
@@ -66,6 +66,16 @@ public class OrderDTO {
      * @return HTML 형식의 주문 정보 문자열
      */
     public String toHtmlContent() {
+        return toHtmlContent(null);
+    }
+
+    /**
+     * 주문 정보를 예상 시간과 함께 HTML 형식으로 출력한다.
+     * 
+     * @param eta 예상 시간 (null이면 표시하지 않음)
+     * @return HTML 형식의 주문 정보 문자열
+     */
+    public String toHtmlContent(OrderEtaDTO eta) {
         StringBuilder html = new StringBuilder();
         
         // CSS 스타일 선언
@@ -150,9 +160,25 @@ public class OrderDTO {
             .append("<div class='info-row'>")
             .append("<span class='info-label'>상태 변경:</span>")
             .append("<span class='info-value'>").append(stateChangedAt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("</span>")
-            .append("</div>")
             .append("</div>");
 
+        if (eta != null) {
+            html.append("<div class='info-row'>")
+                .append("<span class='info-label'>현재 단계 예상:</span>")
+                .append("<span class='info-value'>")
+                .append(OrderEtaDTO.formatDuration(eta.getCurrent().getP50Millis())).append(" ~ ")
+                .append(OrderEtaDTO.formatDuration(eta.getCurrent().getP90Millis()))
+                .append(" (p50 ~ p90, ").append(eta.getCurrent().getBasis().getDescription()).append(")</span>")
+                .append("</div>")
+                .append("<div class='info-row'>")
+                .append("<span class='info-label'>완료 예상 시각:</span>")
+                .append("<span class='info-value'>")
+                .append(OrderEtaDTO.formatTime(eta.getExpectedCompletionP50())).append(" ~ ")
+                .append(OrderEtaDTO.formatTime(eta.getExpectedCompletionP90())).append("</span>")
+                .append("</div>");
+        }
+        html.append("</div>");
+
         html.append("</div>");
 
         return html.toString();
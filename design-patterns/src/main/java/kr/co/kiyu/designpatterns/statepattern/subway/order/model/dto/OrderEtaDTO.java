@@ -0,0 +1,60 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 예상 시간 DTO
+ *
+ * 현재 상태의 체류 시간 추정과, 현재 상태가 된 시각에 이후 상태들의 추정을 더한 완료 예상 시각
+ * 조회 시각에 따라 달라지는 값(경과 시간, 남은 시간)은 담지 않으므로 같은 주문 버전이면 같은 응답을 만든다
+ * 완료 예상 p90은 상태별 p90의 합이므로 실제 p90보다 넉넉한 (늦게 잡는) 값이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 예상 시간 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderEtaDTO {
+
+    @Schema(description = "현재 상태 체류 시간 추정")
+    private OrderStateEtaDTO current;
+
+    @Schema(description = "완료 예상 시각 (중앙값)")
+    private LocalDateTime expectedCompletionP50;
+
+    @Schema(description = "완료 예상 시각 (90% 분위, 상태별 p90의 합)")
+    private LocalDateTime expectedCompletionP90;
+
+    /**
+     * 시각을 화면 표시용 문자열로 바꾼다.
+     *
+     * @param time 시각
+     * @return HH:mm:ss
+     */
+    public static String formatTime(LocalDateTime time) {
+        return time.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+    }
+
+    /**
+     * 시간을 화면 표시용 문자열로 바꾼다. (1분 미만은 초, 그 이상은 분 단위)
+     *
+     * @param millis 시간 (ms)
+     * @return 표시 문자열
+     */
+    public static String formatDuration(long millis) {
+        long seconds = Math.round(millis / 1000.0);
+        return seconds < 60 ? seconds + "초" : Math.round(seconds / 60.0) + "분";
+    }
+
+}
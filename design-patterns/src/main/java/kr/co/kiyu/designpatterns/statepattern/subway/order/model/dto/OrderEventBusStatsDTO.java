@@ -0,0 +1,51 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 이벤트 버스 지표 DTO
+ *
+ * 핸들러별 lag이 buffer-size에 가까워지면 발행자가 back-pressure 정책에 따라 기다리거나 이벤트를 버린다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 이벤트 버스 지표 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderEventBusStatsDTO {
+
+    @Schema(description = "링 버퍼 칸 수")
+    private int bufferSize;
+
+    @Schema(description = "링 버퍼가 가득 찼을 때의 처리 방식", example = "BLOCK")
+    private String backPressure;
+
+    @Schema(description = "발행한 이벤트 수")
+    private long published;
+
+    @Schema(description = "링 버퍼가 가득 차 버린 이벤트 수")
+    private long dropped;
+
+    @Schema(description = "빈 칸을 기다린 발행 수")
+    private long blocked;
+
+    @Schema(description = "빈 칸을 기다린 시간 합계 (ms)")
+    private long blockedMillis;
+
+    @Schema(description = "남은 빈 칸 수")
+    private long remainingCapacity;
+
+    @Schema(description = "핸들러별 지표")
+    private List<OrderEventConsumerStatsDTO> consumers;
+
+}
@@ -0,0 +1,47 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 이벤트 핸들러 지표 DTO
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 이벤트 핸들러 지표 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderEventConsumerStatsDTO {
+
+    @Schema(description = "핸들러 이름")
+    private String name;
+
+    @Schema(description = "처리한 마지막 순번")
+    private long sequence;
+
+    @Schema(description = "발행된 순번보다 뒤처진 이벤트 수")
+    private long lag;
+
+    @Schema(description = "처리한 이벤트 수")
+    private long processed;
+
+    @Schema(description = "처리한 묶음 수")
+    private long batches;
+
+    @Schema(description = "평균 묶음 크기")
+    private double averageBatchSize;
+
+    @Schema(description = "최대 묶음 크기")
+    private long maxBatchSize;
+
+    @Schema(description = "처리 중 예외 수")
+    private long errors;
+
+}
@@ -0,0 +1,46 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 명령 실행 지표 DTO
+ *
+ * shared 모드는 호출한 스레드에서 바로 실행하므로 파티션, 대기 지표가 0이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 명령 실행 지표 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderExecutionStatsDTO {
+
+    @Schema(description = "실행 방식", example = "actor")
+    private String mode;
+
+    @Schema(description = "파티션(actor) 수")
+    private int partitions;
+
+    @Schema(description = "actor를 실행하는 스레드 수")
+    private int workers;
+
+    @Schema(description = "제출된 명령 수")
+    private long submitted;
+
+    @Schema(description = "실행을 마친 명령 수")
+    private long completed;
+
+    @Schema(description = "mailbox에서 대기 중인 명령 수")
+    private long pending;
+
+    @Schema(description = "가장 많이 밀린 파티션의 대기 명령 수")
+    private long maxPartitionPending;
+
+}
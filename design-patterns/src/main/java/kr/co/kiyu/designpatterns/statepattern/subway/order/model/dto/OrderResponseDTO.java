@@ -0,0 +1,84 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 서브웨이 주문 응답 DTO
+ *
+ * 서비스가 컨트롤러에 돌려주는 응답 본문(HTML)과 함께
+ * 주문 버전과 ETag, 상태 전환 결과, 조회 응답의 재사용 가능 시간을 담는다
+ * If-None-Match가 일치한 조회는 본문 없이 notModified로 돌려준다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "서브웨이 주문 응답 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderResponseDTO {
+
+    @Schema(description = "응답 HTML")
+    private String html;
+
+    @Schema(description = "주문 버전 (주문을 찾지 못한 경우 null)")
+    private Long version;
+
+    @Schema(description = "상태 전환 결과 (조회 요청인 경우 null)")
+    private OrderTransitionResult transitionResult;
+
+    @Schema(description = "ETag (따옴표 포함, 주문을 찾지 못한 경우 null)")
+    private String entityTag;
+
+    @Schema(description = "조회 응답을 재사용해도 되는 시간(초, 조회 요청이 아니면 null)")
+    private Long cacheMaxAgeSeconds;
+
+    @Schema(description = "If-None-Match가 현재 ETag와 일치하여 본문 없이 응답하는지 여부")
+    private boolean notModified;
+
+    /**
+     * 버전 없이 HTML만 담은 응답을 만든다.
+     *
+     * @param html 응답 HTML
+     * @return 주문 응답
+     */
+    public static OrderResponseDTO of(String html) {
+        return OrderResponseDTO.builder().html(html).build();
+    }
+
+    /**
+     * HTML과 버전을 담은 응답을 만든다.
+     *
+     * @param html 응답 HTML
+     * @param version 주문 버전
+     * @return 주문 응답
+     */
+    public static OrderResponseDTO of(String html, long version) {
+        return OrderResponseDTO.builder().html(html).version(version).build();
+    }
+
+    /**
+     * 바뀌지 않은 조회에 대한 본문 없는 응답을 만든다.
+     *
+     * @param version 주문 버전
+     * @param entityTag ETag
+     * @param cacheMaxAgeSeconds 재사용 가능 시간(초)
+     * @return 주문 응답
+     */
+    public static OrderResponseDTO notModified(long version, String entityTag, long cacheMaxAgeSeconds) {
+        return OrderResponseDTO.builder()
+                .version(version)
+                .entityTag(entityTag)
+                .cacheMaxAgeSeconds(cacheMaxAgeSeconds)
+                .notModified(true)
+                .build();
+    }
+
+}
@@ -0,0 +1,41 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 스냅샷 내보내기/복원 결과 DTO
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 스냅샷 내보내기/복원 결과 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderSnapshotResultDTO {
+
+    @Schema(description = "스냅샷 파일 경로")
+    private String path;
+
+    @Schema(description = "주문 수")
+    private long orders;
+
+    @Schema(description = "블록 수")
+    private int blocks;
+
+    @Schema(description = "CRC가 맞지 않아 건너뛴 블록 수")
+    private int corruptBlocks;
+
+    @Schema(description = "파일 크기 (bytes)")
+    private long bytes;
+
+    @Schema(description = "소요 시간 (ms)")
+    private long elapsedMs;
+
+}
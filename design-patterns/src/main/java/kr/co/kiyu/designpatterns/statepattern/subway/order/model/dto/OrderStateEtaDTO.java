@@ -0,0 +1,42 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderEtaBasis;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상태 체류 시간 추정 DTO
+ *
+ * 한 상태에 머무는 시간의 중앙값(p50)과 90% 분위(p90)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "상태 체류 시간 추정 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderStateEtaDTO {
+
+    @Schema(description = "상태")
+    private OrderStateType state;
+
+    @Schema(description = "체류 시간 중앙값 (ms)")
+    private long p50Millis;
+
+    @Schema(description = "체류 시간 90% 분위 (ms)")
+    private long p90Millis;
+
+    @Schema(description = "추정에 쓴 표본 수 (최근 표본 위주, 기본 예상 시간이면 0)")
+    private long samples;
+
+    @Schema(description = "추정 근거")
+    private OrderEtaBasis basis;
+
+}
@@ -0,0 +1,47 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 상태 변경 이벤트 DTO
+ *
+ * SSE 스트림으로 내보내는 작은 이벤트
+ * 전체 주문 HTML 대신 바뀐 상태만 담아 구독자가 필요할 때만 상세를 다시 조회하도록 한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 상태 변경 이벤트 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderStateEventDTO {
+
+    @Schema(description = "주문 ID")
+    private String orderId;
+
+    @Schema(description = "현재 주문 상태")
+    private OrderStateType state;
+
+    @Schema(description = "현재 주문 상태명")
+    private String stateName;
+
+    @Schema(description = "주문 버전 (ETag와 동일)")
+    private long version;
+
+    @Schema(description = "상태 변경 사유")
+    private String reason;
+
+    @Schema(description = "상태 변경 시간")
+    private LocalDateTime changedAt;
+
+}
@@ -0,0 +1,44 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상태별 주문 목록 DTO
+ *
+ * 주문 키(생성 순) 순서의 한 쪽과 다음 쪽을 읽을 커서를 담는다
+ * nextCursor가 null이면 마지막 쪽이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "상태별 주문 목록 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderStatePageDTO {
+
+    @Schema(description = "조회한 주문 상태")
+    private OrderStateType state;
+
+    @Schema(description = "조회한 주문 상태명")
+    private String stateName;
+
+    @Schema(description = "해당 상태의 전체 주문 수")
+    private long count;
+
+    @Schema(description = "주문 목록")
+    private List<OrderSummaryDTO> orders;
+
+    @Schema(description = "다음 쪽 커서 (마지막 주문 ID, 마지막 쪽이면 null)")
+    private String nextCursor;
+
+}
@@ -0,0 +1,50 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주문 요약 DTO
+ *
+ * 상태별 주문 목록의 한 줄
+ * 대시보드가 목록을 자주 다시 읽으므로 주문 HTML 대신 식별과 표시에 필요한 값만 담는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "주문 요약 DTO")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrderSummaryDTO {
+
+    @Schema(description = "주문 ID")
+    private String orderId;
+
+    @Schema(description = "고객명")
+    private String customerName;
+
+    @Schema(description = "메뉴명")
+    private String menuName;
+
+    @Schema(description = "수량")
+    private int quantity;
+
+    @Schema(description = "현재 주문 상태")
+    private OrderStateType state;
+
+    @Schema(description = "주문 버전 (ETag와 동일)")
+    private long version;
+
+    @Schema(description = "상태 변경 시간")
+    private LocalDateTime stateChangedAt;
+
+}
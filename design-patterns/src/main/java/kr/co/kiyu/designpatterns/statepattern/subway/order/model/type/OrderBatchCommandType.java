@@ -0,0 +1,30 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.type;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 일괄 주문 명령 타입
+ *
+ * POST /api/state/order/batch 로 한 번에 보내는 명령의 종류
+ * 단건 API(create, next-step, cancel, status)와 1:1로 대응한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "일괄 주문 명령 타입")
+public enum OrderBatchCommandType {
+
+    CREATE("주문 생성"),
+    NEXT_STEP("다음 단계 진행"),
+    CANCEL("주문 취소"),
+    STATUS("주문 상태 조회");
+
+    @Getter
+    private final String description;
+
+    OrderBatchCommandType(String description) {
+        this.description = description;
+    }
+
+}
@@ -0,0 +1,31 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.type;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 예상 시간 근거
+ *
+ * OrderEtaEstimator가 상태 체류 시간을 어느 범위의 표본으로 추정했는지 나타낸다
+ * 좁은 범위(메뉴·시간대)부터 찾고, 표본이 모자라면 넓은 범위로, 끝내 없으면 상태의 기본 예상 시간을 쓴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "예상 시간 근거")
+public enum OrderEtaBasis {
+
+    MENU_AND_TIME("같은 메뉴·시간대"),
+    MENU("같은 메뉴"),
+    TIME("같은 시간대"),
+    STATE("전체 주문"),
+    DEFAULT("기본 예상 시간");
+
+    @Getter
+    private final String description;
+
+    OrderEtaBasis(String description) {
+        this.description = description;
+    }
+
+}
@@ -0,0 +1,27 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.type;
+
+import lombok.Getter;
+
+/**
+ * 주문 생명주기 이벤트 타입
+ *
+ * OrderEventBus가 링 버퍼로 전달하는 이벤트의 종류
+ * OrderStateChangeListener의 콜백과 1:1로 대응한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public enum OrderLifecycleEventType {
+
+    CREATED("주문 생성"),
+    STATE_CHANGED("상태 변경"),
+    ARCHIVED("보관소 이동");
+
+    @Getter
+    private final String description;
+
+    OrderLifecycleEventType(String description) {
+        this.description = description;
+    }
+
+}
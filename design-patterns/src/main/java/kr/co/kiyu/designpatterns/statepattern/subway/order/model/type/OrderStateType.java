@@ -8,6 +8,7 @@ import lombok.Getter;
  * 
  * 서브웨이 주문의 진행 상태를 나타내는 열거형
  * 주문 접수부터 완료까지의 전체 라이프사이클을 정의
+ * 종료 상태(완료, 취소)는 더 이상 전환되지 않으며, OrderStateMachine이 시작 시 이를 검증한다
  * 
  * @author KIYU-IT
  * @date 2025. 6. 20.
@@ -15,12 +16,12 @@ import lombok.Getter;
 @Schema(description = "주문 상태 타입")
 public enum OrderStateType {
     
-    ORDER_RECEIVED("주문 접수", "고객의 주문이 접수되었습니다", "🛒"),
-    COOKING("조리 중", "샌드위치를 조리하고 있습니다", "🍳"),
-    PACKAGING("포장 중", "주문을 포장하고 있습니다", "📦"),
-    DELIVERY("배달 중", "주문이 배달 중입니다", "🚗"),
-    COMPLETED("완료", "주문이 완료되었습니다", "✅"),
-    CANCELLED("취소", "주문이 취소되었습니다", "❌");
+    ORDER_RECEIVED("주문 접수", "고객의 주문이 접수되었습니다", "🛒", false),
+    COOKING("조리 중", "샌드위치를 조리하고 있습니다", "🍳", false),
+    PACKAGING("포장 중", "주문을 포장하고 있습니다", "📦", false),
+    DELIVERY("배달 중", "주문이 배달 중입니다", "🚗", false),
+    COMPLETED("완료", "주문이 완료되었습니다", "✅", true),
+    CANCELLED("취소", "주문이 취소되었습니다", "❌", true);
 
     @Getter
     private final String stateName;
@@ -31,9 +32,16 @@ public enum OrderStateType {
     @Getter
     private final String emoji;
 
-    OrderStateType(String stateName, String description, String emoji) {
+    /**
+     * 종료 상태 여부 (더 이상 다음 단계나 취소로 전환되지 않음)
+     */
+    @Getter
+    private final boolean terminal;
+
+    OrderStateType(String stateName, String description, String emoji, boolean terminal) {
         this.stateName = stateName;
         this.description = description;
         this.emoji = emoji;
+        this.terminal = terminal;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.model.type;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+/**
+ * 상태 전환 결과 타입
+ *
+ * OrderContext의 상태 전환(다음 단계, 취소) 시도 결과를 나타내는 열거형
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Schema(description = "상태 전환 결과 타입")
+public enum OrderTransitionResult {
+
+    SUCCESS("전환 성공"),
+    REJECTED("현재 상태에서 허용되지 않는 전환"),
+    CONFLICT("다른 요청이 먼저 상태를 변경함"),
+    VERSION_MISMATCH("요청한 버전과 현재 버전이 다름");
+
+    @Getter
+    private final String description;
+
+    OrderTransitionResult(String description) {
+        this.description = description;
+    }
+
+}
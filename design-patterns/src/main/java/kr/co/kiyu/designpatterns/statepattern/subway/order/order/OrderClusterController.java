@@ -0,0 +1,82 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.order;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.cluster.OrderClusterCoordinator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderClusterStatusDTO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서브웨이 주문 클러스터 컨트롤러
+ *
+ * subway.order.cluster.enabled=true 일 때만 등록된다
+ * - /cluster         : 이 노드가 보는 링과 전달/재분배 지표
+ * - /cluster/ping    : 다른 노드의 생존 확인
+ * - /cluster/handoff : 재분배로 넘어오는 주문 레코드 수신 (노드 간 내부 호출)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Tag(name = "State Pattern Cluster API", description = "여러 노드가 서브웨이 주문을 나누어 맡는 클러스터 API")
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/state/order/cluster")
+@ConditionalOnProperty(name = "subway.order.cluster.enabled", havingValue = "true")
+public class OrderClusterController {
+
+    private final OrderClusterCoordinator clusterCoordinator;
+
+    @Operation(
+        summary = "주문 클러스터 상태",
+        description = "이 노드가 보는 전체/생존 노드, 보관 중인 주문 수, 다른 노드로 전달한 요청 수, 재분배로 주고받은 주문 수를 반환합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderClusterStatusDTO getClusterStatus() {
+        log.debug("🌐 State 패턴 - 주문 클러스터 상태 요청");
+
+        return clusterCoordinator.getStatus();
+    }
+
+    @Operation(
+        summary = "노드 생존 확인",
+        description = "다른 노드가 이 노드를 해시 링에 올릴지 확인할 때 호출합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "응답 가능")
+        }
+    )
+    @GetMapping(value = "/ping", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String ping() {
+        return "pong";
+    }
+
+    @Operation(
+        summary = "재분배 주문 수신 (노드 간 내부 호출)",
+        description = "다른 노드가 링 변경으로 이 노드에 넘기는 주문 레코드(int 길이 + 스냅샷 항목 반복)를 저장하고 저장한 건수를 반환합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "저장 성공")
+        }
+    )
+    @PostMapping(value = "/handoff", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public String receiveHandoff(@RequestBody byte[] records) {
+        int accepted = clusterCoordinator.receive(records);
+        log.debug("🌐 State 패턴 - 재분배 주문 수신 {}건 ({} bytes)", accepted, records.length);
+
+        return String.valueOf(accepted);
+    }
+
+}
@@ -0,0 +1,54 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.order;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderSnapshotResultDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.snapshot.OrderSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서브웨이 주문 스냅샷 컨트롤러
+ *
+ * subway.order.snapshot.enabled=true 일 때만 등록된다
+ * - POST /snapshot : 저장소 전체를 스냅샷 파일로 내보내기 (배포 직전 수동 백업 등)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Tag(name = "State Pattern Snapshot API", description = "재시작 간 서브웨이 주문을 보존하는 스냅샷 API")
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/state/order/snapshot")
+@ConditionalOnProperty(name = "subway.order.snapshot.enabled", havingValue = "true")
+public class OrderSnapshotController {
+
+    private final OrderSnapshotService snapshotService;
+
+    @Operation(
+        summary = "주문 스냅샷 내보내기",
+        description = "저장소의 모든 주문(상태, 이력, 버전)을 블록 단위 바이너리 스냅샷 파일로 내보냅니다. "
+                + "다음 시작 시 이 파일로 주문을 복원합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "내보내기 성공")
+        }
+    )
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderSnapshotResultDTO exportSnapshot() throws IOException {
+        log.info("💾 State 패턴 - 주문 스냅샷 내보내기 요청");
+
+        return snapshotService.export();
+    }
+
+}
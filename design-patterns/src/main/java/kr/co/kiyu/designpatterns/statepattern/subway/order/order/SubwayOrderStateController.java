@@ -1,19 +1,51 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.order;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.http.OrderEntityTag;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.idempotency.OrderIdempotencyCache;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderBatchCommandDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderResponseDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEventBusStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderExecutionStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEtaDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStatePageDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.service.OrderBatchService;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.service.SubwayOrderStateService;
 
 import lombok.RequiredArgsConstructor;
@@ -29,6 +61,33 @@ import lombok.extern.slf4j.Slf4j;
  * - 주문 접수 → 조리 중 → 포장 중 → 배달 중 → 완료
  * - 각 상태별로 다른 행동과 제약사항을 가짐
  * 
+ * 주문 응답에는 주문 버전이 ETag로 실리며, 상태 전환 요청은 If-Match로 조건부 처리할 수 있다
+ * - If-Match 버전이 현재 버전과 다름 : 412 Precondition Failed
+ * - 같은 버전으로 동시에 들어온 전환 중 먼저 처리된 요청이 있음 : 409 Conflict
+ * 
+ * 상태/액션/이력 조회는 If-None-Match로 조건부 조회할 수 있다 (ETag = "버전-상태[-예상 시간 보기 번호]")
+ * - ETag가 같음 : 주문 정보를 읽거나 HTML을 만들지 않고 304 Not Modified
+ * - Cache-Control은 상태가 정한다 (진행 중 no-cache, 완료/취소는 오래 캐시)
+ * 
+ * 상태를 반복 조회하는 대신 /events 로 상태 변경을 SSE 스트림으로 구독하거나,
+ * SSE를 쓸 수 없으면 /status?waitForChangeAfter={version} 으로 변경될 때까지 기다릴 수 있다 (long-poll)
+ * 
+ * 매장 대시보드는 ?state={상태}&cursor= 로 상태별 주문 목록을, /counts 로 상태별 주문 수를 색인에서 바로 읽는다
+ * 
+ * 대량 처리(POS 백필, 배치 작업)는 /batch 로 여러 주문의 명령을 한 번에 보내고 NDJSON으로 결과를 받는다
+ * 
+ * 알림, 통계 같은 부가 작업은 이벤트 버스로 비동기 처리되며 /event-bus 로 핸들러별 lag을 확인한다
+ * 주문 상태/액션 응답의 예상 시간도 이벤트 버스 핸들러가 실제 상태 전환에서 배운 p50/p90이다 (/eta 로 상태별 추정 확인)
+ * 
+ * 여러 노드로 운영하면(subway.order.cluster.enabled) 주문 ID 경로의 요청은 OrderRoutingFilter가 주문을 맡은 노드로 전달한다
+ * 
+ * 상태 전환(다음 단계, 취소)은 future로 응답하며, actor 모드(subway.order.execution.mode=actor)에서는
+ * 주문 파티션의 actor가 처리하는 동안 요청 스레드를 잡지 않는다 (/execution 으로 파티션별 대기 명령 확인)
+ * 
+ * 주문 생성(/create)은 Idempotency-Key 헤더로 재시도를 걸러내며, 같은 키의 재요청에는 처음 응답을 그대로 돌려준다
+ * 
+ * 재시작 간 주문 보존(subway.order.snapshot.enabled)은 OrderSnapshotController의 /snapshot 으로 수동 내보내기할 수 있다
+ * 
  * @author KIYU-IT
  * @date 2025. 6. 20.
  */
@@ -41,6 +100,20 @@ public class SubwayOrderStateController {
 
     private final SubwayOrderStateService orderStateService;
 
+    private final OrderBatchService orderBatchService;
+
+    private final OrderIdempotencyCache idempotencyCache;
+
+    /**
+     * If-Match 값이 올바른 형식이 아닐 때 사용하는 버전
+     */
+    private static final long INVALID_VERSION = -2L;
+
+    /**
+     * 상태별 주문 목록 한 쪽의 최대 건수
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Operation(
         summary = "샘플 주문 생성",
         description = "미리 정의된 샘플 주문을 생성하여 State 패턴의 동작을 확인할 수 있습니다.",
@@ -52,117 +125,409 @@ public class SubwayOrderStateController {
     public ResponseEntity<String> createSampleOrder() {
         log.info("🎯 State 패턴 - 샘플 주문 생성 요청");
         
-        String result = orderStateService.createSampleOrder();
+        OrderResponseDTO result = orderStateService.createSampleOrder();
         
         log.info("✅ 샘플 주문 생성 완료");
-        return ResponseEntity.ok(result);
+        return toResponseEntity(result);
     }
 
     @Operation(
         summary = "커스텀 주문 생성",
-        description = "사용자가 직접 입력한 정보로 새로운 주문을 생성합니다.",
+        description = "사용자가 직접 입력한 정보로 새로운 주문을 생성합니다. "
+                + "Idempotency-Key 헤더를 붙이면 같은 키로 다시 보낸 요청(timeout 후 재시도 등)은 주문을 새로 만들지 않고 "
+                + "처음 응답을 그대로 돌려주며, 처음 요청이 처리 중이면 끝날 때까지 기다립니다.",
         responses = {
-            @ApiResponse(responseCode = "200", description = "주문 생성 성공")
+            @ApiResponse(responseCode = "200", description = "주문 생성 성공 (재사용한 응답은 Idempotent-Replayed: true)"),
+            @ApiResponse(responseCode = "400", description = "항목 길이 초과 또는 Idempotency-Key 형식이 올바르지 않음"),
+            @ApiResponse(responseCode = "422", description = "같은 Idempotency-Key가 다른 주문 내용으로 이미 사용됨")
         }
     )
     @PostMapping(value = "/create", produces = MediaType.TEXT_HTML_VALUE)
-    public ResponseEntity<String> createOrder(
+    public CompletableFuture<ResponseEntity<String>> createOrder(
             @Parameter(description = "고객명", example = "홍길동") @RequestParam String customerName,
             @Parameter(description = "메뉴명", example = "치킨 데리야끼") @RequestParam String menuName,
             @Parameter(description = "수량", example = "1") @RequestParam(defaultValue = "1") int quantity,
             @Parameter(description = "총 금액", example = "8500") @RequestParam int totalPrice,
             @Parameter(description = "배달 주소", example = "서울시 강남구 테헤란로 123") @RequestParam String deliveryAddress,
             @Parameter(description = "연락처", example = "010-1234-5678") @RequestParam String phoneNumber,
-            @Parameter(description = "특별 요청사항", example = "피클 빼주세요") @RequestParam(required = false) String specialRequest) {
+            @Parameter(description = "특별 요청사항", example = "피클 빼주세요") @RequestParam(required = false) String specialRequest,
+            @Parameter(description = "멱등 키 (재시도 시 같은 값)", example = "7f9c2ba4-e88f-11ee-a3f2-0242ac120002") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         
-        log.info("🛒 State 패턴 - 커스텀 주문 생성 요청 - 고객: {}, 메뉴: {}", customerName, menuName);
+        log.info("🛒 State 패턴 - 커스텀 주문 생성 요청 - 고객: {}, 메뉴: {}, Idempotency-Key: {}", customerName, menuName, idempotencyKey);
         
-        String result = orderStateService.createOrder(
-                customerName, menuName, quantity, totalPrice, 
-                deliveryAddress, phoneNumber, specialRequest);
+        String invalidField = orderStateService.validateOrderFields(customerName, menuName, deliveryAddress,
+                phoneNumber, specialRequest);
+        if (invalidField != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(orderStateService.createErrorHtml(invalidField)));
+        }
+
+        Supplier<ResponseEntity<String>> creation = () -> {
+            OrderResponseDTO result = orderStateService.createOrder(
+                    customerName, menuName, quantity, totalPrice, 
+                    deliveryAddress, phoneNumber, specialRequest);
+            
+            log.info("✅ 커스텀 주문 생성 완료");
+            return toResponseEntity(result);
+        };
+        if (idempotencyKey == null) {
+            return CompletableFuture.completedFuture(creation.get());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyCache.MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(orderStateService.createErrorHtml("Idempotency-Key는 1~" + OrderIdempotencyCache.MAX_KEY_LENGTH + "자여야 합니다.")));
+        }
+
+        // 같은 키로 다른 주문을 만들려는 요청을 가려내기 위한 요청 내용
+        String fingerprint = String.join("\0", customerName, menuName, String.valueOf(quantity),
+                String.valueOf(totalPrice), deliveryAddress, phoneNumber, String.valueOf(specialRequest));
+        CompletableFuture<ResponseEntity<String>> response = idempotencyCache.execute(idempotencyKey, fingerprint, creation);
+        if (response == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity()
+                    .body(orderStateService.createErrorHtml("이미 다른 주문 내용으로 사용된 Idempotency-Key입니다: " + idempotencyKey)));
+        }
+        return response;
+    }
+
+    @Operation(
+        summary = "일괄 주문 명령",
+        description = "CREATE, NEXT_STEP, CANCEL, STATUS 명령의 JSON 배열을 읽는 대로 처리하고, 명령별 결과를 NDJSON으로 내보냅니다. "
+                + "서로 다른 주문의 명령은 여러 코어에서 동시에 처리하고, 같은 주문의 명령은 요청 순서대로 처리합니다. "
+                + "결과는 처리가 끝난 순서로 나가므로 index로 명령과 짝을 맞추세요. "
+                + "CREATE에 ref를 붙이면 같은 요청의 이후 명령에서 orderRef로 그 주문을 가리킬 수 있습니다.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = OrderBatchCommandDTO.class)))
+        ),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "명령별 결과 (application/x-ndjson, 한 줄에 OrderBatchResultDTO 하나)")
+        }
+    )
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void executeBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("📦 State 패턴 - 일괄 주문 명령 요청");
         
-        log.info("✅ 커스텀 주문 생성 완료");
-        return ResponseEntity.ok(result);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        orderBatchService.execute(request.getInputStream(), response.getOutputStream());
+    }
+
+    @Operation(
+        summary = "상태별 주문 목록",
+        description = "지정한 상태의 주문을 생성 순으로 조회합니다. 응답의 nextCursor를 다음 요청의 cursor로 넘겨 이어 읽습니다. "
+                + "count는 색인에서 바로 읽는 해당 상태의 전체 주문 수입니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "400", description = "상태 또는 커서 형식 오류")
+        }
+    )
+    @GetMapping(params = "state", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderStatePageDTO> getOrdersByState(
+            @Parameter(description = "주문 상태", example = "COOKING") @RequestParam OrderStateType state,
+            @Parameter(description = "이전 응답의 nextCursor", example = "ORD-06JXSQVY40400") @RequestParam(required = false) String cursor,
+            @Parameter(description = "최대 건수 (1~100)", example = "20") @RequestParam(defaultValue = "20") int limit) {
+        
+        log.debug("🗂️ State 패턴 - 상태별 주문 목록 요청 - 상태: {}, 커서: {}, 건수: {}", state, cursor, limit);
+        
+        OrderStatePageDTO page = orderStateService.getOrdersByState(
+                state, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (page == null) {
+            log.warn("❌ 잘못된 커서 - {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(
+        summary = "상태별 주문 수",
+        description = "모든 상태의 주문 수를 상태 순서대로 반환합니다. 저장소를 훑지 않고 색인의 건수를 읽습니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(value = "/counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<OrderStateType, Long> getOrderCountsByState() {
+        log.debug("🗂️ State 패턴 - 상태별 주문 수 요청");
+        
+        return orderStateService.getOrderCountsByState();
+    }
+
+    @Operation(
+        summary = "주문 이벤트 버스 지표",
+        description = "링 버퍼 크기, 발행/버림 건수, back-pressure 대기 시간과 핸들러별 lag(뒤처진 이벤트 수)을 반환합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(value = "/event-bus", produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderEventBusStatsDTO getEventBusStats() {
+        log.debug("🚌 State 패턴 - 이벤트 버스 지표 요청");
+        
+        return orderStateService.getEventBusStats();
+    }
+
+    @Operation(
+        summary = "주문 명령 실행 지표",
+        description = "상태 전환 실행 방식(shared/actor)과 제출/완료 명령 수, 파티션 mailbox에서 대기 중인 명령 수를 반환합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(value = "/execution", produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderExecutionStatsDTO getExecutionStats() {
+        log.debug("🎭 State 패턴 - 주문 명령 실행 지표 요청");
+        
+        return orderStateService.getExecutionStats();
+    }
+
+    @Operation(
+        summary = "상태별 평균 체류 시간",
+        description = "이벤트 버스의 통계 핸들러가 모은 상태별 평균 체류 시간(ms)을 반환합니다. 아직 벗어난 주문이 없는 상태는 빠집니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(value = "/state-durations", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<OrderStateType, Long> getAverageStateDurations() {
+        log.debug("🚌 State 패턴 - 상태별 평균 체류 시간 요청");
+        
+        return orderStateService.getAverageStateDurations();
+    }
+
+    @Operation(
+        summary = "상태별 예상 체류 시간",
+        description = "기록된 상태 전환으로 배운 진행 중 상태별 체류 시간 p50/p90(ms)을 반환합니다. "
+                + "메뉴와 시(0~23)를 주면 그 메뉴·시간대 표본을 우선 쓰고, 표본이 모자라면 더 넓은 범위나 상태의 기본 예상 시간을 씁니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "조회 성공")
+        }
+    )
+    @GetMapping(value = "/eta", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<OrderStateType, OrderStateEtaDTO> getStateEtas(
+            @Parameter(description = "메뉴명 (없으면 전체 메뉴)", example = "치킨 데리야끼") @RequestParam(required = false) String menuName,
+            @Parameter(description = "시 (0 ~ 23, 없으면 전체 시간대)", example = "12") @RequestParam(defaultValue = "-1") int hour) {
+        log.debug("⏳ State 패턴 - 상태별 예상 체류 시간 요청 - 메뉴: {}, 시: {}", menuName, hour);
+        
+        return orderStateService.getStateEtas(menuName, hour > 23 ? -1 : hour);
     }
 
     @Operation(
         summary = "주문 다음 단계 진행",
-        description = "현재 상태에서 다음 단계로 주문을 진행합니다. State 패턴의 핵심 기능입니다.",
+        description = "현재 상태에서 다음 단계로 주문을 진행합니다. State 패턴의 핵심 기능입니다. "
+                + "If-Match 헤더에 조회 시 받은 ETag를 넣으면 그 버전일 때만 진행합니다.",
         responses = {
             @ApiResponse(responseCode = "200", description = "다음 단계 진행 성공"),
-            @ApiResponse(responseCode = "400", description = "진행할 수 없는 상태")
+            @ApiResponse(responseCode = "400", description = "진행할 수 없는 상태"),
+            @ApiResponse(responseCode = "409", description = "다른 요청이 먼저 상태를 변경함"),
+            @ApiResponse(responseCode = "412", description = "If-Match 버전이 현재 버전과 다름")
         }
     )
     @PutMapping(value = "/{orderId}/next-step", produces = MediaType.TEXT_HTML_VALUE)
-    public ResponseEntity<String> nextStep(
-            @Parameter(description = "주문 ID", example = "ORD-1737623456789") @PathVariable String orderId) {
-        
-        log.info("➡️ State 패턴 - 다음 단계 진행 요청 - 주문ID: {}", orderId);
+    public CompletableFuture<ResponseEntity<String>> nextStep(
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "기대하는 주문 버전 (ETag)", example = "\"1\"") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         
-        String result = orderStateService.nextStep(orderId);
+        log.info("➡️ State 패턴 - 다음 단계 진행 요청 - 주문ID: {}, If-Match: {}", orderId, ifMatch);
         
-        log.info("✅ 다음 단계 진행 처리 완료");
-        return ResponseEntity.ok(result);
+        long expectedVersion = parseIfMatch(ifMatch);
+        if (expectedVersion == INVALID_VERSION) {
+            return CompletableFuture.completedFuture(invalidIfMatch(ifMatch));
+        }
+        return orderStateService.nextStep(orderId, expectedVersion)
+                .thenApply(result -> {
+                    log.info("✅ 다음 단계 진행 처리 완료");
+                    return toResponseEntity(result);
+                });
     }
 
     @Operation(
         summary = "주문 취소",
-        description = "주문을 취소합니다. 상태에 따라 취소 가능 여부가 결정됩니다.",
+        description = "주문을 취소합니다. 상태에 따라 취소 가능 여부가 결정됩니다. "
+                + "If-Match 헤더에 조회 시 받은 ETag를 넣으면 그 버전일 때만 취소합니다.",
         responses = {
             @ApiResponse(responseCode = "200", description = "취소 성공"),
-            @ApiResponse(responseCode = "400", description = "취소할 수 없는 상태")
+            @ApiResponse(responseCode = "400", description = "취소할 수 없는 상태"),
+            @ApiResponse(responseCode = "409", description = "다른 요청이 먼저 상태를 변경함"),
+            @ApiResponse(responseCode = "412", description = "If-Match 버전이 현재 버전과 다름")
         }
     )
     @PutMapping(value = "/{orderId}/cancel", produces = MediaType.TEXT_HTML_VALUE)
-    public ResponseEntity<String> cancelOrder(
-            @Parameter(description = "주문 ID", example = "ORD-1737623456789") @PathVariable String orderId) {
-        
-        log.info("🚫 State 패턴 - 주문 취소 요청 - 주문ID: {}", orderId);
+    public CompletableFuture<ResponseEntity<String>> cancelOrder(
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "기대하는 주문 버전 (ETag)", example = "\"1\"") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         
-        String result = orderStateService.cancelOrder(orderId);
+        log.info("🚫 State 패턴 - 주문 취소 요청 - 주문ID: {}, If-Match: {}", orderId, ifMatch);
         
-        log.info("✅ 주문 취소 처리 완료");
-        return ResponseEntity.ok(result);
+        long expectedVersion = parseIfMatch(ifMatch);
+        if (expectedVersion == INVALID_VERSION) {
+            return CompletableFuture.completedFuture(invalidIfMatch(ifMatch));
+        }
+        return orderStateService.cancelOrder(orderId, expectedVersion)
+                .thenApply(result -> {
+                    log.info("✅ 주문 취소 처리 완료");
+                    return toResponseEntity(result);
+                });
     }
 
     @Operation(
         summary = "주문 상태 조회",
-        description = "현재 주문의 상태와 상세 정보를 조회합니다.",
+        description = "현재 주문의 상태와 상세 정보를 조회합니다. "
+                + "If-None-Match 헤더에 이전 응답의 ETag를 넣으면 바뀌지 않았을 때 본문 없이 304로 응답합니다.",
         responses = {
             @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "304", description = "이전 응답에서 바뀌지 않음"),
             @ApiResponse(responseCode = "404", description = "주문을 찾을 수 없음")
         }
     )
     @GetMapping(value = "/{orderId}/status", produces = MediaType.TEXT_HTML_VALUE)
     public ResponseEntity<String> getOrderStatus(
-            @Parameter(description = "주문 ID", example = "ORD-1737623456789") @PathVariable String orderId) {
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "이전 응답의 ETag", example = "\"2-COOKING-5\"") @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         
         log.info("📋 State 패턴 - 주문 상태 조회 요청 - 주문ID: {}", orderId);
         
-        String result = orderStateService.getOrderStatus(orderId);
+        OrderResponseDTO result = orderStateService.getOrderStatus(orderId, ifNoneMatch);
         
         log.info("✅ 주문 상태 조회 완료");
-        return ResponseEntity.ok(result);
+        return toResponseEntity(result);
+    }
+
+    @Operation(
+        summary = "주문 상태 변경 대기 (long-poll)",
+        description = "주문 버전이 waitForChangeAfter보다 커지면 바로 응답하고, timeout 동안 바뀌지 않으면 현재 상태로 응답합니다. "
+                + "SSE를 쓸 수 없는 클라이언트는 응답의 ETag 버전을 다음 요청의 waitForChangeAfter로 넘기며 반복 호출합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "상태 변경 또는 대기 시간 만료"),
+            @ApiResponse(responseCode = "400", description = "waitForChangeAfter 또는 timeout 형식 오류 (timeout은 0보다 커야 함)"),
+            @ApiResponse(responseCode = "404", description = "주문을 찾을 수 없음")
+        }
+    )
+    @GetMapping(value = "/{orderId}/status", params = "waitForChangeAfter", produces = MediaType.TEXT_HTML_VALUE)
+    public DeferredResult<ResponseEntity<String>> waitForOrderStatus(
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "이미 알고 있는 주문 버전 또는 ETag", example = "1") @RequestParam String waitForChangeAfter,
+            @Parameter(description = "최대 대기 시간 (30s, 500ms 형식, 단위가 없으면 초)", example = "30s") @RequestParam(defaultValue = "30s") String timeout) {
+        
+        log.info("⏳ State 패턴 - 주문 상태 변경 대기 요청 - 주문ID: {}, 기준 버전: {}, timeout: {}", orderId, waitForChangeAfter, timeout);
+        
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>();
+        long afterVersion = OrderEntityTag.parseVersion(waitForChangeAfter);
+        if (afterVersion < 0) {
+            log.warn("❌ 잘못된 waitForChangeAfter - {}", waitForChangeAfter);
+            result.setResult(ResponseEntity.badRequest()
+                    .body(orderStateService.createErrorHtml("waitForChangeAfter 형식이 올바르지 않습니다: " + waitForChangeAfter)));
+            return result;
+        }
+        Duration timeoutDuration;
+        try {
+            timeoutDuration = DurationStyle.detectAndParse(timeout, ChronoUnit.SECONDS);
+        } catch (IllegalArgumentException e) {
+            log.warn("❌ 잘못된 timeout - {}", timeout);
+            result.setResult(ResponseEntity.badRequest()
+                    .body(orderStateService.createErrorHtml("timeout 형식이 올바르지 않습니다: " + timeout)));
+            return result;
+        }
+        // 서블릿 컨테이너는 비동기 timeout 0을 '만료 없음'으로 보므로 받지 않는다
+        if (timeoutDuration.toMillis() <= 0) {
+            log.warn("❌ 0 이하의 timeout - {}", timeout);
+            result.setResult(ResponseEntity.badRequest()
+                    .body(orderStateService.createErrorHtml("timeout은 0보다 커야 합니다: " + timeout)));
+            return result;
+        }
+
+        DeferredResult<ResponseEntity<String>> waiting = orderStateService.waitForOrderStatus(
+                orderId, afterVersion, timeoutDuration.toMillis(), this::toResponseEntity);
+        if (waiting == null) {
+            log.warn("❌ 대기할 주문을 찾을 수 없음 - 주문ID: {}", orderId);
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(orderStateService.createErrorHtml("주문을 찾을 수 없습니다: " + orderId)));
+            return result;
+        }
+        return waiting;
     }
 
     @Operation(
         summary = "사용 가능한 액션 조회",
-        description = "현재 상태에서 수행할 수 있는 액션 목록을 조회합니다.",
+        description = "현재 상태에서 수행할 수 있는 액션 목록을 조회합니다. "
+                + "If-None-Match 헤더에 이전 응답의 ETag를 넣으면 바뀌지 않았을 때 본문 없이 304로 응답합니다.",
         responses = {
             @ApiResponse(responseCode = "200", description = "액션 목록 조회 성공"),
+            @ApiResponse(responseCode = "304", description = "이전 응답에서 바뀌지 않음"),
             @ApiResponse(responseCode = "404", description = "주문을 찾을 수 없음")
         }
     )
     @GetMapping(value = "/{orderId}/actions", produces = MediaType.TEXT_HTML_VALUE)
     public ResponseEntity<String> getAvailableActions(
-            @Parameter(description = "주문 ID", example = "ORD-1737623456789") @PathVariable String orderId) {
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "이전 응답의 ETag", example = "\"2-COOKING-5\"") @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         
         log.info("🎯 State 패턴 - 가능 액션 조회 요청 - 주문ID: {}", orderId);
         
-        String result = orderStateService.getAvailableActions(orderId);
+        OrderResponseDTO result = orderStateService.getAvailableActions(orderId, ifNoneMatch);
         
         log.info("✅ 가능 액션 조회 완료");
-        return ResponseEntity.ok(result);
+        return toResponseEntity(result);
+    }
+
+    @Operation(
+        summary = "상태 변경 이력 조회",
+        description = "주문의 상태 변경 이력(변경 시간, 상태, 사유)을 조회합니다. "
+                + "If-None-Match 헤더에 이전 응답의 ETag를 넣으면 바뀌지 않았을 때 본문 없이 304로 응답합니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "이력 조회 성공"),
+            @ApiResponse(responseCode = "304", description = "이전 응답에서 바뀌지 않음"),
+            @ApiResponse(responseCode = "404", description = "주문을 찾을 수 없음")
+        }
+    )
+    @GetMapping(value = "/{orderId}/history", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getStateHistory(
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId,
+            @Parameter(description = "이전 응답의 ETag", example = "\"2-COOKING\"") @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        
+        log.info("📜 State 패턴 - 상태 이력 조회 요청 - 주문ID: {}", orderId);
+        
+        OrderResponseDTO result = orderStateService.getStateHistory(orderId, ifNoneMatch);
+        
+        log.info("✅ 상태 이력 조회 완료");
+        return toResponseEntity(result);
+    }
+
+    @Operation(
+        summary = "주문 상태 변경 구독 (SSE)",
+        description = "주문의 상태가 바뀔 때마다 state 이벤트(JSON)를 보냅니다. "
+                + "연결 즉시 현재 상태를 1건 보내고, 완료/취소되면 연결을 닫습니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "구독 성공 (text/event-stream)"),
+            @ApiResponse(responseCode = "404", description = "주문을 찾을 수 없음")
+        }
+    )
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeOrderEvents(
+            @Parameter(description = "주문 ID", example = "ORD-06JXSQVY40400") @PathVariable String orderId) {
+        
+        log.info("📡 State 패턴 - 주문 이벤트 구독 요청 - 주문ID: {}", orderId);
+        
+        SseEmitter emitter = orderStateService.subscribeOrderEvents(orderId);
+        if (emitter == null) {
+            log.warn("❌ 구독할 주문을 찾을 수 없음 - 주문ID: {}", orderId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @Operation(
+        summary = "전체 주문 상태 변경 구독 (SSE)",
+        description = "모든 주문의 생성/상태 변경을 state 이벤트(JSON)로 보냅니다. "
+                + "구독자가 느리면 같은 주문의 이벤트는 최신 것으로 합쳐지고, 버퍼를 넘으면 dropped 이벤트로 버린 건수를 알립니다.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "구독 성공 (text/event-stream)")
+        }
+    )
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAllOrderEvents() {
+        log.info("📡 State 패턴 - 전체 주문 이벤트 구독 요청");
+        
+        return orderStateService.subscribeAllOrderEvents();
     }
 
     @Operation(
@@ -182,6 +547,88 @@ public class SubwayOrderStateController {
         return ResponseEntity.ok(guide);
     }
 
+    /**
+     * 서비스 응답을 HTTP 응답으로 변환한다.
+     * ETag(없으면 버전)를 싣고, 버전 충돌은 409, 버전 불일치는 412, 바뀌지 않은 조회는 본문 없이 304로 응답한다.
+     * 캐시 시간이 정해진 조회 응답에는 Cache-Control을 싣는다.
+     * 
+     * @param result 서비스 응답
+     * @return HTTP 응답
+     */
+    private ResponseEntity<String> toResponseEntity(OrderResponseDTO result) {
+        if (result.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(result.getEntityTag())
+                    .cacheControl(toCacheControl(result.getCacheMaxAgeSeconds()))
+                    .build();
+        }
+
+        HttpStatus status = HttpStatus.OK;
+        if (result.getTransitionResult() != null) {
+            switch (result.getTransitionResult()) {
+                case CONFLICT:
+                    status = HttpStatus.CONFLICT;
+                    break;
+                case VERSION_MISMATCH:
+                    status = HttpStatus.PRECONDITION_FAILED;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (result.getEntityTag() != null) {
+            builder.eTag(result.getEntityTag());
+        } else if (result.getVersion() != null) {
+            builder.eTag(String.valueOf(result.getVersion()));
+        }
+        if (result.getCacheMaxAgeSeconds() != null) {
+            builder.cacheControl(toCacheControl(result.getCacheMaxAgeSeconds()));
+        }
+        return builder.body(result.getHtml());
+    }
+
+    /**
+     * 상태가 정한 캐시 시간으로 Cache-Control을 만든다.
+     * 주문 정보는 주문자에게만 의미가 있으므로 공유 캐시에는 두지 않는다(private).
+     * 
+     * @param maxAgeSeconds 캐시 시간 (초), 0이면 매번 ETag로 재검증
+     * @return Cache-Control
+     */
+    private CacheControl toCacheControl(long maxAgeSeconds) {
+        return maxAgeSeconds > 0
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * If-Match 헤더에서 기대 버전을 꺼낸다.
+     * "3-COOKING-7", "3", W/"3", 3 형식을 허용하며, 헤더가 없거나 * 이면 버전을 검사하지 않는다.
+     * 
+     * @param ifMatch If-Match 헤더 값
+     * @return 기대 버전, 검사하지 않으면 OrderContext.ANY_VERSION, 형식이 잘못되면 INVALID_VERSION
+     */
+    private long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return OrderContext.ANY_VERSION;
+        }
+        long version = OrderEntityTag.parseVersion(ifMatch);
+        return version > 0 ? version : INVALID_VERSION;
+    }
+
+    /**
+     * 잘못된 If-Match 헤더에 대한 412 응답을 만든다.
+     * 
+     * @param ifMatch If-Match 헤더 값
+     * @return 412 응답
+     */
+    private ResponseEntity<String> invalidIfMatch(String ifMatch) {
+        log.warn("❌ 잘못된 If-Match 헤더 - {}", ifMatch);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(orderStateService.createErrorHtml("If-Match 헤더 형식이 올바르지 않습니다: " + ifMatch));
+    }
+
     /**
      * State 패턴 사용법 안내 HTML을 생성한다.
      * 
@@ -196,7 +643,43 @@ public class SubwayOrderStateController {
                "<li><strong>주문 진행:</strong> PUT /api/state/order/{orderId}/next-step (여러 번 호출)</li>" +
                "<li><strong>상태 확인:</strong> GET /api/state/order/{orderId}/status</li>" +
                "<li><strong>가능 액션:</strong> GET /api/state/order/{orderId}/actions</li>" +
+               "<li><strong>상태 이력:</strong> GET /api/state/order/{orderId}/history</li>" +
                "</ol>" +
+               "<h2>🔒 동시 변경 방지</h2>" +
+               "<p>응답의 ETag(주문 버전)를 If-Match 헤더로 보내면 그 버전일 때만 상태가 바뀝니다. " +
+               "버전이 다르면 412, 동시에 다른 요청이 먼저 바꿨다면 409가 반환됩니다.</p>" +
+               "<h2>📡 실시간 구독</h2>" +
+               "<p>GET /api/state/order/{orderId}/events 로 상태 변경을 SSE로 받을 수 있습니다. " +
+               "전체 주문은 GET /api/state/order/events 를 구독하세요. " +
+               "SSE를 쓸 수 없다면 GET /api/state/order/{orderId}/status?waitForChangeAfter={ETag 버전}&timeout=30s 로 " +
+               "상태가 바뀔 때까지 기다릴 수 있습니다.</p>" +
+               "<h2>📦 일괄 명령</h2>" +
+               "<p>POST /api/state/order/batch 에 명령 JSON 배열을 보내면 명령별 결과를 NDJSON으로 받습니다. " +
+               "예: [{\"type\":\"CREATE\",\"ref\":\"a\",...}, {\"type\":\"NEXT_STEP\",\"orderRef\":\"a\"}]</p>" +
+               "<h2>🗂️ 상태별 조회</h2>" +
+               "<p>GET /api/state/order?state=COOKING&limit=20 으로 상태별 주문을 생성 순으로 받고, " +
+               "응답의 nextCursor를 cursor로 넘겨 다음 쪽을 읽습니다. 상태별 주문 수는 GET /api/state/order/counts 로 확인하세요.</p>" +
+               "<h2>🚌 이벤트 버스</h2>" +
+               "<p>상태가 바뀌면 알림/통계 핸들러가 링 버퍼에서 각자의 스레드로 이벤트를 읽어 갑니다. " +
+               "핸들러별 lag은 GET /api/state/order/event-bus, 상태별 평균 체류 시간은 GET /api/state/order/state-durations 로 확인하세요.</p>" +
+               "<h2>🌐 클러스터</h2>" +
+               "<p>subway.order.cluster.enabled=true 이면 여러 노드가 해시 링으로 주문을 나누어 맡고, 어느 노드로 요청해도 주문을 맡은 노드가 처리합니다. " +
+               "응답의 X-Order-Served-By 헤더로 처리한 노드를, GET /api/state/order/cluster 로 링과 재분배 현황을 확인하세요.</p>" +
+               "<h2>🎭 actor 실행</h2>" +
+               "<p>subway.order.execution.mode=actor 이면 주문 파티션마다 actor가 상태 전환을 도착 순서대로 하나씩 처리합니다. " +
+               "같은 주문에 동시에 보낸 다음 단계 요청도 충돌(409) 없이 차례로 반영되며, GET /api/state/order/execution 으로 대기 중인 명령 수를 확인하세요.</p>" +
+               "<h2>💾 스냅샷</h2>" +
+               "<p>subway.order.snapshot.enabled=true 이면 종료 시 모든 주문을 스냅샷 파일로 내보내고 다음 시작 시 복원합니다. " +
+               "배포 직전에는 POST /api/state/order/snapshot 으로 직접 내보낼 수도 있습니다.</p>" +
+               "<h2>🔁 멱등 주문 생성</h2>" +
+               "<p>주문 생성 요청에 Idempotency-Key 헤더를 붙이면, timeout 등으로 같은 키로 다시 보내도 주문은 한 번만 만들어지고 처음 응답을 그대로 돌려받습니다. " +
+               "재사용된 응답에는 Idempotent-Replayed: true 헤더가 붙습니다.</p>" +
+               "<h2>⏳ 예상 시간</h2>" +
+               "<p>주문 상태와 가능 액션 응답의 예상 시간은 실제로 기록된 상태 전환에서 배운 상태별 체류 시간의 p50 ~ p90입니다. " +
+               "같은 메뉴·시간대 표본이 모자라면 더 넓은 범위를, 처음에는 상태의 기본 예상 시간을 씁니다. GET /api/state/order/eta 로 상태별 추정을 확인하세요.</p>" +
+               "<h2>🏷️ 조건부 조회</h2>" +
+               "<p>상태/액션/이력 응답의 ETag를 다음 조회의 If-None-Match 헤더로 보내면, 주문이 바뀌지 않았을 때 본문 없이 304를 받습니다. " +
+               "진행 중 주문은 Cache-Control: no-cache 로 매번 확인하고, 완료/취소된 주문은 하루 동안 다시 묻지 않아도 됩니다.</p>" +
                "<h2>🔄 상태 전환 흐름</h2>" +
                "<p>🛒 주문 접수 → 🍳 조리 중 → 📦 포장 중 → 🚗 배달 중 → ✅ 완료</p>" +
                "<h2>⚠️ 제약사항</h2>" +
@@ -0,0 +1,24 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.persistence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 주문 영속화 설정
+ *
+ * 애플리케이션은 DataSourceAutoConfiguration을 제외하고 시작하므로 기본적으로 DB에 연결하지 않는다
+ * subway.order.persistence.enabled=true 일 때만 DataSource 자동 설정을 되살리며,
+ * DataSource가 생기면 MyBatis 자동 설정이 SqlSessionFactory와 @Mapper 인터페이스(OrderPersistenceMapper)를 만든다
+ *
+ * 연결 정보는 spring.datasource.* 를 그대로 쓰며, url을 지정하지 않으면 내장 H2 메모리 DB를 띄운다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "subway.order.persistence.enabled", havingValue = "true")
+@Import(DataSourceAutoConfiguration.class)
+public class OrderPersistenceConfiguration {
+}
@@ -0,0 +1,69 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.persistence;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+
+/**
+ * 주문 영속화 매퍼
+ *
+ * OrderWriteBehindWriter가 BATCH 실행기 세션으로 호출하므로, 쓰기 메서드의 반환값(영향 행 수)은 의미가 없다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Mapper
+public interface OrderPersistenceMapper {
+
+    /**
+     * 주문을 등록한다. 상태 관련 컬럼은 같은 묶음의 마지막 전환 기준이다.
+     *
+     * @param order 주문 정보
+     * @param latest 마지막 상태 전환
+     */
+    @Insert("INSERT INTO SUBWAY_ORDER (ORDER_ID, CUSTOMER_NAME, MENU_NAME, QUANTITY, TOTAL_PRICE, DELIVERY_ADDRESS,"
+            + " PHONE_NUMBER, SPECIAL_REQUEST, CREATED_AT, CURRENT_STATE, VERSION, STATE_CHANGED_AT)"
+            + " VALUES (#{order.orderId}, #{order.customerName}, #{order.menuName}, #{order.quantity}, #{order.totalPrice},"
+            + " #{order.deliveryAddress}, #{order.phoneNumber}, #{order.specialRequest}, #{order.createdAt},"
+            + " #{latest.state}, #{latest.version}, #{latest.changedAt})")
+    void insertOrder(@Param("order") OrderDTO order, @Param("latest") OrderTransitionRow latest);
+
+    /**
+     * 주문의 현재 상태를 바꾼다. 이미 더 높은 버전이 기록되어 있으면 바꾸지 않는다.
+     *
+     * @param latest 마지막 상태 전환
+     */
+    @Update("UPDATE SUBWAY_ORDER SET CURRENT_STATE = #{state}, VERSION = #{version}, STATE_CHANGED_AT = #{changedAt}"
+            + " WHERE ORDER_ID = #{orderId} AND VERSION < #{version}")
+    void updateOrderState(OrderTransitionRow latest);
+
+    /**
+     * 상태 전환 이력을 등록한다.
+     *
+     * @param transition 상태 전환
+     */
+    @Insert("INSERT INTO SUBWAY_ORDER_TRANSITION (ORDER_ID, VERSION, STATE, REASON, CHANGED_AT)"
+            + " VALUES (#{orderId}, #{version}, #{state}, #{reason}, #{changedAt})")
+    void insertTransition(OrderTransitionRow transition);
+
+    /**
+     * 저장된 주문 수를 조회한다.
+     *
+     * @return 주문 수
+     */
+    @Select("SELECT COUNT(*) FROM SUBWAY_ORDER")
+    long countOrders();
+
+    /**
+     * 저장된 상태 전환 수를 조회한다.
+     *
+     * @return 상태 전환 수
+     */
+    @Select("SELECT COUNT(*) FROM SUBWAY_ORDER_TRANSITION")
+    long countTransitions();
+
+}
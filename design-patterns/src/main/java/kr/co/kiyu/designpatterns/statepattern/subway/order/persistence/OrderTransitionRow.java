@@ -0,0 +1,32 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.persistence;
+
+import java.time.LocalDateTime;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 주문 상태 전환 행 (SUBWAY_ORDER_TRANSITION)
+ *
+ * 버전 1 행은 주문 생성(초기 상태)이다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Getter
+@AllArgsConstructor
+public final class OrderTransitionRow {
+
+    private final String orderId;
+
+    private final long version;
+
+    private final OrderStateType state;
+
+    private final String reason;
+
+    private final LocalDateTime changedAt;
+
+}
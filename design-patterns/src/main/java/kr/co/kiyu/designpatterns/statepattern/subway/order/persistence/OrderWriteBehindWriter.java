@@ -0,0 +1,334 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 write-behind 기록기
+ *
+ * 주문 생성과 상태 전환을 DB(SUBWAY_ORDER, SUBWAY_ORDER_TRANSITION)에 나중에 모아서 기록한다
+ * - 요청 스레드 : 리스너에서 기록할 내용을 큐에 넣기만 한다 (DB를 기다리지 않는다)
+ * - 기록 스레드 : flush-interval-ms마다 큐를 max-batch건씩 꺼내, 주문별로 합친 뒤 MyBatis BATCH 실행기로 한 트랜잭션에 기록한다
+ *
+ * [합치기]
+ * 같은 묶음 안의 주문 하나에 대해
+ * - 생성이 있으면 마지막 상태로 INSERT 한 번 (이후 UPDATE 없음)
+ * - 생성이 없으면 마지막 상태로 UPDATE 한 번
+ * - 상태 전환 이력은 모두 INSERT
+ * BATCH 실행기는 같은 문장이 이어지는 동안 JDBC 배치 하나로 묶으므로, 묶음 하나는 문장 종류별 JDBC 배치 최대 3개가 된다
+ *
+ * 기록에 실패하면 트랜잭션을 되돌리고 같은 묶음을 다음 주기에 다시 시도한다
+ * MAX_RETRIES번 실패하면 묶음을 반씩 나누어 다시 기록하고, 혼자서도 실패하는 기록만 로그로 남기고 버린다
+ * (잘못된 기록 하나 때문에 같은 묶음의 다른 주문까지 버리지 않는다)
+ * 큐에 쌓인 건수가 max-pending을 넘으면 요청을 막지 않고 새 기록을 버린다 (건수는 로그로 남긴다)
+ * DB는 조회 원본이 아니라 사본이며, 주문 상태의 원본은 여전히 OrderRepository다
+ *
+ * [이벤트 버스와 따로 두는 이유]
+ * OrderEventBus의 핸들러로 두지 않고 자기 큐를 쓴다
+ * - 링 버퍼의 칸은 가장 느린 핸들러가 돌려주므로, DB가 느려지거나 재시도하는 동안 버스 전체가 밀린다
+ *   BLOCK이면 모든 주문 요청이 DB를 기다리게 되고, DROP/TIMEOUT이면 다른 핸들러 때문에 기록이 빠진다
+ * - 버스 이벤트는 주문 키와 상태만 담으므로 주문 등록(INSERT)에 필요한 주문 정보가 없다
+ * 자기 큐는 DB 지연을 max-pending까지 흡수하고, 넘치면 영속화 기록만 버린다 (요청과 다른 핸들러는 영향 없음)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.persistence.enabled", havingValue = "true")
+public class OrderWriteBehindWriter implements OrderStateChangeListener {
+
+    private static final String SCHEMA_LOCATION = "db/subway-order-schema.sql";
+
+    private static final int MAX_RETRIES = 5;
+
+    private final Queue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+
+    /** 큐 + 재시도 대기 건수 */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final DataSource dataSource;
+
+    /** 묶음 하나를 한 트랜잭션으로 기록한다 (실패하면 묶음 전체를 되돌린다) */
+    private final TransactionTemplate transactionTemplate;
+
+    private final long flushIntervalMs;
+
+    private final int maxBatch;
+
+    private final int maxPending;
+
+    private final boolean initSchema;
+
+    /** 기록에 실패하여 다시 시도할 묶음 (기록 스레드만 접근) */
+    private List<PendingWrite> retryBatch = new ArrayList<>();
+
+    private int retryCount;
+
+    private ScheduledExecutorService flusher;
+
+    public OrderWriteBehindWriter(SqlSessionFactory sqlSessionFactory,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${subway.order.persistence.flush-interval-ms:200}") long flushIntervalMs,
+                                  @Value("${subway.order.persistence.max-batch:1000}") int maxBatch,
+                                  @Value("${subway.order.persistence.max-pending:100000}") int maxPending,
+                                  @Value("${subway.order.persistence.init-schema:true}") boolean initSchema) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatch = maxBatch;
+        this.maxPending = maxPending;
+        this.initSchema = initSchema;
+    }
+
+    /**
+     * 스키마를 만들고 기록 스레드를 시작한다.
+     */
+    @PostConstruct
+    public void open() {
+        if (initSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_LOCATION)).execute(dataSource);
+        }
+        if (!sqlSessionFactory.getConfiguration().hasMapper(OrderPersistenceMapper.class)) {
+            sqlSessionFactory.getConfiguration().addMapper(OrderPersistenceMapper.class);
+        }
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            OrderPersistenceMapper mapper = session.getMapper(OrderPersistenceMapper.class);
+            log.info("💾 주문 영속화 시작 - 저장된 주문 {}건, 상태 전환 {}건, 기록 주기 {}ms, 묶음 {}건",
+                    mapper.countOrders(), mapper.countTransitions(), flushIntervalMs, maxBatch);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 기록 스레드를 멈추고 남은 기록을 모두 내린다.
+     */
+    @PreDestroy
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("💾 주문 영속화 종료 - 기록 {}건, 버림 {}건, 남은 기록 {}건",
+                writtenCount.get(), droppedCount.get(), pendingCount.get());
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        enqueue(new PendingWrite(context.getOrder(snapshot), toRow(context.getOrderId(), snapshot)));
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        enqueue(new PendingWrite(null, toRow(context.getOrderId(), current)));
+    }
+
+    /**
+     * 아직 DB에 기록하지 않은 건수를 반환한다.
+     *
+     * @return 대기 건수
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            if (droppedCount.getAndIncrement() % 10_000 == 0) {
+                log.error("⚠️ 주문 영속화 대기열 가득 참 - 기록 버림 (누적 {}건), 대기 {}건",
+                        droppedCount.get(), pendingCount.get());
+            }
+            return;
+        }
+        queue.add(write);
+    }
+
+    /**
+     * 대기열이 빌 때까지 max-batch건씩 기록한다. (기록 스레드, 테스트에서는 직접 호출)
+     */
+    synchronized void flush() {
+        while (true) {
+            List<PendingWrite> batch = retryBatch;
+            PendingWrite write;
+            while (batch.size() < maxBatch && (write = queue.poll()) != null) {
+                batch.add(write);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                write(batch);
+                written(batch);
+            } catch (RuntimeException e) {
+                if (++retryCount < MAX_RETRIES) {
+                    log.error("⚠️ 주문 영속화 실패 - 묶음 {}건, 재시도 {}회째", batch.size(), retryCount, e);
+                    // 같은 묶음(+ 이후 쌓인 기록)을 다음 주기에 다시 시도한다
+                    retryBatch = batch;
+                    return;
+                }
+                log.error("⚠️ 주문 영속화 {}회 실패 - 묶음 {}건을 나누어 기록", retryCount, batch.size(), e);
+                writeSplit(batch);
+            }
+            retryBatch = new ArrayList<>();
+            retryCount = 0;
+        }
+    }
+
+    /**
+     * 실패한 묶음을 반씩 나누어 기록한다. 혼자서도 기록되지 않는 기록만 버린다.
+     * 앞쪽 절반을 먼저 기록하므로 같은 주문의 생성과 상태 전환 순서는 그대로 지켜진다.
+     *
+     * @param batch 기록에 실패한 묶음 (2건 이상, 발생 순서)
+     */
+    private void writeSplit(List<PendingWrite> batch) {
+        int middle = batch.size() / 2;
+        for (List<PendingWrite> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+            try {
+                write(half);
+                written(half);
+            } catch (RuntimeException e) {
+                if (half.size() > 1) {
+                    writeSplit(half);
+                    continue;
+                }
+                OrderTransitionRow row = half.get(0).transition;
+                log.error("⚠️ 주문 영속화 실패 - 기록 버림 (주문: {}, 버전: {}, 상태: {}): {}",
+                        row.getOrderId(), row.getVersion(), row.getState(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                pendingCount.decrementAndGet();
+                droppedCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void written(List<PendingWrite> batch) {
+        pendingCount.addAndGet(-batch.size());
+        writtenCount.addAndGet(batch.size());
+    }
+
+    /**
+     * 묶음을 주문별로 합쳐 한 트랜잭션으로 기록한다.
+     *
+     * @param batch 기록할 묶음 (발생 순서)
+     * @throws RuntimeException 기록 실패 시 (트랜잭션은 되돌린다)
+     */
+    private void write(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        Map<String, OrderDTO> created = new HashMap<>();
+        Map<String, OrderTransitionRow> latest = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            OrderTransitionRow row = write.transition;
+            if (write.createdOrder != null) {
+                created.put(row.getOrderId(), write.createdOrder);
+            }
+            latest.merge(row.getOrderId(), row, (kept, next) -> next.getVersion() > kept.getVersion() ? next : kept);
+        }
+
+        // 트랜잭션 밖에서 연 세션은 autocommit 연결을 쓰므로, 실패해도 먼저 실행된 문장이 남는다
+        int updated = transactionTemplate.execute(status -> {
+            int updatedOrders = 0;
+            try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+                OrderPersistenceMapper mapper = session.getMapper(OrderPersistenceMapper.class);
+                for (Map.Entry<String, OrderDTO> entry : created.entrySet()) {
+                    mapper.insertOrder(entry.getValue(), latest.get(entry.getKey()));
+                }
+                for (OrderTransitionRow row : latest.values()) {
+                    if (!created.containsKey(row.getOrderId())) {
+                        mapper.updateOrderState(row);
+                        updatedOrders++;
+                    }
+                }
+                for (PendingWrite write : batch) {
+                    mapper.insertTransition(write.transition);
+                }
+                session.flushStatements();
+            }
+            return updatedOrders;
+        });
+
+        log.debug("💾 주문 영속화 - 주문 등록 {}건, 상태 갱신 {}건, 상태 전환 {}건, {}ms",
+                created.size(), updated, batch.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static OrderTransitionRow toRow(String orderId, OrderStateSnapshot snapshot) {
+        OrderStateHistory history = snapshot.getHistory();
+        int last = history.size() - 1;
+        return new OrderTransitionRow(orderId, snapshot.getVersion(), snapshot.getStateType(),
+                history.getReason(last), history.getChangedAt(last));
+    }
+
+    /**
+     * 기록 대기 건 (생성이면 createdOrder가 있다)
+     */
+    private static final class PendingWrite {
+
+        private final OrderDTO createdOrder;
+
+        private final OrderTransitionRow transition;
+
+        private PendingWrite(OrderDTO createdOrder, OrderTransitionRow transition) {
+            this.createdOrder = createdOrder;
+            this.transition = transition;
+        }
+
+    }
+
+}
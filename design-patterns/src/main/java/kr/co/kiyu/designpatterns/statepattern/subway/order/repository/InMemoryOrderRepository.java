@@ -0,0 +1,54 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+
+/**
+ * 메모리 주문 저장소
+ *
+ * 주문 컨텍스트를 ConcurrentHashMap에만 보관하는 기본 저장소
+ * 애플리케이션이 재시작되면 모든 주문이 사라진다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Repository
+@ConditionalOnProperty(name = "subway.order.repository.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOrderRepository implements OrderRepository {
+
+    private final Map<Long, OrderContext> orderStorage = new ConcurrentHashMap<>();
+
+    @Override
+    public OrderContext save(OrderContext context) {
+        orderStorage.put(context.getOrderKey(), context);
+        return context;
+    }
+
+    @Override
+    public OrderContext findById(long orderId) {
+        return orderStorage.get(orderId);
+    }
+
+    @Override
+    public OrderContext remove(long orderId) {
+        return orderStorage.remove(orderId);
+    }
+
+    @Override
+    public Collection<OrderContext> findAll() {
+        return Collections.unmodifiableCollection(orderStorage.values());
+    }
+
+    @Override
+    public int count() {
+        return orderStorage.size();
+    }
+
+}
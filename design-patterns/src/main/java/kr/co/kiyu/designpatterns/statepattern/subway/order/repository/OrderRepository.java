@@ -0,0 +1,69 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository;
+
+import java.util.Collection;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+
+/**
+ * 주문 저장소
+ *
+ * SubwayOrderStateService가 주문 컨텍스트를 보관하는 방식을 추상화한다
+ * 구현체는 subway.order.repository.type 설정으로 선택한다
+ * - memory  : JVM 메모리에만 보관 (기본값)
+ * - journal : 메모리 + 메모리 맵 저널 파일에 생성/상태 전환을 기록하여 재시작 시 복구
+ * - tiered  : 종료된 주문을 압축 레코드로 얼렸다가 디스크 보관소로 옮겨 힙 사용량을 제한
+ * - offheap : 주문을 힙 밖의 고정 크기 칸에 보관하여 대량의 진행 중 주문에도 GC 부담을 줄임
+ *
+ * 상태 전환의 영속화가 필요한 구현체는 OrderStateChangeListener를 함께 구현한다
+ * 주문은 OrderIdGenerator.parse()로 얻은 long 주문 ID(OrderContext.getOrderKey())를 키로 보관한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public interface OrderRepository {
+
+    /**
+     * 새로 생성된 주문을 저장한다.
+     * 저장소가 주문을 자체 보관 칸으로 옮겨 담는 경우 넘겨받은 컨텍스트 대신 그 보관 칸을 감싼 컨텍스트를 반환하며,
+     * 이후 상태 전환은 반환된 컨텍스트로 해야 한다.
+     *
+     * @param context 주문 컨텍스트
+     * @return 저장소가 보관하는 주문 컨텍스트
+     */
+    OrderContext save(OrderContext context);
+
+    /**
+     * 주문 컨텍스트를 조회한다.
+     *
+     * @param orderId long 주문 ID
+     * @return 주문 컨텍스트 또는 null
+     */
+    OrderContext findById(long orderId);
+
+    /**
+     * 저장된 모든 주문 컨텍스트를 반환한다.
+     *
+     * @return 주문 컨텍스트 목록 (읽기 전용 뷰)
+     */
+    Collection<OrderContext> findAll();
+
+    /**
+     * 주문을 저장소에서 지운다. 클러스터 재분배로 주문을 다른 노드에 넘긴 뒤 호출한다.
+     * 주문을 지울 수 없는 저장소는 지원하지 않는다.
+     *
+     * @param orderId long 주문 ID
+     * @return 지운 주문 컨텍스트 또는 null
+     * @throws UnsupportedOperationException 주문을 지울 수 없는 저장소
+     */
+    default OrderContext remove(long orderId) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + "는 주문 삭제를 지원하지 않습니다");
+    }
+
+    /**
+     * 저장된 주문 수를 반환한다.
+     *
+     * @return 주문 수
+     */
+    int count();
+
+}
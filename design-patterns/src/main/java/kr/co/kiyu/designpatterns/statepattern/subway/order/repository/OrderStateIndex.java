@@ -0,0 +1,220 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 상태별 보조 색인
+ *
+ * 저장소 전체를 훑지 않고 상태별 주문 수와 주문 목록을 조회하기 위한 색인
+ * - 상태 타입 ordinal → 주문 키 순으로 정렬된 ConcurrentSkipListSet (주문 키는 생성 시각 순이다)
+ * - 상태 타입 ordinal → LongAdder 건수 (O(1) 조회)
+ *
+ * - 주문 키 → 지금 색인된 상태 (주문 키 락 안에서만 바꾼다)
+ *
+ * [동시 전환]
+ * 같은 주문의 연속 전환(A→B, B→C)은 리스너 호출 순서가 뒤바뀔 수 있으므로,
+ * 이벤트의 previous/current 대신 주문 키 단위로 잠근 뒤 읽은 최신 스냅샷 상태로 옮긴다
+ * 저장소에 따라 같은 주문의 OrderContext가 여러 인스턴스일 수 있으므로 컨텍스트 대신 주문 키로 나눈 락을 쓴다
+ * 빼는 쪽도 이벤트의 이전 상태가 아니라 주문 키별로 기억해 둔 색인 상태에서 빼므로,
+ * 이벤트가 늦게 오거나 순서가 바뀌어도 주문은 항상 한 상태에만 색인된다
+ *
+ * 색인은 주문 키만 들고 컨텍스트는 목록을 읽을 때 저장소에서 찾으므로, 저장소가 얼리거나 내보낸 주문을 붙잡지 않는다
+ * 디스크 보관소로 옮겨진 주문(onOrderArchived)과 클러스터의 다른 노드로 넘긴 주문(onOrderTransferredOut)은 색인에서 빠진다
+ *
+ * 목록은 주문 키를 커서로 이어 읽으며, 조회 중 들어오고 나가는 주문은 약한 일관성으로 보일 수 있다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderStateIndex implements OrderStateChangeListener {
+
+    private static final OrderStateType[] TYPES = OrderStateType.values();
+
+    /** 주문 키 락 개수 (2의 거듭제곱) */
+    private static final int LOCK_STRIPES = 64;
+
+    /** 상태 타입 ordinal → 주문 키 */
+    private final ConcurrentSkipListSet<Long>[] orderKeys = newKeySets(TYPES.length);
+
+    /** 상태 타입 ordinal → 주문 수 */
+    private final LongAdder[] counts = new LongAdder[TYPES.length];
+
+    /** 주문 키 → 지금 색인된 상태 (주문 키 락 안에서만 변경) */
+    private final Map<Long, OrderStateType> indexedStates = new ConcurrentHashMap<>();
+
+    /** 주문 키 → 락 */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final OrderRepository orderRepository;
+
+    public OrderStateIndex(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+        for (int i = 0; i < TYPES.length; i++) {
+            orderKeys[i] = new ConcurrentSkipListSet<>();
+            counts[i] = new LongAdder();
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 저장소가 복구한 주문(저널 등)을 색인한다. 복구는 리스너를 거치지 않기 때문이다.
+     */
+    @PostConstruct
+    public void rebuild() {
+        for (OrderContext context : orderRepository.findAll()) {
+            reindex(context);
+        }
+        log.info("🗂️ 주문 상태 색인 구성 완료 - 주문 {}건, {}", orderRepository.count(), getCounts());
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        reindex(context);
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        reindex(context);
+    }
+
+    @Override
+    public void onOrderArchived(long orderKey, OrderStateType stateType) {
+        unindex(orderKey, stateType);
+    }
+
+    @Override
+    public void onOrderTransferredIn(OrderContext context) {
+        reindex(context);
+    }
+
+    @Override
+    public void onOrderTransferredOut(long orderKey, OrderStateType stateType) {
+        unindex(orderKey, stateType);
+    }
+
+    /**
+     * 상태별 주문 수를 반환한다.
+     *
+     * @param type 상태 타입
+     * @return 주문 수
+     */
+    public long count(OrderStateType type) {
+        return counts[type.ordinal()].sum();
+    }
+
+    /**
+     * 모든 상태의 주문 수를 반환한다.
+     *
+     * @return 상태 타입 → 주문 수 (상태 타입 순서)
+     */
+    public Map<OrderStateType, Long> getCounts() {
+        Map<OrderStateType, Long> result = new EnumMap<>(OrderStateType.class);
+        for (OrderStateType type : TYPES) {
+            result.put(type, count(type));
+        }
+        return result;
+    }
+
+    /**
+     * 상태별 주문을 주문 키 순으로 한 쪽 읽는다.
+     *
+     * @param type 상태 타입
+     * @param afterOrderKey 이 주문 키 다음부터 읽는다 (처음이면 -1)
+     * @param limit 최대 건수
+     * @return 주문 컨텍스트 목록
+     */
+    public List<OrderContext> findByState(OrderStateType type, long afterOrderKey, int limit) {
+        NavigableSet<Long> byState = orderKeys[type.ordinal()];
+        if (afterOrderKey >= 0) {
+            byState = byState.tailSet(afterOrderKey, false);
+        }
+        List<OrderContext> page = new ArrayList<>(Math.min(limit, 64));
+        for (Long orderKey : byState) {
+            if (page.size() == limit) {
+                break;
+            }
+            OrderContext context = orderRepository.findById(orderKey);
+            if (context != null) {
+                page.add(context);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 주문을 색인에서 뺀다.
+     *
+     * @param orderKey 주문 키
+     * @param stateType 이벤트가 알려 준 상태 (색인된 상태는 주문 키별로 기억해 둔 값을 쓴다)
+     */
+    private void unindex(long orderKey, OrderStateType stateType) {
+        synchronized (lockOf(orderKey)) {
+            OrderStateType indexedType = indexedStates.remove(orderKey);
+            if (indexedType != null) {
+                remove(orderKey, indexedType);
+            }
+        }
+    }
+
+    /**
+     * 주문을 최신 상태의 색인으로 옮긴다.
+     *
+     * @param context 주문 컨텍스트
+     */
+    private void reindex(OrderContext context) {
+        long orderKey = context.getOrderKey();
+        synchronized (lockOf(orderKey)) {
+            OrderStateType latestType = context.getSnapshot().getStateType();
+            OrderStateType indexedType = indexedStates.put(orderKey, latestType);
+            if (indexedType == latestType) {
+                return;
+            }
+            if (indexedType != null) {
+                remove(orderKey, indexedType);
+            }
+            if (orderKeys[latestType.ordinal()].add(orderKey)) {
+                counts[latestType.ordinal()].increment();
+            }
+        }
+    }
+
+    private void remove(long orderKey, OrderStateType type) {
+        if (orderKeys[type.ordinal()].remove(orderKey)) {
+            counts[type.ordinal()].decrement();
+        }
+    }
+
+    private Object lockOf(long orderKey) {
+        return locks[Long.hashCode(orderKey) & (LOCK_STRIPES - 1)];
+    }
+
+    // 제네릭 배열은 직접 만들 수 없으므로 raw 배열을 만들어 변환한다 (배열 밖으로 내보내지 않는다)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ConcurrentSkipListSet<Long>[] newKeySets(int length) {
+        return new ConcurrentSkipListSet[length];
+    }
+
+}
@@ -0,0 +1,372 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec.TransitionRecord;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 저널 기반 주문 저장소
+ *
+ * 조회는 메모리 맵에서 처리하고, 주문 생성과 상태 전환은 OrderJournal에 덧붙여 기록한다
+ * 애플리케이션 시작 시 최신 스냅샷을 읽은 뒤 이후 세그먼트를 재생하여 모든 주문을 복구한다
+ *
+ * - 기록    : 요청 스레드는 메모리 맵 세그먼트에 복사만 하고 fsync 하지 않는다
+ * - flush   : 백그라운드 스레드가 flush-interval-ms 마다 모아서 디스크에 내린다
+ * - group-commit=true : 요청 스레드가 자신의 레코드가 포함된 flush가 끝날 때까지 기다린다
+ * - 스냅샷  : snapshot-every-records 건이 쌓이면 전체 주문을 압축 스냅샷으로 남기고 이전 세그먼트를 삭제한다
+ * - 재분배  : 클러스터의 다른 노드와 주고받은 주문은 이력을 포함한 레코드와 삭제 레코드로 남긴다
+ * - 재생 순서 : 전환 레코드는 전환 후 버전을 함께 남기고, 재생 시 기록된 순서가 아니라 버전 순서로 적용한다
+ *              (리스너 호출이 엇갈려 나중 전환이 먼저 기록되어도 이력과 버전이 그대로 복구된다)
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "subway.order.repository.type", havingValue = "journal")
+public class JournalOrderRepository implements OrderRepository, OrderStateChangeListener {
+
+    private final Map<Long, OrderContext> orderStorage = new ConcurrentHashMap<>();
+
+    private final OrderStateMachine stateMachine;
+
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    private final String directory;
+
+    private final int segmentSizeMb;
+
+    private final long flushIntervalMs;
+
+    private final boolean groupCommit;
+
+    private final long snapshotEveryRecords;
+
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    private OrderJournal journal;
+
+    private ScheduledExecutorService journalExecutor;
+
+    public JournalOrderRepository(OrderStateMachine stateMachine,
+                                  OrderStateChangePublisher stateChangePublisher,
+                                  @Value("${subway.order.journal.dir:./data/order-journal}") String directory,
+                                  @Value("${subway.order.journal.segment-size-mb:64}") int segmentSizeMb,
+                                  @Value("${subway.order.journal.flush-interval-ms:50}") long flushIntervalMs,
+                                  @Value("${subway.order.journal.group-commit:false}") boolean groupCommit,
+                                  @Value("${subway.order.journal.snapshot-every-records:500000}") long snapshotEveryRecords) {
+        this.stateMachine = stateMachine;
+        this.stateChangePublisher = stateChangePublisher;
+        this.directory = directory;
+        this.segmentSizeMb = segmentSizeMb;
+        this.flushIntervalMs = flushIntervalMs;
+        this.groupCommit = groupCommit;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+    }
+
+    /**
+     * 저널을 열고 스냅샷 + 세그먼트 재생으로 주문을 복구한다.
+     *
+     * @throws IOException 저널 파일 접근 실패 시
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        long start = System.currentTimeMillis();
+
+        journal = new OrderJournal(Paths.get(directory), segmentSizeMb * 1024 * 1024);
+
+        long fromSegmentSeq = journal.readLatestSnapshot((type, payload) -> {
+            OrderDTO order = OrderJournalCodec.decodeOrder(payload);
+            OrderStateHistory history = OrderJournalCodec.decodeStateHistory(payload);
+            orderStorage.put(OrderIdGenerator.parse(order.getOrderId()), OrderContext.restore(
+                    order, stateMachine.getState(order.getCurrentState()), history, stateChangePublisher));
+        });
+        int fromSnapshot = orderStorage.size();
+
+        // 앞 버전의 전환보다 먼저 기록된 전환 (주문 키 → 버전 → 레코드)
+        Map<Long, NavigableMap<Long, TransitionRecord>> earlyTransitions = new HashMap<>();
+        long replayed = journal.replay(fromSegmentSeq, (type, payload) -> {
+            if (type == OrderJournalCodec.TYPE_CREATE) {
+                replayCreate(OrderJournalCodec.decodeOrder(payload));
+            } else if (type == OrderJournalCodec.TYPE_TRANSITION) {
+                replayTransition(OrderJournalCodec.decodeTransition(payload), earlyTransitions);
+            } else if (type == OrderJournalCodec.TYPE_RESTORE) {
+                long orderKey = replayRestore(payload);
+                applyEarlyTransitions(orderKey, earlyTransitions, false);
+            } else if (type == OrderJournalCodec.TYPE_REMOVE) {
+                long orderKey = OrderIdGenerator.parse(OrderJournalCodec.decodeRemove(payload));
+                orderStorage.remove(orderKey);
+                earlyTransitions.remove(orderKey);
+            }
+        });
+        recordsSinceSnapshot.set(replayed);
+
+        // 앞 버전이 끝내 없는 전환(쓰다 만 레코드 등)은 버전 순서대로 마저 적용한다
+        if (!earlyTransitions.isEmpty()) {
+            log.warn("⚠️ 앞 버전 전환 레코드가 없는 주문 {}건 - 남은 전환을 버전 순서대로 적용합니다", earlyTransitions.size());
+            for (Long orderKey : new ArrayList<>(earlyTransitions.keySet())) {
+                applyEarlyTransitions(orderKey, earlyTransitions, true);
+            }
+        }
+
+        log.info("📒 주문 저널 복구 완료 - 스냅샷 {}건 + 저널 {}건 재생, 총 주문 {}건, {}ms",
+                fromSnapshot, replayed, orderStorage.size(), System.currentTimeMillis() - start);
+
+        journalExecutor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "order-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        journalExecutor.scheduleWithFixedDelay(this::flushAndMaybeSnapshot,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public OrderContext save(OrderContext context) {
+        orderStorage.put(context.getOrderKey(), context);
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        if (snapshot.getVersion() > 1) {
+            // 클러스터 재분배로 넘겨받은 주문은 이전 노드의 이력까지 기록한다
+            append(OrderJournalCodec.TYPE_RESTORE, OrderJournalCodec.encodeSnapshotEntry(
+                    context.getOrder(snapshot), snapshot.getHistory()));
+        } else {
+            append(OrderJournalCodec.TYPE_CREATE, OrderJournalCodec.encodeOrder(context.getOrder(snapshot)));
+        }
+        return context;
+    }
+
+    @Override
+    public OrderContext remove(long orderId) {
+        OrderContext context = orderStorage.remove(orderId);
+        if (context != null) {
+            append(OrderJournalCodec.TYPE_REMOVE, OrderJournalCodec.encodeRemove(context.getOrderId()));
+        }
+        return context;
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        append(OrderJournalCodec.TYPE_TRANSITION, OrderJournalCodec.encodeTransition(
+                context.getOrderId(), current.getStateType(), current.getChangedAt(), reason, current.getVersion()));
+    }
+
+    /**
+     * 저널에 남기지 못한 전환은 재시작 후 사라지므로, 기록 실패를 전환 요청의 실패(5xx)로 돌려준다.
+     */
+    @Override
+    public boolean isRequired() {
+        return true;
+    }
+
+    @Override
+    public OrderContext findById(long orderId) {
+        return orderStorage.get(orderId);
+    }
+
+    @Override
+    public Collection<OrderContext> findAll() {
+        return Collections.unmodifiableCollection(orderStorage.values());
+    }
+
+    @Override
+    public int count() {
+        return orderStorage.size();
+    }
+
+    /**
+     * 현재 모든 주문으로 스냅샷을 작성한다.
+     *
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public void snapshot() throws IOException {
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long fromSegmentSeq = journal.rollForSnapshot();
+            recordsSinceSnapshot.set(0);
+
+            // roll 이후의 변경은 새 세그먼트에 남으므로, 스냅샷 중 변경되는 주문이 있어도 재생 시 보정된다
+            int count = journal.writeSnapshot(fromSegmentSeq, orderStorage.values().stream()
+                    .map(context -> {
+                        // 한 스냅샷에서 상태와 이력을 함께 꺼내야 서로 어긋나지 않는다
+                        OrderStateSnapshot stateSnapshot = context.getSnapshot();
+                        return OrderJournalCodec.encodeSnapshotEntry(
+                                context.getOrder(stateSnapshot), stateSnapshot.getHistory());
+                    })
+                    .iterator());
+
+            log.info("📸 주문 저널 스냅샷 작성 완료 - {}건, 세그먼트 {}부터 유지, {}ms",
+                    count, fromSegmentSeq, System.currentTimeMillis() - start);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    /**
+     * 남은 레코드를 디스크에 내리고 저널을 닫는다.
+     */
+    @PreDestroy
+    public void close() {
+        if (journalExecutor != null) {
+            journalExecutor.shutdown();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void append(byte type, byte[] payload) {
+        long recordSeq;
+        try {
+            recordSeq = journal.append(type, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 저널 기록 실패", e);
+        }
+        recordsSinceSnapshot.incrementAndGet();
+
+        if (groupCommit) {
+            try {
+                journal.awaitFlushed(recordSeq);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("⚠️ 주문 저널 flush 대기 중 인터럽트 발생");
+            }
+        }
+    }
+
+    private void flushAndMaybeSnapshot() {
+        try {
+            journal.flush();
+            if (recordsSinceSnapshot.get() >= snapshotEveryRecords && !snapshotRunning.get()) {
+                journalExecutor.execute(() -> {
+                    try {
+                        snapshot();
+                    } catch (IOException | RuntimeException e) {
+                        log.error("⚠️ 주문 저널 스냅샷 작성 실패", e);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("⚠️ 주문 저널 flush 실패", e);
+        }
+    }
+
+    private void replayCreate(OrderDTO order) {
+        long orderKey = OrderIdGenerator.parse(order.getOrderId());
+        // 스냅샷에 이미 반영된 주문은 건너뛴다
+        if (orderStorage.containsKey(orderKey)) {
+            return;
+        }
+        OrderContext context = OrderContext.restore(
+                order, stateMachine.getState(order.getCurrentState()), OrderStateHistory.empty(), stateChangePublisher);
+        context.replayStateChange(stateMachine.getState(order.getCurrentState()), "주문 생성", order.getCreatedAt());
+        orderStorage.put(orderKey, context);
+    }
+
+    private long replayRestore(ByteBuffer payload) {
+        OrderDTO order = OrderJournalCodec.decodeOrder(payload);
+        OrderStateHistory history = OrderJournalCodec.decodeStateHistory(payload);
+        long orderKey = OrderIdGenerator.parse(order.getOrderId());
+        orderStorage.put(orderKey, OrderContext.restore(
+                order, stateMachine.getState(order.getCurrentState()), history, stateChangePublisher));
+        return orderKey;
+    }
+
+    private void replayTransition(TransitionRecord record, Map<Long, NavigableMap<Long, TransitionRecord>> earlyTransitions) {
+        long orderKey = OrderIdGenerator.parse(record.getOrderId());
+        OrderContext context = orderStorage.get(orderKey);
+        if (context == null) {
+            return;
+        }
+        if (record.getVersion() == TransitionRecord.UNKNOWN_VERSION) {
+            // 버전이 없는 이전 형식: 상태 흐름이 선언 순서로만 진행한다는 점으로 이미 반영된 전환을 거른다
+            if (record.getNewState().ordinal() > context.getCurrentStateType().ordinal()) {
+                replayStateChange(context, record);
+            }
+            return;
+        }
+        // 스냅샷에 이미 반영된 전환은 건너뛴다
+        if (record.getVersion() <= context.getSnapshot().getVersion()) {
+            return;
+        }
+        earlyTransitions.computeIfAbsent(orderKey, key -> new TreeMap<>()).put(record.getVersion(), record);
+        applyEarlyTransitions(orderKey, earlyTransitions, false);
+    }
+
+    /**
+     * 모아 둔 전환을 버전 순서대로 적용한다.
+     *
+     * @param orderKey 주문 키
+     * @param earlyTransitions 모아 둔 전환
+     * @param skipGaps true면 앞 버전이 없어도 적용한다 (재생이 끝난 뒤)
+     */
+    private void applyEarlyTransitions(long orderKey, Map<Long, NavigableMap<Long, TransitionRecord>> earlyTransitions,
+                                       boolean skipGaps) {
+        NavigableMap<Long, TransitionRecord> pending = earlyTransitions.get(orderKey);
+        OrderContext context = orderStorage.get(orderKey);
+        if (pending == null || context == null) {
+            return;
+        }
+        Iterator<TransitionRecord> records = pending.values().iterator();
+        while (records.hasNext()) {
+            TransitionRecord record = records.next();
+            long version = context.getSnapshot().getVersion();
+            if (record.getVersion() <= version) {
+                records.remove();
+            } else if (skipGaps || record.getVersion() == version + 1) {
+                replayStateChange(context, record);
+                records.remove();
+            } else {
+                break;
+            }
+        }
+        if (pending.isEmpty()) {
+            earlyTransitions.remove(orderKey);
+        }
+    }
+
+    private void replayStateChange(OrderContext context, TransitionRecord record) {
+        context.replayStateChange(stateMachine.getState(record.getNewState()), record.getReason(), record.getChangedAt());
+    }
+
+}
@@ -0,0 +1,364 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 저널 (메모리 맵 세그먼트 로그)
+ *
+ * 레코드를 고정 크기 세그먼트 파일에 순서대로 덧붙이고,
+ * 세그먼트가 가득 차면 다음 세그먼트로 넘어간다(roll)
+ *
+ * [레코드 형식]
+ * int 페이로드 길이 | byte 레코드 타입 | 페이로드 | int CRC32C(타입 + 페이로드)
+ * 길이가 0인 위치가 세그먼트의 끝이며, CRC가 맞지 않는 레코드(쓰다 만 레코드)에서 재생을 멈춘다
+ *
+ * [스냅샷 형식]
+ * int MAGIC | int VERSION | long 시작 세그먼트 번호 | (int 길이 | 페이로드 | int CRC32C)* | int -1
+ * 스냅샷은 "시작 세그먼트 이전의 모든 레코드"를 대신하므로, 스냅샷 작성 후 이전 세그먼트는 삭제한다
+ *
+ * 요청마다 fsync 하지 않는다. flush()가 주기적으로 호출되어 쌓인 레코드를 한 번에 디스크로 내리며(group commit),
+ * 필요한 경우 awaitFlushed()로 자신의 레코드가 내려질 때까지 기다릴 수 있다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public class OrderJournal implements Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x4F4A534E; // "OJSN"
+
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final int RECORD_OVERHEAD = 4 + 1 + 4;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{20})\\.log");
+
+    private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d{20})\\.snap");
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final CRC32C crc = new CRC32C();
+
+    private long segmentSeq;
+
+    private MappedByteBuffer segment;
+
+    /** roll 되었지만 아직 force 되지 않은 세그먼트 */
+    private final List<MappedByteBuffer> unflushedSegments = new ArrayList<>();
+
+    private long appendedCount;
+
+    /** flushLock 안에서만 바꾸고, 대기자를 위해 flushMonitor 안에서 기록한다 */
+    private long flushedCount;
+
+    private final Object flushLock = new Object();
+
+    private final Object flushMonitor = new Object();
+
+    /**
+     * 저널 디렉터리를 연다. 기존 세그먼트 뒤에 새 세그먼트를 만들어 이어서 기록한다.
+     *
+     * @param directory 저널 디렉터리
+     * @param segmentSize 세그먼트 크기(바이트)
+     * @throws IOException 디렉터리나 세그먼트 생성 실패 시
+     */
+    public OrderJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.segmentSeq = listFiles(SEGMENT_FILE).stream().mapToLong(Long::longValue).max().orElse(0L);
+        this.segment = openSegment(++segmentSeq);
+    }
+
+    /**
+     * 레코드를 덧붙인다.
+     *
+     * @param type 레코드 타입
+     * @param payload 페이로드
+     * @return 레코드 순번 (awaitFlushed에 사용)
+     * @throws IOException 세그먼트 roll 실패 시
+     */
+    public synchronized long append(byte type, byte[] payload) throws IOException {
+        int recordSize = RECORD_OVERHEAD + payload.length;
+        // 세그먼트 끝 표시(길이 0)를 위한 4바이트를 항상 남겨둔다
+        if (recordSize + 4 > segmentSize) {
+            throw new IllegalArgumentException("저널 레코드가 세그먼트 크기보다 큽니다: " + recordSize);
+        }
+        if (segment.remaining() < recordSize + 4) {
+            roll();
+        }
+
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+
+        segment.putInt(payload.length)
+               .put(type)
+               .put(payload)
+               .putInt((int) crc.getValue());
+
+        return ++appendedCount;
+    }
+
+    /**
+     * 지금까지 덧붙인 레코드를 디스크에 내린다. (group commit)
+     * 한 번에 하나의 flush만 진행한다. 먼저 시작한 flush가 세그먼트를 다 내리기 전에
+     * 뒤의 flush가 flushedCount를 앞당기면, 아직 내려가지 않은 레코드를 기다리던 쪽이 먼저 깨어나기 때문이다.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            long target;
+            MappedByteBuffer current;
+            List<MappedByteBuffer> rolled;
+            synchronized (this) {
+                target = appendedCount;
+                current = segment;
+                rolled = new ArrayList<>(unflushedSegments);
+                unflushedSegments.clear();
+            }
+            if (target <= flushedCount) {
+                return;
+            }
+
+            rolled.forEach(MappedByteBuffer::force);
+            current.force();
+
+            synchronized (flushMonitor) {
+                flushedCount = target;
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 해당 순번의 레코드가 디스크에 내려질 때까지 기다린다.
+     *
+     * @param recordSeq append가 반환한 레코드 순번
+     * @throws InterruptedException 대기 중 인터럽트 발생 시
+     */
+    public void awaitFlushed(long recordSeq) throws InterruptedException {
+        synchronized (flushMonitor) {
+            while (flushedCount < recordSeq) {
+                flushMonitor.wait();
+            }
+        }
+    }
+
+    /**
+     * 스냅샷을 위해 새 세그먼트로 넘어간다.
+     * 반환된 세그먼트 번호 이후의 레코드는 스냅샷 작성 후에도 재생 대상으로 남는다.
+     *
+     * @return 스냅샷의 시작 세그먼트 번호
+     * @throws IOException 세그먼트 roll 실패 시
+     */
+    public synchronized long rollForSnapshot() throws IOException {
+        roll();
+        return segmentSeq;
+    }
+
+    /**
+     * 스냅샷을 작성하고, 스냅샷으로 대체된 세그먼트와 이전 스냅샷을 삭제한다.
+     *
+     * @param fromSegmentSeq rollForSnapshot이 반환한 세그먼트 번호
+     * @param entries 스냅샷 항목 페이로드
+     * @return 작성된 항목 수
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public int writeSnapshot(long fromSegmentSeq, Iterator<byte[]> entries) throws IOException {
+        Path target = directory.resolve(String.format("snapshot-%020d.snap", fromSegmentSeq));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C entryCrc = new CRC32C();
+        int count = 0;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(fromSegmentSeq);
+            while (entries.hasNext()) {
+                byte[] entry = entries.next();
+                entryCrc.reset();
+                entryCrc.update(entry);
+                out.writeInt(entry.length);
+                out.write(entry);
+                out.writeInt((int) entryCrc.getValue());
+                count++;
+            }
+            out.writeInt(-1);
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long seq : listFiles(SEGMENT_FILE)) {
+            if (seq < fromSegmentSeq) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        }
+        for (long seq : listFiles(SNAPSHOT_FILE)) {
+            if (seq < fromSegmentSeq) {
+                Files.deleteIfExists(directory.resolve(String.format("snapshot-%020d.snap", seq)));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 가장 최근 스냅샷의 항목을 읽는다.
+     *
+     * @param consumer 항목 페이로드 소비자
+     * @return 스냅샷의 시작 세그먼트 번호 (스냅샷이 없으면 0)
+     * @throws IOException 파일 읽기 실패 시
+     */
+    public long readLatestSnapshot(RecordConsumer consumer) throws IOException {
+        List<Long> snapshots = listFiles(SNAPSHOT_FILE);
+        if (snapshots.isEmpty()) {
+            return 0L;
+        }
+        long fromSegmentSeq = snapshots.get(snapshots.size() - 1);
+        Path path = directory.resolve(String.format("snapshot-%020d.snap", fromSegmentSeq));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("지원하지 않는 스냅샷 형식입니다: " + path);
+            }
+            buffer.getLong();
+
+            CRC32C entryCrc = new CRC32C();
+            int length;
+            while ((length = buffer.getInt()) >= 0) {
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                entryCrc.reset();
+                entryCrc.update(payload.duplicate());
+                if ((int) entryCrc.getValue() != buffer.getInt()) {
+                    throw new IOException("스냅샷 CRC가 일치하지 않습니다: " + path);
+                }
+                consumer.accept((byte) 0, payload);
+            }
+        }
+        return fromSegmentSeq;
+    }
+
+    /**
+     * 지정한 세그먼트부터 현재 세그먼트 직전까지의 레코드를 순서대로 재생한다.
+     *
+     * @param fromSegmentSeq 재생을 시작할 세그먼트 번호
+     * @param consumer 레코드 소비자
+     * @return 재생한 레코드 수
+     * @throws IOException 파일 읽기 실패 시
+     */
+    public long replay(long fromSegmentSeq, RecordConsumer consumer) throws IOException {
+        long replayed = 0;
+        long writingSeq;
+        synchronized (this) {
+            writingSeq = segmentSeq;
+        }
+        CRC32C recordCrc = new CRC32C();
+
+        for (long seq : listFiles(SEGMENT_FILE)) {
+            if (seq < fromSegmentSeq || seq >= writingSeq) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(seq), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (buffer.remaining() >= RECORD_OVERHEAD) {
+                    int length = buffer.getInt();
+                    if (length <= 0 || length + 5 > buffer.remaining()) {
+                        break;
+                    }
+                    byte type = buffer.get();
+                    ByteBuffer payload = buffer.slice(buffer.position(), length);
+                    buffer.position(buffer.position() + length);
+
+                    recordCrc.reset();
+                    recordCrc.update(type);
+                    recordCrc.update(payload.duplicate());
+                    if ((int) recordCrc.getValue() != buffer.getInt()) {
+                        log.warn("⚠️ 저널 레코드 CRC 불일치 - 세그먼트 {}의 나머지 레코드를 건너뜁니다", seq);
+                        break;
+                    }
+                    consumer.accept(type, payload);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void roll() throws IOException {
+        // 새 세그먼트를 연 뒤에 넘어가야, 실패해도 번호를 건너뛰지 않고 다음 기록에서 같은 세그먼트를 다시 시도한다
+        MappedByteBuffer next = openSegment(segmentSeq + 1);
+        unflushedSegments.add(segment);
+        segment = next;
+        segmentSeq++;
+        log.info("📒 주문 저널 세그먼트 전환 - 세그먼트 {}", segmentSeq);
+    }
+
+    private MappedByteBuffer openSegment(long seq) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 매핑된 버퍼는 채널을 닫은 뒤에도 유효하다
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("segment-%020d.log", seq));
+    }
+
+    private List<Long> listFiles(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> pattern.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 저널/스냅샷 레코드 소비자
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+
+        /**
+         * @param type 레코드 타입 (스냅샷 항목은 0)
+         * @param payload 페이로드 (소비자 호출 동안만 유효)
+         */
+        void accept(byte type, ByteBuffer payload);
+
+    }
+
+}
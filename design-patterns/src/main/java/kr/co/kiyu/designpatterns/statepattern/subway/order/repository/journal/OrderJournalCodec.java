@@ -0,0 +1,259 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 주문 저널 레코드 코덱
+ *
+ * 저널과 스냅샷에 기록되는 주문 레코드를 바이너리로 변환한다
+ * - 문자열 : int 길이(-1 = null) + UTF-8 바이트
+ * - 시간   : epoch millis (시스템 기본 타임존 기준)
+ * - 상태   : OrderStateType ordinal 1바이트
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public final class OrderJournalCodec {
+
+    /** 주문 생성 레코드 */
+    public static final byte TYPE_CREATE = 1;
+
+    /** 상태 전환 레코드 */
+    public static final byte TYPE_TRANSITION = 2;
+
+    /** 이력을 포함한 주문 레코드 (클러스터 재분배로 넘겨받은 주문, 스냅샷 항목과 같은 형식) */
+    public static final byte TYPE_RESTORE = 3;
+
+    /** 주문 삭제 레코드 (클러스터 재분배로 넘긴 주문) */
+    public static final byte TYPE_REMOVE = 4;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final OrderStateType[] STATE_TYPES = OrderStateType.values();
+
+    private OrderJournalCodec() {
+    }
+
+    /**
+     * 주문 정보를 인코딩한다. (현재 상태와 상태 변경 시간 포함)
+     *
+     * @param order 주문 정보
+     * @return 인코딩된 바이트 배열
+     */
+    public static byte[] encodeOrder(OrderDTO order) {
+        return encode(out -> writeOrder(out, order));
+    }
+
+    /**
+     * 스냅샷 항목(주문 정보 + 상태 변경 이력)을 인코딩한다.
+     *
+     * @param order 주문 정보
+     * @param stateHistory 상태 변경 이력
+     * @return 인코딩된 바이트 배열
+     */
+    public static byte[] encodeSnapshotEntry(OrderDTO order, OrderStateHistory stateHistory) {
+        return encode(out -> {
+            writeOrder(out, order);
+            out.writeInt(stateHistory.size());
+            // 사유 ID는 프로세스마다 다르므로 문자열로 풀어서 기록한다
+            for (int i = 0; i < stateHistory.size(); i++) {
+                out.writeByte(stateHistory.getState(i).ordinal());
+                out.writeLong(stateHistory.getChangedAtEpochMillis(i));
+                writeString(out, stateHistory.getReason(i));
+            }
+        });
+    }
+
+    /**
+     * 상태 전환 레코드를 인코딩한다.
+     *
+     * @param orderId 주문 ID
+     * @param newState 새로운 상태
+     * @param changedAt 상태 변경 시간
+     * @param reason 변경 사유
+     * @param version 전환 후 주문 버전 (재생 시 기록 순서가 아니라 이 순서로 적용)
+     * @return 인코딩된 바이트 배열
+     */
+    public static byte[] encodeTransition(String orderId, OrderStateType newState, LocalDateTime changedAt, String reason,
+                                          long version) {
+        return encode(out -> {
+            writeString(out, orderId);
+            out.writeByte(newState.ordinal());
+            out.writeLong(toEpochMillis(changedAt));
+            writeString(out, reason);
+            out.writeLong(version);
+        });
+    }
+
+    /**
+     * 주문 삭제 레코드를 인코딩한다.
+     *
+     * @param orderId 주문 ID
+     * @return 인코딩된 바이트 배열
+     */
+    public static byte[] encodeRemove(String orderId) {
+        return encode(out -> writeString(out, orderId));
+    }
+
+    /**
+     * 주문 정보를 디코딩한다.
+     *
+     * @param buffer 레코드 페이로드
+     * @return 주문 정보
+     */
+    public static OrderDTO decodeOrder(ByteBuffer buffer) {
+        return OrderDTO.builder()
+                .orderId(readString(buffer))
+                .customerName(readString(buffer))
+                .menuName(readString(buffer))
+                .quantity(buffer.getInt())
+                .totalPrice(buffer.getInt())
+                .deliveryAddress(readString(buffer))
+                .phoneNumber(readString(buffer))
+                .specialRequest(readString(buffer))
+                .createdAt(toLocalDateTime(buffer.getLong()))
+                .currentState(STATE_TYPES[buffer.get()])
+                .stateChangedAt(toLocalDateTime(buffer.getLong()))
+                .build();
+    }
+
+    /**
+     * 스냅샷 항목의 상태 변경 이력을 디코딩한다. (decodeOrder 이후 호출)
+     *
+     * @param buffer 레코드 페이로드
+     * @return 상태 변경 이력
+     */
+    public static OrderStateHistory decodeStateHistory(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        OrderStateHistory history = OrderStateHistory.empty();
+        for (int i = 0; i < size; i++) {
+            OrderStateType state = STATE_TYPES[buffer.get()];
+            long changedAt = buffer.getLong();
+            history = history.append(state, changedAt, readString(buffer));
+        }
+        return history;
+    }
+
+    /**
+     * 상태 전환 레코드를 디코딩한다.
+     *
+     * @param buffer 레코드 페이로드
+     * @return 상태 전환 레코드
+     */
+    public static TransitionRecord decodeTransition(ByteBuffer buffer) {
+        String orderId = readString(buffer);
+        OrderStateType newState = STATE_TYPES[buffer.get()];
+        LocalDateTime changedAt = toLocalDateTime(buffer.getLong());
+        String reason = readString(buffer);
+        // 버전을 기록하기 전의 레코드에는 버전이 없다
+        long version = buffer.remaining() >= Long.BYTES ? buffer.getLong() : TransitionRecord.UNKNOWN_VERSION;
+        return new TransitionRecord(orderId, newState, changedAt, reason, version);
+    }
+
+    /**
+     * 주문 삭제 레코드를 디코딩한다.
+     *
+     * @param buffer 레코드 페이로드
+     * @return 주문 ID
+     */
+    public static String decodeRemove(ByteBuffer buffer) {
+        return readString(buffer);
+    }
+
+    private static void writeOrder(DataOutputStream out, OrderDTO order) throws IOException {
+        writeString(out, order.getOrderId());
+        writeString(out, order.getCustomerName());
+        writeString(out, order.getMenuName());
+        out.writeInt(order.getQuantity());
+        out.writeInt(order.getTotalPrice());
+        writeString(out, order.getDeliveryAddress());
+        writeString(out, order.getPhoneNumber());
+        writeString(out, order.getSpecialRequest());
+        out.writeLong(toEpochMillis(order.getCreatedAt()));
+        out.writeByte(order.getCurrentState().ordinal());
+        out.writeLong(toEpochMillis(order.getStateChangedAt()));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+    }
+
+    private static byte[] encode(RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            // ByteArrayOutputStream은 IOException을 던지지 않는다
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * 디코딩된 상태 전환 레코드
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TransitionRecord {
+
+        /** 버전을 기록하기 전 형식의 레코드 */
+        public static final long UNKNOWN_VERSION = 0L;
+
+        private final String orderId;
+
+        private final OrderStateType newState;
+
+        private final LocalDateTime changedAt;
+
+        private final String reason;
+
+        /** 전환 후 주문 버전 */
+        private final long version;
+
+    }
+
+}
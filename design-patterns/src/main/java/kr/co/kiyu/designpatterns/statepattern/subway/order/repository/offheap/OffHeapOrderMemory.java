@@ -0,0 +1,241 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 오프힙 주문 메모리
+ *
+ * 주문을 힙 밖의 direct ByteBuffer에 보관한다
+ * - 슬랩 : 주문 1건 = 고정 크기 칸(SLOT_BYTES) 하나, 슬랩 하나에 slotsPerSlab 칸
+ * - 청크 : 칸에 담기지 않는 가변 길이 주문 정보(OrderJournalCodec.encodeOrder)를 이어 붙여 기록 (int 길이 + 바이트)
+ *
+ * [칸 구성 (96 bytes)]
+ * 0  : 주문 키
+ * 8  : 상태 워드 = 버전(상위 32비트) | 상태 ordinal(8~15비트) | 잠금(0비트)
+ * 16 : 이력 기준 시각 (OrderStateHistory.getBaseEpochMillis)
+ * 24 : 주문 정보 위치 = 청크 번호(상위 32비트) | 청크 내 위치
+ * 32 : 압축된 이력 레코드 HISTORY_CAPACITY건 (OrderStateHistory.getPackedRecord)
+ *
+ * [동시성]
+ * - 칸 할당과 청크 기록은 한 번에 한 스레드만 한다 (synchronized)
+ * - 상태 워드는 VarHandle로 CAS 한다. 전환하는 쪽은 잠금 비트를 세운 뒤 이력[버전]을 쓰고 새 버전으로 잠금을 푼다
+ * - 읽는 쪽은 상태 워드를 읽은 뒤 이력[0, 버전)만 읽으므로, 전환 중인 칸도 기다리거나 다시 읽지 않는다
+ *
+ * 기록한 주문은 지우지 않는다. 메모리는 max-mb까지만 늘어나며, 넘으면 IllegalStateException을 던진다
+ * direct 메모리 한도(-XX:MaxDirectMemorySize, 기본값은 최대 힙 크기)도 max-mb 이상이어야 한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class OffHeapOrderMemory {
+
+    static final int SLOT_BYTES = 96;
+
+    static final int HISTORY_CAPACITY = 8;
+
+    static final long LOCKED = 1L;
+
+    private static final int KEY_OFFSET = 0;
+
+    private static final int STATE_OFFSET = 8;
+
+    private static final int BASE_OFFSET = 16;
+
+    private static final int DATA_OFFSET = 24;
+
+    private static final int HISTORY_OFFSET = 32;
+
+    private static final OrderStateType[] STATE_TYPES = OrderStateType.values();
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int slabShift;
+
+    private final int slabMask;
+
+    private final int chunkBytes;
+
+    private final long maxBytes;
+
+    /** 슬랩 (늘어날 때 배열을 새로 만들어 공개) */
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+
+    /** 청크 (늘어날 때 배열을 새로 만들어 공개) */
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /** 기록이 끝난 칸 수 */
+    private volatile int size;
+
+    private int chunkPosition;
+
+    private long reservedBytes;
+
+    /**
+     * @param slotsPerSlab 슬랩 하나의 칸 수 (2의 거듭제곱으로 올림)
+     * @param chunkBytes 청크 하나의 크기
+     * @param maxBytes 슬랩 + 청크 최대 크기
+     */
+    OffHeapOrderMemory(int slotsPerSlab, int chunkBytes, long maxBytes) {
+        int slots = Integer.highestOneBit(Math.max(1, slotsPerSlab - 1) << 1);
+        this.slabShift = Integer.numberOfTrailingZeros(slots);
+        this.slabMask = slots - 1;
+        this.chunkBytes = chunkBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 주문 1건을 새 칸에 기록한다.
+     *
+     * @param orderKey 주문 키
+     * @param stateType 현재 상태
+     * @param history 상태 변경 이력 (HISTORY_CAPACITY건 이하)
+     * @param orderRecord 인코딩된 주문 정보
+     * @return 칸 번호
+     */
+    synchronized int allocate(long orderKey, OrderStateType stateType, OrderStateHistory history, byte[] orderRecord) {
+        long dataRef = appendData(orderRecord);
+
+        int slot = size;
+        int slabIndex = slot >>> slabShift;
+        if (slabIndex == slabs.length) {
+            slabs = grow(slabs, (long) (slabMask + 1) * SLOT_BYTES);
+        }
+        ByteBuffer slab = slabs[slabIndex];
+        int offset = (slot & slabMask) * SLOT_BYTES;
+        slab.putLong(offset + KEY_OFFSET, orderKey);
+        slab.putLong(offset + BASE_OFFSET, history.getBaseEpochMillis());
+        slab.putLong(offset + DATA_OFFSET, dataRef);
+        for (int i = 0; i < history.size(); i++) {
+            slab.putLong(offset + HISTORY_OFFSET + i * Long.BYTES, history.getPackedRecord(i));
+        }
+        LONGS.setRelease(slab, offset + STATE_OFFSET, stateWord(history.size(), stateType));
+
+        size = slot + 1;
+        return slot;
+    }
+
+    /**
+     * 기록이 끝난 칸 수를 반환한다.
+     *
+     * @return 칸 수
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 확보한 direct 메모리 크기를 반환한다.
+     *
+     * @return 슬랩 + 청크 크기 (bytes)
+     */
+    synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    long getOrderKey(int slot) {
+        return slab(slot).getLong(offset(slot) + KEY_OFFSET);
+    }
+
+    long getStateWord(int slot) {
+        return (long) LONGS.getAcquire(slab(slot), offset(slot) + STATE_OFFSET);
+    }
+
+    boolean compareAndSetStateWord(int slot, long expectedWord, long newWord) {
+        return LONGS.compareAndSet(slab(slot), offset(slot) + STATE_OFFSET, expectedWord, newWord);
+    }
+
+    /**
+     * 상태 워드를 공개한다. 그 전에 쓴 이력이 함께 보인다.
+     */
+    void publishStateWord(int slot, long word) {
+        LONGS.setRelease(slab(slot), offset(slot) + STATE_OFFSET, word);
+    }
+
+    long getBaseEpochMillis(int slot) {
+        return slab(slot).getLong(offset(slot) + BASE_OFFSET);
+    }
+
+    void putBaseEpochMillis(int slot, long baseEpochMillis) {
+        slab(slot).putLong(offset(slot) + BASE_OFFSET, baseEpochMillis);
+    }
+
+    long getHistoryRecord(int slot, int index) {
+        return slab(slot).getLong(offset(slot) + HISTORY_OFFSET + index * Long.BYTES);
+    }
+
+    void putHistoryRecord(int slot, int index, long packedRecord) {
+        slab(slot).putLong(offset(slot) + HISTORY_OFFSET + index * Long.BYTES, packedRecord);
+    }
+
+    /**
+     * 칸의 주문 정보를 읽는다.
+     *
+     * @param slot 칸 번호
+     * @return 인코딩된 주문 정보
+     */
+    byte[] readOrderRecord(int slot) {
+        long dataRef = slab(slot).getLong(offset(slot) + DATA_OFFSET);
+        ByteBuffer chunk = chunks[(int) (dataRef >>> 32)];
+        int position = (int) dataRef;
+        byte[] record = new byte[chunk.getInt(position)];
+        chunk.get(position + Integer.BYTES, record);
+        return record;
+    }
+
+    static long stateWord(int version, OrderStateType stateType) {
+        return ((long) version << 32) | ((long) stateType.ordinal() << 8);
+    }
+
+    static int versionOf(long word) {
+        return (int) (word >>> 32);
+    }
+
+    static OrderStateType stateTypeOf(long word) {
+        return STATE_TYPES[(int) ((word >>> 8) & 0xFF)];
+    }
+
+    private long appendData(byte[] record) {
+        int length = Integer.BYTES + record.length;
+        if (length > chunkBytes) {
+            throw new IllegalStateException("주문 정보가 오프힙 청크보다 큽니다 - " + record.length + " bytes");
+        }
+        if (chunks.length == 0 || chunkPosition + length > chunkBytes) {
+            chunks = grow(chunks, chunkBytes);
+            chunkPosition = 0;
+        }
+        int chunkIndex = chunks.length - 1;
+        ByteBuffer chunk = chunks[chunkIndex];
+        chunk.putInt(chunkPosition, record.length);
+        chunk.put(chunkPosition + Integer.BYTES, record);
+
+        long dataRef = ((long) chunkIndex << 32) | chunkPosition;
+        chunkPosition += length;
+        return dataRef;
+    }
+
+    private ByteBuffer[] grow(ByteBuffer[] buffers, long bytes) {
+        if (reservedBytes + bytes > maxBytes) {
+            throw new IllegalStateException("오프힙 주문 저장소 용량 초과 - 최대 " + maxBytes / 1024 / 1024 + "MB");
+        }
+        ByteBuffer[] grown = Arrays.copyOf(buffers, buffers.length + 1);
+        grown[buffers.length] = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        reservedBytes += bytes;
+        return grown;
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot >>> slabShift];
+    }
+
+    private int offset(int slot) {
+        return (slot & slabMask) * SLOT_BYTES;
+    }
+
+}
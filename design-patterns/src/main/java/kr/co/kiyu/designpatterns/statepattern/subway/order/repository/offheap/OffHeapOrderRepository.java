@@ -0,0 +1,147 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.offheap;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 오프힙 주문 저장소
+ *
+ * 메모리 저장소는 주문마다 OrderContext, OrderDTO, 문자열, 스냅샷, 맵 노드 등 수십 개의 힙 객체를 두므로
+ * 진행 중인 주문이 수십만~수백만 건이 되면 old 영역이 커지고 GC가 훑어야 할 객체도 늘어난다
+ * 이 저장소는 주문을 힙 밖에 보관하고 힙에는 배열 몇 개만 남긴다
+ * - 주문 정보/상태/이력 : OffHeapOrderMemory (direct ByteBuffer 슬랩 + 청크)
+ * - 주문 키 → 칸 번호  : OrderKeyIndex (long/int 배열 개방 주소 해시)
+ *
+ * 조회(findById)는 칸을 가리키는 OrderContext를 새로 만들어 돌려주며, 주문 정보와 스냅샷은 응답에 필요할 때만 디코딩한다
+ * 상태 전환은 칸의 상태 워드 CAS로 처리되므로 같은 주문의 OrderContext가 여러 개여도 전환 중 하나만 성공한다
+ *
+ * 메모리 저장소와 같이 재시작하면 모든 주문이 사라진다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "subway.order.repository.type", havingValue = "offheap")
+public class OffHeapOrderRepository implements OrderRepository {
+
+    private final OffHeapOrderMemory memory;
+
+    private final OrderKeyIndex index;
+
+    private final OrderStateMachine stateMachine;
+
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    public OffHeapOrderRepository(OrderStateMachine stateMachine,
+                                  OrderStateChangePublisher stateChangePublisher,
+                                  @Value("${subway.order.offheap.slab-slots:65536}") int slabSlots,
+                                  @Value("${subway.order.offheap.chunk-size-mb:8}") int chunkSizeMb,
+                                  @Value("${subway.order.offheap.max-mb:1024}") int maxMb) {
+        this.stateMachine = stateMachine;
+        this.stateChangePublisher = stateChangePublisher;
+        this.memory = new OffHeapOrderMemory(slabSlots, chunkSizeMb * 1024 * 1024, maxMb * 1024L * 1024L);
+        this.index = new OrderKeyIndex(slabSlots);
+        log.info("🧊 오프힙 주문 저장소 준비 - 슬랩 {}칸({}KB), 청크 {}MB, 최대 {}MB",
+                slabSlots, (long) slabSlots * OffHeapOrderMemory.SLOT_BYTES / 1024, chunkSizeMb, maxMb);
+    }
+
+    /**
+     * 주문을 오프힙 칸으로 옮겨 담고, 그 칸을 가리키는 컨텍스트를 반환한다.
+     *
+     * @param context 새로 생성된 주문 컨텍스트
+     * @return 오프힙 칸을 가리키는 주문 컨텍스트
+     */
+    @Override
+    public OrderContext save(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        OrderStateHistory history = snapshot.getHistory();
+        if (history.size() > OffHeapOrderMemory.HISTORY_CAPACITY) {
+            throw new IllegalStateException("오프힙 주문 이력 칸 부족 - 주문ID: " + context.getOrderId());
+        }
+
+        long orderKey = context.getOrderKey();
+        byte[] orderRecord = OrderJournalCodec.encodeOrder(context.getOrder(snapshot));
+        int slot = memory.allocate(orderKey, snapshot.getStateType(), history, orderRecord);
+        index.put(orderKey, slot);
+        return toContext(slot, orderKey);
+    }
+
+    @Override
+    public OrderContext findById(long orderId) {
+        int slot = index.get(orderId);
+        return slot == OrderKeyIndex.NOT_FOUND ? null : toContext(slot, orderId);
+    }
+
+    /**
+     * 모든 주문을 칸 순서(생성 순)로 훑는 뷰를 반환한다. 순회할 때 칸마다 컨텍스트를 만든다.
+     *
+     * @return 주문 컨텍스트 목록 (읽기 전용 뷰)
+     */
+    @Override
+    public Collection<OrderContext> findAll() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<OrderContext> iterator() {
+                int end = memory.size();
+                return new Iterator<>() {
+                    private int slot;
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < end;
+                    }
+
+                    @Override
+                    public OrderContext next() {
+                        if (slot >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        int current = slot++;
+                        return toContext(current, memory.getOrderKey(current));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return memory.size();
+            }
+        };
+    }
+
+    @Override
+    public int count() {
+        return memory.size();
+    }
+
+    /**
+     * 확보한 오프힙 메모리 크기를 반환한다.
+     *
+     * @return 슬랩 + 청크 크기 (bytes)
+     */
+    public long getReservedBytes() {
+        return memory.getReservedBytes();
+    }
+
+    private OrderContext toContext(int slot, long orderKey) {
+        return new OrderContext(new OffHeapOrderSlot(memory, stateMachine, slot, orderKey), stateChangePublisher);
+    }
+
+}
@@ -0,0 +1,100 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.offheap;
+
+import java.nio.ByteBuffer;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderSlot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 오프힙 주문 보관 칸
+ *
+ * OffHeapOrderMemory의 칸 하나를 가리키는 가벼운 객체 (조회할 때마다 새로 만든다)
+ * 주문 정보와 스냅샷은 들고 있지 않고 요청될 때마다 칸에서 디코딩한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+final class OffHeapOrderSlot implements OrderSlot {
+
+    private final OffHeapOrderMemory memory;
+
+    private final OrderStateMachine stateMachine;
+
+    private final int slot;
+
+    private final long orderKey;
+
+    OffHeapOrderSlot(OffHeapOrderMemory memory, OrderStateMachine stateMachine, int slot, long orderKey) {
+        this.memory = memory;
+        this.stateMachine = stateMachine;
+        this.slot = slot;
+        this.orderKey = orderKey;
+    }
+
+    @Override
+    public long getOrderKey() {
+        return orderKey;
+    }
+
+    @Override
+    public String getOrderId() {
+        return OrderIdGenerator.format(orderKey);
+    }
+
+    @Override
+    public OrderDTO getOrder() {
+        return OrderJournalCodec.decodeOrder(ByteBuffer.wrap(memory.readOrderRecord(slot)));
+    }
+
+    @Override
+    public OrderStateSnapshot getSnapshot() {
+        long word = memory.getStateWord(slot);
+        int version = OffHeapOrderMemory.versionOf(word);
+        long[] records = new long[version];
+        for (int i = 0; i < version; i++) {
+            records[i] = memory.getHistoryRecord(slot, i);
+        }
+        OrderStateHistory history = OrderStateHistory.fromPacked(memory.getBaseEpochMillis(slot), records);
+        return OrderStateSnapshot.restore(stateMachine.getState(OffHeapOrderMemory.stateTypeOf(word)), history);
+    }
+
+    @Override
+    public boolean compareAndSetSnapshot(OrderStateSnapshot expected, OrderStateSnapshot next) {
+        int version = (int) expected.getVersion();
+        if (version >= OffHeapOrderMemory.HISTORY_CAPACITY) {
+            log.error("⚠️ 오프힙 주문 이력 칸 부족 - 주문ID: {}, 최대 {}건", getOrderId(), OffHeapOrderMemory.HISTORY_CAPACITY);
+            return false;
+        }
+
+        // 잠금 비트를 세워 같은 버전을 노리는 다른 전환이 이력 칸을 덮어쓰지 못하게 한다
+        long expectedWord = OffHeapOrderMemory.stateWord(version, expected.getStateType());
+        if (!memory.compareAndSetStateWord(slot, expectedWord, expectedWord | OffHeapOrderMemory.LOCKED)) {
+            return false;
+        }
+        memory.putHistoryRecord(slot, version, next.getHistory().getPackedRecord(version));
+        memory.publishStateWord(slot, OffHeapOrderMemory.stateWord(version + 1, next.getStateType()));
+        return true;
+    }
+
+    @Override
+    public void setSnapshot(OrderStateSnapshot snapshot) {
+        OrderStateHistory history = snapshot.getHistory();
+        if (history.size() > OffHeapOrderMemory.HISTORY_CAPACITY) {
+            throw new IllegalStateException("오프힙 주문 이력 칸 부족 - 주문ID: " + getOrderId());
+        }
+        memory.putBaseEpochMillis(slot, history.getBaseEpochMillis());
+        for (int i = 0; i < history.size(); i++) {
+            memory.putHistoryRecord(slot, i, history.getPackedRecord(i));
+        }
+        memory.publishStateWord(slot, OffHeapOrderMemory.stateWord(history.size(), snapshot.getStateType()));
+    }
+
+}
@@ -0,0 +1,132 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * 주문 키 → 칸 번호 색인
+ *
+ * long 키와 int 값을 배열 두 개에 그대로 담는 개방 주소(선형 탐사) 해시 테이블
+ * 주문마다 Long/Node 객체를 만드는 ConcurrentHashMap과 달리 항목 수와 관계없이 힙 객체가 배열 두 개뿐이다
+ *
+ * - 쓰기 : 한 번에 한 스레드 (synchronized). 값을 먼저 쓰고 키를 release로 공개한다
+ * - 읽기 : 락 없음. 키를 acquire로 읽어 일치하면 값을 읽는다
+ * - 확장 : 적재율 3/4를 넘으면 두 배 크기 테이블을 채운 뒤 volatile로 바꿔 끼운다
+ *
+ * 주문 키는 0 이상이므로 -1을 빈 칸으로 쓰며, 삭제는 지원하지 않는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+final class OrderKeyIndex {
+
+    static final int NOT_FOUND = -1;
+
+    private static final long EMPTY = -1L;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile Table table;
+
+    private int size;
+
+    OrderKeyIndex(int expectedSize) {
+        this.table = new Table(Integer.highestOneBit(Math.max(16, expectedSize * 4 / 3) - 1) << 1);
+    }
+
+    /**
+     * 주문 키의 칸 번호를 찾는다.
+     *
+     * @param orderKey 주문 키
+     * @return 칸 번호, 없으면 NOT_FOUND
+     */
+    int get(long orderKey) {
+        Table current = table;
+        int i = mix(orderKey) & current.mask;
+        while (true) {
+            long key = (long) KEYS.getAcquire(current.keys, i);
+            if (key == orderKey) {
+                return current.values[i];
+            }
+            if (key == EMPTY) {
+                return NOT_FOUND;
+            }
+            i = (i + 1) & current.mask;
+        }
+    }
+
+    /**
+     * 주문 키의 칸 번호를 기록한다.
+     *
+     * @param orderKey 주문 키 (0 이상)
+     * @param slot 칸 번호
+     */
+    synchronized void put(long orderKey, int slot) {
+        Table current = table;
+        if ((size + 1) * 4L > current.keys.length * 3L) {
+            current = resize(current);
+        }
+        if (insert(current, orderKey, slot)) {
+            size++;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Table resize(Table current) {
+        Table grown = new Table(current.keys.length << 1);
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != EMPTY) {
+                insert(grown, current.keys[i], current.values[i]);
+            }
+        }
+        table = grown;
+        return grown;
+    }
+
+    private static boolean insert(Table target, long orderKey, int slot) {
+        int i = mix(orderKey) & target.mask;
+        while (true) {
+            long key = target.keys[i];
+            if (key == EMPTY) {
+                target.values[i] = slot;
+                KEYS.setRelease(target.keys, i, orderKey);
+                return true;
+            }
+            if (key == orderKey) {
+                target.values[i] = slot;
+                return false;
+            }
+            i = (i + 1) & target.mask;
+        }
+    }
+
+    /**
+     * 주문 키는 시각 + 노드 + 순번이라 하위 비트가 몰리므로 섞어서 쓴다.
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+
+        final int[] values;
+
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+    }
+
+}
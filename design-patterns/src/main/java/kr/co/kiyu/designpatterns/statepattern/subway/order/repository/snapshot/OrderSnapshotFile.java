@@ -0,0 +1,220 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 스냅샷 파일 (블록 단위 바이너리)
+ *
+ * 재시작 전후로 저장소의 모든 주문을 옮기기 위한 파일이며, 항목은 저널 스냅샷 항목(주문 정보 + 이력)과 같은 형식이다
+ *
+ * [파일 형식]
+ * 헤더   : int MAGIC | int VERSION | long 작성 시각(epoch ms)
+ * 블록*  : int 항목 수 | int 페이로드 길이 | int CRC32C(페이로드) | 페이로드 = (int 길이 | 항목)*
+ * 색인   : (long 블록 위치 | int 페이로드 길이 | int 항목 수)*
+ * 트레일러 : long 색인 위치 | int 블록 수 | long 전체 항목 수 | int MAGIC
+ *
+ * - 쓰기는 항목을 블록 버퍼에 모았다가 블록째 내보내므로 주문 수와 관계없이 메모리는 블록 하나만큼만 쓴다
+ * - 읽기는 트레일러와 색인으로 블록 위치를 찾아 블록마다 메모리 맵으로 열고, 디코딩 직전에 CRC를 확인한다
+ *   (CRC가 맞지 않는 블록은 그 블록의 주문만 건너뛰고 나머지 블록은 그대로 복원한다)
+ * - 트레일러는 모든 블록을 쓴 뒤에 쓰므로 쓰다 만 파일은 MAGIC이 맞지 않아 읽지 않는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public final class OrderSnapshotFile {
+
+    private static final int MAGIC = 0x4F534E50; // "OSNP"
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+
+    private static final int BLOCK_HEADER_BYTES = 4 + 4 + 4;
+
+    private static final int INDEX_ENTRY_BYTES = 8 + 4 + 4;
+
+    private static final int TRAILER_BYTES = 8 + 4 + 8 + 4;
+
+    private OrderSnapshotFile() {
+    }
+
+    /**
+     * 스냅샷을 임시 파일에 쓴 뒤 디스크에 내리고 대상 파일로 옮긴다. (기존 스냅샷은 교체)
+     *
+     * @param target 스냅샷 파일 경로
+     * @param entries 스냅샷 항목
+     * @param blockEntries 블록 하나에 담는 항목 수
+     * @return 작성 결과
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public static SnapshotStats write(Path target, Iterator<byte[]> entries, int blockEntries) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        // 블록 버퍼에 쓰는 동안 CRC도 함께 계산한다
+        CRC32C crc = new CRC32C();
+        ByteArrayOutputStream block = new ByteArrayOutputStream(1 << 20);
+        DataOutputStream blockOut = new DataOutputStream(new CheckedOutputStream(block, crc));
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        long position = HEADER_BYTES;
+        long total = 0;
+        int blocks = 0;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            int inBlock = 0;
+            while (entries.hasNext()) {
+                byte[] entry = entries.next();
+                blockOut.writeInt(entry.length);
+                blockOut.write(entry);
+                total++;
+                if (++inBlock == blockEntries || !entries.hasNext()) {
+                    out.writeInt(inBlock);
+                    out.writeInt(block.size());
+                    out.writeInt((int) crc.getValue());
+                    block.writeTo(out);
+
+                    indexOut.writeLong(position);
+                    indexOut.writeInt(block.size());
+                    indexOut.writeInt(inBlock);
+                    position += BLOCK_HEADER_BYTES + block.size();
+                    blocks++;
+                    block.reset();
+                    crc.reset();
+                    inBlock = 0;
+                }
+            }
+
+            index.writeTo(out);
+            out.writeLong(position);
+            out.writeInt(blocks);
+            out.writeLong(total);
+            out.writeInt(MAGIC);
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new SnapshotStats(total, blocks, 0, Files.size(target));
+    }
+
+    /**
+     * 스냅샷 항목을 블록 순서대로 읽는다.
+     *
+     * @param path 스냅샷 파일 경로
+     * @param consumer 항목 소비자 (항목 페이로드는 메모리 맵 버퍼의 조각이므로 호출 안에서만 유효하다)
+     * @return 읽기 결과 (CRC가 맞지 않아 건너뛴 블록 수 포함)
+     * @throws IOException 파일이 없거나 형식이 맞지 않는 경우
+     */
+    public static SnapshotStats read(Path path, EntryConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES) {
+                throw new IOException("스냅샷 파일이 너무 작습니다: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("지원하지 않는 스냅샷 형식입니다: " + path);
+            }
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_BYTES, TRAILER_BYTES);
+            long indexPosition = trailer.getLong();
+            int blocks = trailer.getInt();
+            long total = trailer.getLong();
+            if (trailer.getInt() != MAGIC || indexPosition + (long) blocks * INDEX_ENTRY_BYTES != size - TRAILER_BYTES) {
+                throw new IOException("스냅샷 트레일러가 올바르지 않습니다 (쓰다 만 파일): " + path);
+            }
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexPosition, (long) blocks * INDEX_ENTRY_BYTES);
+
+            CRC32C crc = new CRC32C();
+            long read = 0;
+            long skipped = 0;
+            int corruptBlocks = 0;
+            for (int i = 0; i < blocks; i++) {
+                long position = index.getLong();
+                int length = index.getInt();
+                int entryCount = index.getInt();
+
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, BLOCK_HEADER_BYTES + length);
+                int storedCount = block.getInt();
+                int storedLength = block.getInt();
+                int storedCrc = block.getInt();
+                ByteBuffer payload = block.slice();
+                crc.reset();
+                crc.update(payload.duplicate());
+                if (storedCount != entryCount || storedLength != length || (int) crc.getValue() != storedCrc) {
+                    corruptBlocks++;
+                    skipped += entryCount;
+                    log.warn("⚠️ 스냅샷 블록 CRC 불일치 - 블록 {}의 주문 {}건을 건너뜁니다: {}", i, entryCount, path);
+                    continue;
+                }
+                for (int e = 0; e < entryCount; e++) {
+                    int entryLength = payload.getInt();
+                    consumer.accept(payload.slice(payload.position(), entryLength));
+                    payload.position(payload.position() + entryLength);
+                }
+                read += entryCount;
+            }
+            if (read + skipped != total) {
+                log.warn("⚠️ 스냅샷 항목 수가 트레일러와 다릅니다 - 트레일러: {}, 읽음: {}", total, read);
+            }
+            return new SnapshotStats(read, blocks, corruptBlocks, size);
+        }
+    }
+
+    /**
+     * 스냅샷 항목 소비자
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(ByteBuffer entry);
+    }
+
+    /**
+     * 스냅샷 쓰기/읽기 결과
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SnapshotStats {
+
+        /** 쓰거나 읽은 주문 수 */
+        private final long orders;
+
+        /** 블록 수 */
+        private final int blocks;
+
+        /** CRC가 맞지 않아 건너뛴 블록 수 */
+        private final int corruptBlocks;
+
+        /** 파일 크기 (bytes) */
+        private final long bytes;
+
+    }
+
+}
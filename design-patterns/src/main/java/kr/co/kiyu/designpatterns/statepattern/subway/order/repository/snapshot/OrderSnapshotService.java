@@ -0,0 +1,201 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderSnapshotResultDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.snapshot.OrderSnapshotFile.SnapshotStats;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 스냅샷 서비스 (재시작 간 주문 보존)
+ *
+ * 메모리/오프힙 저장소는 재시작하면 진행 중인 주문을 모두 잃으므로, 종료 시 저장소 전체를 스냅샷 파일로 내보내고
+ * 다음 시작 시 그 파일로 주문을 되살린다 (DesignPatternsApplicationLifeCycle이 호출)
+ *
+ * - 내보내기 : 종료 시 또는 요청 시(POST /snapshot) findAll()을 블록 단위로 흘려 쓴다
+ * - 복원    : 시작 시 별도 스레드에서 파일을 블록마다 메모리 맵으로 열어 되살리므로 나머지 빈 초기화, 웹 서버 기동과 겹쳐 진행되며,
+ *            애플리케이션은 복원이 끝난 뒤에 준비 완료(ApplicationRunner 이후 readiness)를 알린다
+ * - 되살린 주문은 onOrderTransferredIn으로 알려 상태 색인, 자동 진행 예약에 다시 올린다
+ * - 복원을 마친 파일은 .restored로 이름을 바꾼다 (비정상 종료 후 재시작 시 오래된 상태를 다시 되살리지 않도록)
+ *
+ * 저장소에 이미 주문이 있으면(저널 저장소가 자체 복구한 경우 등) 복원하지 않는다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.snapshot.enabled", havingValue = "true")
+public class OrderSnapshotService {
+
+    private final OrderRepository orderRepository;
+
+    private final OrderStateMachine stateMachine;
+
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    private final Path path;
+
+    private final int blockEntries;
+
+    private final boolean exportOnShutdown;
+
+    private volatile CompletableFuture<SnapshotStats> restoring = CompletableFuture.completedFuture(null);
+
+    public OrderSnapshotService(OrderRepository orderRepository, OrderStateMachine stateMachine,
+                                OrderStateChangePublisher stateChangePublisher,
+                                @Value("${subway.order.snapshot.path:./data/order-snapshot/orders.snap}") String path,
+                                @Value("${subway.order.snapshot.block-entries:4096}") int blockEntries,
+                                @Value("${subway.order.snapshot.export-on-shutdown:true}") boolean exportOnShutdown) {
+        if (blockEntries <= 0) {
+            throw new IllegalArgumentException("블록 항목 수는 1 이상이어야 합니다: " + blockEntries);
+        }
+        this.orderRepository = orderRepository;
+        this.stateMachine = stateMachine;
+        this.stateChangePublisher = stateChangePublisher;
+        this.path = Paths.get(path);
+        this.blockEntries = blockEntries;
+        this.exportOnShutdown = exportOnShutdown;
+    }
+
+    /**
+     * 스냅샷 파일이 있으면 별도 스레드에서 복원을 시작한다.
+     */
+    public void startRestore() {
+        if (!Files.exists(path)) {
+            log.info("💾 주문 스냅샷 없음 - 빈 저장소로 시작합니다: {}", path);
+            return;
+        }
+        if (orderRepository.count() > 0) {
+            log.info("💾 저장소에 이미 주문 {}건이 있어 스냅샷 복원을 건너뜁니다: {}", orderRepository.count(), path);
+            return;
+        }
+
+        CompletableFuture<SnapshotStats> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(restore());
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, "order-snapshot-restore");
+        thread.setDaemon(true);
+        restoring = future;
+        thread.start();
+    }
+
+    /**
+     * 복원이 끝날 때까지 기다린다. 복원에 실패하면 빈 저장소(또는 일부 복원된 상태)로 계속 시작한다.
+     */
+    public void awaitRestore() {
+        try {
+            restoring.join();
+        } catch (RuntimeException e) {
+            log.error("⚠️ 주문 스냅샷 복원 실패 - 스냅샷 파일을 그대로 두고 계속 시작합니다: {}", path, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * 종료 시 저장소 전체를 내보낸다. 복원이 끝나지 않았으면 기존 스냅샷을 덮어쓰지 않도록 건너뛴다.
+     */
+    public void exportOnShutdown() {
+        if (!exportOnShutdown) {
+            return;
+        }
+        if (!restoring.isDone() || restoring.isCompletedExceptionally()) {
+            log.warn("⚠️ 주문 스냅샷 복원이 끝나지 않아 종료 시 내보내기를 건너뜁니다: {}", path);
+            return;
+        }
+        try {
+            export();
+        } catch (IOException e) {
+            log.error("⚠️ 종료 시 주문 스냅샷 내보내기 실패: {}", path, e);
+        }
+    }
+
+    /**
+     * 저장소 전체를 스냅샷 파일로 내보낸다.
+     * 주문별로는 그 순간의 스냅샷(상태, 이력, 버전)을 쓰며, 내보내는 동안에도 주문 생성/전환은 멈추지 않는다.
+     *
+     * @return 내보내기 결과
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public synchronized OrderSnapshotResultDTO export() throws IOException {
+        long start = System.nanoTime();
+        Iterator<OrderContext> contexts = orderRepository.findAll().iterator();
+        SnapshotStats stats = OrderSnapshotFile.write(path, new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return contexts.hasNext();
+            }
+
+            @Override
+            public byte[] next() {
+                OrderContext context = contexts.next();
+                OrderStateSnapshot snapshot = context.getSnapshot();
+                return OrderJournalCodec.encodeSnapshotEntry(context.getOrder(snapshot), snapshot.getHistory());
+            }
+        }, blockEntries);
+
+        OrderSnapshotResultDTO result = toResult(stats, start);
+        log.info("💾 주문 스냅샷 내보내기 완료 - {}건, 블록 {}개, {}KB, {}ms",
+                result.getOrders(), result.getBlocks(), result.getBytes() / 1024, result.getElapsedMs());
+        return result;
+    }
+
+    /**
+     * 스냅샷 파일의 주문을 저장소에 되살린다. (복원 스레드)
+     */
+    private SnapshotStats restore() throws IOException {
+        long start = System.nanoTime();
+        SnapshotStats stats = OrderSnapshotFile.read(path, entry -> {
+            OrderDTO order = OrderJournalCodec.decodeOrder(entry);
+            OrderStateHistory history = OrderJournalCodec.decodeStateHistory(entry);
+            OrderContext restored = OrderContext.restore(
+                    order, stateMachine.getState(order.getCurrentState()), history, stateChangePublisher);
+            stateChangePublisher.onOrderTransferredIn(orderRepository.save(restored));
+        });
+
+        Files.move(path, path.resolveSibling(path.getFileName() + ".restored"), StandardCopyOption.REPLACE_EXISTING);
+
+        OrderSnapshotResultDTO result = toResult(stats, start);
+        if (stats.getCorruptBlocks() > 0) {
+            log.warn("⚠️ 주문 스냅샷 복원 완료 (손상 블록 {}개 제외) - {}건, {}ms",
+                    stats.getCorruptBlocks(), result.getOrders(), result.getElapsedMs());
+        } else {
+            log.info("💾 주문 스냅샷 복원 완료 - {}건, 블록 {}개, {}ms", result.getOrders(), result.getBlocks(), result.getElapsedMs());
+        }
+        return stats;
+    }
+
+    private OrderSnapshotResultDTO toResult(SnapshotStats stats, long startNanos) {
+        return OrderSnapshotResultDTO.builder()
+                .path(path.toAbsolutePath().toString())
+                .orders(stats.getOrders())
+                .blocks(stats.getBlocks())
+                .corruptBlocks(stats.getCorruptBlocks())
+                .bytes(stats.getBytes())
+                .elapsedMs((System.nanoTime() - startNanos) / 1_000_000)
+                .build();
+    }
+
+}
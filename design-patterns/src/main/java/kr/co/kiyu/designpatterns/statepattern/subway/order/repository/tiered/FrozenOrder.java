@@ -0,0 +1,30 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.tiered;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 얼린 주문
+ *
+ * 종료된 주문의 주문 정보와 상태 이력을 OrderJournalCodec 스냅샷 항목 형식의 바이트 배열 하나로 압축한 불변 레코드
+ * OrderContext, OrderDTO, 문자열 필드와 이력 객체 대신 배열 하나만 힙에 남고, 그대로 보관소에 쓸 수 있다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Getter
+@AllArgsConstructor
+final class FrozenOrder {
+
+    private final long orderKey;
+
+    private final OrderStateType stateType;
+
+    private final byte[] record;
+
+    /** 얼린 시각 (System.currentTimeMillis) */
+    private final long frozenAtMillis;
+
+}
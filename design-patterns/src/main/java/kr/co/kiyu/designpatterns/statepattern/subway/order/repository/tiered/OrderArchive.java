@@ -0,0 +1,412 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.tiered;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 보관소 (디스크 콜드 티어)
+ *
+ * 종료된 주문 레코드를 세그먼트 파일에 덧붙여 보관하고, 주문 키로 다시 읽는다
+ * 힙에는 현재 쓰는 세그먼트의 색인만 두고, 다 찬 세그먼트의 색인은 정렬된 색인 파일을 메모리 맵으로 읽으므로
+ * 보관한 주문이 늘어도 힙 사용량은 늘지 않는다
+ *
+ * [세그먼트 형식] archive-{번호}.dat
+ * (long 주문 키 | int 페이로드 길이 | 페이로드 | int CRC32C(페이로드))*
+ *
+ * [색인 형식] archive-{번호}.idx (세그먼트가 segmentSize를 넘으면 작성)
+ * int MAGIC | int 건수 | long 최소 주문 키 | long 최대 주문 키 | (long 주문 키 | long 위치)* (주문 키 순)
+ *
+ * 요청마다 fsync 하지 않는다. 세그먼트를 닫을 때(색인 작성, 종료) 디스크에 내리며,
+ * 시작 시 색인이 없는 세그먼트는 CRC가 맞는 레코드까지 다시 읽어 색인을 만든다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public class OrderArchive implements Closeable {
+
+    private static final int INDEX_MAGIC = 0x4F415249; // "OARI"
+
+    private static final int INDEX_HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    private static final int INDEX_ENTRY_SIZE = 8 + 8;
+
+    private static final int RECORD_HEADER_SIZE = 8 + 4;
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("archive-(\\d{20})\\.dat");
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final CRC32C crc = new CRC32C();
+
+    /** 다 찬 세그먼트 (번호 오름차순, 교체 시 통째로 바꾼다) */
+    private volatile SealedSegment[] sealedSegments;
+
+    /** 현재 쓰는 세그먼트 (채널과 색인을 함께 교체한다) */
+    private volatile ActiveSegment active;
+
+    /**
+     * 보관소 디렉터리를 연다. 마지막 세그먼트에 이어서 기록한다.
+     *
+     * @param directory 보관소 디렉터리
+     * @param segmentSize 세그먼트 크기(바이트)
+     * @throws IOException 파일 접근 실패 시
+     */
+    public OrderArchive(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        List<Long> seqs = listSegments();
+        List<SealedSegment> sealed = new ArrayList<>();
+        for (int i = 0; i < seqs.size(); i++) {
+            long seq = seqs.get(i);
+            boolean last = i == seqs.size() - 1;
+            if (Files.exists(indexFile(seq))) {
+                sealed.add(SealedSegment.open(segmentFile(seq), indexFile(seq)));
+            } else if (last) {
+                active = openActive(seq);
+            } else {
+                // 색인을 쓰기 전에 종료된 세그먼트
+                ActiveSegment unsealed = openActive(seq);
+                sealed.add(seal(unsealed));
+                unsealed.channel.close();
+            }
+        }
+        this.sealedSegments = sealed.toArray(new SealedSegment[0]);
+        if (active == null) {
+            active = openActive(seqs.isEmpty() ? 1L : seqs.get(seqs.size() - 1) + 1);
+        }
+    }
+
+    /**
+     * 주문 레코드를 보관한다.
+     *
+     * @param orderKey long 주문 ID
+     * @param payload 주문 레코드
+     * @throws IOException 파일 쓰기 실패 시
+     */
+    public synchronized void append(long orderKey, byte[] payload) throws IOException {
+        if (active.position >= segmentSize) {
+            roll();
+        }
+        ActiveSegment segment = active;
+
+        crc.reset();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length + 4);
+        record.putLong(orderKey).putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+
+        long position = segment.position;
+        while (record.hasRemaining()) {
+            segment.position += segment.channel.write(record, segment.position);
+        }
+        // 기록이 끝난 뒤 색인에 넣어야 읽는 쪽이 쓰다 만 레코드를 보지 않는다
+        segment.index.put(orderKey, position);
+    }
+
+    /**
+     * 보관된 주문 레코드를 읽는다.
+     *
+     * @param orderKey long 주문 ID
+     * @return 주문 레코드, 없으면 null
+     * @throws IOException 파일 읽기 실패 시
+     */
+    public byte[] read(long orderKey) throws IOException {
+        ActiveSegment segment = active;
+        Long position = segment.index.get(orderKey);
+        if (position != null) {
+            try {
+                return readRecord(segment.channel, orderKey, position);
+            } catch (ClosedChannelException e) {
+                // 읽는 사이 세그먼트가 봉인되었다. 봉인된 세그먼트는 닫기 전에 이미 공개되어 있다
+            }
+        }
+
+        SealedSegment[] segments = sealedSegments;
+        for (int i = segments.length - 1; i >= 0; i--) {
+            long sealedPosition = segments[i].find(orderKey);
+            if (sealedPosition >= 0) {
+                return readRecord(segments[i].channel, orderKey, sealedPosition);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 보관된 주문 수를 반환한다.
+     *
+     * @return 주문 수
+     */
+    public long count() {
+        long count = active.index.size();
+        for (SealedSegment segment : sealedSegments) {
+            count += segment.count;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            active.channel.force(false);
+            active.channel.close();
+        } catch (IOException e) {
+            log.error("⚠️ 주문 보관소 세그먼트 닫기 실패 - {}", segmentFile(active.seq), e);
+        }
+        for (SealedSegment segment : sealedSegments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("⚠️ 주문 보관소 세그먼트 닫기 실패 - {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 봉인하고 다음 세그먼트로 넘어간다.
+     * 봉인된 세그먼트를 먼저 공개한 뒤 쓰던 채널을 닫으므로, 읽는 쪽은 둘 중 하나에서 항상 레코드를 찾는다.
+     */
+    private void roll() throws IOException {
+        ActiveSegment previous = active;
+        SealedSegment sealed = seal(previous);
+        SealedSegment[] current = sealedSegments;
+        SealedSegment[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = sealed;
+        sealedSegments = next;
+        active = openActive(previous.seq + 1);
+        previous.channel.close();
+    }
+
+    /**
+     * 세그먼트를 쓰기용으로 열고, 이미 기록된 레코드를 읽어 색인을 만든다.
+     */
+    private ActiveSegment openActive(long seq) throws IOException {
+        FileChannel channel = FileChannel.open(segmentFile(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Map<Long, Long> index = new ConcurrentHashMap<>();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (true) {
+            header.clear();
+            if (readFully(channel, header, position) < RECORD_HEADER_SIZE) {
+                break;
+            }
+            long orderKey = header.getLong(0);
+            int length = header.getInt(8);
+            if (length < 0 || position + RECORD_HEADER_SIZE + length + 4 > channel.size()
+                    || readRecord(channel, orderKey, position) == null) {
+                break;
+            }
+            index.put(orderKey, position);
+            position += RECORD_HEADER_SIZE + length + 4;
+        }
+        if (position < channel.size()) {
+            log.warn("⚠️ 주문 보관소 세그먼트 끝의 불완전한 레코드를 잘라냅니다 - {}, {}바이트",
+                    segmentFile(seq).getFileName(), channel.size() - position);
+            channel.truncate(position);
+        }
+
+        return new ActiveSegment(seq, channel, index, position);
+    }
+
+    /**
+     * 세그먼트의 색인 파일을 쓰고 읽기 전용으로 다시 연다.
+     */
+    private SealedSegment seal(ActiveSegment segment) throws IOException {
+        long[][] entries = new long[segment.index.size()][];
+        int count = 0;
+        for (Map.Entry<Long, Long> entry : segment.index.entrySet()) {
+            entries[count++] = new long[] {entry.getKey(), entry.getValue()};
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER_SIZE + entries.length * INDEX_ENTRY_SIZE);
+        index.putInt(INDEX_MAGIC)
+             .putInt(entries.length)
+             .putLong(entries.length > 0 ? entries[0][0] : Long.MAX_VALUE)
+             .putLong(entries.length > 0 ? entries[entries.length - 1][0] : Long.MIN_VALUE);
+        for (long[] entry : entries) {
+            index.putLong(entry[0]).putLong(entry[1]);
+        }
+        index.flip();
+
+        segment.channel.force(false);
+
+        // 임시 파일에 쓴 뒤 이름을 바꿔, 색인 파일이 있으면 항상 완전한 색인이 되도록 한다
+        Path temp = directory.resolve(indexFile(segment.seq).getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) {
+                out.write(index);
+            }
+            out.force(true);
+        }
+        Files.move(temp, indexFile(segment.seq), StandardCopyOption.ATOMIC_MOVE);
+
+        log.info("🗄️ 주문 보관소 세그먼트 봉인 - {}, {}건", segmentFile(segment.seq).getFileName(), entries.length);
+        return SealedSegment.open(segmentFile(segment.seq), indexFile(segment.seq));
+    }
+
+    /**
+     * 레코드를 읽고 주문 키와 CRC를 확인한다.
+     *
+     * @return 페이로드, 레코드가 온전하지 않으면 null
+     */
+    private static byte[] readRecord(FileChannel channel, long orderKey, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        if (readFully(channel, header, position) < RECORD_HEADER_SIZE || header.getLong(0) != orderKey) {
+            return null;
+        }
+        int length = header.getInt(8);
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length + 4);
+        if (readFully(channel, body, position + RECORD_HEADER_SIZE) < length + 4) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        body.get(0, payload);
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload);
+        return (int) checksum.getValue() == body.getInt(length) ? payload : null;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_FILE.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentFile(long seq) {
+        return directory.resolve(String.format("archive-%020d.dat", seq));
+    }
+
+    private Path indexFile(long seq) {
+        return directory.resolve(String.format("archive-%020d.idx", seq));
+    }
+
+    /**
+     * 현재 쓰는 세그먼트 (position은 append 락 안에서만 바꾼다)
+     */
+    private static final class ActiveSegment {
+
+        private final long seq;
+
+        private final FileChannel channel;
+
+        private final Map<Long, Long> index;
+
+        private long position;
+
+        private ActiveSegment(long seq, FileChannel channel, Map<Long, Long> index, long position) {
+            this.seq = seq;
+            this.channel = channel;
+            this.index = index;
+            this.position = position;
+        }
+
+    }
+
+    /**
+     * 다 찬 세그먼트 (읽기 전용 채널 + 메모리 맵 색인)
+     */
+    private static final class SealedSegment {
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer index;
+
+        private final int count;
+
+        private final long minKey;
+
+        private final long maxKey;
+
+        private SealedSegment(FileChannel channel, MappedByteBuffer index) throws IOException {
+            if (index.getInt(0) != INDEX_MAGIC) {
+                throw new IOException("주문 보관소 색인 형식이 올바르지 않습니다.");
+            }
+            this.channel = channel;
+            this.index = index;
+            this.count = index.getInt(4);
+            this.minKey = index.getLong(8);
+            this.maxKey = index.getLong(16);
+        }
+
+        private static SealedSegment open(Path segmentFile, Path indexFile) throws IOException {
+            MappedByteBuffer index;
+            try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+            }
+            return new SealedSegment(FileChannel.open(segmentFile, StandardOpenOption.READ), index);
+        }
+
+        /**
+         * 색인에서 주문 키를 이진 탐색한다.
+         *
+         * @return 레코드 위치, 없으면 -1
+         */
+        private long find(long orderKey) {
+            if (orderKey < minKey || orderKey > maxKey) {
+                return -1L;
+            }
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long key = index.getLong(INDEX_HEADER_SIZE + mid * INDEX_ENTRY_SIZE);
+                if (key < orderKey) {
+                    low = mid + 1;
+                } else if (key > orderKey) {
+                    high = mid - 1;
+                } else {
+                    return index.getLong(INDEX_HEADER_SIZE + mid * INDEX_ENTRY_SIZE + 8);
+                }
+            }
+            return -1L;
+        }
+
+    }
+
+}
@@ -0,0 +1,303 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.tiered;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal.OrderJournalCodec;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계층형 주문 저장소
+ *
+ * 메모리 저장소는 완료/취소된 주문도 OrderContext 그대로 영원히 들고 있어 힙이 계속 늘어난다
+ * 이 저장소는 주문을 세 계층으로 나누어 보관한다
+ * - 진행 중 : OrderContext 그대로 메모리에 보관 (메모리 저장소와 같음)
+ * - 얼림    : 종료 상태가 되는 즉시 주문 정보 + 이력을 바이트 배열 하나(FrozenOrder)로 압축하여 메모리에 보관
+ * - 보관    : 얼린 지 frozen-ttl-ms가 지났거나 얼린 주문이 frozen-budget-mb를 넘으면 오래된 것부터 디스크 보관소(OrderArchive)로 옮김
+ *
+ * 조회(findById)는 진행 중 → LRU 캐시 → 얼림 → 보관 순으로 찾으며, 얼리거나 보관된 주문은 복구한 컨텍스트를
+ * cache-size 건까지 LRU 캐시에 둔다. 종료된 주문은 더 바뀌지 않으므로 복구한 컨텍스트를 그대로 돌려줘도 된다
+ *
+ * 진행 중인 주문은 메모리 저장소와 같이 재시작하면 사라지고, 보관소로 옮긴 주문은 재시작 후에도 조회된다
+ * 종료 시 얼린 주문은 모두 보관소로 옮긴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "subway.order.repository.type", havingValue = "tiered")
+public class TieredOrderRepository implements OrderRepository, OrderStateChangeListener {
+
+    /** 진행 중인 주문 */
+    private final Map<Long, OrderContext> activeOrders = new ConcurrentHashMap<>();
+
+    /** 얼린 주문 */
+    private final Map<Long, FrozenOrder> frozenOrders = new ConcurrentHashMap<>();
+
+    /** 얼린 순서 (보관소로 옮길 순서) */
+    private final Queue<FrozenOrder> freezeQueue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong frozenBytes = new AtomicLong();
+
+    private final OrderStateMachine stateMachine;
+
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    private final long frozenTtlMs;
+
+    private final long frozenBudgetBytes;
+
+    private final long evictIntervalMs;
+
+    private final String archiveDirectory;
+
+    private final int archiveSegmentSizeMb;
+
+    private final Map<Long, OrderContext> cache;
+
+    private OrderArchive archive;
+
+    private ScheduledExecutorService evictor;
+
+    public TieredOrderRepository(OrderStateMachine stateMachine,
+                                 OrderStateChangePublisher stateChangePublisher,
+                                 @Value("${subway.order.tiered.frozen-ttl-ms:600000}") long frozenTtlMs,
+                                 @Value("${subway.order.tiered.frozen-budget-mb:64}") int frozenBudgetMb,
+                                 @Value("${subway.order.tiered.evict-interval-ms:1000}") long evictIntervalMs,
+                                 @Value("${subway.order.tiered.cache-size:10000}") int cacheSize,
+                                 @Value("${subway.order.tiered.archive.dir:./data/order-archive}") String archiveDirectory,
+                                 @Value("${subway.order.tiered.archive.segment-size-mb:64}") int archiveSegmentSizeMb) {
+        this.stateMachine = stateMachine;
+        this.stateChangePublisher = stateChangePublisher;
+        this.frozenTtlMs = frozenTtlMs;
+        this.frozenBudgetBytes = frozenBudgetMb * 1024L * 1024L;
+        this.evictIntervalMs = evictIntervalMs;
+        this.archiveDirectory = archiveDirectory;
+        this.archiveSegmentSizeMb = archiveSegmentSizeMb;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, OrderContext> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * 보관소를 열고 보관 작업을 시작한다.
+     *
+     * @throws IOException 보관소 파일 접근 실패 시
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        archive = new OrderArchive(Paths.get(archiveDirectory), archiveSegmentSizeMb * 1024L * 1024L);
+        log.info("🗄️ 주문 보관소 열기 완료 - 보관된 주문 {}건, 얼림 TTL {}ms, 얼림 예산 {}MB",
+                archive.count(), frozenTtlMs, frozenBudgetBytes / 1024 / 1024);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::archiveFrozenOrders, evictIntervalMs, evictIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public OrderContext save(OrderContext context) {
+        activeOrders.put(context.getOrderKey(), context);
+        return context;
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        if (!current.getStateType().isTerminal()) {
+            return;
+        }
+        long orderKey = context.getOrderKey();
+        byte[] record = OrderJournalCodec.encodeSnapshotEntry(context.getOrder(current), current.getHistory());
+        FrozenOrder frozen = new FrozenOrder(orderKey, current.getStateType(), record, System.currentTimeMillis());
+
+        // 얼린 주문을 먼저 넣고 진행 중 주문을 지워, 그 사이 조회가 비어 보이지 않게 한다
+        frozenOrders.put(orderKey, frozen);
+        freezeQueue.add(frozen);
+        frozenBytes.addAndGet(record.length);
+        cache.put(orderKey, context);
+        activeOrders.remove(orderKey, context);
+    }
+
+    @Override
+    public OrderContext findById(long orderId) {
+        OrderContext context = activeOrders.get(orderId);
+        if (context != null) {
+            return context;
+        }
+        context = cache.get(orderId);
+        if (context != null) {
+            return context;
+        }
+
+        FrozenOrder frozen = frozenOrders.get(orderId);
+        byte[] record = frozen != null ? frozen.getRecord() : readArchive(orderId);
+        if (record == null) {
+            return null;
+        }
+        context = thaw(record);
+        cache.put(orderId, context);
+        return context;
+    }
+
+    /**
+     * 진행 중인 주문을 지운다. 얼리거나 보관한 주문은 재분배 대상(findAll)이 아니므로 그대로 둔다.
+     *
+     * @param orderId long 주문 ID
+     * @return 지운 주문 컨텍스트 또는 null
+     */
+    @Override
+    public OrderContext remove(long orderId) {
+        OrderContext context = activeOrders.remove(orderId);
+        if (context != null) {
+            cache.remove(orderId);
+        }
+        return context;
+    }
+
+    /**
+     * 메모리에 있는 진행 중인 주문을 반환한다. 얼리거나 보관한 주문은 포함하지 않는다.
+     *
+     * @return 진행 중인 주문 컨텍스트 목록 (읽기 전용 뷰)
+     */
+    @Override
+    public Collection<OrderContext> findAll() {
+        return Collections.unmodifiableCollection(activeOrders.values());
+    }
+
+    /**
+     * 메모리에 있는 주문 수(진행 중 + 얼림)를 반환한다.
+     *
+     * @return 주문 수
+     */
+    @Override
+    public int count() {
+        return activeOrders.size() + frozenOrders.size();
+    }
+
+    /**
+     * 보관소로 옮긴 주문 수를 반환한다.
+     *
+     * @return 보관된 주문 수
+     */
+    public long getArchivedCount() {
+        return archive.count();
+    }
+
+    /**
+     * 얼린 주문을 모두 보관소로 옮기고 보관소를 닫는다.
+     */
+    @PreDestroy
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdown();
+            try {
+                evictor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (archive != null) {
+            int archived = archiveWhile(head -> true);
+            log.info("🗄️ 종료 전 얼린 주문 보관 완료 - {}건", archived);
+            archive.close();
+        }
+    }
+
+    /**
+     * TTL이 지났거나 메모리 예산을 넘은 얼린 주문을 오래된 것부터 보관소로 옮긴다. (보관 스레드)
+     */
+    private void archiveFrozenOrders() {
+        long now = System.currentTimeMillis();
+        int archived = archiveWhile(head ->
+                now - head.getFrozenAtMillis() >= frozenTtlMs || frozenBytes.get() > frozenBudgetBytes);
+        if (archived > 0) {
+            log.debug("🗄️ 얼린 주문 보관 - {}건, 남은 얼린 주문 {}건 ({}KB), 보관된 주문 {}건",
+                    archived, frozenOrders.size(), frozenBytes.get() / 1024, archive.count());
+        }
+    }
+
+    /**
+     * 조건을 만족하는 동안 가장 오래 얼린 주문부터 보관소로 옮긴다.
+     * 보관소에 기록한 뒤 얼린 주문을 지우므로, 그 사이 조회는 둘 중 하나에서 항상 주문을 찾는다.
+     *
+     * @param condition 가장 오래 얼린 주문을 옮길지 판단하는 조건
+     * @return 옮긴 주문 수
+     */
+    private int archiveWhile(Predicate<FrozenOrder> condition) {
+        int archived = 0;
+        FrozenOrder head;
+        while ((head = freezeQueue.peek()) != null && condition.test(head)) {
+            try {
+                archive.append(head.getOrderKey(), head.getRecord());
+            } catch (IOException | RuntimeException e) {
+                // 메모리에 그대로 두고 다음 주기에 다시 시도한다
+                log.error("⚠️ 주문 보관 실패 - 주문ID: {}", OrderIdGenerator.format(head.getOrderKey()), e);
+                break;
+            }
+            freezeQueue.poll();
+            frozenOrders.remove(head.getOrderKey(), head);
+            frozenBytes.addAndGet(-head.getRecord().length);
+            stateChangePublisher.onOrderArchived(head.getOrderKey(), head.getStateType());
+            archived++;
+        }
+        return archived;
+    }
+
+    private byte[] readArchive(long orderKey) {
+        try {
+            return archive.read(orderKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 보관소 읽기 실패 - 주문ID: " + OrderIdGenerator.format(orderKey), e);
+        }
+    }
+
+    /**
+     * 얼린 레코드를 주문 컨텍스트로 복구한다.
+     */
+    private OrderContext thaw(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        OrderDTO order = OrderJournalCodec.decodeOrder(buffer);
+        OrderStateHistory history = OrderJournalCodec.decodeStateHistory(buffer);
+        return OrderContext.restore(order, stateMachine.getState(order.getCurrentState()), history, stateChangePublisher);
+    }
+
+}
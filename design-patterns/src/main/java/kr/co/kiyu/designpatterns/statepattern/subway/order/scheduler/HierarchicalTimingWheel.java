@@ -0,0 +1,289 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 계층형 타이밍 휠
+ *
+ * 대기 중인 타이머가 수백만 개여도 tick 당 비용이 O(1)(+ 만료된 타이머 수)인 스케줄러
+ * 타이머마다 스레드나 ScheduledFuture를 만들지 않고, 전용 스레드 하나가 tick 마다 버킷 하나만 처리한다
+ *
+ * [구조]
+ * level 0 : tick 1칸 단위 버킷 wheelSize개
+ * level 1 : wheelSize tick 단위 버킷 wheelSize개
+ * ...
+ * level 0이 한 바퀴 돌 때마다 상위 level의 버킷 하나를 하위 level로 내려보낸다(cascade)
+ *
+ * - 등록 : 어느 스레드에서나 호출 가능하며, lock-free 큐에 넣기만 하고 휠 스레드가 다음 tick에 버킷에 꽂는다
+ * - 취소 : 상태만 바꾸고 값을 놓아 준다. 대기 수에서는 바로 빠지며, 버킷에 남은 껍데기는 휠 스레드가 그 버킷을 처리할 때 버린다 (O(1))
+ * - 범위 : wheelSize^levels tick을 넘는 지연은 최상위 level에 두었다가 cascade 때마다 다시 계산한다
+ *
+ * @param <T> 만료 시 전달할 값의 타입
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickNanos;
+
+    private final int wheelBits;
+
+    private final int wheelMask;
+
+    private final int levels;
+
+    private final long maxDelayTicks;
+
+    /** 버킷별 단방향 연결 리스트의 머리 (휠 스레드만 접근) */
+    private final Timer<T>[][] buckets;
+
+    private final Queue<Timer<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Consumer<T> expireHandler;
+
+    private final Thread worker;
+
+    private final long startNanos;
+
+    /** 마지막으로 처리한 tick (휠 스레드만 변경) */
+    private volatile long currentTick;
+
+    private volatile boolean running = true;
+
+    /**
+     * 생성자
+     *
+     * @param tickMs tick 간격(ms)
+     * @param wheelSize level 당 버킷 수 (2의 거듭제곱)
+     * @param levels level 수
+     * @param expireHandler 만료 시 휠 스레드에서 호출할 처리기
+     * @param threadName 휠 스레드 이름
+     */
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, Consumer<T> expireHandler, String threadName) {
+        if (tickMs <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("tickMs > 0, wheelSize는 2의 거듭제곱, levels >= 1 이어야 합니다.");
+        }
+        if ((long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("wheelSize^levels가 너무 큽니다.");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+        this.wheelMask = wheelSize - 1;
+        this.levels = levels;
+        this.maxDelayTicks = (1L << (wheelBits * levels)) - 1;
+        this.buckets = newBuckets(levels, wheelSize);
+        this.expireHandler = expireHandler;
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 타이머를 등록한다.
+     *
+     * @param value 만료 시 전달할 값
+     * @param delayMs 지연 시간(ms)
+     * @return 취소용 타이머
+     */
+    public Timer<T> schedule(T value, long delayMs) {
+        // 휠 스레드의 진행 상황과 무관하게 등록 시각 기준으로 만료 tick을 계산한다 (올림)
+        long deadlineNanos = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delayMs));
+        Timer<T> timer = new Timer<>(value, (deadlineNanos + tickNanos - 1) / tickNanos, size);
+        size.incrementAndGet();
+        pending.add(timer);
+        return timer;
+    }
+
+    /**
+     * 아직 만료되거나 취소되지 않은 타이머 수를 반환한다.
+     *
+     * @return 대기 중인 타이머 수
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * 휠 스레드를 멈춘다. 대기 중인 타이머는 만료되지 않는다.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long targetNanos = startNanos + (currentTick + 1) * tickNanos;
+            long waitNanos = targetNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+                continue;
+            }
+            try {
+                advance(currentTick + 1);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 타이밍 휠 tick 처리 실패", e);
+            }
+        }
+    }
+
+    /**
+     * tick을 하나 진행한다. (휠 스레드 전용)
+     *
+     * @param tick 진행할 tick
+     */
+    private void advance(long tick) {
+        // 상위 level 버킷을 먼저 내려보낸 뒤 새 타이머를 꽂아야 같은 tick의 버킷을 놓치지 않는다
+        for (int level = 1; level < levels; level++) {
+            if ((tick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                break;
+            }
+            int index = (int) ((tick >>> (wheelBits * level)) & wheelMask);
+            Timer<T> head = buckets[level][index];
+            buckets[level][index] = null;
+            reinsert(head, tick);
+        }
+
+        Timer<T> timer;
+        while ((timer = pending.poll()) != null) {
+            insert(timer, tick);
+        }
+
+        int index = (int) (tick & wheelMask);
+        Timer<T> head = buckets[0][index];
+        buckets[0][index] = null;
+        currentTick = tick;
+
+        while (head != null) {
+            Timer<T> next = head.next;
+            head.next = null;
+            T value = head.value;
+            if (head.expire()) {
+                try {
+                    expireHandler.accept(value);
+                } catch (RuntimeException e) {
+                    log.error("⚠️ 타이머 만료 처리 실패", e);
+                }
+            }
+            head = next;
+        }
+    }
+
+    private void reinsert(Timer<T> head, long tick) {
+        while (head != null) {
+            Timer<T> next = head.next;
+            head.next = null;
+            insert(head, tick);
+            head = next;
+        }
+    }
+
+    private void insert(Timer<T> timer, long tick) {
+        if (timer.isCancelled()) {
+            // 취소 시 이미 대기 수에서 뺐으므로 버킷에 꽂지 않기만 한다
+            return;
+        }
+        long deadline = Math.max(timer.deadlineTick, tick);
+        long delta = deadline - tick;
+
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        if (delta > maxDelayTicks) {
+            // 범위를 넘는 지연은 최상위 level의 가장 먼 버킷에 두었다가 cascade 때 다시 계산한다
+            deadline = tick + maxDelayTicks;
+        }
+        int index = (int) ((deadline >>> (wheelBits * level)) & wheelMask);
+        timer.next = buckets[level][index];
+        buckets[level][index] = timer;
+    }
+
+    // Timer<T>[][]는 new로 만들 수 없다. 버킷 배열은 휠 안에서만 쓰므로 변환해도 안전하다
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Timer<T>[][] newBuckets(int levels, int wheelSize) {
+        return new Timer[levels][wheelSize];
+    }
+
+    /**
+     * 등록된 타이머
+     *
+     * @param <T> 만료 시 전달할 값의 타입
+     */
+    public static final class Timer<T> {
+
+        private static final int WAITING = 0;
+
+        private static final int CANCELLED = 1;
+
+        private static final int EXPIRED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timer> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+        /** 만료 전까지 전달할 값 (취소되면 버킷에 남아 있는 동안 붙잡지 않도록 비운다) */
+        private volatile T value;
+
+        private final long deadlineTick;
+
+        private final AtomicInteger size;
+
+        private volatile int state = WAITING;
+
+        private Timer<T> next;
+
+        private Timer(T value, long deadlineTick, AtomicInteger size) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+            this.size = size;
+        }
+
+        /**
+         * 타이머를 취소한다. 이미 만료되었거나 취소된 타이머에는 영향이 없다.
+         *
+         * @return 이번 호출로 취소되었는지 여부
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            value = null;
+            size.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * 만료 처리한다. (휠 스레드 전용)
+         *
+         * @return 만료 처리기를 호출해야 하는지 여부 (이미 취소되었으면 false)
+         */
+        private boolean expire() {
+            if (!STATE.compareAndSet(this, WAITING, EXPIRED)) {
+                return false;
+            }
+            value = null;
+            size.decrementAndGet();
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,249 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.execution.OrderCommandExecutor;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 자동 진행기
+ *
+ * 주문이 생성되거나 상태가 바뀔 때마다 현재 상태의 getEstimatedMinutes() 뒤에 다음 단계로 진행하도록 예약한다
+ * (예: 조리 중 15분 → 포장 중, 포장 중 10분 → 배달 중)
+ * 예상 시간이 0분인 상태(배달 중, 완료, 취소)는 예약하지 않는다
+ *
+ * - 예약 : 주문마다 스레드나 ScheduledFuture를 만들지 않고 HierarchicalTimingWheel에 타이머 하나만 꽂는다
+ *         타이머는 주문 컨텍스트가 아니라 주문 키와 예약 당시 버전만 들고 있다가, 만료 시 저장소에서 주문을 찾는다
+ * - 무효화 : 주문 키별로 대기 중인 타이머를 기억해 두고, 상태가 바뀌거나 보관/이관되면 이전 타이머를 바로 취소한다
+ *           (취소 사이에 만료된 타이머도 버전 비교로 버려진다)
+ * - 복구 : 시작 시 저장소의 주문을 상태 변경 시간 기준 남은 시간으로 다시 예약한다
+ * - 진행 : 만료된 타이머의 전환은 명령 실행기로 넘기므로 actor 모드에서도 주문 파티션의 actor에서만 상태가 바뀐다
+ *
+ * subway.order.auto-progress.enabled=true 일 때만 동작한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "subway.order.auto-progress.enabled", havingValue = "true")
+public class OrderAutoProgressor implements OrderStateChangeListener {
+
+    private final OrderRepository orderRepository;
+
+    private final OrderCommandExecutor commandExecutor;
+
+    private final long minuteMs;
+
+    private final HierarchicalTimingWheel<ScheduledStep> timingWheel;
+
+    /** 주문 키별 대기 중인 예약 */
+    private final Map<Long, ScheduledStep> scheduledSteps = new ConcurrentHashMap<>();
+
+    private final AtomicLong advancedCount = new AtomicLong();
+
+    private final AtomicLong staleCount = new AtomicLong();
+
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    public OrderAutoProgressor(OrderRepository orderRepository, OrderCommandExecutor commandExecutor,
+                               @Value("${subway.order.auto-progress.tick-ms:100}") long tickMs,
+                               @Value("${subway.order.auto-progress.wheel-size:64}") int wheelSize,
+                               @Value("${subway.order.auto-progress.levels:4}") int levels,
+                               @Value("${subway.order.auto-progress.minute-ms:60000}") long minuteMs) {
+        this.orderRepository = orderRepository;
+        this.commandExecutor = commandExecutor;
+        this.minuteMs = minuteMs;
+        this.timingWheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, levels, this::advance, "order-auto-progress");
+        log.info("⏱️ 주문 자동 진행 활성화 - tick: {}ms, 휠: {}칸 x {}단계, 1분 = {}ms", tickMs, wheelSize, levels, minuteMs);
+    }
+
+    /**
+     * 저장소에서 복구된 주문들을 남은 시간으로 다시 예약한다.
+     */
+    @PostConstruct
+    public void scheduleExistingOrders() {
+        int scheduled = 0;
+        for (OrderContext context : orderRepository.findAll()) {
+            if (schedule(context, context.getSnapshot())) {
+                scheduled++;
+            }
+        }
+        if (scheduled > 0) {
+            log.info("⏱️ 기존 주문 자동 진행 예약 - {}건", scheduled);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timingWheel.stop();
+        log.info("⏱️ 주문 자동 진행 종료 - 자동 진행 {}건, 취소 타이머 {}건, 무효 타이머 {}건, 남은 타이머 {}건",
+                advancedCount.get(), cancelledCount.get(), staleCount.get(), timingWheel.size());
+    }
+
+    @Override
+    public void onOrderCreated(OrderContext context) {
+        schedule(context, context.getSnapshot());
+    }
+
+    @Override
+    public void onStateChanged(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                               String reason) {
+        schedule(context, current);
+    }
+
+    @Override
+    public void onOrderTransferredIn(OrderContext context) {
+        schedule(context, context.getSnapshot());
+    }
+
+    @Override
+    public void onOrderArchived(long orderKey, OrderStateType stateType) {
+        unschedule(orderKey, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onOrderTransferredOut(long orderKey, OrderStateType stateType) {
+        unschedule(orderKey, Long.MAX_VALUE);
+    }
+
+    /**
+     * 대기 중인 타이머 수를 반환한다. (취소된 타이머는 포함하지 않음)
+     *
+     * @return 대기 중인 타이머 수
+     */
+    public int getPendingCount() {
+        return timingWheel.size();
+    }
+
+    /**
+     * 스냅샷의 상태 예상 시간 뒤로 다음 단계를 예약한다.
+     *
+     * @param context 주문 컨텍스트
+     * @param snapshot 기준 스냅샷
+     * @return 예약 여부
+     */
+    private boolean schedule(OrderContext context, OrderStateSnapshot snapshot) {
+        long orderKey = context.getOrderKey();
+        int minutes = snapshot.getState().getEstimatedMinutes();
+        if (minutes <= 0) {
+            unschedule(orderKey, snapshot.getVersion());
+            return false;
+        }
+
+        ScheduledStep step = new ScheduledStep(orderKey, snapshot.getVersion());
+        ScheduledStep current = scheduledSteps.compute(orderKey, (key, previous) -> {
+            // 리스너 호출이 엇갈려 이전 버전이 늦게 온 경우 새 예약을 유지한다
+            if (previous != null && previous.version > step.version) {
+                return previous;
+            }
+            if (previous != null) {
+                cancel(previous);
+            }
+            return step;
+        });
+        if (current != step) {
+            return false;
+        }
+
+        OrderStateHistory history = snapshot.getHistory();
+        long elapsedMs = System.currentTimeMillis() - history.getChangedAtEpochMillis(history.size() - 1);
+        step.timer = timingWheel.schedule(step, minutes * minuteMs - elapsedMs);
+        // 타이머를 꽂는 사이에 다음 전환이 이 예약을 취소했다면 여기서 마저 취소한다
+        if (step.cancelled) {
+            step.timer.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * 주문의 대기 중인 예약을 취소한다.
+     *
+     * @param orderKey 주문 키
+     * @param version 기준 버전 (이보다 새 버전의 예약은 유지)
+     */
+    private void unschedule(long orderKey, long version) {
+        scheduledSteps.computeIfPresent(orderKey, (key, previous) -> {
+            if (previous.version > version) {
+                return previous;
+            }
+            cancel(previous);
+            return null;
+        });
+    }
+
+    private void cancel(ScheduledStep step) {
+        step.cancelled = true;
+        HierarchicalTimingWheel.Timer<ScheduledStep> timer = step.timer;
+        if (timer != null && timer.cancel()) {
+            cancelledCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 만료된 타이머를 처리한다. (휠 스레드)
+     *
+     * @param step 예약된 단계
+     */
+    private void advance(ScheduledStep step) {
+        scheduledSteps.remove(step.orderKey, step);
+
+        // 클러스터 재분배로 다른 노드에 넘긴 주문은 그 노드가 다시 예약하므로 여기서는 진행하지 않는다
+        OrderContext context = orderRepository.findById(step.orderKey);
+        // 취소가 엇갈려 만료된 경우에도 예약 이후 수동 진행/취소가 있었다면 버전이 달라져 있으므로 조용히 버린다
+        if (context == null || context.getVersion() != step.version) {
+            staleCount.incrementAndGet();
+            return;
+        }
+        commandExecutor.submit(step.orderKey, () -> context.nextStep(step.version))
+                .whenComplete((result, error) -> {
+                    if (result == OrderTransitionResult.SUCCESS) {
+                        advancedCount.incrementAndGet();
+                    } else {
+                        staleCount.incrementAndGet();
+                        log.debug("⏱️ 자동 진행 건너뜀 - 주문ID: {}, 결과: {}", context.getOrderId(),
+                                error != null ? error.toString() : result);
+                    }
+                });
+    }
+
+    /**
+     * 예약된 단계 (주문 키 + 예약 당시 버전)
+     *
+     * 주문 컨텍스트를 붙잡지 않으므로 만료 전까지 휠에 남아 있어도 주문 하나당 수십 바이트만 차지한다
+     */
+    private static final class ScheduledStep {
+
+        private final long orderKey;
+
+        private final long version;
+
+        private volatile HierarchicalTimingWheel.Timer<ScheduledStep> timer;
+
+        private volatile boolean cancelled;
+
+        private ScheduledStep(long orderKey, long version) {
+            this.orderKey = orderKey;
+            this.version = version;
+        }
+
+    }
+
+}
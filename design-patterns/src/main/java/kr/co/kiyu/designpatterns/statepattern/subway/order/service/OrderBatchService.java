@@ -0,0 +1,380 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.execution.OrderCommandExecutor;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderBatchCommandDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderBatchResultDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderBatchCommandType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일괄 주문 명령 서비스
+ *
+ * POS 백필, 배치 작업처럼 주문 명령을 대량으로 보내는 클라이언트를 위해
+ * 한 요청의 JSON 배열을 읽는 대로 처리하고 명령별 결과를 NDJSON으로 바로 내보낸다
+ *
+ * [처리 방식]
+ * - 요청 스레드 : 배열 원소를 하나씩 읽어(스트리밍) 레인에 넘기고, 끝난 결과를 응답에 쓴다 (응답은 이 스레드만 쓴다)
+ * - 레인 : 코어 수만큼의 단일 스레드 실행기. 같은 주문의 명령은 항상 같은 레인으로 가므로 요청 순서대로 처리되고,
+ *          서로 다른 주문은 여러 코어에서 동시에 처리된다
+ * - 흐름 제어 : 처리 중인 명령이 max-in-flight를 넘으면 결과를 하나 쓸 때까지 더 읽지 않는다 (요청이 커도 메모리 일정)
+ *
+ * 같은 요청 안에서 CREATE에 ref를 붙이면 이후 명령은 orderRef로 그 주문을 가리킬 수 있다
+ * (ref를 키로 레인을 고르므로 생성 → 진행 순서도 보장된다)
+ *
+ * 명령마다 HTML을 만들거나 로그를 남기지 않고, 요청 단위로 요약 로그만 남긴다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Service
+public class OrderBatchService {
+
+    private final SubwayOrderStateService orderStateService;
+
+    private final OrderCommandExecutor commandExecutor;
+
+    private final ObjectMapper objectMapper;
+
+    /** 결과마다 flush 하지 않는 writer (flush는 결과를 기다리기 직전과 끝에서만) */
+    private final ObjectWriter resultWriter;
+
+    private final ExecutorService[] lanes;
+
+    private final int maxInFlight;
+
+    public OrderBatchService(SubwayOrderStateService orderStateService, OrderCommandExecutor commandExecutor,
+                             ObjectMapper objectMapper,
+                             @Value("${subway.order.batch.lanes:0}") int lanes,
+                             @Value("${subway.order.batch.max-in-flight:8192}") int maxInFlight) {
+        this.orderStateService = orderStateService;
+        this.commandExecutor = commandExecutor;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(OrderBatchResultDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxInFlight = maxInFlight;
+
+        int laneCount = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = "order-batch-" + i;
+            this.lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 명령 JSON 배열을 읽으며 처리하고, 명령별 결과를 NDJSON으로 쓴다.
+     * 결과는 처리가 끝난 순서로 쓰며, 같은 주문의 명령 결과는 요청 순서를 따른다.
+     *
+     * @param in 요청 본문 (명령 JSON 배열)
+     * @param out 응답 본문 (NDJSON)
+     * @throws IOException 요청을 읽거나 응답을 쓰지 못한 경우
+     */
+    public void execute(InputStream in, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<String, String> refs = new ConcurrentHashMap<>();
+        BlockingQueue<OrderBatchResultDTO> results = new LinkedBlockingQueue<>();
+        int commandCount = 0;
+        int failedCount = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(out, 64 * 1024))) {
+            generator.setRootValueSeparator(null);
+
+            OrderBatchResultDTO streamError = null;
+            int inFlight = 0;
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new BatchFormatException("요청 본문은 명령 JSON 배열이어야 합니다.");
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new BatchFormatException("명령 배열이 닫히지 않았습니다.");
+                    }
+                    JsonNode node = objectMapper.readTree(parser);
+                    int index = commandCount++;
+
+                    OrderBatchCommandDTO command;
+                    try {
+                        command = objectMapper.treeToValue(node, OrderBatchCommandDTO.class);
+                    } catch (JsonProcessingException e) {
+                        failedCount++;
+                        write(generator, failure(index, null, 400, "명령 형식이 올바르지 않습니다: " + e.getOriginalMessage()));
+                        continue;
+                    }
+
+                    // 처리 중인 명령이 너무 많으면 결과를 써서 자리가 날 때까지 더 읽지 않는다
+                    while (inFlight >= maxInFlight) {
+                        generator.flush();
+                        failedCount += write(generator, results.take());
+                        inFlight--;
+                    }
+                    dispatch(index, command, refs, results);
+                    inFlight++;
+
+                    OrderBatchResultDTO done;
+                    while ((done = results.poll()) != null) {
+                        failedCount += write(generator, done);
+                        inFlight--;
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // 스트림이 깨지면 더 읽지 않고, 이미 넘긴 명령의 결과는 모두 쓴 뒤 마지막 줄로 알린다
+                streamError = failure(commandCount, null, 400, "요청 JSON을 읽을 수 없습니다: " + e.getOriginalMessage());
+            } catch (BatchFormatException e) {
+                streamError = failure(commandCount, null, 400, e.getMessage());
+            }
+
+            while (inFlight > 0) {
+                if (results.isEmpty()) {
+                    generator.flush();
+                }
+                failedCount += write(generator, results.take());
+                inFlight--;
+            }
+            if (streamError != null) {
+                failedCount++;
+                write(generator, streamError);
+            }
+            generator.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("일괄 명령 처리 중 인터럽트");
+        }
+
+        long elapsedMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.info("📦 일괄 명령 처리 완료 - {}건 (실패 {}건), {}ms, 초당 {}건",
+                commandCount, failedCount, elapsedMs, commandCount * 1000L / elapsedMs);
+    }
+
+    /**
+     * 명령을 대상 주문의 레인에 넘긴다.
+     */
+    private void dispatch(int index, OrderBatchCommandDTO command, Map<String, String> refs,
+                          BlockingQueue<OrderBatchResultDTO> results) {
+        lanes[laneOf(index, command)].execute(() -> {
+            OrderBatchResultDTO result;
+            try {
+                result = run(index, command, refs);
+            } catch (RuntimeException e) {
+                log.error("⚠️ 일괄 명령 처리 실패 - index: {}, 명령: {}", index, command.getType(), e);
+                result = failure(index, command, 500, "명령 처리 중 오류가 발생했습니다.");
+            }
+            results.add(result);
+        });
+    }
+
+    /**
+     * 같은 주문의 명령이 항상 같은 레인으로 가도록 레인을 고른다.
+     * orderId로 지정하면 주문 키, ref로 지정하면 ref 문자열 기준이다.
+     */
+    private int laneOf(int index, OrderBatchCommandDTO command) {
+        long key;
+        if (command.getType() == OrderBatchCommandType.CREATE) {
+            key = command.getRef() != null ? command.getRef().hashCode() : index;
+        } else if (command.getOrderId() != null) {
+            key = OrderIdGenerator.parse(command.getOrderId());
+        } else if (command.getOrderRef() != null) {
+            key = command.getOrderRef().hashCode();
+        } else {
+            key = index;
+        }
+        // Snowflake ID의 하위 비트(순번)가 몰려도 레인이 고르게 나뉘도록 섞는다
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) lanes.length);
+    }
+
+    /**
+     * 명령 하나를 처리한다. (레인 스레드)
+     */
+    private OrderBatchResultDTO run(int index, OrderBatchCommandDTO command, Map<String, String> refs) {
+        if (command.getType() == null) {
+            return failure(index, command, 400, "type이 없습니다.");
+        }
+        if (command.getType() == OrderBatchCommandType.CREATE) {
+            return create(index, command, refs);
+        }
+
+        String orderId = command.getOrderId() != null ? command.getOrderId()
+                : command.getOrderRef() != null ? refs.get(command.getOrderRef()) : null;
+        if (orderId == null) {
+            return failure(index, command, 404, command.getOrderRef() != null
+                    ? "같은 요청에서 생성된 ref가 아닙니다: " + command.getOrderRef()
+                    : "orderId 또는 orderRef가 없습니다.");
+        }
+        OrderContext context = orderStateService.getOrderContext(orderId);
+        if (context == null) {
+            return failure(index, command, 404, "주문을 찾을 수 없습니다: " + orderId);
+        }
+
+        long expectedVersion = command.getExpectedVersion() != null ? command.getExpectedVersion() : OrderContext.ANY_VERSION;
+        switch (command.getType()) {
+            case NEXT_STEP:
+                return execute(context, () -> transition(index, command, context, context.nextStep(expectedVersion)));
+            case CANCEL:
+                return execute(context, () -> transition(index, command, context, context.cancel(expectedVersion)));
+            default:
+                return success(index, command, context, null);
+        }
+    }
+
+    /**
+     * 전환을 명령 실행기에서 실행하고 결과를 기다린다.
+     * actor 모드에서도 주문 상태는 주문 파티션의 actor에서만 바뀌며, 레인은 같은 주문의 명령 순서만 지킨다.
+     */
+    private OrderBatchResultDTO execute(OrderContext context, Supplier<OrderBatchResultDTO> transition) {
+        try {
+            return commandExecutor.submit(context.getOrderKey(), transition).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private OrderBatchResultDTO create(int index, OrderBatchCommandDTO command, Map<String, String> refs) {
+        if (command.getCustomerName() == null || command.getMenuName() == null || command.getTotalPrice() == null) {
+            return failure(index, command, 400, "CREATE에는 customerName, menuName, totalPrice가 필요합니다.");
+        }
+        String invalidField = orderStateService.validateOrderFields(command.getCustomerName(), command.getMenuName(),
+                command.getDeliveryAddress(), command.getPhoneNumber(), command.getSpecialRequest());
+        if (invalidField != null) {
+            return failure(index, command, 400, invalidField);
+        }
+        // 같은 ref는 항상 같은 레인에서 처리되므로 확인 후 등록해도 경합이 없다
+        if (command.getRef() != null && refs.containsKey(command.getRef())) {
+            return failure(index, command, 400, "이미 사용된 ref입니다: " + command.getRef());
+        }
+
+        OrderContext context = orderStateService.openOrder(
+                command.getCustomerName(),
+                command.getMenuName(),
+                command.getQuantity() != null ? command.getQuantity() : 1,
+                command.getTotalPrice(),
+                command.getDeliveryAddress(),
+                command.getPhoneNumber(),
+                command.getSpecialRequest());
+        if (command.getRef() != null) {
+            refs.put(command.getRef(), context.getOrderId());
+        }
+        return success(index, command, context, null);
+    }
+
+    private OrderBatchResultDTO transition(int index, OrderBatchCommandDTO command, OrderContext context,
+                                           OrderTransitionResult transitionResult) {
+        switch (transitionResult) {
+            case SUCCESS:
+                return success(index, command, context, transitionResult);
+            case REJECTED:
+                return withState(failure(index, command, 400, transitionResult.getDescription()), context, transitionResult);
+            case CONFLICT:
+                return withState(failure(index, command, 409, transitionResult.getDescription()), context, transitionResult);
+            default:
+                return withState(failure(index, command, 412, transitionResult.getDescription()), context, transitionResult);
+        }
+    }
+
+    private static OrderBatchResultDTO success(int index, OrderBatchCommandDTO command, OrderContext context,
+                                               OrderTransitionResult transitionResult) {
+        OrderBatchResultDTO result = OrderBatchResultDTO.builder()
+                .index(index)
+                .type(command.getType())
+                .ref(command.getRef())
+                .status(200)
+                .build();
+        return withState(result, context, transitionResult);
+    }
+
+    private static OrderBatchResultDTO withState(OrderBatchResultDTO result, OrderContext context,
+                                                 OrderTransitionResult transitionResult) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        result.setOrderId(context.getOrderId());
+        result.setState(snapshot.getStateType());
+        result.setVersion(snapshot.getVersion());
+        result.setTransitionResult(transitionResult);
+        return result;
+    }
+
+    private static OrderBatchResultDTO failure(int index, OrderBatchCommandDTO command, int status, String message) {
+        return OrderBatchResultDTO.builder()
+                .index(index)
+                .type(command != null ? command.getType() : null)
+                .ref(command != null ? command.getRef() : null)
+                .orderId(command != null ? command.getOrderId() : null)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * 결과를 NDJSON 한 줄로 쓴다.
+     *
+     * @return 실패한 결과면 1, 아니면 0
+     */
+    private int write(JsonGenerator generator, OrderBatchResultDTO result) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+        return result.getStatus() == 200 ? 0 : 1;
+    }
+
+    /**
+     * 요청 본문이 명령 배열 형식이 아닐 때
+     */
+    private static final class BatchFormatException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private BatchFormatException(String message) {
+            super(message);
+        }
+
+    }
+
+}
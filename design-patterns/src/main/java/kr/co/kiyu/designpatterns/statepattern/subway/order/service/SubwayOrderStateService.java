@@ -1,14 +1,43 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import kr.co.kiyu.designpatterns.statepattern.subway.order.cluster.OrderClusterMembership;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.eta.OrderEtaEstimator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.OrderEventStreamHub;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.OrderStatusWaiterRegistry;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus.OrderAnalyticsHandler;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.event.bus.OrderEventBus;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.execution.OrderCommandExecutor;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.http.OrderEntityTag;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
 import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
-import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderReceivedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEtaDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderEventBusStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderExecutionStatsDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderResponseDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEtaDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStatePageDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderSummaryDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderTransitionResult;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.OrderStateIndex;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -150,10 +179,49 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class SubwayOrderStateService {
 
-    private final OrderReceivedState orderReceivedState;
-    
-    // 메모리 내 주문 저장소 (실제 환경에서는 DB 사용)
-    private final Map<String, OrderContext> orderStorage = new ConcurrentHashMap<>();
+    // 상태 이력 조회 시간 형식
+    private static final DateTimeFormatter HISTORY_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    // 주문 항목 최대 길이 (영속화 테이블 SUBWAY_ORDER의 컬럼 크기와 같다)
+    public static final int MAX_NAME_LENGTH = 100;
+    public static final int MAX_PHONE_NUMBER_LENGTH = 30;
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    // 주문 상태 전이표 (초기 상태: 주문 접수)
+    private final OrderStateMachine stateMachine;
+
+    // 주문 ID 생성기 (Snowflake 방식, 같은 ms에 생성된 주문도 ID가 겹치지 않음)
+    private final OrderIdGenerator orderIdGenerator;
+
+    // 주문 저장소 (subway.order.repository.type 설정으로 메모리/저널 선택)
+    private final OrderRepository orderRepository;
+
+    // 상태별 보조 색인 (상태별 주문 수와 목록을 저장소 전체를 훑지 않고 조회)
+    private final OrderStateIndex stateIndex;
+
+    // 상태 변경 발행자 (저널 기록, 자동 진행 등 주문 생성/상태 전환 부가 작업 전달)
+    private final OrderStateChangePublisher stateChangePublisher;
+
+    // 상태 변경 SSE 허브 (상태 조회 polling 대신 변경 시점에만 이벤트 전송)
+    private final OrderEventStreamHub eventStreamHub;
+
+    // 상태 변경 대기 등록소 (SSE를 쓸 수 없는 클라이언트의 long-poll 조회)
+    private final OrderStatusWaiterRegistry statusWaiterRegistry;
+
+    // 주문 이벤트 버스 (알림, 통계 등 응답을 기다릴 필요 없는 부가 작업을 링 버퍼로 비동기 전달)
+    private final OrderEventBus eventBus;
+
+    // 상태별 체류 시간 통계 (이벤트 버스 핸들러)
+    private final OrderAnalyticsHandler analyticsHandler;
+
+    // 클러스터 구성원 (여러 노드가 주문을 나누어 맡을 때 이 노드가 맡는 주문 ID로 생성)
+    private final OrderClusterMembership clusterMembership;
+
+    // 주문 명령 실행기 (subway.order.execution.mode 설정으로 요청 스레드/파티션 actor 선택)
+    private final OrderCommandExecutor commandExecutor;
+
+    // 예상 시간 추정기 (기록된 상태 전환으로 배운 상태별 체류 시간 p50/p90, 이벤트 버스 핸들러)
+    private final OrderEtaEstimator etaEstimator;
 
     /**
      * 새로운 주문을 생성한다.
@@ -165,17 +233,77 @@ public class SubwayOrderStateService {
      * @param deliveryAddress 배달 주소
      * @param phoneNumber 연락처
      * @param specialRequest 특별 요청사항
-     * @return 생성된 주문 정보 HTML
+     * @return 생성된 주문 정보 HTML과 버전
      */
-    public String createOrder(String customerName, String menuName, int quantity, 
+    public OrderResponseDTO createOrder(String customerName, String menuName, int quantity, 
                             int totalPrice, String deliveryAddress, String phoneNumber, 
                             String specialRequest) {
         
+        log.info("🛒 새로운 주문 생성 시작 - 고객: {}", customerName);
+        
+        OrderContext orderContext = openOrder(customerName, menuName, quantity, totalPrice,
+                deliveryAddress, phoneNumber, specialRequest);
+        
+        log.info("✅ 주문 생성 완료 - 주문ID: {}", orderContext.getOrderId());
+        
+        return toOrderResponse(orderContext);
+    }
+
+    /**
+     * 주문 항목의 길이를 확인한다.
+     * 길이를 넘는 주문은 메모리에는 저장되지만 DB 기록에서 실패하므로 생성 전에 거절한다.
+     * 
+     * @param customerName 고객명
+     * @param menuName 메뉴명
+     * @param deliveryAddress 배달 주소
+     * @param phoneNumber 연락처
+     * @param specialRequest 특별 요청사항
+     * @return 오류 메시지 (문제가 없으면 null)
+     */
+    public String validateOrderFields(String customerName, String menuName, String deliveryAddress,
+                                      String phoneNumber, String specialRequest) {
+        if (exceeds(customerName, MAX_NAME_LENGTH)) {
+            return "고객명은 " + MAX_NAME_LENGTH + "자 이하여야 합니다.";
+        }
+        if (exceeds(menuName, MAX_NAME_LENGTH)) {
+            return "메뉴명은 " + MAX_NAME_LENGTH + "자 이하여야 합니다.";
+        }
+        if (exceeds(deliveryAddress, MAX_TEXT_LENGTH)) {
+            return "배달 주소는 " + MAX_TEXT_LENGTH + "자 이하여야 합니다.";
+        }
+        if (exceeds(phoneNumber, MAX_PHONE_NUMBER_LENGTH)) {
+            return "연락처는 " + MAX_PHONE_NUMBER_LENGTH + "자 이하여야 합니다.";
+        }
+        if (exceeds(specialRequest, MAX_TEXT_LENGTH)) {
+            return "특별 요청사항은 " + MAX_TEXT_LENGTH + "자 이하여야 합니다.";
+        }
+        return null;
+    }
+
+    private static boolean exceeds(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+
+    /**
+     * 새로운 주문 컨텍스트를 만들어 저장하고 생성 이벤트를 발행한다.
+     * 응답(HTML)은 만들지 않으므로 일괄 처리에서도 그대로 사용한다.
+     * 
+     * @param customerName 고객명
+     * @param menuName 메뉴명
+     * @param quantity 수량
+     * @param totalPrice 총 금액
+     * @param deliveryAddress 배달 주소
+     * @param phoneNumber 연락처
+     * @param specialRequest 특별 요청사항
+     * @return 생성된 주문 컨텍스트
+     */
+    public OrderContext openOrder(String customerName, String menuName, int quantity, 
+                                  int totalPrice, String deliveryAddress, String phoneNumber, 
+                                  String specialRequest) {
+        
         // 주문 ID 생성
         String orderId = generateOrderId();
         
-        log.info("🛒 새로운 주문 생성 시작 - 주문ID: {}, 고객: {}", orderId, customerName);
-        
         // 주문 DTO 생성
         OrderDTO order = OrderDTO.builder()
                 .orderId(orderId)
@@ -190,14 +318,13 @@ public class SubwayOrderStateService {
                 .build();
         
         // 주문 컨텍스트 생성 (초기 상태: ORDER_RECEIVED)
-        OrderContext orderContext = new OrderContext(order, orderReceivedState);
-        
-        // 메모리에 저장
-        orderStorage.put(orderId, orderContext);
+        OrderContext created = new OrderContext(order, stateMachine.getInitialState(), stateChangePublisher);
         
-        log.info("✅ 주문 생성 완료 - 주문ID: {}", orderId);
+        // 저장소에 저장 (이후로는 저장소가 보관하는 컨텍스트를 사용)
+        OrderContext orderContext = orderRepository.save(created);
+        stateChangePublisher.onOrderCreated(orderContext);
         
-        return orderContext.getOrder().toHtmlContent();
+        return orderContext;
     }
 
     /**
@@ -217,28 +344,32 @@ public class SubwayOrderStateService {
      * ✅ State 패턴 사용:
      * context.nextStep(); // 현재 상태가 알아서 처리!
      * 
+     * 전환은 명령 실행기에서 실행되며, 응답은 전환 직후의 스냅샷으로 만든다. (actor 모드에서는 주문 파티션의 actor 스레드)
+     * 
      * @param orderId 주문 ID
-     * @return 진행 결과 HTML
+     * @param expectedVersion 클라이언트가 알고 있는 버전 (If-Match, OrderContext.ANY_VERSION이면 검사하지 않음)
+     * @return 진행 결과 HTML, 현재 버전, 전환 결과 future
      */
-    public String nextStep(String orderId) {
+    public CompletableFuture<OrderResponseDTO> nextStep(String orderId, long expectedVersion) {
         OrderContext context = getOrderContext(orderId);
         if (context == null) {
-            return createErrorHtml("주문을 찾을 수 없습니다: " + orderId);
+            return CompletableFuture.completedFuture(OrderResponseDTO.of(createErrorHtml("주문을 찾을 수 없습니다: " + orderId)));
         }
 
         log.info("➡️ 주문 다음 단계 진행 - 주문ID: {}", orderId);
         
-        // 🎯 State 패턴의 핵심: 현재 상태 객체가 스스로 다음 상태를 결정!
-        boolean success = context.nextStep();
-        
-        if (success) {
-            log.info("✅ 다음 단계 진행 성공 - 주문ID: {}, 현재상태: {}", 
-                    orderId, context.getCurrentStateType().getStateName());
-            return context.getOrder().toHtmlContent();
-        } else {
-            log.warn("❌ 다음 단계 진행 실패 - 주문ID: {}", orderId);
-            return createErrorHtml("다음 단계로 진행할 수 없습니다.");
-        }
+        return commandExecutor.submit(context.getOrderKey(), () -> {
+            // 🎯 State 패턴의 핵심: 현재 상태 객체가 스스로 다음 상태를 결정!
+            OrderTransitionResult result = context.nextStep(expectedVersion);
+            
+            if (result == OrderTransitionResult.SUCCESS) {
+                log.info("✅ 다음 단계 진행 성공 - 주문ID: {}, 현재상태: {}", 
+                        orderId, context.getCurrentStateType().getStateName());
+            } else {
+                log.warn("❌ 다음 단계 진행 실패 - 주문ID: {}, 결과: {}", orderId, result);
+            }
+            return toTransitionResponse(context, result, "다음 단계로 진행할 수 없습니다.");
+        });
     }
 
     /**
@@ -260,44 +391,89 @@ public class SubwayOrderStateService {
      * ✅ State 패턴 사용:
      * context.cancel(); // 각 상태가 자신의 취소 정책 적용!
      * 
+     * 전환은 명령 실행기에서 실행되며, 응답은 전환 직후의 스냅샷으로 만든다.
+     * 
      * @param orderId 주문 ID
-     * @return 취소 결과 HTML
+     * @param expectedVersion 클라이언트가 알고 있는 버전 (If-Match, OrderContext.ANY_VERSION이면 검사하지 않음)
+     * @return 취소 결과 HTML, 현재 버전, 전환 결과 future
      */
-    public String cancelOrder(String orderId) {
+    public CompletableFuture<OrderResponseDTO> cancelOrder(String orderId, long expectedVersion) {
         OrderContext context = getOrderContext(orderId);
         if (context == null) {
-            return createErrorHtml("주문을 찾을 수 없습니다: " + orderId);
+            return CompletableFuture.completedFuture(OrderResponseDTO.of(createErrorHtml("주문을 찾을 수 없습니다: " + orderId)));
         }
 
         log.info("🚫 주문 취소 시도 - 주문ID: {}", orderId);
         
-        // 🎯 State 패턴의 핵심: 각 상태가 자신만의 취소 정책을 가짐!
-        boolean success = context.cancel();
-        
-        if (success) {
-            log.info("✅ 주문 취소 성공 - 주문ID: {}", orderId);
-            return context.getOrder().toHtmlContent();
-        } else {
-            log.warn("❌ 주문 취소 실패 - 주문ID: {}", orderId);
-            return createErrorHtml("현재 상태에서는 주문을 취소할 수 없습니다.");
-        }
+        return commandExecutor.submit(context.getOrderKey(), () -> {
+            // 🎯 State 패턴의 핵심: 각 상태가 자신만의 취소 정책을 가짐!
+            OrderTransitionResult result = context.cancel(expectedVersion);
+            
+            if (result == OrderTransitionResult.SUCCESS) {
+                log.info("✅ 주문 취소 성공 - 주문ID: {}", orderId);
+            } else {
+                log.warn("❌ 주문 취소 실패 - 주문ID: {}, 결과: {}", orderId, result);
+            }
+            return toTransitionResponse(context, result, "현재 상태에서는 주문을 취소할 수 없습니다.");
+        });
     }
 
     /**
      * 주문 상태를 조회한다.
      * 
+     * ETag는 주문 스냅샷(버전, 상태)과 예상 시간 보기 번호로 만들므로,
+     * If-None-Match가 일치하면 주문 정보(OrderDTO)를 읽거나 HTML을 만들지 않고 304로 응답한다.
+     * 
      * @param orderId 주문 ID
-     * @return 주문 상태 HTML
+     * @param ifNoneMatch If-None-Match 헤더 값 (없으면 null)
+     * @return 주문 상태 HTML과 버전, ETag (바뀌지 않았으면 본문 없음)
      */
-    public String getOrderStatus(String orderId) {
+    public OrderResponseDTO getOrderStatus(String orderId, String ifNoneMatch) {
         OrderContext context = getOrderContext(orderId);
         if (context == null) {
-            return createErrorHtml("주문을 찾을 수 없습니다: " + orderId);
+            return OrderResponseDTO.of(createErrorHtml("주문을 찾을 수 없습니다: " + orderId));
+        }
+
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        String entityTag = OrderEntityTag.of(snapshot, etaRevisionOf(snapshot));
+        long cacheMaxAgeSeconds = snapshot.getState().getCacheMaxAgeSeconds();
+        if (OrderEntityTag.matches(ifNoneMatch, entityTag)) {
+            log.debug("📋 주문 상태 변경 없음 (304) - 주문ID: {}, ETag: {}", orderId, entityTag);
+            return OrderResponseDTO.notModified(snapshot.getVersion(), entityTag, cacheMaxAgeSeconds);
         }
 
         log.info("📋 주문 상태 조회 - 주문ID: {}", orderId);
         
-        return context.getOrder().toHtmlContent();
+        return OrderResponseDTO.builder()
+                .html(toOrderHtml(context, snapshot))
+                .version(snapshot.getVersion())
+                .entityTag(entityTag)
+                .cacheMaxAgeSeconds(cacheMaxAgeSeconds)
+                .build();
+    }
+
+    /**
+     * 주문 버전이 바뀔 때까지 기다렸다가 주문 상태를 응답한다. (long-poll)
+     * 대기 중에는 요청 스레드를 점유하지 않으며, timeout이 지나면 현재 상태로 응답한다.
+     * 
+     * @param orderId 주문 ID
+     * @param afterVersion 클라이언트가 이미 알고 있는 버전
+     * @param timeoutMs 최대 대기 시간(ms)
+     * @param mapper 주문 상태 응답을 최종 응답으로 바꾸는 함수
+     * @param <T> 최종 응답 타입
+     * @return 대기 응답, 주문이 없으면 null
+     */
+    public <T> DeferredResult<T> waitForOrderStatus(String orderId, long afterVersion, long timeoutMs,
+                                                    Function<OrderResponseDTO, T> mapper) {
+        OrderContext context = getOrderContext(orderId);
+        if (context == null) {
+            return null;
+        }
+
+        log.info("⏳ 주문 상태 변경 대기 - 주문ID: {}, 기준 버전: {}, 최대 {}ms", orderId, afterVersion, timeoutMs);
+
+        return statusWaiterRegistry.await(context, afterVersion, timeoutMs,
+                waitedContext -> mapper.apply(toOrderResponse(waitedContext)));
     }
 
     /**
@@ -322,41 +498,211 @@ public class SubwayOrderStateService {
      * context.getAvailableActions(); // 각 상태가 자신만의 액션 목록 반환!
      * 
      * @param orderId 주문 ID
-     * @return 액션 목록 HTML
+     * @param ifNoneMatch If-None-Match 헤더 값 (없으면 null)
+     * @return 액션 목록 HTML과 버전, ETag (바뀌지 않았으면 본문 없음)
      */
-    public String getAvailableActions(String orderId) {
+    public OrderResponseDTO getAvailableActions(String orderId, String ifNoneMatch) {
         OrderContext context = getOrderContext(orderId);
         if (context == null) {
-            return createErrorHtml("주문을 찾을 수 없습니다: " + orderId);
+            return OrderResponseDTO.of(createErrorHtml("주문을 찾을 수 없습니다: " + orderId));
+        }
+
+        // 한 스냅샷 기준으로 상태, 액션, 예상 시간, 버전을 모두 만든다
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        String entityTag = OrderEntityTag.of(snapshot, etaRevisionOf(snapshot));
+        long cacheMaxAgeSeconds = snapshot.getState().getCacheMaxAgeSeconds();
+        if (OrderEntityTag.matches(ifNoneMatch, entityTag)) {
+            log.debug("🎯 주문 가능 액션 변경 없음 (304) - 주문ID: {}, ETag: {}", orderId, entityTag);
+            return OrderResponseDTO.notModified(snapshot.getVersion(), entityTag, cacheMaxAgeSeconds);
         }
 
         log.info("🎯 주문 가능 액션 조회 - 주문ID: {}", orderId);
         
+        OrderEtaDTO eta = etaEstimator.estimate(snapshot, context.getOrder(snapshot).getMenuName());
+        
         StringBuilder html = new StringBuilder();
         html.append("<div style='font-family: Arial; padding: 20px;'>")
             .append("<h2>🎯 사용 가능한 액션</h2>")
             .append("<p><strong>주문 ID:</strong> ").append(orderId).append("</p>")
-            .append("<p><strong>현재 상태:</strong> ").append(context.getCurrentStateType().getStateName()).append("</p>")
+            .append("<p><strong>현재 상태:</strong> ").append(snapshot.getStateType().getStateName()).append("</p>")
             .append("<ul>");
         
         // 🎯 State 패턴의 핵심: 각 상태가 자신만의 액션 목록을 정의!
-        for (String action : context.getAvailableActions()) {
+        for (String action : snapshot.getState().getAvailableActions()) {
             html.append("<li>").append(action).append("</li>");
         }
         
-        html.append("</ul>")
-            .append("<p><strong>예상 완료 시간:</strong> ").append(context.getEstimatedMinutes()).append("분</p>")
+        html.append("</ul>");
+        if (eta != null) {
+            OrderStateEtaDTO current = eta.getCurrent();
+            html.append("<p><strong>현재 단계 예상 시간:</strong> ")
+                .append(OrderEtaDTO.formatDuration(current.getP50Millis())).append(" (p50) ~ ")
+                .append(OrderEtaDTO.formatDuration(current.getP90Millis())).append(" (p90)</p>")
+                .append("<p><strong>완료 예상 시각:</strong> ")
+                .append(OrderEtaDTO.formatTime(eta.getExpectedCompletionP50())).append(" (p50) ~ ")
+                .append(OrderEtaDTO.formatTime(eta.getExpectedCompletionP90())).append(" (p90)</p>")
+                .append("<p style='color: #888;'>근거: ").append(current.getBasis().getDescription());
+            if (current.getSamples() > 0) {
+                html.append(" 최근 ").append(current.getSamples()).append("건");
+            }
+            html.append("</p>");
+        }
+        html.append("</div>");
+        
+        return OrderResponseDTO.builder()
+                .html(html.toString())
+                .version(snapshot.getVersion())
+                .entityTag(entityTag)
+                .cacheMaxAgeSeconds(cacheMaxAgeSeconds)
+                .build();
+    }
+
+    /**
+     * 주문의 상태 변경 이력을 조회한다.
+     * 
+     * 이력은 OrderStateHistory에 long 배열로 압축 저장되어 있으며,
+     * 사람이 읽는 문자열은 이 조회 시점에만 만든다.
+     * 
+     * @param orderId 주문 ID
+     * @param ifNoneMatch If-None-Match 헤더 값 (없으면 null)
+     * @return 상태 변경 이력 HTML과 버전, ETag (바뀌지 않았으면 본문 없음)
+     */
+    public OrderResponseDTO getStateHistory(String orderId, String ifNoneMatch) {
+        OrderContext context = getOrderContext(orderId);
+        if (context == null) {
+            return OrderResponseDTO.of(createErrorHtml("주문을 찾을 수 없습니다: " + orderId));
+        }
+
+        // 이력은 예상 시간이 없으므로 버전과 상태만으로 ETag를 만든다
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        String entityTag = OrderEntityTag.of(snapshot, OrderEntityTag.NO_REVISION);
+        long cacheMaxAgeSeconds = snapshot.getState().getCacheMaxAgeSeconds();
+        if (OrderEntityTag.matches(ifNoneMatch, entityTag)) {
+            log.debug("📜 주문 상태 이력 변경 없음 (304) - 주문ID: {}, ETag: {}", orderId, entityTag);
+            return OrderResponseDTO.notModified(snapshot.getVersion(), entityTag, cacheMaxAgeSeconds);
+        }
+
+        log.info("📜 주문 상태 이력 조회 - 주문ID: {}", orderId);
+        
+        OrderStateHistory history = snapshot.getHistory();
+        
+        StringBuilder html = new StringBuilder();
+        html.append("<div style='font-family: Arial; padding: 20px;'>")
+            .append("<h2>📜 상태 변경 이력</h2>")
+            .append("<p><strong>주문 ID:</strong> ").append(orderId).append("</p>")
+            .append("<p><strong>현재 상태:</strong> ").append(snapshot.getStateType().getStateName()).append("</p>")
+            .append("<table style='border-collapse: collapse;'>")
+            .append("<tr><th style='padding: 6px 12px;'>#</th><th style='padding: 6px 12px;'>변경 시간</th>")
+            .append("<th style='padding: 6px 12px;'>상태</th><th style='padding: 6px 12px;'>사유</th></tr>");
+        
+        for (int i = 0; i < history.size(); i++) {
+            OrderStateType state = history.getState(i);
+            html.append("<tr>")
+                .append("<td style='padding: 6px 12px;'>").append(i + 1).append("</td>")
+                .append("<td style='padding: 6px 12px;'>").append(history.getChangedAt(i).format(HISTORY_TIME_FORMAT)).append("</td>")
+                .append("<td style='padding: 6px 12px;'>").append(state.getEmoji()).append(" ").append(state.getStateName()).append("</td>")
+                .append("<td style='padding: 6px 12px;'>").append(history.getReason(i)).append("</td>")
+                .append("</tr>");
+        }
+        
+        html.append("</table>")
             .append("</div>");
         
-        return html.toString();
+        return OrderResponseDTO.builder()
+                .html(html.toString())
+                .version(snapshot.getVersion())
+                .entityTag(entityTag)
+                .cacheMaxAgeSeconds(cacheMaxAgeSeconds)
+                .build();
+    }
+
+    /**
+     * 상태별 주문 목록을 주문 생성 순으로 한 쪽 조회한다.
+     * 
+     * @param state 주문 상태
+     * @param cursor 이전 쪽의 nextCursor (처음이면 null)
+     * @param limit 최대 건수
+     * @return 주문 목록과 다음 쪽 커서, 커서 형식이 잘못되면 null
+     */
+    public OrderStatePageDTO getOrdersByState(OrderStateType state, String cursor, int limit) {
+        long afterOrderKey = -1L;
+        if (cursor != null && !cursor.isBlank()) {
+            afterOrderKey = OrderIdGenerator.parse(cursor.trim());
+            if (afterOrderKey < 0) {
+                return null;
+            }
+        }
+
+        // 한 건 더 읽어 다음 쪽이 있는지 판단한다
+        List<OrderContext> contexts = stateIndex.findByState(state, afterOrderKey, limit + 1);
+        boolean hasNext = contexts.size() > limit;
+        List<OrderSummaryDTO> orders = new ArrayList<>(Math.min(contexts.size(), limit));
+        for (int i = 0; i < contexts.size() && i < limit; i++) {
+            orders.add(toOrderSummary(contexts.get(i)));
+        }
+
+        return OrderStatePageDTO.builder()
+                .state(state)
+                .stateName(state.getStateName())
+                .count(stateIndex.count(state))
+                .orders(orders)
+                .nextCursor(hasNext ? orders.get(orders.size() - 1).getOrderId() : null)
+                .build();
+    }
+
+    /**
+     * 상태별 주문 수를 조회한다.
+     * 
+     * @return 상태 → 주문 수 (상태 순서)
+     */
+    public Map<OrderStateType, Long> getOrderCountsByState() {
+        return stateIndex.getCounts();
+    }
+
+    /**
+     * 주문 이벤트 버스 지표를 조회한다.
+     * 
+     * @return 발행/버림 건수와 핸들러별 lag
+     */
+    public OrderEventBusStatsDTO getEventBusStats() {
+        return eventBus.getStats();
+    }
+
+    /**
+     * 주문 명령 실행 지표를 조회한다.
+     * 
+     * @return 실행 방식, 파티션별 대기 명령 수
+     */
+    public OrderExecutionStatsDTO getExecutionStats() {
+        return commandExecutor.getStats();
+    }
+
+    /**
+     * 진행 중 상태들의 체류 시간 추정(p50/p90)을 조회한다.
+     * 
+     * @param menuName 메뉴명 (null이면 전체 메뉴)
+     * @param hourOfDay 시 (0 ~ 23, 음수이면 전체 시간대)
+     * @return 상태 → 체류 시간 추정 (상태 순서)
+     */
+    public Map<OrderStateType, OrderStateEtaDTO> getStateEtas(String menuName, int hourOfDay) {
+        return etaEstimator.getStateEstimates(menuName, hourOfDay);
+    }
+
+    /**
+     * 상태별 평균 체류 시간을 조회한다.
+     * 
+     * @return 상태 → 평균 체류 시간 (ms, 상태 순서)
+     */
+    public Map<OrderStateType, Long> getAverageStateDurations() {
+        return analyticsHandler.getAverageDurationMillis();
     }
 
     /**
      * 샘플 주문을 생성한다.
      * 
-     * @return 샘플 주문 HTML
+     * @return 샘플 주문 HTML과 버전
      */
-    public String createSampleOrder() {
+    public OrderResponseDTO createSampleOrder() {
         return createOrder(
             "홍길동",
             "치킨 데리야끼",
@@ -368,14 +714,136 @@ public class SubwayOrderStateService {
         );
     }
 
+    /**
+     * 주문 상태 변경 이벤트를 구독한다.
+     * 연결 즉시 현재 상태를 보내고, 완료/취소되면 연결을 닫는다.
+     * 
+     * @param orderId 주문 ID
+     * @return SSE 연결, 주문이 없으면 null
+     */
+    public SseEmitter subscribeOrderEvents(String orderId) {
+        OrderContext context = getOrderContext(orderId);
+        if (context == null) {
+            return null;
+        }
+
+        log.info("📡 주문 이벤트 구독 - 주문ID: {}, 구독자 수: {}", orderId, eventStreamHub.getSubscriberCount() + 1);
+
+        return eventStreamHub.subscribe(context);
+    }
+
+    /**
+     * 전체 주문의 상태 변경 이벤트를 구독한다.
+     * 
+     * @return SSE 연결
+     */
+    public SseEmitter subscribeAllOrderEvents() {
+        log.info("📡 전체 주문 이벤트 구독 - 구독자 수: {}", eventStreamHub.getSubscriberCount() + 1);
+
+        return eventStreamHub.subscribeAll();
+    }
+
     /**
      * 주문 컨텍스트를 조회한다.
      * 
      * @param orderId 주문 ID
      * @return 주문 컨텍스트 또는 null
      */
-    private OrderContext getOrderContext(String orderId) {
-        return orderStorage.get(orderId);
+    public OrderContext getOrderContext(String orderId) {
+        long orderKey = OrderIdGenerator.parse(orderId);
+        return orderKey < 0 ? null : orderRepository.findById(orderKey);
+    }
+
+    /**
+     * 현재 스냅샷 기준의 주문 정보 응답을 만든다.
+     * 
+     * @param context 주문 컨텍스트
+     * @return 주문 정보 HTML과 버전
+     */
+    private OrderResponseDTO toOrderResponse(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        return OrderResponseDTO.builder()
+                .html(toOrderHtml(context, snapshot))
+                .version(snapshot.getVersion())
+                .entityTag(OrderEntityTag.of(snapshot, etaRevisionOf(snapshot)))
+                .build();
+    }
+
+    /**
+     * 응답 ETag에 넣을 예상 시간 보기 번호를 반환한다. 완료/취소된 주문은 예상 시간이 없으므로 넣지 않는다.
+     * (번호를 먼저 읽고 HTML을 만들므로, 그 사이 보기가 바뀌면 본문이 ETag보다 새것일 뿐 다음 조회에서 다시 만든다)
+     * 
+     * @param snapshot 주문 상태 스냅샷
+     * @return 보기 번호, 없으면 OrderEntityTag.NO_REVISION
+     */
+    private long etaRevisionOf(OrderStateSnapshot snapshot) {
+        return snapshot.getStateType().isTerminal() ? OrderEntityTag.NO_REVISION : etaEstimator.getRevision();
+    }
+
+    /**
+     * 스냅샷 기준의 주문 정보 HTML을 예상 시간과 함께 만든다.
+     * 
+     * @param context 주문 컨텍스트
+     * @param snapshot 기준 스냅샷
+     * @return 주문 정보 HTML
+     */
+    private String toOrderHtml(OrderContext context, OrderStateSnapshot snapshot) {
+        OrderDTO order = context.getOrder(snapshot);
+        return order.toHtmlContent(etaEstimator.estimate(snapshot, order.getMenuName()));
+    }
+
+    /**
+     * 현재 스냅샷 기준의 주문 요약을 만든다.
+     * 
+     * @param context 주문 컨텍스트
+     * @return 주문 요약
+     */
+    private OrderSummaryDTO toOrderSummary(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        OrderDTO order = context.getOrder(snapshot);
+        return OrderSummaryDTO.builder()
+                .orderId(order.getOrderId())
+                .customerName(order.getCustomerName())
+                .menuName(order.getMenuName())
+                .quantity(order.getQuantity())
+                .state(snapshot.getStateType())
+                .version(snapshot.getVersion())
+                .stateChangedAt(snapshot.getChangedAt())
+                .build();
+    }
+
+    /**
+     * 상태 전환 결과에 맞는 응답을 만든다.
+     * 
+     * @param context 주문 컨텍스트
+     * @param result 상태 전환 결과
+     * @param rejectedMessage 현재 상태에서 허용되지 않는 전환일 때의 안내 메시지
+     * @return 결과 HTML, 현재 버전, 전환 결과
+     */
+    private OrderResponseDTO toTransitionResponse(OrderContext context, OrderTransitionResult result,
+                                                  String rejectedMessage) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        long etaRevision = OrderEntityTag.NO_REVISION;
+        String html;
+        switch (result) {
+            case SUCCESS:
+                etaRevision = etaRevisionOf(snapshot);
+                html = toOrderHtml(context, snapshot);
+                break;
+            case REJECTED:
+                html = createErrorHtml(rejectedMessage);
+                break;
+            default:
+                html = createErrorHtml(result.getDescription() + " (현재 버전: " + snapshot.getVersion()
+                        + ", 현재 상태: " + snapshot.getStateType().getStateName() + ")");
+                break;
+        }
+        return OrderResponseDTO.builder()
+                .html(html)
+                .version(snapshot.getVersion())
+                .entityTag(OrderEntityTag.of(snapshot, etaRevision))
+                .transitionResult(result)
+                .build();
     }
 
     /**
@@ -384,7 +852,13 @@ public class SubwayOrderStateService {
      * @return 생성된 주문 ID
      */
     private String generateOrderId() {
-        return "ORD-" + System.currentTimeMillis();
+        // 클러스터에서는 해시 링이 이 노드에 배정하는 ID가 나올 때까지 다시 발급하여 생성 요청을 전달하지 않는다
+        // (이 노드도 링에 있으므로 평균 노드 수만큼 발급하면 나온다)
+        long id = orderIdGenerator.nextId();
+        while (!clusterMembership.isLocal(id)) {
+            id = orderIdGenerator.nextId();
+        }
+        return OrderIdGenerator.format(id);
     }
 
     /**
@@ -393,7 +867,7 @@ public class SubwayOrderStateService {
      * @param message 오류 메시지
      * @return 오류 HTML
      */
-    private String createErrorHtml(String message) {
+    public String createErrorHtml(String message) {
         return "<div style='font-family: Arial; padding: 20px; color: red;'>" +
                "<h2>❌ 오류</h2>" +
                "<p>" + message + "</p>" +
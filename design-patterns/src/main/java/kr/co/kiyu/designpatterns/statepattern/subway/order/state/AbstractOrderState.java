@@ -0,0 +1,53 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+
+/**
+ * 주문 상태 기본 클래스
+ *
+ * OrderStateMachine이 컴파일한 전이표에서 다음 단계/취소 대상 상태 객체를 연결(link)받아 보관한다
+ * 하위 상태는 advance(), cancelTo()로 전환을 요청하며, 대상 조회는 필드 하나를 읽는 것으로 끝난다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+public abstract class AbstractOrderState implements OrderState {
+
+    /** 다음 단계 대상 (전이표 컴파일 시 연결) */
+    private OrderState nextState;
+
+    /** 취소 대상 (전이표 컴파일 시 연결) */
+    private OrderState cancelState;
+
+    /**
+     * 전이표에서 찾은 대상 상태를 연결한다. (OrderStateMachine 전용)
+     *
+     * @param nextState 다음 단계 대상, 없으면 null
+     * @param cancelState 취소 대상, 없으면 null
+     */
+    void link(OrderState nextState, OrderState cancelState) {
+        this.nextState = nextState;
+        this.cancelState = cancelState;
+    }
+
+    /**
+     * 다음 단계 대상 상태로 전환을 요청한다.
+     *
+     * @param context 주문 컨텍스트
+     * @return 전환 성공 여부
+     */
+    protected boolean advance(OrderContext context) {
+        return nextState != null && context.changeState(this, nextState, getNextStepReason());
+    }
+
+    /**
+     * 취소 대상 상태로 전환을 요청한다.
+     *
+     * @param context 주문 컨텍스트
+     * @return 전환 성공 여부
+     */
+    protected boolean cancelTo(OrderContext context) {
+        return cancelState != null && context.changeState(this, cancelState, getCancelReason());
+    }
+
+}
@@ -1,7 +1,7 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.stereotype.Component;
 
@@ -22,11 +22,21 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class CancelledState implements OrderState {
+public class CancelledState extends AbstractOrderState {
+
+    /**
+     * 가능한 액션 목록 (모든 주문이 공유하는 불변 목록)
+     */
+    private static final List<String> AVAILABLE_ACTIONS = List.of(
+        "환불 처리 확인",
+        "취소 사유 확인",
+        "재주문하기",
+        "고객센터 문의"
+    );
 
     @Override
     public boolean nextStep(OrderContext context) {
-        log.info("ℹ️ 취소된 주문은 진행할 수 없습니다 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("ℹ️ 취소된 주문은 진행할 수 없습니다 - 주문ID: {}", context.getOrderId());
         
         // 취소 상태에서는 더 이상 진행할 단계가 없음
         return false;
@@ -34,7 +44,7 @@ public class CancelledState implements OrderState {
 
     @Override
     public boolean cancel(OrderContext context) {
-        log.info("ℹ️ 이미 취소된 주문입니다 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("ℹ️ 이미 취소된 주문입니다 - 주문ID: {}", context.getOrderId());
         
         // 이미 취소된 상태
         return true;
@@ -42,12 +52,7 @@ public class CancelledState implements OrderState {
 
     @Override
     public List<String> getAvailableActions() {
-        return Arrays.asList(
-            "환불 처리 확인",
-            "취소 사유 확인",
-            "재주문하기",
-            "고객센터 문의"
-        );
+        return AVAILABLE_ACTIONS;
     }
 
     @Override
@@ -64,4 +69,9 @@ public class CancelledState implements OrderState {
     public int getEstimatedMinutes() {
         return 0; // 취소 상태이므로 0분
     }
+
+    @Override
+    public long getCacheMaxAgeSeconds() {
+        return TimeUnit.DAYS.toSeconds(1); // 종료 상태는 더 바뀌지 않으므로 하루 동안 재사용
+    }
 } 
\ No newline at end of file
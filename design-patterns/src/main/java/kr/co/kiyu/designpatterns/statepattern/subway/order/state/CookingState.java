@@ -1,9 +1,7 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
 
-import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
@@ -22,37 +20,47 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class CookingState implements OrderState {
+public class CookingState extends AbstractOrderState {
 
-    @Autowired
-    private PackagingState packagingState;
+    /**
+     * 가능한 액션 목록 (모든 주문이 공유하는 불변 목록)
+     */
+    private static final List<String> AVAILABLE_ACTIONS = List.of(
+        "다음 단계 진행 (포장 시작)",
+        "조리 상태 확인",
+        "예상 시간 조회"
+    );
 
     @Override
     public boolean nextStep(OrderContext context) {
-        log.info("📦 포장 단계로 진행 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("📦 포장 단계로 진행 - 주문ID: {}", context.getOrderId());
         
         // 조리 완료 후 포장 단계로 상태 변경
-        context.changeState(packagingState, "조리 완료, 포장 시작");
-        
-        return true;
+        return advance(context);
     }
 
     @Override
     public boolean cancel(OrderContext context) {
-        log.warn("⚠️ 조리 중 상태에서는 취소가 제한됩니다 - 주문ID: {}", context.getOrder().getOrderId());
+        log.warn("⚠️ 조리 중 상태에서는 취소가 제한됩니다 - 주문ID: {}", context.getOrderId());
         
         // 조리 중에는 일반적으로 취소가 어려움
         // 특별한 사유가 있는 경우에만 취소 가능하도록 제한
         return false;
     }
 
+    @Override
+    public OrderStateType getNextStateType() {
+        return OrderStateType.PACKAGING;
+    }
+
+    @Override
+    public String getNextStepReason() {
+        return "조리 완료, 포장 시작";
+    }
+
     @Override
     public List<String> getAvailableActions() {
-        return Arrays.asList(
-            "다음 단계 진행 (포장 시작)",
-            "조리 상태 확인",
-            "예상 시간 조회"
-        );
+        return AVAILABLE_ACTIONS;
     }
 
     @Override
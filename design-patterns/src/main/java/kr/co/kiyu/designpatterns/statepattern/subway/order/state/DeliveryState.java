@@ -1,9 +1,7 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
 
-import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
@@ -22,37 +20,47 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class DeliveryState implements OrderState {
+public class DeliveryState extends AbstractOrderState {
 
-    @Autowired
-    private CompletedState completedState;
+    /**
+     * 가능한 액션 목록 (모든 주문이 공유하는 불변 목록)
+     */
+    private static final List<String> AVAILABLE_ACTIONS = List.of(
+        "다음 단계 진행 (배달 완료)",
+        "배달 현황 추적",
+        "배달기사 연락하기",
+        "고객 연락하기"
+    );
 
     @Override
     public boolean nextStep(OrderContext context) {
-        log.info("✅ 배달 완료 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("✅ 배달 완료 - 주문ID: {}", context.getOrderId());
         
         // 배달 완료 후 완료 상태로 변경
-        context.changeState(completedState, "배달 완료");
-        
-        return true;
+        return advance(context);
     }
 
     @Override
     public boolean cancel(OrderContext context) {
-        log.warn("❌ 배달 중 상태에서는 취소가 불가능합니다 - 주문ID: {}", context.getOrder().getOrderId());
+        log.warn("❌ 배달 중 상태에서는 취소가 불가능합니다 - 주문ID: {}", context.getOrderId());
         
         // 배달 중에는 취소 불가능
         return false;
     }
 
+    @Override
+    public OrderStateType getNextStateType() {
+        return OrderStateType.COMPLETED;
+    }
+
+    @Override
+    public String getNextStepReason() {
+        return "배달 완료";
+    }
+
     @Override
     public List<String> getAvailableActions() {
-        return Arrays.asList(
-            "다음 단계 진행 (배달 완료)",
-            "배달 현황 추적",
-            "배달기사 연락하기",
-            "고객 연락하기"
-        );
+        return AVAILABLE_ACTIONS;
     }
 
     @Override
@@ -1,9 +1,7 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
 
-import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
@@ -23,42 +21,57 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class OrderReceivedState implements OrderState {
+public class OrderReceivedState extends AbstractOrderState {
 
-    @Autowired
-    private CookingState cookingState;
-
-    @Autowired  
-    private CancelledState cancelledState;
+    /**
+     * 가능한 액션 목록 (모든 주문이 공유하는 불변 목록)
+     */
+    private static final List<String> AVAILABLE_ACTIONS = List.of(
+        "다음 단계 진행 (조리 시작)",
+        "주문 취소",
+        "주문 수정",
+        "결제 정보 확인"
+    );
 
     @Override
     public boolean nextStep(OrderContext context) {
-        log.info("🍳 조리 단계로 진행 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("🍳 조리 단계로 진행 - 주문ID: {}", context.getOrderId());
         
         // 조리 단계로 상태 변경
-        context.changeState(cookingState, "조리 시작");
-        
-        return true;
+        return advance(context);
     }
 
     @Override
     public boolean cancel(OrderContext context) {
-        log.info("🚫 주문 취소 처리 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("🚫 주문 취소 처리 - 주문ID: {}", context.getOrderId());
         
         // 취소 상태로 변경
-        context.changeState(cancelledState, "고객 요청으로 취소");
-        
-        return true;
+        return cancelTo(context);
+    }
+
+    @Override
+    public OrderStateType getNextStateType() {
+        return OrderStateType.COOKING;
+    }
+
+    @Override
+    public String getNextStepReason() {
+        return "조리 시작";
+    }
+
+    @Override
+    public OrderStateType getCancelStateType() {
+        return OrderStateType.CANCELLED;
+    }
+
+    @Override
+    public String getCancelReason() {
+        return "고객 요청으로 취소";
     }
 
     @Override
     public List<String> getAvailableActions() {
-        return Arrays.asList(
-            "다음 단계 진행 (조리 시작)",
-            "주문 취소",
-            "주문 수정",
-            "결제 정보 확인"
-        );
+        return AVAILABLE_ACTIONS;
     }
 
     @Override
@@ -13,6 +13,9 @@ import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderState
  * 구체적인 상태 클래스들이 이 인터페이스를 구현하여
  * 상태별로 다른 행동을 수행한다
  * 
+ * 전환 대상은 다른 상태 빈을 직접 주입받지 않고 상태 타입으로 선언한다
+ * (getNextStateType, getCancelStateType) OrderStateMachine이 시작 시 이를 상태 타입 순서의 전이표로 컴파일하고 검증한다
+ * 
  * @author KIYU-IT
  * @date 2025. 6. 20.
  */
@@ -21,6 +24,7 @@ public interface OrderState {
     /**
      * 다음 단계로 진행한다.
      * 각 상태마다 다음 단계가 다르므로 구체적인 구현은 각 상태 클래스에서 수행
+     * 상태 변경은 context.changeState(this, ...)로 요청하며, 다른 요청이 먼저 전환했다면 false가 반환된다
      * 
      * @param context 주문 컨텍스트 정보
      * @return 다음 단계 진행 성공 여부
@@ -36,10 +40,47 @@ public interface OrderState {
      */
     boolean cancel(OrderContext context);
 
+    /**
+     * 다음 단계 전환 대상 상태 타입을 반환한다.
+     * 
+     * @return 다음 단계 상태 타입, 다음 단계가 없으면 null
+     */
+    default OrderStateType getNextStateType() {
+        return null;
+    }
+
+    /**
+     * 다음 단계 전환 사유를 반환한다.
+     * 
+     * @return 다음 단계 전환 사유, 다음 단계가 없으면 null
+     */
+    default String getNextStepReason() {
+        return null;
+    }
+
+    /**
+     * 취소 전환 대상 상태 타입을 반환한다.
+     * 
+     * @return 취소 상태 타입, 취소로 전환되지 않으면 null
+     */
+    default OrderStateType getCancelStateType() {
+        return null;
+    }
+
+    /**
+     * 취소 전환 사유를 반환한다.
+     * 
+     * @return 취소 전환 사유, 취소로 전환되지 않으면 null
+     */
+    default String getCancelReason() {
+        return null;
+    }
+
     /**
      * 현재 상태에서 가능한 액션 목록을 반환한다.
+     * 모든 주문이 공유하는 불변 목록이므로 수정하면 안 된다.
      * 
-     * @return 가능한 액션들의 목록
+     * @return 가능한 액션들의 목록 (불변)
      */
     List<String> getAvailableActions();
 
@@ -64,4 +105,14 @@ public interface OrderState {
      * @return 예상 완료 시간(분)
      */
     int getEstimatedMinutes();
+
+    /**
+     * 이 상태의 주문 조회 응답(상태, 액션, 이력)을 클라이언트가 다시 확인하지 않고 재사용해도 되는 시간(초)을 반환한다.
+     * 아직 바뀔 수 있는 상태는 0이며, 클라이언트는 매번 If-None-Match로 확인한다 (바뀌지 않았으면 304)
+     * 
+     * @return 재사용 가능 시간(초), 0이면 매번 확인
+     */
+    default long getCacheMaxAgeSeconds() {
+        return 0L;
+    }
 } 
\ No newline at end of file
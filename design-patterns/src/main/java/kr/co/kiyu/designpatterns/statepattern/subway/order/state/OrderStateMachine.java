@@ -0,0 +1,212 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주문 상태 기계 (전이표)
+ *
+ * 상태 빈들이 선언한 전환(getNextStateType, getCancelStateType)을 시작 시 한 번만
+ * OrderStateType 순서(ordinal)로 색인한 배열 전이표로 컴파일한다
+ * 컴파일한 대상 상태 객체는 각 상태(AbstractOrderState)에 연결하므로, 전환 시에는 조회나 할당이 없다
+ *
+ * [시작 시 검증] 하나라도 어기면 애플리케이션이 뜨지 않는다
+ * - 모든 상태 타입에 상태 빈이 정확히 하나씩 있다
+ * - 종료 상태(OrderStateType.isTerminal)는 전환을 선언하지 않고, 종료 상태가 아니면 전환이 하나 이상 있다
+ * - 모든 상태는 초기 상태(주문 접수)에서 도달할 수 있고, 모든 상태에서 종료 상태에 도달할 수 있다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@Slf4j
+@Component
+public class OrderStateMachine {
+
+    /**
+     * 주문 생성 시 초기 상태
+     */
+    public static final OrderStateType INITIAL_STATE_TYPE = OrderStateType.ORDER_RECEIVED;
+
+    private static final OrderStateType[] TYPES = OrderStateType.values();
+
+    /** 상태 타입 ordinal → 상태 객체 */
+    private final OrderState[] states = new OrderState[TYPES.length];
+
+    /** 상태 타입 ordinal → 다음 단계 대상 (없으면 null) */
+    private final OrderState[] nextStates = new OrderState[TYPES.length];
+
+    /** 상태 타입 ordinal → 취소 대상 (없으면 null) */
+    private final OrderState[] cancelStates = new OrderState[TYPES.length];
+
+    public OrderStateMachine(List<OrderState> orderStates) {
+        for (OrderState state : orderStates) {
+            int index = state.getStateType().ordinal();
+            if (states[index] != null) {
+                throw new IllegalStateException("상태 타입 " + state.getStateType() + "에 상태 빈이 둘 이상입니다: "
+                        + states[index].getClass().getSimpleName() + ", " + state.getClass().getSimpleName());
+            }
+            states[index] = state;
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (OrderStateType type : TYPES) {
+            if (states[type.ordinal()] == null) {
+                errors.add(type + " 상태 빈이 없습니다.");
+            }
+        }
+        if (errors.isEmpty()) {
+            compile(errors);
+        }
+        if (errors.isEmpty()) {
+            validateReachability(errors);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("주문 상태 전이표 검증 실패 - " + String.join(" ", errors));
+        }
+
+        for (OrderState state : states) {
+            if (state instanceof AbstractOrderState) {
+                int index = state.getStateType().ordinal();
+                ((AbstractOrderState) state).link(nextStates[index], cancelStates[index]);
+            }
+        }
+        log.info("🧭 주문 상태 전이표 컴파일 완료 - 상태 {}개, 전환 {}개", states.length, countTransitions());
+    }
+
+    /**
+     * 상태 타입에 해당하는 상태 객체를 반환한다.
+     *
+     * @param type 상태 타입
+     * @return 상태 객체
+     */
+    public OrderState getState(OrderStateType type) {
+        return states[type.ordinal()];
+    }
+
+    /**
+     * 주문 생성 시 초기 상태 객체를 반환한다.
+     *
+     * @return 초기 상태 객체
+     */
+    public OrderState getInitialState() {
+        return states[INITIAL_STATE_TYPE.ordinal()];
+    }
+
+    /**
+     * 다음 단계 대상 상태 객체를 반환한다.
+     *
+     * @param type 현재 상태 타입
+     * @return 다음 단계 대상, 없으면 null
+     */
+    public OrderState getNextState(OrderStateType type) {
+        return nextStates[type.ordinal()];
+    }
+
+    /**
+     * 취소 대상 상태 객체를 반환한다.
+     *
+     * @param type 현재 상태 타입
+     * @return 취소 대상, 없으면 null
+     */
+    public OrderState getCancelState(OrderStateType type) {
+        return cancelStates[type.ordinal()];
+    }
+
+    /**
+     * 선언된 전환을 전이표로 옮기며 종료 상태 규칙을 검사한다.
+     */
+    private void compile(List<String> errors) {
+        for (OrderStateType type : TYPES) {
+            OrderState state = states[type.ordinal()];
+            OrderStateType next = state.getNextStateType();
+            OrderStateType cancel = state.getCancelStateType();
+
+            if (type.isTerminal()) {
+                if (next != null || cancel != null) {
+                    errors.add("종료 상태 " + type + "에서 전환이 선언되어 있습니다.");
+                }
+                continue;
+            }
+            if (next == null && cancel == null) {
+                errors.add(type + " 상태에서 나가는 전환이 없습니다. (종료 상태가 아님)");
+            }
+            if (next == type || cancel == type) {
+                errors.add(type + " 상태가 자기 자신으로 전환됩니다.");
+            }
+            if (next != null && state.getNextStepReason() == null) {
+                errors.add(type + " 상태의 다음 단계 전환 사유가 없습니다.");
+            }
+            if (cancel != null && state.getCancelReason() == null) {
+                errors.add(type + " 상태의 취소 전환 사유가 없습니다.");
+            }
+            nextStates[type.ordinal()] = next != null ? states[next.ordinal()] : null;
+            cancelStates[type.ordinal()] = cancel != null ? states[cancel.ordinal()] : null;
+        }
+    }
+
+    /**
+     * 초기 상태에서의 도달 가능성과 종료 상태로의 도달 가능성을 검사한다.
+     */
+    private void validateReachability(List<String> errors) {
+        boolean[] reachable = new boolean[TYPES.length];
+        Deque<OrderStateType> queue = new ArrayDeque<>();
+        reachable[INITIAL_STATE_TYPE.ordinal()] = true;
+        queue.add(INITIAL_STATE_TYPE);
+        while (!queue.isEmpty()) {
+            OrderStateType type = queue.poll();
+            for (OrderState target : new OrderState[] {nextStates[type.ordinal()], cancelStates[type.ordinal()]}) {
+                if (target != null && !reachable[target.getStateType().ordinal()]) {
+                    reachable[target.getStateType().ordinal()] = true;
+                    queue.add(target.getStateType());
+                }
+            }
+        }
+
+        // 종료 상태에서 거꾸로 전파하여 종료 상태에 도달할 수 있는 상태를 찾는다
+        boolean[] canTerminate = new boolean[TYPES.length];
+        for (OrderStateType type : TYPES) {
+            canTerminate[type.ordinal()] = type.isTerminal();
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (OrderStateType type : TYPES) {
+                int index = type.ordinal();
+                if (canTerminate[index]) {
+                    continue;
+                }
+                if ((nextStates[index] != null && canTerminate[nextStates[index].getStateType().ordinal()])
+                        || (cancelStates[index] != null && canTerminate[cancelStates[index].getStateType().ordinal()])) {
+                    canTerminate[index] = true;
+                    changed = true;
+                }
+            }
+        }
+
+        for (OrderStateType type : TYPES) {
+            if (!reachable[type.ordinal()]) {
+                errors.add(type + " 상태는 " + INITIAL_STATE_TYPE + "에서 도달할 수 없습니다.");
+            }
+            if (!canTerminate[type.ordinal()]) {
+                errors.add(type + " 상태에서 종료 상태에 도달할 수 없습니다.");
+            }
+        }
+    }
+
+    private int countTransitions() {
+        int count = 0;
+        for (int i = 0; i < TYPES.length; i++) {
+            count += (nextStates[i] != null ? 1 : 0) + (cancelStates[i] != null ? 1 : 0);
+        }
+        return count;
+    }
+
+}
@@ -1,9 +1,7 @@
 package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
 
-import java.util.Arrays;
 import java.util.List;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
@@ -22,36 +20,46 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Component
-public class PackagingState implements OrderState {
+public class PackagingState extends AbstractOrderState {
 
-    @Autowired
-    private DeliveryState deliveryState;
+    /**
+     * 가능한 액션 목록 (모든 주문이 공유하는 불변 목록)
+     */
+    private static final List<String> AVAILABLE_ACTIONS = List.of(
+        "다음 단계 진행 (배달 시작)",
+        "포장 상태 확인",
+        "배달 준비 상태 확인"
+    );
 
     @Override
     public boolean nextStep(OrderContext context) {
-        log.info("🚗 배달 단계로 진행 - 주문ID: {}", context.getOrder().getOrderId());
+        log.debug("🚗 배달 단계로 진행 - 주문ID: {}", context.getOrderId());
         
         // 포장 완료 후 배달 단계로 상태 변경
-        context.changeState(deliveryState, "포장 완료, 배달 시작");
-        
-        return true;
+        return advance(context);
     }
 
     @Override
     public boolean cancel(OrderContext context) {
-        log.warn("❌ 포장 중 상태에서는 취소가 불가능합니다 - 주문ID: {}", context.getOrder().getOrderId());
+        log.warn("❌ 포장 중 상태에서는 취소가 불가능합니다 - 주문ID: {}", context.getOrderId());
         
         // 포장 중에는 취소 불가능
         return false;
     }
 
+    @Override
+    public OrderStateType getNextStateType() {
+        return OrderStateType.DELIVERY;
+    }
+
+    @Override
+    public String getNextStepReason() {
+        return "포장 완료, 배달 시작";
+    }
+
     @Override
     public List<String> getAvailableActions() {
-        return Arrays.asList(
-            "다음 단계 진행 (배달 시작)",
-            "포장 상태 확인",
-            "배달 준비 상태 확인"
-        );
+        return AVAILABLE_ACTIONS;
     }
 
     @Override
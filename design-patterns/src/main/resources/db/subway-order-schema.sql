@@ -0,0 +1,25 @@
+-- 서브웨이 주문 영속화 (subway.order.persistence.enabled=true, init-schema=true 일 때 시작 시 실행)
+
+CREATE TABLE IF NOT EXISTS SUBWAY_ORDER (
+    ORDER_ID          VARCHAR(20)  NOT NULL PRIMARY KEY,
+    CUSTOMER_NAME     VARCHAR(100),
+    MENU_NAME         VARCHAR(100),
+    QUANTITY          INT,
+    TOTAL_PRICE       INT,
+    DELIVERY_ADDRESS  VARCHAR(255),
+    PHONE_NUMBER      VARCHAR(30),
+    SPECIAL_REQUEST   VARCHAR(255),
+    CREATED_AT        TIMESTAMP,
+    CURRENT_STATE     VARCHAR(20)  NOT NULL,
+    VERSION           BIGINT       NOT NULL,
+    STATE_CHANGED_AT  TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS SUBWAY_ORDER_TRANSITION (
+    ORDER_ID    VARCHAR(20)  NOT NULL,
+    VERSION     BIGINT       NOT NULL,
+    STATE       VARCHAR(20)  NOT NULL,
+    REASON      VARCHAR(100),
+    CHANGED_AT  TIMESTAMP    NOT NULL,
+    PRIMARY KEY (ORDER_ID, VERSION)
+);
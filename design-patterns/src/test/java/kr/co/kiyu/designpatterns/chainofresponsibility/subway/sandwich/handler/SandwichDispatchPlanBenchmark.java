@@ -0,0 +1,120 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand.Type;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+
+/**
+ * 샌드위치 핸들러 디스패치 비용 측정 (JMH)
+ *
+ * 체인 길이를 늘려 가며, 명령마다 체인을 끝까지 따라가며 canHandle()을 묻는 handle()과
+ * 유형별로 미리 컴파일한 SandwichDispatchPlan.dispatch()의 레시피 한 벌 처리 시간을 잰다
+ * 핸들러는 네 유형을 돌아가며 하나씩 맡고 준비/조립은 아무것도 하지 않으므로, 디스패치 비용만 남는다
+ * 테스트 단계에서는 실행되지 않으며, 아래처럼 직접 실행한다
+ *
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler.SandwichDispatchPlanBenchmark
+ * </pre>
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SandwichDispatchPlanBenchmark {
+
+    private static final List<SandwichCommand> RECIPE = List.of(
+            new SandwichCommand(Type.BREAD, "WHEAT", 1),
+            new SandwichCommand(Type.CHEESE, "AMERICAN_CHEESE", 2),
+            new SandwichCommand(Type.VEGETABLE, "LETTUCE", 1),
+            new SandwichCommand(Type.VEGETABLE, "TOMATO", 1),
+            new SandwichCommand(Type.SAUCE, "MAYO", 1));
+
+    @Param({"4", "16", "64", "256"})
+    public int chainLength;
+
+    private SandwichHandler head;
+
+    private SandwichDispatchPlan plan;
+
+    private SandwichDTO sandwich;
+
+    @Setup
+    public void setUp() {
+        Type[] types = Type.values();
+        SandwichHandler[] handlers = new SandwichHandler[chainLength];
+        for (int i = 0; i < chainLength; i++) {
+            handlers[i] = new NoOpHandler(types[i % types.length]);
+            if (i > 0) {
+                handlers[i - 1].setNext(handlers[i]);
+            }
+        }
+        head = handlers[0];
+        plan = SandwichDispatchPlan.compile(head);
+        sandwich = new SandwichDTO();
+    }
+
+    @Benchmark
+    public SandwichDTO chainWalk() {
+        for (SandwichCommand command : RECIPE) {
+            head.handle(command, sandwich);
+        }
+        return sandwich;
+    }
+
+    @Benchmark
+    public SandwichDTO compiledPlan() {
+        for (SandwichCommand command : RECIPE) {
+            plan.dispatch(command, sandwich);
+        }
+        return sandwich;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SandwichDispatchPlanBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * 한 유형을 맡고 아무것도 올리지 않는 핸들러
+     */
+    private static final class NoOpHandler extends SandwichHandler {
+
+        private NoOpHandler(Type type) {
+            super(type);
+        }
+
+        @Override
+        protected SandwichAssembly prepare(SandwichCommand command) {
+            return SandwichAssembly.NONE;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand.Type;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+
+/**
+ * 샌드위치 핸들러 디스패치 계획 테스트
+ *
+ * 유형별로 컴파일한 계획이 체인을 끝까지 따라가는 handle()과 같은 핸들러를 실행하는지,
+ * PRE → MAIN → POST 순서와 getOrder() 순서를 지키는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class SandwichDispatchPlanTest {
+
+    private final List<String> applied = new ArrayList<>();
+
+    @Test
+    void dispatchRunsSameHandlersAsChainWalk() {
+        SandwichHandler head = chain(
+                new RecordingHandler("bread", SandwichHandler.Stage.MAIN, 0, Type.BREAD),
+                new RecordingHandler("audit", SandwichHandler.Stage.POST, 2, Type.values()),
+                new RecordingHandler("toppings", SandwichHandler.Stage.MAIN, 0, Type.CHEESE, Type.VEGETABLE),
+                new RecordingHandler("allergy", SandwichHandler.Stage.PRE, 1, Type.CHEESE),
+                new RecordingHandler("price", SandwichHandler.Stage.POST, 1, Type.CHEESE, Type.SAUCE),
+                new RecordingHandler("noJalapeno", SandwichHandler.Stage.MAIN, 0, Type.VEGETABLE) {
+                    @Override
+                    protected boolean canHandle(SandwichCommand command) {
+                        return super.canHandle(command) && !"JALAPENO".equals(command.getValue());
+                    }
+                });
+        SandwichDispatchPlan plan = SandwichDispatchPlan.compile(head);
+
+        List<SandwichCommand> recipe = List.of(
+                new SandwichCommand(Type.BREAD, "WHEAT", 1),
+                new SandwichCommand(Type.CHEESE, "AMERICAN_CHEESE", 2),
+                new SandwichCommand(Type.VEGETABLE, "LETTUCE", 1),
+                new SandwichCommand(Type.VEGETABLE, "JALAPENO", 1),
+                new SandwichCommand(Type.SAUCE, "MAYO", 1));
+
+        for (SandwichCommand command : recipe) {
+            head.handle(command, new SandwichDTO());
+        }
+        List<String> walked = new ArrayList<>(applied);
+        applied.clear();
+
+        for (SandwichCommand command : recipe) {
+            plan.dispatch(command, new SandwichDTO());
+        }
+
+        // 체인 순서와 달리 단계별로 실행되므로, 명령마다 같은 핸들러가 실행되는지와 단계 순서를 따로 확인한다
+        assertThat(applied).containsExactlyInAnyOrderElementsOf(walked);
+        assertThat(applied).containsExactly(
+                "bread:WHEAT", "audit:WHEAT",
+                "allergy:AMERICAN_CHEESE", "toppings:AMERICAN_CHEESE", "price:AMERICAN_CHEESE", "audit:AMERICAN_CHEESE",
+                "toppings:LETTUCE", "noJalapeno:LETTUCE", "audit:LETTUCE",
+                "toppings:JALAPENO", "audit:JALAPENO",
+                "price:MAYO", "audit:MAYO");
+    }
+
+    @Test
+    void typeWithoutHandlerIsIgnored() {
+        SandwichDispatchPlan plan = SandwichDispatchPlan.compile(
+                chain(new RecordingHandler("bread", SandwichHandler.Stage.MAIN, 0, Type.BREAD)));
+
+        plan.dispatch(new SandwichCommand(Type.SAUCE, "MAYO", 1), new SandwichDTO());
+
+        assertThat(plan.getRoute(Type.SAUCE)).isEmpty();
+        assertThat(applied).isEmpty();
+    }
+
+    @Test
+    void cyclicChainIsRejected() {
+        SandwichHandler first = new RecordingHandler("first", SandwichHandler.Stage.MAIN, 0, Type.BREAD);
+        SandwichHandler second = new RecordingHandler("second", SandwichHandler.Stage.MAIN, 0, Type.CHEESE);
+        first.setNext(second).setNext(first);
+
+        assertThatThrownBy(() -> SandwichDispatchPlan.compile(first))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static SandwichHandler chain(SandwichHandler... handlers) {
+        for (int i = 0; i + 1 < handlers.length; i++) {
+            handlers[i].setNext(handlers[i + 1]);
+        }
+        return handlers[0];
+    }
+
+    /**
+     * 실행된 핸들러를 "이름:재료"로 기록하는 테스트 핸들러
+     */
+    private class RecordingHandler extends SandwichHandler {
+
+        private final String name;
+
+        private final Stage stage;
+
+        private final int order;
+
+        private RecordingHandler(String name, Stage stage, int order, Type... handledTypes) {
+            super(handledTypes);
+            this.name = name;
+            this.stage = stage;
+            this.order = order;
+        }
+
+        @Override
+        public Stage getStage() {
+            return stage;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        protected SandwichAssembly prepare(SandwichCommand command) {
+            return sandwich -> applied.add(name + ":" + command.getValue());
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SandwichBuilderByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.builder.SandwichDirectorByChainOfResponsibility;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.command.SandwichCommand;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.kitchen.SandwichKitchen;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.dto.SandwichDTO;
+import kr.co.kiyu.designpatterns.chainofresponsibility.subway.sandwich.model.type.KitchenStationType;
+
+/**
+ * 샌드위치 파이프라인 동시 주문 테스트
+ *
+ * 여러 요청 스레드가 파이프라인 하나를 함께 쓰며 서로 다른 메뉴를 동시에 만들어도
+ * 각 샌드위치에 다른 주문의 재료가 섞이지 않는지 확인한다 (요청마다 빌더 세션, 주문 간 준비 묶음 포함)
+ * 준비 시간 배율을 0으로 두어 대기 없이 수천 건을 한꺼번에 흘려, 스테이션과 묶음 처리기가 실제로 경합하게 한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class SandwichPipelineConcurrencyTest {
+
+    private static final int ORDERS_PER_MENU = 1000;
+
+    private static final int REQUEST_THREADS = 64;
+
+    private final SandwichDirectorByChainOfResponsibility director = new SandwichDirectorByChainOfResponsibility();
+
+    private final Map<String, Function<SandwichBuilderByChainOfResponsibility, SandwichDTO>> menus = Map.of(
+            "chickenTeriyaki", director::buildChickenTeriyaki,
+            "veggieDelight", director::buildVeggieDelight,
+            "spicyItalian", director::buildSpicyItalian,
+            "chickenBaconAvocado", director::buildChickenBaconAvocado,
+            "pulledPorkBBQ", director::buildPulledPorkBBQ,
+            "shrimp", director::buildShrimp);
+
+    /** 준비한 명령 수 */
+    private final AtomicLong preparedCommands = new AtomicLong();
+
+    /** prepareBatch() 호출 수 (묶이면 준비한 명령 수보다 작다) */
+    private final AtomicLong preparedBatches = new AtomicLong();
+
+    private SandwichKitchen kitchen;
+
+    private SandwichPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        kitchen = new SandwichKitchen(4, 64, 2, 64, 10, 128, 2, 64, 5000);
+        pipeline = new SandwichPipeline(counting(new BreadHandler()), counting(new CheeseHandler()),
+                counting(new VegetableHandler()), counting(new SauceHandler()), kitchen, true, 4, true, 5, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+        kitchen.close();
+    }
+
+    @Test
+    void concurrentOrdersDoNotMixIngredients() throws Exception {
+        // 메뉴별 기준 샌드위치는 다른 주문 없이 하나씩 만든다
+        Map<String, SandwichDTO> expected = new HashMap<>();
+        menus.forEach((menu, recipe) -> expected.put(menu, recipe.apply(pipeline.newBuilder())));
+        preparedCommands.set(0);
+        preparedBatches.set(0);
+
+        List<String> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_MENU; i++) {
+            orders.addAll(menus.keySet());
+        }
+        Collections.shuffle(orders, new Random(3));
+
+        ExecutorService requests = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<SandwichDTO>> results = new ArrayList<>();
+            for (String menu : orders) {
+                results.add(requests.submit(() -> {
+                    start.await();
+                    return menus.get(menu).apply(pipeline.newBuilder());
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < orders.size(); i++) {
+                String menu = orders.get(i);
+                assertThat(results.get(i).get(60, TimeUnit.SECONDS))
+                        .as("%d번째 주문 (%s)", i, menu)
+                        .isEqualTo(expected.get(menu));
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+
+        // 같은 준비가 주문 간에 묶였는지 (묶음 하나에 최대 8건)
+        assertThat(preparedBatches.get()).isLessThan(preparedCommands.get());
+    }
+
+    /**
+     * 준비 시간 없이 동작하고, 준비한 명령 수와 묶음 수를 세는 핸들러로 감싼다.
+     */
+    private SandwichHandler counting(SandwichHandler handler) {
+        handler.setPrepTimeScale(0);
+        return new SandwichHandler(handler.getHandledTypes().toArray(new SandwichCommand.Type[0])) {
+
+            @Override
+            public KitchenStationType getStation() {
+                return handler.getStation();
+            }
+
+            @Override
+            public Object getBatchKey(SandwichCommand command) {
+                return handler.getBatchKey(command);
+            }
+
+            @Override
+            protected SandwichAssembly prepare(SandwichCommand command) {
+                return prepareBatch(Collections.singletonList(command)).get(0);
+            }
+
+            @Override
+            protected List<SandwichAssembly> prepareBatch(List<SandwichCommand> commands) {
+                preparedBatches.incrementAndGet();
+                preparedCommands.addAndGet(commands.size());
+                return handler.prepareBatch(commands);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,160 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderStateEventDTO;
+
+/**
+ * SSE 구독자 버퍼 테스트
+ *
+ * 같은 주문의 이벤트가 순서가 뒤바뀌어 들어와도 구독자에게는 버전이 올라가는 순서로만 나가는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderEventSubscriberTest {
+
+    @Test
+    void pendingEventKeepsHigherVersion() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        Queue<Runnable> sender = new ArrayDeque<>();
+        OrderEventSubscriber subscriber = new OrderEventSubscriber(emitter, 1L, 8, sender::add);
+
+        subscriber.offer(1L, event(1L, 4));
+        subscriber.offer(1L, event(1L, 3)); // 늦게 도착한 이전 버전
+        subscriber.offer(2L, event(2L, 1));
+        runAll(sender);
+
+        assertThat(emitter.ids).containsExactly("1:4", "2:1");
+    }
+
+    @Test
+    void eventOlderThanSentVersionIsDropped() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        OrderEventSubscriber subscriber = new OrderEventSubscriber(emitter, 1L, 8, Runnable::run);
+
+        subscriber.offer(1L, event(1L, 4));
+        subscriber.offer(1L, event(1L, 3));
+        subscriber.offer(1L, event(1L, 4));
+        subscriber.offer(1L, event(1L, 5));
+
+        assertThat(emitter.ids).containsExactly("1:4", "1:5");
+    }
+
+    @Test
+    void interleavedOffersAreSentInVersionOrder() throws Exception {
+        int orders = 16;
+        long versions = 200;
+        RecordingEmitter emitter = new RecordingEmitter();
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        ExecutorService listeners = Executors.newFixedThreadPool(8);
+        try {
+            OrderEventSubscriber subscriber = OrderEventSubscriber.forAllOrders(emitter, orders, sender);
+
+            // 리스너 스레드마다 주문/버전을 섞은 순서로 넣는다
+            List<OrderStateEventDTO> events = new ArrayList<>();
+            for (long order = 1; order <= orders; order++) {
+                for (long version = 1; version <= versions; version++) {
+                    events.add(event(order, version));
+                }
+            }
+            Collections.shuffle(events, new Random(42));
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> offers = new ArrayList<>();
+            int threads = 8;
+            for (int t = 0; t < threads; t++) {
+                List<OrderStateEventDTO> slice = events.subList(events.size() * t / threads, events.size() * (t + 1) / threads);
+                offers.add(listeners.submit(() -> {
+                    start.await();
+                    for (OrderStateEventDTO event : slice) {
+                        subscriber.offer(Long.parseLong(event.getOrderId()), event);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> offer : offers) {
+                offer.get(10, TimeUnit.SECONDS);
+            }
+            // 모든 주문의 마지막 버전을 한 번 더 넣어, 앞에서 병합되었어도 마지막 버전은 반드시 나가게 한다
+            for (long order = 1; order <= orders; order++) {
+                subscriber.offer(order, event(order, versions));
+            }
+            // 전송 스레드가 끝나며 다시 예약한 전송까지 기다린다
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (emitter.ids.stream().filter(id -> id.endsWith(":" + versions)).count() < orders
+                    && System.nanoTime() < deadline) {
+                sender.submit(() -> { }).get(10, TimeUnit.SECONDS);
+            }
+
+            Map<String, Long> lastSent = new HashMap<>();
+            for (String id : emitter.ids) {
+                String[] parts = id.split(":");
+                long version = Long.parseLong(parts[1]);
+                Long previous = lastSent.put(parts[0], version);
+                if (previous != null) {
+                    assertThat(version).as("주문 %s", parts[0]).isGreaterThan(previous);
+                }
+            }
+            assertThat(lastSent).hasSize(orders).allSatisfy((order, version) -> assertThat(version).isEqualTo(versions));
+        } finally {
+            listeners.shutdownNow();
+            sender.shutdownNow();
+        }
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static OrderStateEventDTO event(long orderKey, long version) {
+        return OrderStateEventDTO.builder()
+                .orderId(String.valueOf(orderKey))
+                .version(version)
+                .build();
+    }
+
+    /**
+     * 보낸 이벤트의 id만 기록하는 SSE 연결
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                String text = String.valueOf(part.getData());
+                for (String line : text.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        ids.add(line.substring(3));
+                    }
+                }
+            }
+        }
+
+    }
+
+}
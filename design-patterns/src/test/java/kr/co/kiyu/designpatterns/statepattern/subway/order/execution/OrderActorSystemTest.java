@@ -0,0 +1,38 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * actor 방식 주문 명령 실행기 테스트
+ *
+ * 실행기가 종료되어 actor를 받아주지 않아도 명령 future가 실패로 끝나고, 같은 파티션의 다음 명령도 멈추지 않는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderActorSystemTest {
+
+    @Test
+    void commandsAfterCloseFailInsteadOfHanging() throws Exception {
+        OrderActorSystem system = new OrderActorSystem(1, 1, 64);
+        assertThat(system.submit(1L, () -> "before").get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        system.close();
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<String> future = system.submit(1L, () -> "after");
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RejectedExecutionException.class);
+        }
+        assertThat(system.getStats().getPending()).isZero();
+    }
+
+}
@@ -0,0 +1,91 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.id;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 주문 ID 생성기 처리량 측정 (JMH)
+ *
+ * 스레드 수를 늘려 가며 CAS 경합 중의 발급 처리량과 외부 표현 변환 비용을 잰다
+ * 테스트 단계에서는 실행되지 않으며, 아래처럼 직접 실행한다
+ *
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGeneratorBenchmark
+ * </pre>
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIdGeneratorBenchmark {
+
+    private OrderIdGenerator generator;
+
+    private long sampleId;
+
+    private String sampleOrderId;
+
+    @Setup
+    public void setUp() {
+        generator = new OrderIdGenerator(1);
+        sampleId = generator.nextId();
+        sampleOrderId = OrderIdGenerator.format(sampleId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdSingleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdFourThreads() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long nextIdAllCores() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String format() {
+        return OrderIdGenerator.format(sampleId);
+    }
+
+    @Benchmark
+    public long parse() {
+        return OrderIdGenerator.parse(sampleOrderId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderIdGeneratorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,149 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 주문 ID 생성기 테스트
+ *
+ * 여러 스레드가 CAS로 경합해도 ID가 겹치지 않는지, 같은 ms의 순번을 다 쓰거나 시계가 뒤로 가도
+ * 다음 ms를 당겨 써서 ID가 계속 커지는지, Base32 외부 표현이 원래 값으로 돌아오는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderIdGeneratorTest {
+
+    /** 2026-10-18T00:00:00Z */
+    private static final long NOW = 1792281600000L;
+
+    private static final int SEQUENCE_PER_MS = 4096;
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        OrderIdGenerator generator = new OrderIdGenerator(7);
+        int threads = 8;
+        int idsPerThread = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> unique = new HashSet<>(threads * idsPerThread * 2);
+            for (Future<long[]> result : results) {
+                long previous = -1L;
+                for (long id : result.get(30, TimeUnit.SECONDS)) {
+                    // 한 스레드가 받은 ID는 발급 순서대로 커진다
+                    assertThat(id).isGreaterThan(previous);
+                    previous = id;
+                    unique.add(id);
+                }
+            }
+            assertThat(unique).hasSize(threads * idsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsNextMillisecond() {
+        OrderIdGenerator generator = new OrderIdGenerator(3, () -> NOW);
+
+        long last = -1L;
+        for (int i = 0; i < SEQUENCE_PER_MS; i++) {
+            last = generator.nextId();
+            assertThat(OrderIdGenerator.extractTimestamp(last)).isEqualTo(NOW);
+        }
+        assertThat(last & (SEQUENCE_PER_MS - 1)).isEqualTo(SEQUENCE_PER_MS - 1);
+
+        // 시계는 그대로지만 순번을 다 썼으므로 잠들지 않고 다음 ms의 0번을 쓴다
+        long borrowed = generator.nextId();
+        assertThat(OrderIdGenerator.extractTimestamp(borrowed)).isEqualTo(NOW + 1);
+        assertThat(borrowed & (SEQUENCE_PER_MS - 1)).isZero();
+        assertThat((borrowed >>> 12) & 1023).isEqualTo(3);
+        assertThat(generator.nextId()).isEqualTo(borrowed + 1);
+    }
+
+    @Test
+    void clockStepBackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderIdGenerator generator = new OrderIdGenerator(0, clock::get);
+
+        long beforeStepBack = generator.nextId();
+        clock.set(NOW - 5_000);
+        long afterStepBack = generator.nextId();
+
+        // 역행한 시각을 쓰지 않고 마지막 ms에 이어서 발급한다
+        assertThat(afterStepBack).isEqualTo(beforeStepBack + 1);
+        assertThat(OrderIdGenerator.extractTimestamp(afterStepBack)).isEqualTo(NOW);
+
+        clock.set(NOW + 1);
+        long recovered = generator.nextId();
+        assertThat(recovered).isGreaterThan(afterStepBack);
+        assertThat(OrderIdGenerator.extractTimestamp(recovered)).isEqualTo(NOW + 1);
+    }
+
+    @Test
+    void formatAndParseRoundTrip() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextLong() >>> 1;
+            String orderId = OrderIdGenerator.format(id);
+            assertThat(orderId).hasSize(17).startsWith("ORD-");
+            assertThat(OrderIdGenerator.parse(orderId)).isEqualTo(id);
+            assertThat(OrderIdGenerator.parse(orderId.toLowerCase().replace("ord-", "ORD-"))).isEqualTo(id);
+        }
+        assertThat(OrderIdGenerator.parse(OrderIdGenerator.format(0L))).isZero();
+        assertThat(OrderIdGenerator.parse(OrderIdGenerator.format(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void firstCharacterCarriesOnlyThreeBits() {
+        // 13자리 * 5비트 = 65비트, 첫 자리는 부호 비트를 뺀 3비트(0~7)만 쓴다
+        assertThat(OrderIdGenerator.format(Long.MAX_VALUE)).isEqualTo("ORD-7ZZZZZZZZZZZZ");
+        assertThat(OrderIdGenerator.parse("ORD-7ZZZZZZZZZZZZ")).isEqualTo(Long.MAX_VALUE);
+        assertThat(OrderIdGenerator.parse("ORD-8000000000000")).isEqualTo(-1L);
+        assertThat(OrderIdGenerator.parse("ORD-Z000000000000")).isEqualTo(-1L);
+    }
+
+    @Test
+    void malformedOrderIdsAreRejected() {
+        assertThat(OrderIdGenerator.parse(null)).isEqualTo(-1L);
+        assertThat(OrderIdGenerator.parse("ORD-000000000001")).isEqualTo(-1L);
+        assertThat(OrderIdGenerator.parse("ORX-0000000000001")).isEqualTo(-1L);
+        assertThat(OrderIdGenerator.parse("ORD-000000000000U")).isEqualTo(-1L);
+        assertThat(OrderIdGenerator.parse("ORD-00000000000가1")).isEqualTo(-1L);
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> new OrderIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OrderIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
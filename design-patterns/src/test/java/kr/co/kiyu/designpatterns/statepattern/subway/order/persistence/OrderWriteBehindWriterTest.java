@@ -0,0 +1,184 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CancelledState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CompletedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CookingState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.DeliveryState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderReceivedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.PackagingState;
+
+/**
+ * 주문 write-behind 기록기 테스트
+ *
+ * H2 메모리 DB에 기록하며 묶음 합치기(생성은 INSERT, 이후 전환은 UPDATE), 늦게 온 이전 버전을 막는 VERSION 조건,
+ * 실패한 묶음의 재시도와 트랜잭션 되돌림, 재시도를 넘긴 묶음에서 잘못된 기록 하나만 버리는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderWriteBehindWriterTest {
+
+    private static final int MAX_RETRIES = 5;
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(
+            new OrderReceivedState(), new CookingState(), new PackagingState(),
+            new DeliveryState(), new CompletedState(), new CancelledState()));
+
+    private JdbcTemplate jdbc;
+
+    private OrderWriteBehindWriter writer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+
+        jdbc = new JdbcTemplate(dataSource);
+        // 자동 기록 주기는 길게 두고 flush()를 직접 호출한다
+        writer = new OrderWriteBehindWriter(factoryBean.getObject(), dataSource,
+                new DataSourceTransactionManager(dataSource), 3_600_000L, 1000, 1000, true);
+        writer.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void batchIsMergedPerOrder() {
+        OrderContext first = order(1L, writer);
+        OrderContext second = order(2L, writer);
+        first.nextStep();
+        first.nextStep();
+        writer.flush();
+
+        // 같은 묶음의 생성 + 전환은 마지막 상태로 INSERT 한 번, 이력은 모두 남는다
+        assertOrder(first, "PACKAGING", 3);
+        assertOrder(second, "ORDER_RECEIVED", 1);
+        assertThat(transitionVersions(first)).containsExactly(1L, 2L, 3L);
+
+        // 이미 등록된 주문의 전환은 UPDATE
+        first.nextStep();
+        second.cancel();
+        writer.flush();
+
+        assertOrder(first, "DELIVERY", 4);
+        assertOrder(second, "CANCELLED", 2);
+        assertThat(transitionVersions(first)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(writer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void olderVersionDoesNotOverwriteNewerState() {
+        List<OrderStateSnapshot> changes = new ArrayList<>();
+        OrderStateChangeListener recorder = (context, previous, current, reason) -> changes.add(current);
+        OrderContext context = order(1L, recorder);
+        writer.flush();
+
+        context.nextStep();
+        context.nextStep();
+        // 리스너 호출이 엇갈려 버전 3이 먼저 기록되고 버전 2가 다음 묶음으로 늦게 온 경우
+        writer.onStateChanged(context, changes.get(0), changes.get(1), "조리 완료, 포장 시작");
+        writer.flush();
+        writer.onStateChanged(context, null, changes.get(0), "조리 시작");
+        writer.flush();
+
+        assertOrder(context, "PACKAGING", 3);
+        assertThat(transitionVersions(context)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void failedBatchIsRolledBackAndRetried() {
+        OrderContext context = order(1L, writer);
+        context.nextStep();
+        jdbc.execute("ALTER TABLE SUBWAY_ORDER_TRANSITION RENAME TO SUBWAY_ORDER_TRANSITION_MOVED");
+
+        writer.flush();
+
+        // 이력 INSERT가 실패하면 같은 트랜잭션의 주문 INSERT도 남지 않는다
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM SUBWAY_ORDER", Long.class)).isZero();
+        assertThat(writer.getPendingCount()).isEqualTo(2);
+
+        jdbc.execute("ALTER TABLE SUBWAY_ORDER_TRANSITION_MOVED RENAME TO SUBWAY_ORDER_TRANSITION");
+        writer.flush();
+
+        assertOrder(context, "COOKING", 2);
+        assertThat(transitionVersions(context)).containsExactly(1L, 2L);
+        assertThat(writer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void splitWriteDropsOnlyTheBadRecord() {
+        OrderContext good = order(1L, writer);
+        OrderContext bad = order(2L, writer, "가".repeat(150)); // CUSTOMER_NAME VARCHAR(100) 초과
+        OrderContext alsoGood = order(3L, writer);
+
+        for (int attempt = 1; attempt < MAX_RETRIES; attempt++) {
+            writer.flush();
+            assertThat(writer.getPendingCount()).as("%d번째 시도", attempt).isEqualTo(3);
+        }
+        writer.flush();
+
+        assertThat(writer.getPendingCount()).isZero();
+        assertOrder(good, "ORDER_RECEIVED", 1);
+        assertOrder(alsoGood, "ORDER_RECEIVED", 1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM SUBWAY_ORDER WHERE ORDER_ID = ?", Long.class,
+                bad.getOrderId())).isZero();
+    }
+
+    private OrderContext order(long key, OrderStateChangeListener listener) {
+        return order(key, listener, "고객" + key);
+    }
+
+    private OrderContext order(long key, OrderStateChangeListener listener, String customerName) {
+        OrderDTO order = OrderDTO.builder()
+                .orderId(OrderIdGenerator.format(key))
+                .customerName(customerName)
+                .menuName("이탈리안 BMT")
+                .quantity(1)
+                .totalPrice(8900)
+                .createdAt(LocalDateTime.now())
+                .build();
+        OrderContext context = new OrderContext(order, stateMachine.getInitialState(), listener);
+        writer.onOrderCreated(context);
+        return context;
+    }
+
+    private void assertOrder(OrderContext context, String state, long version) {
+        assertThat(jdbc.queryForMap("SELECT CURRENT_STATE, VERSION FROM SUBWAY_ORDER WHERE ORDER_ID = ?",
+                context.getOrderId()))
+                .containsEntry("CURRENT_STATE", state)
+                .containsEntry("VERSION", version);
+    }
+
+    private List<Long> transitionVersions(OrderContext context) {
+        return jdbc.queryForList("SELECT VERSION FROM SUBWAY_ORDER_TRANSITION WHERE ORDER_ID = ? ORDER BY VERSION",
+                Long.class, context.getOrderId());
+    }
+
+}
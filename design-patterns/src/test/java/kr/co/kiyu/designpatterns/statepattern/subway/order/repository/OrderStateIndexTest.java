@@ -0,0 +1,179 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CancelledState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CompletedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CookingState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.DeliveryState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderReceivedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.PackagingState;
+
+/**
+ * 주문 상태별 보조 색인 테스트
+ *
+ * 상태 변경 이벤트가 늦게 오거나 순서가 바뀌어 도착해도 주문이 한 상태에만 색인되는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderStateIndexTest {
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(
+            new OrderReceivedState(), new CookingState(), new PackagingState(),
+            new DeliveryState(), new CompletedState(), new CancelledState()));
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository();
+
+    private final OrderStateIndex index = new OrderStateIndex(repository);
+
+    /** 리스너 호출 대신 모아 두었다가 원하는 순서로 색인에 전달할 상태 변경 이벤트 */
+    private final ConcurrentLinkedQueue<StateChange> changes = new ConcurrentLinkedQueue<>();
+
+    private final OrderStateChangeListener recorder =
+            (context, previous, current, reason) -> changes.add(new StateChange(context, previous, current, reason));
+
+    @Test
+    void laterEventArrivingFirstMovesOrderOutOfIndexedState() {
+        OrderContext context = order(1L);
+        index.onOrderCreated(context);
+        context.nextStep();
+        context.nextStep();
+        StateChange toCooking = changes.poll();
+        StateChange toPackaging = changes.poll();
+
+        // 조리 중 → 포장 중 이벤트가 먼저 오면, 색인된 접수 상태에서 빼야 한다 (이벤트의 이전 상태는 조리 중)
+        deliver(toPackaging);
+        assertThat(index.count(OrderStateType.ORDER_RECEIVED)).isZero();
+        assertThat(index.count(OrderStateType.COOKING)).isZero();
+        assertThat(index.count(OrderStateType.PACKAGING)).isEqualTo(1);
+
+        // 늦게 온 접수 → 조리 중 이벤트는 아무것도 바꾸지 않는다
+        deliver(toCooking);
+        assertThat(index.getCounts().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+        assertThat(index.findByState(OrderStateType.PACKAGING, -1, 10)).containsExactly(context);
+    }
+
+    @Test
+    void unindexRemovesFromIndexedStateRegardlessOfEventState() {
+        OrderContext context = order(1L);
+        index.onOrderCreated(context);
+        context.nextStep();
+        deliver(changes.poll());
+
+        // 이벤트가 알려 준 상태가 색인된 상태와 달라도 색인된 상태에서 뺀다
+        index.onOrderTransferredOut(context.getOrderKey(), OrderStateType.ORDER_RECEIVED);
+
+        assertThat(index.getCounts()).allSatisfy((type, count) -> assertThat(count).as(type.name()).isZero());
+    }
+
+    @Test
+    void shuffledConcurrentEventsKeepOneStatePerOrder() throws Exception {
+        int orders = 2_000;
+        List<OrderContext> contexts = new ArrayList<>();
+        for (long key = 1; key <= orders; key++) {
+            OrderContext context = order(key);
+            contexts.add(context);
+            // 접수 → 조리 → 포장 → 배달, 일부는 접수 단계에서 취소
+            if (key % 5 == 0) {
+                context.cancel();
+            } else {
+                context.nextStep();
+                context.nextStep();
+                context.nextStep();
+            }
+        }
+        List<Runnable> events = new ArrayList<>();
+        contexts.forEach(context -> events.add(() -> index.onOrderCreated(context)));
+        changes.forEach(change -> events.add(() -> deliver(change)));
+        Collections.shuffle(events, new Random(11));
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = offset; i < events.size(); i += threads) {
+                        events.get(i).run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<OrderStateType, Long> counts = index.getCounts();
+        assertThat(counts.get(OrderStateType.CANCELLED)).isEqualTo(orders / 5);
+        assertThat(counts.get(OrderStateType.DELIVERY)).isEqualTo(orders - orders / 5);
+        assertThat(counts.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(orders);
+        assertThat(index.findByState(OrderStateType.DELIVERY, -1, orders)).hasSize(orders - orders / 5);
+    }
+
+    private void deliver(StateChange change) {
+        index.onStateChanged(change.context, change.previous, change.current, change.reason);
+    }
+
+    private OrderContext order(long key) {
+        OrderDTO order = OrderDTO.builder()
+                .orderId(OrderIdGenerator.format(key))
+                .customerName("고객" + key)
+                .menuName("이탈리안 BMT")
+                .quantity(1)
+                .totalPrice(8900)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return repository.save(new OrderContext(order, stateMachine.getInitialState(), recorder));
+    }
+
+    private static final class StateChange {
+
+        private final OrderContext context;
+
+        private final OrderStateSnapshot previous;
+
+        private final OrderStateSnapshot current;
+
+        private final String reason;
+
+        private StateChange(OrderContext context, OrderStateSnapshot previous, OrderStateSnapshot current,
+                            String reason) {
+            this.context = context;
+            this.previous = previous;
+            this.current = current;
+            this.reason = reason;
+        }
+
+    }
+
+}
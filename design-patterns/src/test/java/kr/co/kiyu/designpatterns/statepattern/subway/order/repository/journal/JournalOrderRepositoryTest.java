@@ -0,0 +1,269 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.repository.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateHistory;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderStateSnapshot;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangeListener;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.listener.OrderStateChangePublisher;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CancelledState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CompletedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CookingState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.DeliveryState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderReceivedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.PackagingState;
+
+/**
+ * 저널 기반 주문 저장소 복구 테스트
+ *
+ * 임시 디렉터리에 저널을 쓰고 다시 열어, 순서가 뒤바뀐 전환 레코드는 버전 순서로,
+ * 쓰다 만 레코드(잘림/CRC 불일치) 앞까지만, 스냅샷 + 이후 세그먼트는 빠짐없이 복구되는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class JournalOrderRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(
+            new OrderReceivedState(), new CookingState(), new PackagingState(),
+            new DeliveryState(), new CompletedState(), new CancelledState()));
+
+    private final List<JournalOrderRepository> opened = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(JournalOrderRepository::close);
+    }
+
+    @Test
+    void transitionsAreReplayedInVersionOrder() throws IOException {
+        String orderId = OrderIdGenerator.format(1L);
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            journal.append(OrderJournalCodec.TYPE_CREATE, OrderJournalCodec.encodeOrder(order(1L)));
+            // 리스너 호출이 엇갈려 나중 전환이 먼저 기록된 경우
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, transition(orderId, OrderStateType.PACKAGING, 3));
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, transition(orderId, OrderStateType.DELIVERY, 4));
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, transition(orderId, OrderStateType.COOKING, 2));
+        }
+
+        OrderContext recovered = open().findById(1L);
+
+        assertThat(recovered.getVersion()).isEqualTo(4);
+        assertThat(recovered.getCurrentStateType()).isEqualTo(OrderStateType.DELIVERY);
+        assertThat(states(recovered)).containsExactly(OrderStateType.ORDER_RECEIVED, OrderStateType.COOKING,
+                OrderStateType.PACKAGING, OrderStateType.DELIVERY);
+    }
+
+    @Test
+    void replayStopsAtCorruptedRecord() throws IOException {
+        long corruptedOffset = writeFourRecords();
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 세 번째 레코드 페이로드의 첫 바이트를 바꾼다
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, corruptedOffset + 5);
+            one.flip();
+            byte flipped = (byte) (one.get() ^ 0x5A);
+            channel.write(ByteBuffer.wrap(new byte[] {flipped}), corruptedOffset + 5);
+        }
+
+        OrderContext recovered = open().findById(1L);
+
+        // CRC가 맞지 않는 레코드와 그 뒤의 레코드는 적용하지 않는다
+        assertThat(recovered.getVersion()).isEqualTo(2);
+        assertThat(recovered.getCurrentStateType()).isEqualTo(OrderStateType.COOKING);
+    }
+
+    @Test
+    void replayStopsAtTruncatedRecord() throws IOException {
+        long truncatedOffset = writeFourRecords();
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+            // 세 번째 레코드를 쓰다가 멈춘 것처럼 파일을 자른다
+            channel.truncate(truncatedOffset + 8);
+        }
+
+        OrderContext recovered = open().findById(1L);
+
+        assertThat(recovered.getVersion()).isEqualTo(2);
+        assertThat(recovered.getCurrentStateType()).isEqualTo(OrderStateType.COOKING);
+    }
+
+    @Test
+    void snapshotAndLaterSegmentsAreRecovered() throws IOException {
+        JournalOrderRepository repository = open();
+        List<OrderContext> orders = new ArrayList<>();
+        for (long key = 1; key <= 5; key++) {
+            orders.add(create(repository, key));
+        }
+        orders.get(0).nextStep();
+        orders.get(1).nextStep();
+        orders.get(1).nextStep();
+        orders.get(2).cancel();
+
+        repository.snapshot();
+
+        // 스냅샷 이후의 변경은 새 세그먼트에만 남는다
+        orders.get(0).nextStep();
+        orders.get(3).nextStep();
+        orders.add(create(repository, 6L));
+        orders.get(5).nextStep();
+        repository.remove(5L);
+        repository.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+            assertThat(names).anyMatch(name -> name.endsWith(".snap"));
+            assertThat(names).doesNotContain(String.format("segment-%020d.log", 1L));
+        }
+
+        JournalOrderRepository reopened = open();
+
+        assertThat(reopened.count()).isEqualTo(5);
+        assertThat(reopened.findById(5L)).isNull();
+        for (OrderContext expected : orders) {
+            if (expected.getOrderKey() == 5L) {
+                continue;
+            }
+            OrderContext recovered = reopened.findById(expected.getOrderKey());
+            assertThat(recovered.getVersion()).as(expected.getOrderId()).isEqualTo(expected.getVersion());
+            assertThat(recovered.getCurrentStateType()).as(expected.getOrderId()).isEqualTo(expected.getCurrentStateType());
+            assertThat(states(recovered)).as(expected.getOrderId()).isEqualTo(states(expected));
+        }
+    }
+
+    @Test
+    void journalFailureFailsTransitionAfterNotifyingOtherListeners() throws IOException {
+        List<String> notified = new ArrayList<>();
+        JournalOrderRepository repository = open((context, previous, current, reason) -> notified.add(context.getOrderId()));
+        List<OrderContext> orders = new ArrayList<>();
+
+        // 다음 세그먼트 자리를 막아 세그먼트가 가득 차면 roll이 실패하게 한다
+        Files.createDirectory(directory.resolve(String.format("segment-%020d.log", 2L)));
+        assertThatThrownBy(() -> {
+            for (long key = 1; key < SEGMENT_SIZE; key++) {
+                orders.add(create(repository, key));
+            }
+        }).isInstanceOf(UncheckedIOException.class);
+
+        // 남은 공간에 전환 레코드가 하나쯤 더 들어갈 수 있으므로, 실패할 때까지 전환한다
+        List<OrderContext> attempted = new ArrayList<>();
+        assertThatThrownBy(() -> {
+            for (OrderContext context : orders) {
+                attempted.add(context);
+                context.nextStep();
+            }
+        }).isInstanceOf(UncheckedIOException.class);
+
+        // 기록에 실패한 전환도 다른 리스너에는 알린 뒤 호출자에게 실패로 돌아온다
+        OrderContext failed = attempted.get(attempted.size() - 1);
+        assertThat(failed.getCurrentStateType()).isEqualTo(OrderStateType.COOKING);
+        assertThat(notified).last().isEqualTo(failed.getOrderId());
+    }
+
+    /**
+     * 생성 + 전환 세 개를 기록하고, 세 번째 레코드(버전 3 전환)의 시작 위치를 돌려준다.
+     */
+    private long writeFourRecords() throws IOException {
+        String orderId = OrderIdGenerator.format(1L);
+        byte[] create = OrderJournalCodec.encodeOrder(order(1L));
+        byte[] cooking = transition(orderId, OrderStateType.COOKING, 2);
+        try (OrderJournal journal = new OrderJournal(directory, SEGMENT_SIZE)) {
+            journal.append(OrderJournalCodec.TYPE_CREATE, create);
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, cooking);
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, transition(orderId, OrderStateType.PACKAGING, 3));
+            journal.append(OrderJournalCodec.TYPE_TRANSITION, transition(orderId, OrderStateType.DELIVERY, 4));
+        }
+        // 레코드 = int 길이 | byte 타입 | 페이로드 | int CRC
+        return (9 + create.length) + (9 + cooking.length);
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-"))
+                    .sorted()
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private JournalOrderRepository open(OrderStateChangeListener... otherListeners) throws IOException {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        OrderStateChangePublisher publisher = new OrderStateChangePublisher(
+                beanFactory.getBeanProvider(OrderStateChangeListener.class));
+        JournalOrderRepository repository = new JournalOrderRepository(stateMachine, publisher,
+                directory.toString(), SEGMENT_SIZE / (1024 * 1024), 50, false, Long.MAX_VALUE);
+        beanFactory.registerSingleton("journalOrderRepository", repository);
+        for (int i = 0; i < otherListeners.length; i++) {
+            beanFactory.registerSingleton("listener" + i, otherListeners[i]);
+        }
+        repository.recover();
+        opened.add(repository);
+        this.publisher = publisher;
+        return repository;
+    }
+
+    private OrderStateChangePublisher publisher;
+
+    private OrderContext create(JournalOrderRepository repository, long key) {
+        return repository.save(new OrderContext(order(key), stateMachine.getInitialState(), publisher));
+    }
+
+    private static OrderDTO order(long key) {
+        return OrderDTO.builder()
+                .orderId(OrderIdGenerator.format(key))
+                .customerName("고객" + key)
+                .menuName("이탈리안 BMT")
+                .quantity(1)
+                .totalPrice(8900)
+                .currentState(OrderStateType.ORDER_RECEIVED)
+                .createdAt(CREATED_AT)
+                .stateChangedAt(CREATED_AT)
+                .build();
+    }
+
+    private static byte[] transition(String orderId, OrderStateType state, long version) {
+        return OrderJournalCodec.encodeTransition(orderId, state, CREATED_AT.plusMinutes(version), "테스트 전환", version);
+    }
+
+    private static List<OrderStateType> states(OrderContext context) {
+        OrderStateSnapshot snapshot = context.getSnapshot();
+        OrderStateHistory history = snapshot.getHistory();
+        List<OrderStateType> states = new ArrayList<>();
+        for (int i = 0; i < history.size(); i++) {
+            states.add(history.getState(i));
+        }
+        return states;
+    }
+
+}
@@ -0,0 +1,128 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 계층형 타이밍 휠 테스트
+ *
+ * 작은 휠(4칸 x 3단계 = 63 tick)로 타이머를 하위/상위 level과 범위 밖에 고루 꽂아,
+ * cascade를 거쳐도 만료 순서가 지켜지고 예약 시각보다 일찍 만료되지 않는지, 취소한 타이머는 바로 대기 수에서 빠지고 만료되지 않는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 1;
+
+    private HierarchicalTimingWheel<Integer> wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void timersCascadeAcrossLevelsInDeadlineOrder() {
+        Queue<Integer> expired = new ConcurrentLinkedQueue<>();
+        wheel = newWheel(expired::add);
+
+        // level 0(< 4 tick), level 1(< 16 tick), level 2(< 64 tick), 범위 밖(>= 64 tick)에 고루 꽂는다
+        int[] delaysMs = {45, 2, 130, 9, 21, 0, 70, 13, 100};
+        for (int delayMs : delaysMs) {
+            wheel.schedule(delayMs, delayMs);
+        }
+
+        awaitTrue(() -> expired.size() == delaysMs.length);
+        assertThat(expired).containsExactly(0, 2, 9, 13, 21, 45, 70, 100, 130);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void manyTimersExpireOnceAndNeverEarly() {
+        int count = 20_000;
+        long[] deadlines = new long[count];
+        AtomicLongArray expiredAt = new AtomicLongArray(count);
+        AtomicIntegerArray expireCount = new AtomicIntegerArray(count);
+        AtomicInteger total = new AtomicInteger();
+        wheel = newWheel(index -> {
+            expiredAt.set(index, System.nanoTime());
+            expireCount.incrementAndGet(index);
+            total.incrementAndGet();
+        });
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            long delayMs = random.nextInt(300);
+            deadlines[i] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+            wheel.schedule(i, delayMs);
+        }
+
+        awaitTrue(() -> total.get() == count);
+        assertThat(wheel.size()).isZero();
+        for (int i = 0; i < count; i++) {
+            assertThat(expireCount.get(i)).as("타이머 %d 만료 횟수", i).isEqualTo(1);
+            assertThat(expiredAt.get(i)).as("타이머 %d 만료 시각", i).isGreaterThanOrEqualTo(deadlines[i]);
+        }
+    }
+
+    @Test
+    void cancelledTimersLeaveSizeImmediatelyAndNeverExpire() {
+        Queue<Integer> expired = new ConcurrentLinkedQueue<>();
+        wheel = newWheel(expired::add);
+
+        List<HierarchicalTimingWheel.Timer<Integer>> timers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            timers.add(wheel.schedule(i, 20 + i % 50));
+        }
+        for (int i = 0; i < timers.size(); i += 2) {
+            assertThat(timers.get(i).cancel()).isTrue();
+            assertThat(timers.get(i).cancel()).isFalse();
+        }
+        // 버킷에 남아 있어도 대기 수에서는 바로 빠진다
+        assertThat(wheel.size()).isEqualTo(500);
+
+        awaitTrue(() -> wheel.size() == 0 && expired.size() == 500);
+        assertThat(expired).allMatch(index -> index % 2 == 1);
+
+        // 이미 만료된 타이머는 취소되지 않고 대기 수도 건드리지 않는다
+        assertThat(timers.get(1).cancel()).isFalse();
+        assertThat(timers.get(1).isCancelled()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    private static HierarchicalTimingWheel<Integer> newWheel(Consumer<Integer> expireHandler) {
+        return new HierarchicalTimingWheel<>(TICK_MS, 4, 3, expireHandler, "timing-wheel-test");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("10초 안에 끝나야 한다").isLessThan(deadline);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.execution.DirectOrderCommandExecutor;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.repository.InMemoryOrderRepository;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CancelledState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CompletedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.CookingState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.DeliveryState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderReceivedState;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachine;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.state.PackagingState;
+
+/**
+ * 주문 자동 진행기 테스트
+ *
+ * 수동 진행/취소/보관 시 이전 타이머가 바로 취소되어 주문당 대기 타이머가 하나를 넘지 않는지,
+ * 예약한 시간이 지나면 배달 중까지 자동으로 진행되는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderAutoProgressorTest {
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(
+            new OrderReceivedState(), new CookingState(), new PackagingState(),
+            new DeliveryState(), new CompletedState(), new CancelledState()));
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository();
+
+    private OrderAutoProgressor progressor;
+
+    @AfterEach
+    void tearDown() {
+        progressor.stop();
+    }
+
+    @Test
+    void transitionsCancelPreviousTimer() {
+        // 1분 = 1시간이라 테스트 중에는 만료되지 않는다
+        progressor = newProgressor(3_600_000L);
+
+        OrderContext first = order(1L);
+        OrderContext second = order(2L);
+        assertThat(progressor.getPendingCount()).isEqualTo(2);
+
+        // 조리 중, 포장 중으로 바뀔 때마다 이전 타이머를 취소하고 새로 하나만 꽂는다
+        first.nextStep();
+        first.nextStep();
+        assertThat(progressor.getPendingCount()).isEqualTo(2);
+
+        // 배달 중(0분)과 취소는 예약하지 않으므로 남은 타이머도 취소된다
+        first.nextStep();
+        second.cancel();
+        assertThat(progressor.getPendingCount()).isZero();
+    }
+
+    @Test
+    void archivedOrderTimerIsCancelled() {
+        progressor = newProgressor(3_600_000L);
+        OrderContext context = order(1L);
+
+        progressor.onOrderArchived(context.getOrderKey(), OrderStateType.ORDER_RECEIVED);
+
+        assertThat(progressor.getPendingCount()).isZero();
+    }
+
+    @Test
+    void expiredTimerAdvancesOrder() throws InterruptedException {
+        // 1분 = 2ms (접수 25분 → 50ms, 조리 15분 → 30ms, 포장 10분 → 20ms)
+        progressor = newProgressor(2L);
+        OrderContext context = order(1L);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (context.getCurrentStateType() != OrderStateType.DELIVERY && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(context.getCurrentStateType()).isEqualTo(OrderStateType.DELIVERY);
+        assertThat(progressor.getPendingCount()).isZero();
+    }
+
+    private OrderAutoProgressor newProgressor(long minuteMs) {
+        return new OrderAutoProgressor(repository, new DirectOrderCommandExecutor(), 1L, 64, 4, minuteMs);
+    }
+
+    private OrderContext order(long key) {
+        OrderDTO order = OrderDTO.builder()
+                .orderId(OrderIdGenerator.format(key))
+                .customerName("고객" + key)
+                .menuName("이탈리안 BMT")
+                .quantity(1)
+                .totalPrice(8900)
+                .createdAt(LocalDateTime.now())
+                .build();
+        OrderContext context = repository.save(new OrderContext(order, stateMachine.getInitialState(), progressor));
+        progressor.onOrderCreated(context);
+        return context;
+    }
+
+}
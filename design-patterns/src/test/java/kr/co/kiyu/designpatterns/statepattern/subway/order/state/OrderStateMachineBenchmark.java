@@ -0,0 +1,100 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.context.OrderContext;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.id.OrderIdGenerator;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.dto.OrderDTO;
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 주문 상태 기계 전환 비용 측정 (JMH)
+ *
+ * 시작 시 컴파일한 전이표의 다음/취소 상태 조회와, 주문 하나를 접수부터 완료까지 진행하는 전체 수명주기 비용을 잰다
+ * 테스트 단계에서는 실행되지 않으며, 아래처럼 직접 실행한다
+ *
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     kr.co.kiyu.designpatterns.statepattern.subway.order.state.OrderStateMachineBenchmark
+ * </pre>
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStateMachineBenchmark {
+
+    private static final int LIFECYCLE_STEPS = 4;
+
+    @Param({"COOKING", "DELIVERY"})
+    public OrderStateType stateType;
+
+    private OrderStateMachine stateMachine;
+
+    private OrderDTO order;
+
+    @Setup
+    public void setUp() {
+        stateMachine = new OrderStateMachine(List.of(new OrderReceivedState(), new CookingState(),
+                new PackagingState(), new DeliveryState(), new CompletedState(), new CancelledState()));
+        order = OrderDTO.builder()
+                .orderId(OrderIdGenerator.format(1L))
+                .customerName("고객1")
+                .menuName("이탈리안 BMT")
+                .quantity(1)
+                .totalPrice(8900)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public OrderState nextStateLookup() {
+        return stateMachine.getNextState(stateType);
+    }
+
+    @Benchmark
+    public OrderState cancelStateLookup() {
+        return stateMachine.getCancelState(stateType);
+    }
+
+    @Benchmark
+    public OrderContext fullLifecycle() {
+        OrderContext context = new OrderContext(order, stateMachine.getInitialState(), null);
+        // 접수 → 조리 → 포장 → 배달 → 완료
+        for (int step = 0; step < LIFECYCLE_STEPS; step++) {
+            context.nextStep();
+        }
+        return context;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderStateMachineBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,115 @@
+package kr.co.kiyu.designpatterns.statepattern.subway.order.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kr.co.kiyu.designpatterns.statepattern.subway.order.model.type.OrderStateType;
+
+/**
+ * 주문 상태 기계 시작 시 검증 테스트
+ *
+ * 상태 빈 구성이 규칙을 어기면 전이표를 만들지 않고 시작을 실패시키는지 확인한다
+ *
+ * @author KIYU-IT
+ * @date 2026. 10. 18.
+ */
+class OrderStateMachineTest {
+
+    @Test
+    void compilesDeclaredTransitions() {
+        OrderStateMachine stateMachine = new OrderStateMachine(states());
+
+        assertThat(stateMachine.getInitialState().getStateType()).isEqualTo(OrderStateType.ORDER_RECEIVED);
+        assertThat(stateMachine.getNextState(OrderStateType.ORDER_RECEIVED).getStateType()).isEqualTo(OrderStateType.COOKING);
+        assertThat(stateMachine.getCancelState(OrderStateType.ORDER_RECEIVED).getStateType()).isEqualTo(OrderStateType.CANCELLED);
+        assertThat(stateMachine.getNextState(OrderStateType.DELIVERY).getStateType()).isEqualTo(OrderStateType.COMPLETED);
+        assertThat(stateMachine.getNextState(OrderStateType.COMPLETED)).isNull();
+        assertThat(stateMachine.getCancelState(OrderStateType.COOKING)).isNull();
+    }
+
+    @Test
+    void duplicateStateBeanFailsStartup() {
+        List<OrderState> states = states();
+        states.add(new CookingState());
+
+        assertThatThrownBy(() -> new OrderStateMachine(states))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("COOKING")
+                .hasMessageContaining("둘 이상");
+    }
+
+    @Test
+    void missingStateBeanFailsStartup() {
+        List<OrderState> states = states();
+        states.removeIf(state -> state.getStateType() == OrderStateType.PACKAGING);
+
+        assertThatThrownBy(() -> new OrderStateMachine(states))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PACKAGING 상태 빈이 없습니다");
+    }
+
+    @Test
+    void unreachableStateFailsStartup() {
+        // 조리 중에서 포장을 건너뛰고 바로 배달로 가면 포장 중 상태에는 도달할 수 없다
+        List<OrderState> states = replace(states(), new CookingState() {
+            @Override
+            public OrderStateType getNextStateType() {
+                return OrderStateType.DELIVERY;
+            }
+        });
+
+        assertThatThrownBy(() -> new OrderStateMachine(states))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PACKAGING 상태는 ORDER_RECEIVED에서 도달할 수 없습니다");
+    }
+
+    @Test
+    void terminalStateWithTransitionFailsStartup() {
+        List<OrderState> states = replace(states(), new CompletedState() {
+            @Override
+            public OrderStateType getNextStateType() {
+                return OrderStateType.ORDER_RECEIVED;
+            }
+
+            @Override
+            public String getNextStepReason() {
+                return "재주문";
+            }
+        });
+
+        assertThatThrownBy(() -> new OrderStateMachine(states))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("종료 상태 COMPLETED에서 전환이 선언되어 있습니다");
+    }
+
+    @Test
+    void stateThatCannotTerminateFailsStartup() {
+        // 배달 중 → 포장 중으로 되돌아가기만 하면 포장/배달은 종료 상태에 닿지 못한다
+        List<OrderState> states = replace(states(), new DeliveryState() {
+            @Override
+            public OrderStateType getNextStateType() {
+                return OrderStateType.PACKAGING;
+            }
+        });
+
+        assertThatThrownBy(() -> new OrderStateMachine(states))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("DELIVERY 상태에서 종료 상태에 도달할 수 없습니다");
+    }
+
+    private static List<OrderState> states() {
+        return new ArrayList<>(List.of(new OrderReceivedState(), new CookingState(), new PackagingState(),
+                new DeliveryState(), new CompletedState(), new CancelledState()));
+    }
+
+    private static List<OrderState> replace(List<OrderState> states, OrderState replacement) {
+        states.replaceAll(state -> state.getStateType() == replacement.getStateType() ? replacement : state);
+        return states;
+    }
+
+}
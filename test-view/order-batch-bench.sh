@@ -0,0 +1,43 @@
+#!/bin/sh
+#
+# 일괄 주문 명령(POST /api/state/order/batch) 처리량 측정
+#
+# 주문 ORDERS건마다 CREATE(ref) → NEXT_STEP x4 → STATUS 6개 명령을 만들어 한 요청으로 보내고,
+# 응답 NDJSON 줄 수와 상태 코드 분포, 초당 처리 명령 수를 출력한다
+#
+# 사용법 : ./order-batch-bench.sh [주문 수 (기본 20000)] [서버 주소 (기본 http://localhost:8078)]
+#
+# @author KIYU-IT
+# @date 2026. 10. 18.
+
+ORDERS=${1:-20000}
+BASE_URL=${2:-http://localhost:8078}
+REQUEST=$(mktemp)
+RESPONSE=$(mktemp)
+trap 'rm -f "$REQUEST" "$RESPONSE"' EXIT
+
+awk -v n="$ORDERS" 'BEGIN {
+    printf "["
+    for (i = 0; i < n; i++) {
+        if (i > 0) printf ","
+        printf "{\"type\":\"CREATE\",\"ref\":\"o%d\",\"customerName\":\"고객%d\",\"menuName\":\"치킨 데리야끼\",\"quantity\":1,\"totalPrice\":8500,\"deliveryAddress\":\"서울시 강남구 테헤란로 123\",\"phoneNumber\":\"010-1234-5678\"}", i, i
+        for (s = 0; s < 4; s++) printf ",{\"type\":\"NEXT_STEP\",\"orderRef\":\"o%d\"}", i
+        printf ",{\"type\":\"STATUS\",\"orderRef\":\"o%d\"}", i
+    }
+    printf "]"
+}' > "$REQUEST"
+
+COMMANDS=$((ORDERS * 6))
+echo "📦 명령 ${COMMANDS}건 ($(wc -c < "$REQUEST") bytes) 전송 - ${BASE_URL}/api/state/order/batch"
+
+# 첫 요청은 JIT 워밍업용으로 작은 요청을 한 번 보낸다
+head -c 2000 "$REQUEST" | sed 's/,{"type":"CREATE[^}]*}*$//; s/,{[^}]*$//' | sed 's/$/]/' \
+    | curl -s -o /dev/null -X POST -H 'Content-Type: application/json' --data-binary @- "${BASE_URL}/api/state/order/batch"
+
+SECONDS_TOTAL=$(curl -s -o "$RESPONSE" -w '%{time_total}' -X POST -H 'Content-Type: application/json' \
+    --data-binary @"$REQUEST" "${BASE_URL}/api/state/order/batch")
+
+echo "⏱️ 소요 시간: ${SECONDS_TOTAL}s, 결과 $(wc -l < "$RESPONSE")줄"
+echo "📊 상태 코드 분포:"
+grep -o '"status":[0-9]*' "$RESPONSE" | sort | uniq -c
+awk -v c="$COMMANDS" -v t="$SECONDS_TOTAL" 'BEGIN { printf "🚀 초당 %d 명령\n", c / t }'